@@ -52,6 +52,11 @@ extends AssemblyEvent
          */
         String EntityRefParam = "org.jayware.e2.event.param.EntityRef";
 
+        /**
+         * The {@link java.util.List} of {@link EntityRef EntityRefs} which are subject of the event.
+         */
+        String EntityRefListParam = "org.jayware.e2.event.param.EntityRefList";
+
 
         interface AddEntityToGroupEvent extends GroupMembershipEvent
         {
@@ -73,5 +78,25 @@ extends AssemblyEvent
 
         }
 
+        interface AddEntitiesToGroupEvent extends GroupMembershipEvent
+        {
+
+        }
+
+        interface EntitiesToGroupAddedEvent extends GroupMembershipEvent
+        {
+
+        }
+
+        interface RemoveEntitiesFromGroupEvent extends GroupMembershipEvent
+        {
+
+        }
+
+        interface EntitiesFromGroupRemovedEvent extends GroupMembershipEvent
+        {
+
+        }
+
     }
 }
@@ -24,6 +24,7 @@ import org.jayware.e2.entity.api.Entity;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.util.TimeoutException;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -119,6 +120,21 @@ public interface GroupManager
 
     List<Group> findGroups(EntityRef ref) throws IllegalArgumentException, IllegalStateException, TimeoutException, GroupManagerException;
 
+    /**
+     * Returns the {@link Group Groups} the {@link Entity} referenced by the passed {@link EntityRef} is a member of.
+     * <p>
+     * <b>Note:</b> When an {@link Entity} gets deleted it is removed from all {@link Group Groups} automatically.
+     *
+     * @param ref an {@link EntityRef}
+     *
+     * @return a {@link List} of {@link Group Groups}, maybe empty if the {@link Entity} is not a member of any
+     *         {@link Group}, but never <code>null</code>.
+     *
+     * @throws IllegalArgumentException if the specified {@link EntityRef} is <code>null</code>.
+     * @throws IllegalStateException if the specified {@link EntityRef} is invalid.
+     */
+    List<Group> getGroupsOf(EntityRef ref) throws IllegalArgumentException, IllegalStateException;
+
     /**
      * Adds the {@link Entity} referenced by the passed {@link EntityRef} to the specified {@link Group}.
      *
@@ -145,6 +161,33 @@ public interface GroupManager
      */
     void removeEntityFromGroup(EntityRef ref, Group group) throws IllegalArgumentException, IllegalStateException;
 
+    /**
+     * Adds the {@link Entity Entities} referenced by the passed {@link EntityRef EntityRefs} to the specified
+     * {@link Group} in a single operation.
+     *
+     * @param refs a {@link Collection} of {@link EntityRef EntityRefs}.
+     * @param group a {@link Group}
+     *
+     * @throws IllegalArgumentException if the specified {@link Collection} or one of its elements is <code>null</code>.
+     * @throws IllegalArgumentException if the specified {@link Group} is <code>null</code>.
+     * @throws IllegalStateException if one of the specified {@link EntityRef EntityRefs} is invalid.
+     * @throws InvalidGroupException if the specified {@link Group} is invalid.
+     */
+    void addEntitiesToGroup(Collection<EntityRef> refs, Group group) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Removes the {@link Entity Entities} referenced by the passed {@link EntityRef EntityRefs} from the specified
+     * {@link Group} in a single operation.
+     *
+     * @param refs a {@link Collection} of {@link EntityRef EntityRefs}.
+     * @param group a {@link Group}
+     *
+     * @throws IllegalArgumentException if the specified {@link Collection} or one of its elements is <code>null</code>.
+     * @throws IllegalArgumentException if the specified {@link Group} is <code>null</code>.
+     * @throws InvalidGroupException if the specified {@link Group} is invalid.
+     */
+    void removeEntitiesFromGroup(Collection<EntityRef> refs, Group group) throws IllegalArgumentException, IllegalStateException;
+
     /**
      * Returns a unmodifiable {@link List} of {@link EntityRef EntityRefs} referencing the {@link Entity Entities}
      * which are members of the specified {@link Group}.
@@ -28,6 +28,17 @@ extends AssemblyEvent
 
     String NodePendantParam = "org.jayware.e2.event.param.NodePendantParam";
 
+    /**
+     * A NodeListParam is a {@link java.util.List} of {@link TreeNode TreeNodes}.
+     */
+    String NodeListParam = "org.jayware.e2.event.param.NodeList";
+
+    /**
+     * A NotifyEachNodeParam is a {@link Boolean} which requests a {@link TreeNodeDeletedEvent} for every node of a
+     * deleted subtree.
+     */
+    String NotifyEachNodeParam = "org.jayware.e2.event.param.NotifyEachNode";
+
     interface CreateTreeNodeEvent extends TreeEvent {}
 
     interface TreeNodeCreatedEvent extends TreeEvent {}
@@ -38,6 +49,14 @@ extends AssemblyEvent
 
     interface TreeNodeDeletedEvent extends TreeEvent {}
 
+    /**
+     * Signals that a {@link TreeNode} and all of its descendants have been deleted.
+     * <p>
+     * The {@link TreeEvent#NodeParam} denotes the root of the deleted subtree and the {@link TreeEvent#NodeListParam}
+     * contains all deleted nodes in pre-order.
+     */
+    interface SubtreeDeletedEvent extends TreeEvent {}
+
     interface AddChildNodeEvent extends TreeEvent {}
 
     interface ChildNodeAddedEvent extends TreeEvent {}
@@ -31,7 +31,59 @@ public interface TreeManager
 
     void deleteTreeNode(TreeNode node) throws TreeManagerException;
 
+    /**
+     * Deletes the specified {@link TreeNode} and all of its descendants.
+     * <p>
+     * The whole subtree is removed in a single operation and announced by a single
+     * {@link TreeEvent.SubtreeDeletedEvent}. If <code>notifyEachNode</code> is <code>true</code> a
+     * {@link TreeEvent.TreeNodeDeletedEvent} is fired for every deleted node as well, otherwise only for the specified
+     * one.
+     *
+     * @param node the root of the subtree to delete.
+     * @param notifyEachNode whether to fire a {@link TreeEvent.TreeNodeDeletedEvent} for every deleted node.
+     */
+    void deleteTreeNode(TreeNode node, boolean notifyEachNode) throws TreeManagerException;
+
     List<TreeNode> findChildrenOf(TreeNode node);
 
     Result<List<TreeNode>> queryChildrenOf(TreeNode node);
+
+    /**
+     * Returns an {@link Iterable} which lazily walks the specified {@link TreeNode} and its descendants in pre-order,
+     * i.e. every node is visited before its children.
+     *
+     * @param node the root of the walked subtree.
+     *
+     * @return an {@link Iterable} of {@link TreeNode TreeNodes}.
+     */
+    Iterable<TreeNode> preOrder(TreeNode node) throws TreeManagerException;
+
+    /**
+     * Returns an {@link Iterable} which lazily walks the specified {@link TreeNode} and its descendants in post-order,
+     * i.e. every node is visited after its children.
+     *
+     * @param node the root of the walked subtree.
+     *
+     * @return an {@link Iterable} of {@link TreeNode TreeNodes}.
+     */
+    Iterable<TreeNode> postOrder(TreeNode node) throws TreeManagerException;
+
+    /**
+     * Returns an {@link Iterable} which lazily walks the specified {@link TreeNode} and its descendants level by
+     * level.
+     *
+     * @param node the root of the walked subtree.
+     *
+     * @return an {@link Iterable} of {@link TreeNode TreeNodes}.
+     */
+    Iterable<TreeNode> levelOrder(TreeNode node) throws TreeManagerException;
+
+    /**
+     * Passes the specified {@link TreeNode} and its descendants in pre-order to the specified
+     * {@link TreeNodeVisitor}.
+     *
+     * @param node the root of the visited subtree.
+     * @param visitor a {@link TreeNodeVisitor}.
+     */
+    void accept(TreeNode node, TreeNodeVisitor visitor) throws TreeManagerException;
 }
@@ -29,6 +29,13 @@ extends Node
 
     boolean hasParent();
 
+    /**
+     * Returns the depth of this node within its tree, i.e. <code>0</code> if this node does not have a parent.
+     *
+     * @return the depth of this node.
+     */
+    int getDepth();
+
     void addChild(TreeNode node);
 
     void removeChild(TreeNode node);
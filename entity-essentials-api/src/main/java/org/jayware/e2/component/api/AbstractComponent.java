@@ -26,6 +26,7 @@ import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.Contextual;
 import org.jayware.e2.entity.api.EntityRef;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 
@@ -45,12 +46,106 @@ implements Component, Contextual
 
     public abstract List<Class> getPropertyTypes();
 
+    public abstract int indexOf(String name);
+
     public abstract Object get(String name);
 
+    public abstract Object get(int index);
+
     public abstract boolean set(String name, Object value);
 
+    public abstract boolean set(int index, Object value);
+
     public abstract boolean has(String name);
 
+    public abstract boolean getBoolean(int index);
+
+    public abstract boolean setBoolean(int index, boolean value);
+
+    public abstract int getInt(int index);
+
+    public abstract boolean setInt(int index, int value);
+
+    public abstract long getLong(int index);
+
+    public abstract boolean setLong(int index, long value);
+
+    public abstract float getFloat(int index);
+
+    public abstract boolean setFloat(int index, float value);
+
+    public abstract double getDouble(int index);
+
+    public abstract boolean setDouble(int index, double value);
+
+    public boolean getBoolean(String name)
+    {
+        return getBoolean(indexOf(name));
+    }
+
+    public boolean setBoolean(String name, boolean value)
+    {
+        return setBoolean(indexOf(name), value);
+    }
+
+    public int getInt(String name)
+    {
+        return getInt(indexOf(name));
+    }
+
+    public boolean setInt(String name, int value)
+    {
+        return setInt(indexOf(name), value);
+    }
+
+    public long getLong(String name)
+    {
+        return getLong(indexOf(name));
+    }
+
+    public boolean setLong(String name, long value)
+    {
+        return setLong(indexOf(name), value);
+    }
+
+    public float getFloat(String name)
+    {
+        return getFloat(indexOf(name));
+    }
+
+    public boolean setFloat(String name, float value)
+    {
+        return setFloat(indexOf(name), value);
+    }
+
+    public double getDouble(String name)
+    {
+        return getDouble(indexOf(name));
+    }
+
+    public boolean setDouble(String name, double value)
+    {
+        return setDouble(indexOf(name), value);
+    }
+
+    public abstract boolean isSerializable();
+
+    public abstract int serializedSize();
+
+    public abstract int serialize(ByteBuffer buffer, int offset);
+
+    public abstract int restore(ByteBuffer buffer, int offset);
+
+    public int serialize(byte[] array, int offset)
+    {
+        return serialize(ByteBuffer.wrap(array), offset);
+    }
+
+    public int restore(byte[] array, int offset)
+    {
+        return restore(ByteBuffer.wrap(array), offset);
+    }
+
     public abstract <T extends Component> T copy();
 
     public abstract <T extends Component> T copy(T src);
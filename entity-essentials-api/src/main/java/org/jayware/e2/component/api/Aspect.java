@@ -163,30 +163,7 @@ public class Aspect
         final Context context = ref.getContext();
         final ComponentManager componentManager = context.getService(ComponentManager.class);
 
-        int matchesAllOf = 0;
-        int matchesOneOf = 0;
-        boolean matchesNoneOf = true;
-
-        for (Class<? extends Component> type : componentManager.getComponentTypes(ref))
-        {
-            if (myDifferenceSet.contains(type))
-            {
-                matchesNoneOf = false;
-                break;
-            }
-
-            if (matchesAllOf < myIntersectionSet.size() && myIntersectionSet.contains(type))
-            {
-                ++matchesAllOf;
-            }
-
-            if (matchesOneOf == 0 && myUnificationSet.contains(type))
-            {
-                ++matchesOneOf;
-            }
-        }
-
-        return matchesNoneOf && matchesAllOf == myIntersectionSet.size() && (matchesOneOf > 0 || myUnificationSet.isEmpty());
+        return componentManager.matches(ref, this);
     }
 
     public Set<Class<? extends Component>> getIntersectionSet()
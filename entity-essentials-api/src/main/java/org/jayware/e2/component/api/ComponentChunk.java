@@ -0,0 +1,90 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.api;
+
+
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.Entity;
+import org.jayware.e2.entity.api.EntityRef;
+
+
+/**
+ * A <code>ComponentChunk</code> is a batch of {@link Entity Entities} together with their {@link Component Components}
+ * of the types passed to {@link ComponentManager#forEachChunk(Context, Aspect, ComponentChunkVisitor, Class[])}.
+ * <p>
+ * The {@link Component Components} of a chunk are addressed by the index of the {@link Entity} within the chunk and by
+ * the column, which is the position of the type within the types passed to <code>forEachChunk</code>. The
+ * {@link Component Components} are the stored instances and not copies. Hence, modifications take effect
+ * immediately. The {@link Component Components} of the {@link Context} are locked against all other readers and
+ * writers while a chunk is visited, so that no one observes a partially modified {@link Component}.
+ * <p>
+ * <b>Note:</b> No events are fired for modifications made through a chunk. Listeners of
+ * {@link ComponentEvent.ComponentPushedEvent}, e.g. of groups and trees, do not notice them. A {@link Component}
+ * whose modification has to be observed must be pushed with {@link Component#pushTo(EntityRef)} instead.
+ * <p>
+ * <b>Note:</b> Because the {@link Component Components} are locked, the {@link ComponentChunkVisitor} must not wait
+ * for other threads which access {@link Component Components} of the same {@link Context}.
+ * <p>
+ * <b>Note:</b> A <code>ComponentChunk</code> is reused for subsequent chunks and therefore must not be kept beyond
+ * the invocation of {@link ComponentChunkVisitor#visit(ComponentChunk)}.
+ */
+public interface ComponentChunk
+{
+    /**
+     * Returns the number of {@link Entity Entities} within this chunk.
+     *
+     * @return the number of {@link Entity Entities}.
+     */
+    int size();
+
+    /**
+     * Returns the {@link EntityRef} at the specified index.
+     *
+     * @param index the index of the {@link Entity} within this chunk.
+     *
+     * @return an {@link EntityRef}.
+     *
+     * @throws IndexOutOfBoundsException if the index is not within this chunk.
+     */
+    EntityRef getEntity(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Returns the {@link Component} at the specified index and column.
+     *
+     * @param index the index of the {@link Entity} within this chunk.
+     * @param column the position of the type of the {@link Component}.
+     * @param <T> the type of the {@link Component}.
+     *
+     * @return the {@link Component}.
+     *
+     * @throws IndexOutOfBoundsException if the index is not within this chunk or the column does not exist.
+     */
+    <T extends Component> T getComponent(int index, int column) throws IndexOutOfBoundsException;
+
+    /**
+     * Records that the {@link Component} at the specified index and column has been modified, so that it is
+     * considered by the next delta snapshot.
+     *
+     * @param index the index of the {@link Entity} within this chunk.
+     * @param column the position of the type of the {@link Component}.
+     *
+     * @throws IndexOutOfBoundsException if the index is not within this chunk or the column does not exist.
+     */
+    void changed(int index, int column) throws IndexOutOfBoundsException;
+}
@@ -233,6 +233,41 @@ public interface ComponentManager
      */
     boolean hasComponents(EntityRef ref, Collection<Class<? extends Component>> components);
 
+    /**
+     * Returns whether the {@link Component Components} associated to the {@link Entity} referenced by the passed
+     * {@link EntityRef} match the specified {@link Aspect}.
+     * <p>
+     * The types of {@link Component Components} of each {@link Entity} are kept as a bit signature. Hence, matching
+     * neither queries nor copies the types of {@link Component Components}.
+     *
+     * @param ref    an {@link EntityRef}.
+     * @param aspect an {@link Aspect}.
+     *
+     * @return true if the {@link Entity} matches the {@link Aspect}, otherwise false.
+     */
+    boolean matches(EntityRef ref, Aspect aspect);
+
+    /**
+     * Passes all {@link Entity Entities} of the specified {@link Context}, which match the specified {@link Aspect}
+     * and have a {@link Component} of each of the specified types, in {@link ComponentChunk ComponentChunks} to the
+     * specified {@link ComponentChunkVisitor}.
+     * <p>
+     * In contrast to {@link #getComponent(EntityRef, Class)} the {@link Component Components} are neither copied nor
+     * looked up one by one. The components are locked once per chunk and the {@link ComponentChunkVisitor} accesses
+     * the stored instances directly. While a chunk is visited, all other readers and writers of the
+     * {@link Component Components} of the {@link Context} have to wait. Modifications made through a
+     * {@link ComponentChunk} do not fire any events.
+     *
+     * @param context a {@link Context}.
+     * @param aspect  an {@link Aspect}.
+     * @param visitor a {@link ComponentChunkVisitor}.
+     * @param types   the types of the {@link Component Components} passed to the {@link ComponentChunkVisitor}.
+     *
+     * @throws IllegalArgumentException if one of the parameters is <code>null</code> or no type is specified.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    void forEachChunk(Context context, Aspect aspect, ComponentChunkVisitor visitor, Class<? extends Component>... types) throws IllegalArgumentException, IllegalStateException;
+
     /**
      * Returns the number of {@link Component Components} associated to {@link Entity} referenced by the specified
      * {@link EntityRef}.
@@ -24,6 +24,7 @@ import org.jayware.e2.context.api.Contextual;
 import org.jayware.e2.context.api.IllegalContextException;
 import org.jayware.e2.util.Filter;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -64,6 +65,20 @@ extends Contextual
      */
     List<EntityRef> deleteEntities() throws IllegalStateException;
 
+    /**
+     * Deletes the {@link Entity Entities} denoted by the specified {@link EntityRef}s from the {@link Context} of this
+     * {@link ContextualEntityManager} in a single operation.
+     *
+     * @param refs the {@link EntityRef}s of the {@link Entity Entities} to delete.
+     *
+     * @return a {@link List} of the {@link EntityRef}s of the deleted entities.
+     *
+     * @throws IllegalArgumentException if the specified {@link Collection} is <code>null</code>.
+     *
+     * @throws IllegalStateException if the {@link Context} of this {@link ContextualEntityManager} has been disposed.
+     */
+    List<EntityRef> deleteEntities(Collection<EntityRef> refs) throws IllegalArgumentException, IllegalStateException;
+
     /**
      * Returns a {@link List} of {@link EntityRef}s for all {@link Entity Entities}  within the {@link Context} of this
      * {@link ContextualEntityManager}.
@@ -116,4 +131,14 @@ extends Contextual
      * @throws IllegalStateException if the {@link Context} of this {@link ContextualEntityManager} has been disposed.
      */
     List<EntityRef> findEntities(Aspect aspect, Filter<EntityRef>... filters) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Returns a new {@link EntityQuery} over the {@link Entity Entities} within the {@link Context} of this
+     * {@link ContextualEntityManager}.
+     *
+     * @return an {@link EntityQuery}.
+     *
+     * @throws IllegalStateException if the {@link Context} of this {@link ContextualEntityManager} has been disposed.
+     */
+    EntityQuery queryEntities() throws IllegalStateException;
 }
@@ -30,6 +30,7 @@ import org.jayware.e2.event.api.EventType.RootEvent;
 import org.jayware.e2.event.api.Presence;
 import org.jayware.e2.event.api.SanityCheck;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -49,6 +50,11 @@ extends RootEvent
 
     String EntityRefListParam = "org.jayware.e2.event.param.EntityRefList";
 
+    /**
+     * A EntityIdListParam is an instance of {@link List} of {@link UUID}s.
+     */
+    String EntityIdListParam = "org.jayware.e2.event.param.EntityIdList";
+
     /**
      * A AspectParam is an instance of {@link Aspect}.
      */
@@ -59,6 +65,11 @@ extends RootEvent
      */
     String FilterListParam = "org.jayware.e2.event.param.FilterListParam";
 
+    /**
+     * A EntityIteratorParam is an instance of {@link Iterator} over {@link EntityRef EntityRefs}.
+     */
+    String EntityIteratorParam = "org.jayware.e2.event.param.EntityIteratorParam";
+
     /**
      * Signals the creation of an entity.
      * <p>
@@ -72,6 +83,21 @@ extends RootEvent
     @SanityCheck(CreateEntityEventSanityChecker.class)
     interface CreateEntityEvent extends EntityEvent {}
 
+    /**
+     * Signals the creation of several entities in a single operation.
+     * <p>
+     * The {@link EntityRef}s of the entities are returned as {@link EntityEvent#EntityRefListParam} in the order of
+     * the passed ids. An {@link EntityCreatedEvent} is fired for each entity which did not exist before.
+     * <p>
+     * <b>Parameters:</b>
+     * <table>
+     *     <tr><td>{@link EntityEvent#ContextParam}</td><td>{@link Presence#Required}</td></tr>
+     *     <tr><td>{@link EntityEvent#EntityIdListParam}</td><td>{@link Presence#Required}</td></tr>
+     *     <caption>Parameters</caption>
+     * </table>
+     */
+    interface CreateEntitiesEvent extends EntityEvent {}
+
     /**
      * Signals that an entity has been created.
      * <p>
@@ -134,10 +160,14 @@ extends RootEvent
     /**
      * Signals the deletion of entities within a {@link Context}.
      * <p>
+     * If an {@link EntityEvent#EntityRefListParam} is present only the listed entities are deleted, otherwise all
+     * entities of the {@link Context} are deleted.
+     * <p>
      * <b>Parameters:</b>
      * <table>
      *     <tr><td>{@link EntityEvent#ContextParam}</td><td>{@link Presence#Required}</td></tr>
      *     <tr><td>{@link EntityEvent#AspectParam}</td><td>{@link Presence#Optional}</td></tr>
+     *     <tr><td>{@link EntityEvent#EntityRefListParam}</td><td>{@link Presence#Optional}</td></tr>
      *     <caption>Parameters</caption>
      * </table>
      */
@@ -183,6 +213,22 @@ extends RootEvent
      */
     interface FindEntitiesEvent extends EntityEvent {}
 
+    /**
+     * Queries an {@link Iterator} over the entities which match the specified aspect and pass the specified filters.
+     * The {@link Iterator} is answered as {@link EntityEvent#EntityIteratorParam}. It fetches the entities in chunks
+     * and locks them only while a chunk is fetched, hence the entities are visited by the thread which iterates.
+     * <p>
+     * <b>Parameters:</b>
+     * <table>
+     *     <tr><td>{@link EntityEvent#ContextParam}</td><td>{@link Presence#Required}</td></tr>
+     *     <tr><td>{@link EntityEvent#AspectParam}</td><td>{@link Presence#Optional}</td></tr>
+     *     <tr><td>{@link EntityEvent#FilterListParam}</td><td>{@link Presence#Optional}</td></tr>
+     *     <caption>Parameters</caption>
+     * </table>
+     */
+    @SanityCheck(VisitEntitiesEventSanityChecker.class)
+    interface VisitEntitiesEvent extends EntityEvent {}
+
     class EntityEventSanityChecker
     extends DeclarativeSanityChecker
     {
@@ -276,4 +322,14 @@ extends RootEvent
             checker.check(ResolveEntityEvent.class).param(EntityIdParam, "EntityIdParam").instanceOf(UUID.class).notNull().done();
         }
     }
+
+    class VisitEntitiesEventSanityChecker
+    extends DeclarativeSanityChecker
+    {
+        @Override
+        protected void setup(SanityCheckerRuleBuilder checker)
+        {
+            checker.check(VisitEntitiesEvent.class).param(AspectParam, "AspectParam").instanceOf(Aspect.class).done();
+        }
+    }
 }
@@ -27,6 +27,7 @@ import org.jayware.e2.context.api.Context;
 import org.jayware.e2.util.Filter;
 import org.jayware.e2.util.TimeoutException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -79,6 +80,27 @@ public interface EntityManager
      */
     EntityRef createEntity(Context context, UUID id) throws IllegalArgumentException, IllegalStateException, TimeoutException;
 
+    /**
+     * Creates an {@link Entity} for each of the specified {@link UUID}s in the given {@link Context} in a single
+     * operation.
+     * <p>
+     * <b>Note:</b> Like {@link #createEntity(Context, UUID)} this operation returns an {@link EntityRef} to the
+     * existing {@link Entity} for each {@link UUID} which is already in use.
+     *
+     * @param context a {@link Context} to use.
+     * @param ids the {@link UUID}s of the {@link Entity Entities} to create.
+     *
+     * @return a {@link List} of {@link EntityRef}s in the order of the passed {@link UUID}s.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link Collection} is <code>null</code>, or
+     *                                  if the {@link Collection} contains <code>null</code>.
+     *
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     *
+     * @throws TimeoutException if the {@link Entity Entities} could not be created within a certain time.
+     */
+    List<EntityRef> createEntities(Context context, Collection<UUID> ids) throws IllegalArgumentException, IllegalStateException, TimeoutException;
+
     /**
      * Deletes the {@link Entity} denoted by the specified {@link EntityRef}.
      *
@@ -99,6 +121,24 @@ public interface EntityManager
      */
     List<EntityRef> deleteEntities(Context context) throws IllegalArgumentException, IllegalStateException;
 
+    /**
+     * Deletes the {@link Entity Entities} denoted by the specified {@link EntityRef}s within the specified
+     * {@link Context} in a single operation.
+     * <p>
+     * <b>Note:</b> In contrast to {@link #deleteEntity(EntityRef)} no {@link EntityEvent.EntityDeletingEvent} is
+     * sent for the deleted entities.
+     *
+     * @param context a {@link Context} to use.
+     * @param refs the {@link EntityRef}s of the {@link Entity Entities} to delete.
+     *
+     * @return a {@link List} containing {@link EntityRef}s of the deleted entities.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link Collection} is <code>null</code>.
+     *
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    List<EntityRef> deleteEntities(Context context, Collection<EntityRef> refs) throws IllegalArgumentException, IllegalStateException;
+
     /**
      * Returns a {@link List} of {@link EntityRef}s for all {@link Entity Entities}  within the specified {@link Context}.
      *
@@ -152,6 +192,21 @@ public interface EntityManager
      */
     List<EntityRef> findEntities(Context context, Aspect aspect, Filter<EntityRef>... filters) throws IllegalArgumentException, IllegalStateException;
 
+    /**
+     * Returns a new {@link EntityQuery} over the {@link Entity Entities} within the specified {@link Context}.
+     * <p>
+     * Without further restrictions the query matches all {@link Entity Entities}.
+     *
+     * @param context a {@link Context} to use.
+     *
+     * @return an {@link EntityQuery}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} is <code>null</code>.
+     *
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    EntityQuery queryEntities(Context context) throws IllegalArgumentException, IllegalStateException;
+
     /**
      * Resolves the {@link Entity} with the specified {@link UUID}.
      * <p>
@@ -0,0 +1,141 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.entity.api;
+
+
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.Contextual;
+import org.jayware.e2.util.Filter;
+
+import java.util.List;
+
+
+/**
+ * An <code>EntityQuery</code> is a cursor over the {@link Entity Entities} of a {@link Context} which match an
+ * {@link Aspect} and pass a set of {@link Filter Filters}.
+ * <p>
+ * In contrast to {@link EntityManager#findEntities(Context, Aspect, Filter[])} a query is evaluated lazily against the
+ * storage each time one of its terminal operations ({@link #forEach(EntityVisitor)}, {@link #count()}, {@link #any()},
+ * {@link #first()} and {@link #list()}) is invoked. The evaluation stops as soon as the result is known, and except
+ * for {@link #list()} no result list is allocated.
+ * <p>
+ * The {@link Entity Entities} are visited in the same order as they would be returned by
+ * {@link EntityManager#findEntities(Context, Aspect, Filter[])}, hence {@link #offset(int)} and {@link #limit(int)}
+ * are only meaningful as long as no {@link Entity} is created or deleted in between.
+ *
+ * @see EntityManager#queryEntities(Context)
+ */
+public interface EntityQuery
+extends Contextual
+{
+    /**
+     * Restricts this query to {@link Entity Entities} which match the specified {@link Aspect}.
+     *
+     * @param aspect an {@link Aspect}.
+     *
+     * @return this {@link EntityQuery}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Aspect} is <code>null</code>.
+     */
+    EntityQuery withAspect(Aspect aspect) throws IllegalArgumentException;
+
+    /**
+     * Restricts this query to {@link Entity Entities} which pass the specified {@link Filter} in addition to the
+     * {@link Filter Filters} already added.
+     *
+     * @param filter a {@link Filter}.
+     *
+     * @return this {@link EntityQuery}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Filter} is <code>null</code>.
+     */
+    EntityQuery withFilter(Filter<EntityRef> filter) throws IllegalArgumentException;
+
+    /**
+     * Skips the specified number of matching {@link Entity Entities}.
+     *
+     * @param offset the number of {@link Entity Entities} to skip.
+     *
+     * @return this {@link EntityQuery}.
+     *
+     * @throws IllegalArgumentException if the passed offset is negative.
+     */
+    EntityQuery offset(int offset) throws IllegalArgumentException;
+
+    /**
+     * Limits the number of matching {@link Entity Entities} to the specified value.
+     *
+     * @param limit the maximum number of {@link Entity Entities}.
+     *
+     * @return this {@link EntityQuery}.
+     *
+     * @throws IllegalArgumentException if the passed limit is negative.
+     */
+    EntityQuery limit(int limit) throws IllegalArgumentException;
+
+    /**
+     * Passes every matching {@link Entity} to the specified {@link EntityVisitor} until the {@link EntityVisitor}
+     * returns <code>false</code>.
+     *
+     * @param visitor an {@link EntityVisitor}.
+     *
+     * @return the number of visited {@link Entity Entities}.
+     *
+     * @throws IllegalArgumentException if the passed {@link EntityVisitor} is <code>null</code>.
+     * @throws IllegalStateException if the {@link Context} of this query has been disposed.
+     */
+    int forEach(EntityVisitor visitor) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Returns the number of matching {@link Entity Entities}.
+     *
+     * @return the number of matching {@link Entity Entities}.
+     *
+     * @throws IllegalStateException if the {@link Context} of this query has been disposed.
+     */
+    int count() throws IllegalStateException;
+
+    /**
+     * Returns whether at least one {@link Entity} matches this query.
+     *
+     * @return <code>true</code> if an {@link Entity} matches, otherwise <code>false</code>.
+     *
+     * @throws IllegalStateException if the {@link Context} of this query has been disposed.
+     */
+    boolean any() throws IllegalStateException;
+
+    /**
+     * Returns the first matching {@link Entity}.
+     *
+     * @return an {@link EntityRef} or <code>null</code> if no {@link Entity} matches.
+     *
+     * @throws IllegalStateException if the {@link Context} of this query has been disposed.
+     */
+    EntityRef first() throws IllegalStateException;
+
+    /**
+     * Returns a {@link List} of all matching {@link Entity Entities}.
+     *
+     * @return a {@link List} of {@link EntityRef EntityRefs}, never <code>null</code>.
+     *
+     * @throws IllegalStateException if the {@link Context} of this query has been disposed.
+     */
+    List<EntityRef> list() throws IllegalStateException;
+}
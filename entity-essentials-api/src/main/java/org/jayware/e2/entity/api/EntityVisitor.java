@@ -0,0 +1,44 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.entity.api;
+
+
+import org.jayware.e2.util.Filter;
+
+
+/**
+ * An <code>EntityVisitor</code> is called back for every {@link Entity} matched by an {@link EntityQuery}.
+ * <p>
+ * Unlike a {@link Filter} an <code>EntityVisitor</code> is invoked on the thread which runs the {@link EntityQuery} and
+ * while the entities of the {@link org.jayware.e2.context.api.Context} are not locked. Hence it may create or delete
+ * {@link Entity Entities}, but those may or may not be visited by the same query.
+ *
+ * @see EntityQuery#forEach(EntityVisitor)
+ */
+public interface EntityVisitor
+{
+    /**
+     * Visits the specified {@link EntityRef}.
+     *
+     * @param ref an {@link EntityRef}.
+     *
+     * @return <code>true</code> to continue with the next {@link Entity}, <code>false</code> to stop.
+     */
+    boolean visit(EntityRef ref);
+}
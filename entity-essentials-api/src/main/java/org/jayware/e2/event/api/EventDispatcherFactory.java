@@ -34,6 +34,21 @@ public interface EventDispatcherFactory {
 	String PROPERTY_OUT_DIRECTORY = "org.jayware.e2.event.api.EventDispatcherFactory.outdir";
 	String PROPERTY_SILENT_EVENT_DISPATCHERS = "org.jayware.e2.event.api.EventDispatcherFactory.silent-event-dispatchers";
 
+	/**
+	 * Enables the profiling of handlers, if set to <code>true</code>. Falls back to the system property of the same name.
+	 * <p>
+	 * Profiled {@link EventDispatcher EventDispatchers} record the invocation count and time of each handler. Without
+	 * profiling the generated {@link EventDispatcher EventDispatchers} are not instrumented at all.
+	 * </p>
+	 */
+	String PROPERTY_PROFILING = "org.jayware.e2.event.api.EventDispatcherFactory.profiling";
+
+	/**
+	 * The interval in seconds in which the recorded profiles are logged, if profiling is enabled. Falls back to the
+	 * system property of the same name.
+	 */
+	String PROPERTY_PROFILING_DUMP_INTERVAL = "org.jayware.e2.event.api.EventDispatcherFactory.profiling.dump-interval";
+
 	/**
 	 * Creates an {@link EventDispatcher} according to the specified target.
 	 * <p>
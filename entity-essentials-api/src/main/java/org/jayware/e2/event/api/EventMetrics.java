@@ -0,0 +1,125 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.api;
+
+
+import org.jayware.e2.context.api.Context;
+
+
+/**
+ * An <code>EventMetrics</code> receives measurements about the dispatch of {@link Event Events} and
+ * {@link Query Queries}.
+ * <p>
+ * The {@link EventManager} looks up an <code>EventMetrics</code> via {@link Context#findService(Class)} when the
+ * event bus of a {@link Context} is created. Hence an implementation is plugged in by registering it as service in
+ * <code>META-INF/services/org.jayware.e2.event.api.EventMetrics</code>. Every {@link Context} gets its own instance,
+ * which can be obtained with {@link Context#getService(Class)} to read the measurements.
+ * <p>
+ * If no <code>EventMetrics</code> is available, {@link EventMetrics#NONE} is used.
+ * <p>
+ * <b>Note:</b> The operations of an <code>EventMetrics</code> are invoked on the hot path of the event dispatch and
+ * potentially by many threads concurrently. Implementations have to be thread-safe and should return quickly.
+ *
+ * @see EventManager
+ */
+public interface EventMetrics
+{
+    /**
+     * The default <code>EventMetrics</code> which discards all measurements. As {@link #isEnabled()} returns
+     * <code>false</code>, no measurements are taken at all.
+     */
+    EventMetrics NONE = new EventMetrics()
+    {
+        @Override
+        public boolean isEnabled()
+        {
+            return false;
+        }
+
+        @Override
+        public void recordSubmission(Class<? extends EventType> type, int queueDepth)
+        {
+
+        }
+
+        @Override
+        public void recordCallerRuns(Class<? extends EventType> type)
+        {
+
+        }
+
+        @Override
+        public void recordDispatch(Class<? extends EventType> type, long waitTimeInNanos, long dispatchTimeInNanos)
+        {
+
+        }
+
+        @Override
+        public void recordHandler(Class<? extends EventType> type, Class<?> subscriberType, long timeInNanos, boolean failed)
+        {
+
+        }
+    };
+
+    /**
+     * Returns whether this <code>EventMetrics</code> records measurements.
+     * <p>
+     * This operation is called once, when the {@link EventMetrics} is looked up. If it returns <code>false</code>, no
+     * measurements are taken and none of the other operations is invoked.
+     *
+     * @return <code>true</code> if this <code>EventMetrics</code> records measurements, otherwise <code>false</code>.
+     */
+    boolean isEnabled();
+
+    /**
+     * Records that an {@link Event} of the specified type has been submitted for asynchronous dispatch.
+     *
+     * @param type the type of the {@link Event}.
+     * @param queueDepth the number of dispatches which were waiting for a worker at the time of submission.
+     */
+    void recordSubmission(Class<? extends EventType> type, int queueDepth);
+
+    /**
+     * Records that the dispatch of an {@link Event} of the specified type was run by the submitting thread, because
+     * all workers were busy and the queue was full.
+     *
+     * @param type the type of the {@link Event}.
+     */
+    void recordCallerRuns(Class<? extends EventType> type);
+
+    /**
+     * Records the dispatch of an {@link Event} of the specified type to all subscribers.
+     *
+     * @param type the type of the {@link Event}.
+     * @param waitTimeInNanos the time the {@link Event} was waiting for a worker in nanoseconds, <code>0</code> if it
+     *                        was dispatched synchronously.
+     * @param dispatchTimeInNanos the time it took to dispatch the {@link Event} to all subscribers in nanoseconds.
+     */
+    void recordDispatch(Class<? extends EventType> type, long waitTimeInNanos, long dispatchTimeInNanos);
+
+    /**
+     * Records the invocation of the handlers of a single subscriber.
+     *
+     * @param type the type of the {@link Event}.
+     * @param subscriberType the type of the subscriber.
+     * @param timeInNanos the time spent in the handlers of the subscriber in nanoseconds.
+     * @param failed <code>true</code> if a handler threw an exception, otherwise <code>false</code>.
+     */
+    void recordHandler(Class<? extends EventType> type, Class<?> subscriberType, long timeInNanos, boolean failed);
+}
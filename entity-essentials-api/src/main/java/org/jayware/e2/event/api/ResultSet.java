@@ -19,10 +19,13 @@
 package org.jayware.e2.event.api;
 
 import org.jayware.e2.event.api.Query.State;
+import org.jayware.e2.util.Consumer;
 import org.jayware.e2.util.Key;
 import org.jayware.e2.util.StateLatch;
 import org.jayware.e2.util.TimeoutException;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 
@@ -188,4 +191,33 @@ public interface ResultSet
     <T> Result<T> resultOf(Key<T> key);
 
     <T> Result<T> resultOf(String name);
+
+    /**
+     * Registers the specified {@link Consumer} to be notified when the {@link Query} which preceded this
+     * {@link ResultSet} completes, that is when it enters either the state {@link State#Success} or
+     * {@link State#Failed}.
+     * <p>
+     * The {@link Consumer} is invoked exactly once, in the order of registration, by the thread which completes the
+     * {@link Query}. If the {@link Query} has already completed, the {@link Consumer} is invoked immediately by the
+     * calling thread. Registering a {@link Consumer} never blocks.
+     *
+     * @param consumer a {@link Consumer} accepting this {@link ResultSet}.
+     *
+     * @return this {@link ResultSet} to allow chaining.
+     *
+     * @throws IllegalArgumentException if the passed {@link Consumer} is <code>null</code>.
+     */
+    ResultSet onCompletion(Consumer<ResultSet> consumer);
+
+    /**
+     * Returns a {@link Future} which completes with this {@link ResultSet} when the {@link Query} which preceded this
+     * {@link ResultSet} completes.
+     * <p>
+     * If the {@link Query} enters the state {@link State#Failed}, the {@link Future} completes exceptionally and
+     * {@link Future#get()} throws an {@link ExecutionException} wrapping a {@link QueryException}. A {@link Query}
+     * cannot be cancelled, hence {@link Future#cancel(boolean)} has no effect.
+     *
+     * @return a {@link Future} of this {@link ResultSet}.
+     */
+    Future<ResultSet> toFuture();
 }
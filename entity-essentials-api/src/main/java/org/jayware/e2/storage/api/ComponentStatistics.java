@@ -0,0 +1,113 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.api;
+
+
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.Entity;
+
+import java.util.Set;
+
+
+/**
+ * A snapshot of the statistics of the {@link Component Components} of a {@link Context}.
+ * <p>
+ * The components of each type are stored in a separate table, which maps an {@link Entity} to its component. The
+ * estimated footprint of a table covers the table itself and the shallow size of its components, that is, without
+ * the objects referenced by the properties of the components, like strings or arrays. The estimation assumes a
+ * 64-bit JVM with compressed references and is meant for capacity planning, not for exact accounting.
+ *
+ * @see StatisticsManager#getComponentStatistics(Context)
+ */
+public interface ComponentStatistics
+{
+    /**
+     * Returns the types of {@link Component Components} which have been prepared in the {@link Context}.
+     *
+     * @return an unmodifiable {@link Set} of the types of {@link Component Components}.
+     */
+    Set<Class<? extends Component>> getComponentTypes();
+
+    /**
+     * Returns the number of {@link Component Components} of all types.
+     *
+     * @return the total number of {@link Component Components}.
+     */
+    int getNumberOfComponents();
+
+    /**
+     * Returns the number of {@link Component Components} of the specified type.
+     *
+     * @param type the type of the {@link Component Components}.
+     *
+     * @return the number of {@link Component Components} of the specified type or <code>0</code> if there are none.
+     *
+     * @throws IllegalArgumentException if the passed type is <code>null</code>.
+     */
+    int getNumberOfComponents(Class<? extends Component> type) throws IllegalArgumentException;
+
+    /**
+     * Returns the estimated number of bytes occupied by the {@link Component Components} of all types.
+     *
+     * @return the estimated footprint in bytes.
+     */
+    long getEstimatedFootprint();
+
+    /**
+     * Returns the estimated number of bytes occupied by the {@link Component Components} of the specified type.
+     *
+     * @param type the type of the {@link Component Components}.
+     *
+     * @return the estimated footprint in bytes or <code>0</code> if there are no components of the specified type.
+     *
+     * @throws IllegalArgumentException if the passed type is <code>null</code>.
+     */
+    long getEstimatedFootprint(Class<? extends Component> type) throws IllegalArgumentException;
+
+    /**
+     * Returns the number of {@link Component Components} which have been added to {@link Entity Entities} since the
+     * creation of the {@link Context}.
+     *
+     * @return the number of added {@link Component Components}.
+     */
+    long getNumberOfAddedComponents();
+
+    /**
+     * Returns the number of {@link Component Components} which have been removed from {@link Entity Entities},
+     * either explicitly or by the deletion of an {@link Entity}, since the creation of the {@link Context}.
+     *
+     * @return the number of removed {@link Component Components}.
+     */
+    long getNumberOfRemovedComponents();
+
+    /**
+     * Returns the {@link LockStatistics} of the read lock of the {@link Component Components}.
+     *
+     * @return the {@link LockStatistics} of the read lock.
+     */
+    LockStatistics getReadLockStatistics();
+
+    /**
+     * Returns the {@link LockStatistics} of the write lock of the {@link Component Components}.
+     *
+     * @return the {@link LockStatistics} of the write lock.
+     */
+    LockStatistics getWriteLockStatistics();
+}
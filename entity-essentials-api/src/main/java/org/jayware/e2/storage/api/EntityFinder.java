@@ -20,13 +20,17 @@ package org.jayware.e2.storage.api;
 
 import org.jayware.e2.component.api.Aspect;
 import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.entity.api.EntityVisitor;
 import org.jayware.e2.util.Filter;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 
 public interface EntityFinder
 {
     List<EntityRef> filter(Collection<EntityRef> entities, Aspect aspect, List<Filter<EntityRef>> filters);
+
+    boolean visit(Iterator<EntityRef> entities, Aspect aspect, List<Filter<EntityRef>> filters, EntityVisitor visitor);
 }
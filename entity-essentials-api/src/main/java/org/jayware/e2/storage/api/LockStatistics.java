@@ -0,0 +1,89 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.api;
+
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A snapshot of the measurements of a lock, taken since the lock statistics have been enabled the last time.
+ * <p>
+ * The wait time of an acquisition is the time from requesting the lock until it has been acquired. The hold time
+ * is the time from acquiring the lock until it is released. If a thread acquires a lock reentrantly, only the
+ * outermost acquisition contributes to the hold time.
+ * <p>
+ * <b>Note:</b> The measurements are updated concurrently. Therefore the values of a snapshot are not necessarily
+ * consistent among each other.
+ *
+ * @see StatisticsManager#enableLockStatistics(org.jayware.e2.context.api.Context)
+ */
+public interface LockStatistics
+{
+    /**
+     * Returns the number of times the lock has been acquired.
+     *
+     * @return the number of acquisitions.
+     */
+    long getNumberOfAcquisitions();
+
+    /**
+     * Returns the total time threads have waited to acquire the lock.
+     *
+     * @param unit the {@link TimeUnit} of the result.
+     *
+     * @return the total wait time in the specified {@link TimeUnit}.
+     *
+     * @throws IllegalArgumentException if the passed {@link TimeUnit} is <code>null</code>.
+     */
+    long getTotalWaitTime(TimeUnit unit) throws IllegalArgumentException;
+
+    /**
+     * Returns the longest time a thread has waited to acquire the lock.
+     *
+     * @param unit the {@link TimeUnit} of the result.
+     *
+     * @return the maximum wait time in the specified {@link TimeUnit}.
+     *
+     * @throws IllegalArgumentException if the passed {@link TimeUnit} is <code>null</code>.
+     */
+    long getMaxWaitTime(TimeUnit unit) throws IllegalArgumentException;
+
+    /**
+     * Returns the total time the lock has been held.
+     *
+     * @param unit the {@link TimeUnit} of the result.
+     *
+     * @return the total hold time in the specified {@link TimeUnit}.
+     *
+     * @throws IllegalArgumentException if the passed {@link TimeUnit} is <code>null</code>.
+     */
+    long getTotalHoldTime(TimeUnit unit) throws IllegalArgumentException;
+
+    /**
+     * Returns the longest time the lock has been held by a thread.
+     *
+     * @param unit the {@link TimeUnit} of the result.
+     *
+     * @return the maximum hold time in the specified {@link TimeUnit}.
+     *
+     * @throws IllegalArgumentException if the passed {@link TimeUnit} is <code>null</code>.
+     */
+    long getMaxHoldTime(TimeUnit unit) throws IllegalArgumentException;
+}
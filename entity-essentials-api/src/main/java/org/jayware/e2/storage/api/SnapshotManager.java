@@ -0,0 +1,110 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.api;
+
+
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.Entity;
+import org.jayware.e2.entity.api.EntityRef;
+
+import java.io.File;
+
+
+/**
+ * The <code>SnapshotManager</code> writes the state of a {@link Context} into a compact binary file and restores it.
+ * <p>
+ * A snapshot consists of the ids of all {@link Entity Entities} followed by one section per type of
+ * {@link Component}. Each section starts with the property schema of its type and continues with the packed
+ * binary state of all components of that type.
+ * <p>
+ * Properties of type {@link EntityRef} are stored as the id of the referenced {@link Entity}. Components with
+ * properties of other types, which cannot be represented in binary form, cannot be written into a snapshot.
+ * <p>
+ * The changes of a {@link Context} are tracked between two snapshots. A delta snapshot contains only the
+ * {@link Component Components} which have been added, changed or removed and the {@link Entity Entities} which
+ * have been deleted since the previous snapshot, either a full or a delta one. Hence, a {@link Context} is restored
+ * by reading a full snapshot followed by all subsequent delta snapshots in the order they have been written.
+ * The tracking starts with the first snapshot of a {@link Context}.
+ */
+public interface SnapshotManager
+{
+    /**
+     * Writes all {@link Entity Entities} and {@link Component Components} of the specified {@link Context} into
+     * the specified {@link File}. An existing {@link File} is overwritten.
+     *
+     * @param context a {@link Context}.
+     * @param file the {@link File} to write to.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link File} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     * @throws SnapshotException if the snapshot could not be written.
+     */
+    void writeSnapshot(Context context, File file) throws IllegalArgumentException, IllegalStateException, SnapshotException;
+
+    /**
+     * Writes the changes of the specified {@link Context} since the previous snapshot into the specified
+     * {@link File}. An existing {@link File} is overwritten.
+     *
+     * @param context a {@link Context}.
+     * @param file the {@link File} to write to.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link File} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     * @throws SnapshotException if no snapshot of the {@link Context} has been written before, or if the delta
+     *                           snapshot could not be written.
+     */
+    void writeDeltaSnapshot(Context context, File file) throws IllegalArgumentException, IllegalStateException, SnapshotException;
+
+    /**
+     * Restores the {@link Entity Entities} and {@link Component Components} stored in the specified {@link File}
+     * into the specified {@link Context}.
+     * <p>
+     * The {@link File} is memory-mapped and the components are put into the {@link Context} in bulk. Therefore,
+     * apart from the events signaling the creation of the {@link Entity Entities}, no component or aspect events
+     * are fired. A snapshot should be read before the {@link Context} is in use. Groups and trees of the
+     * {@link Context} are looked up from the restored {@link Component Components} afterwards.
+     *
+     * @param context a {@link Context}.
+     * @param file the {@link File} to read from.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link File} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     * @throws SnapshotException if the snapshot could not be read, or if the schema of a type of {@link Component}
+     *                           does not match the stored schema.
+     */
+    void readSnapshot(Context context, File file) throws IllegalArgumentException, IllegalStateException, SnapshotException;
+
+    /**
+     * Applies the changes stored in the specified delta snapshot {@link File} to the specified {@link Context}.
+     * <p>
+     * Like {@link SnapshotManager#readSnapshot(Context, File)} the changed {@link Component Components} are put
+     * into the {@link Context} in bulk without firing component or aspect events. Deleted {@link Entity Entities}
+     * are deleted as usual.
+     *
+     * @param context a {@link Context}.
+     * @param file the {@link File} to read from.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link File} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     * @throws SnapshotException if the delta snapshot could not be read, or if the schema of a type of
+     *                           {@link Component} does not match the stored schema.
+     */
+    void readDeltaSnapshot(Context context, File file) throws IllegalArgumentException, IllegalStateException, SnapshotException;
+}
@@ -0,0 +1,108 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.api;
+
+
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.Entity;
+
+
+/**
+ * The <code>StatisticsManager</code> reports the state of the {@link Storage} and the {@link Component Components}
+ * of a {@link Context} for capacity planning and the analysis of lock contention.
+ * <p>
+ * The counts and the estimated footprints are always available. Measuring the locks costs two timestamps and a few
+ * atomic updates per acquisition. Therefore the lock statistics are disabled by default and have to be enabled
+ * with {@link StatisticsManager#enableLockStatistics(Context)} for the time of an analysis.
+ */
+public interface StatisticsManager
+{
+    /**
+     * Returns a snapshot of the {@link StorageStatistics} of the specified {@link Context}.
+     *
+     * @param context a {@link Context}.
+     *
+     * @return the {@link StorageStatistics} of the specified {@link Context}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    StorageStatistics getStorageStatistics(Context context) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Returns a snapshot of the {@link ComponentStatistics} of the specified {@link Context}.
+     *
+     * @param context a {@link Context}.
+     *
+     * @return the {@link ComponentStatistics} of the specified {@link Context}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    ComponentStatistics getComponentStatistics(Context context) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Returns the number of {@link Entity Entities} of the specified {@link Context} which match the specified
+     * {@link Aspect}.
+     *
+     * @param context a {@link Context}.
+     * @param aspect an {@link Aspect}.
+     *
+     * @return the number of matching {@link Entity Entities}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link Aspect} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    int countEntities(Context context, Aspect aspect) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Resets the {@link LockStatistics} of the specified {@link Context} and starts measuring its locks.
+     *
+     * @param context a {@link Context}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    void enableLockStatistics(Context context) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Stops measuring the locks of the specified {@link Context}. The {@link LockStatistics} measured so far are
+     * retained.
+     *
+     * @param context a {@link Context}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    void disableLockStatistics(Context context) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Returns whether the locks of the specified {@link Context} are measured.
+     *
+     * @param context a {@link Context}.
+     *
+     * @return <code>true</code> if the lock statistics are enabled, otherwise <code>false</code>.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    boolean isLockStatisticsEnabled(Context context) throws IllegalArgumentException, IllegalStateException;
+}
@@ -0,0 +1,77 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.api;
+
+
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.Entity;
+
+
+/**
+ * A snapshot of the statistics of the {@link Storage} of a {@link Context}.
+ *
+ * @see StatisticsManager#getStorageStatistics(Context)
+ */
+public interface StorageStatistics
+{
+    /**
+     * Returns the number of {@link Entity Entities} which exist at the time the snapshot has been taken.
+     *
+     * @return the number of {@link Entity Entities}.
+     */
+    int getNumberOfEntities();
+
+    /**
+     * Returns the number of {@link Entity Entities} which have been created since the creation of the
+     * {@link Context}.
+     *
+     * @return the number of created {@link Entity Entities}.
+     */
+    long getNumberOfCreatedEntities();
+
+    /**
+     * Returns the number of {@link Entity Entities} which have been deleted since the creation of the
+     * {@link Context}.
+     *
+     * @return the number of deleted {@link Entity Entities}.
+     */
+    long getNumberOfDeletedEntities();
+
+    /**
+     * Returns the {@link LockStatistics} of the read lock of the {@link Storage}.
+     *
+     * @return the {@link LockStatistics} of the read lock.
+     */
+    LockStatistics getReadLockStatistics();
+
+    /**
+     * Returns the {@link LockStatistics} of the update lock of the {@link Storage}, which is held while the
+     * creation or deletion of an {@link Entity} is prepared.
+     *
+     * @return the {@link LockStatistics} of the update lock.
+     */
+    LockStatistics getUpdateLockStatistics();
+
+    /**
+     * Returns the {@link LockStatistics} of the write lock of the {@link Storage}.
+     *
+     * @return the {@link LockStatistics} of the write lock.
+     */
+    LockStatistics getWriteLockStatistics();
+}
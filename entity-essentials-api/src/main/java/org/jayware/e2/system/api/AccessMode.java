@@ -0,0 +1,41 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.system.api;
+
+
+import org.jayware.e2.component.api.Component;
+
+
+/**
+ * The modes an {@link EntitySystem} accesses a type of {@link Component} with.
+ */
+public enum AccessMode
+{
+    /**
+     * The {@link EntitySystem} only reads the {@link Component Components}. Any number of systems may read the same
+     * type of {@link Component} concurrently.
+     */
+    Read,
+
+    /**
+     * The {@link EntitySystem} modifies the {@link Component Components}, adds or removes them. A system which writes
+     * a type of {@link Component} never runs concurrently with another system which accesses the same type.
+     */
+    Write
+}
@@ -0,0 +1,65 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.system.api;
+
+
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.Entity;
+
+
+/**
+ * An <code>EntitySystem</code> updates the {@link Entity Entities} of a {@link Context} once per tick of a
+ * {@link SystemScheduler}.
+ * <p>
+ * A system declares the {@link Component Components} it accesses by its {@link Aspect}: the types of the all-of and
+ * the one-of set are accessed with the {@link AccessMode} returned by {@link #getAccessMode(Class)}. The types of the
+ * none-of set only restrict the matching {@link Entity Entities} and are not considered to be accessed.
+ * <p>
+ * <b>Note:</b> The {@link SystemScheduler} relies on the declarations. A system which accesses a type of
+ * {@link Component} without declaring it may run concurrently with a system writing the same type.
+ */
+public interface EntitySystem
+{
+    /**
+     * Returns the {@link Aspect} of the {@link Entity Entities} this system processes.
+     *
+     * @return an {@link Aspect}.
+     */
+    Aspect getAspect();
+
+    /**
+     * Returns the {@link AccessMode} this system accesses the specified type of {@link Component} with.
+     * <p>
+     * Returning <code>null</code> is treated as {@link AccessMode#Write}.
+     *
+     * @param type a type of {@link Component} of the all-of or one-of set of the {@link Aspect} of this system.
+     *
+     * @return an {@link AccessMode}.
+     */
+    AccessMode getAccessMode(Class<? extends Component> type);
+
+    /**
+     * Performs one update of this system.
+     *
+     * @param context the {@link Context} of the {@link SystemScheduler} running this system.
+     */
+    void update(Context context);
+}
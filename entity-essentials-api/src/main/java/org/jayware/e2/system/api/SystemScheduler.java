@@ -0,0 +1,78 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.system.api;
+
+
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.Contextual;
+
+import java.util.List;
+
+
+/**
+ * A <code>SystemScheduler</code> runs a set of {@link EntitySystem EntitySystems} once per tick.
+ * <p>
+ * On every tick the scheduler derives the dependencies between the systems from their declared accesses: a system
+ * depends on every previously added system it conflicts with, that is, both access a common type of component and
+ * at least one of them writes it. Systems which don't depend on each other run concurrently on the worker threads
+ * of the {@link Context}, whereas conflicting systems run in the order they have been added.
+ *
+ * @see SystemManager#createScheduler(Context)
+ */
+public interface SystemScheduler
+extends Contextual
+{
+    /**
+     * Adds the specified {@link EntitySystem} to this scheduler. The system is run from the next tick on.
+     *
+     * @param system an {@link EntitySystem}.
+     *
+     * @throws IllegalArgumentException if the passed {@link EntitySystem} is <code>null</code> or has already been
+     *                                  added.
+     */
+    void addSystem(EntitySystem system) throws IllegalArgumentException;
+
+    /**
+     * Removes the specified {@link EntitySystem} from this scheduler.
+     *
+     * @param system an {@link EntitySystem}.
+     *
+     * @return <code>true</code> if the {@link EntitySystem} has been removed, otherwise <code>false</code>.
+     *
+     * @throws IllegalArgumentException if the passed {@link EntitySystem} is <code>null</code>.
+     */
+    boolean removeSystem(EntitySystem system) throws IllegalArgumentException;
+
+    /**
+     * Returns the {@link EntitySystem EntitySystems} of this scheduler in the order they have been added.
+     *
+     * @return a {@link List} of {@link EntitySystem EntitySystems}.
+     */
+    List<EntitySystem> getSystems();
+
+    /**
+     * Runs every {@link EntitySystem} of this scheduler once and returns when all of them have completed.
+     * <p>
+     * If a system fails, the systems which have not been started yet are skipped.
+     *
+     * @throws IllegalStateException if the {@link Context} of this scheduler has been disposed.
+     * @throws SystemSchedulerException if a system failed or the tick has been interrupted.
+     */
+    void tick() throws IllegalStateException, SystemSchedulerException;
+}
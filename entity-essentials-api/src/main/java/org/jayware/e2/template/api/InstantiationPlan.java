@@ -0,0 +1,71 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.template.api;
+
+
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.Contextual;
+import org.jayware.e2.entity.api.Entity;
+import org.jayware.e2.entity.api.EntityRef;
+
+import java.util.List;
+
+
+/**
+ * An <code>InstantiationPlan</code> is an {@link EntityTemplate} compiled for a certain {@link Context}.
+ * <p>
+ * The types of the {@link Component Components} are resolved and the {@link PropertyTemplate PropertyTemplates} are
+ * mapped to the properties of the {@link Component Components} once, when the plan is compiled. Spawning copies the
+ * values into new {@link Component Components} and adds them to the new {@link Entity Entities} in bulk.
+ * <p>
+ * Changes to the {@link EntityTemplate} after compilation don't affect the plan.
+ *
+ * @see TemplateManager#compileTemplate(Context, EntityTemplate)
+ */
+public interface InstantiationPlan
+extends Contextual
+{
+    /**
+     * Creates a new {@link Entity} with the {@link Component Components} of the compiled {@link EntityTemplate}.
+     *
+     * @return an {@link EntityRef} of the created {@link Entity}.
+     *
+     * @throws IllegalStateException if the {@link Context} of this plan has been disposed.
+     * @throws ImportException if the {@link Entity} could not be spawned.
+     */
+    EntityRef spawn() throws IllegalStateException, ImportException;
+
+    /**
+     * Creates the specified number of {@link Entity Entities}, each with the {@link Component Components} of the
+     * compiled {@link EntityTemplate}.
+     * <p>
+     * The {@link Entity Entities} are created with a single bulk operation and all {@link Component Components} are
+     * added with another one.
+     *
+     * @param count the number of {@link Entity Entities} to spawn.
+     *
+     * @return a {@link List} with the {@link EntityRef EntityRefs} of the created {@link Entity Entities}.
+     *
+     * @throws IllegalArgumentException if the passed count is negative.
+     * @throws IllegalStateException if the {@link Context} of this plan has been disposed.
+     * @throws ImportException if the {@link Entity Entities} could not be spawned.
+     */
+    List<EntityRef> spawn(int count) throws IllegalArgumentException, IllegalStateException, ImportException;
+}
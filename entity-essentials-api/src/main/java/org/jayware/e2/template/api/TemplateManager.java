@@ -25,8 +25,11 @@ package org.jayware.e2.template.api;
 import org.jayware.e2.component.api.Component;
 import org.jayware.e2.component.api.ComponentNotFoundException;
 import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.Entity;
 import org.jayware.e2.entity.api.EntityRef;
 
+import java.util.UUID;
+
 
 /**
  * The <code>TemplateManager</code>.
@@ -46,4 +49,52 @@ public interface TemplateManager
     <T extends ComponentTemplate> Component importComponent(Context context, T template) throws IllegalArgumentException, IllegalStateException, ImportException;
 
     <T extends ComponentTemplate> Component importComponent(EntityRef ref, T template) throws IllegalArgumentException, IllegalStateException, ImportException;
+
+    /**
+     * Compiles the specified {@link EntityTemplate} into an {@link InstantiationPlan} which spawns
+     * {@link Entity Entities} in the specified {@link Context}.
+     *
+     * @param context the {@link Context} to spawn {@link Entity Entities} in.
+     * @param template the {@link EntityTemplate} to compile.
+     *
+     * @return an {@link InstantiationPlan}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link EntityTemplate} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     * @throws ImportException if a {@link ComponentTemplate} has no type, or a {@link PropertyTemplate} doesn't
+     *                         match a property of its {@link Component}.
+     */
+    InstantiationPlan compileTemplate(Context context, EntityTemplate template) throws IllegalArgumentException, IllegalStateException, ImportException;
+
+    /**
+     * Exports all {@link Entity Entities} and their {@link Component Components} of the specified {@link Context}
+     * to the passed {@link TemplateWriter}.
+     * <p>
+     * The {@link Entity Entities} are written one after another, hence no intermediate templates are created.
+     *
+     * @param context a {@link Context} to export.
+     * @param writer the {@link TemplateWriter} to write to.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} or {@link TemplateWriter} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     * @throws ExportException if the export failed.
+     */
+    void exportContext(Context context, TemplateWriter writer) throws IllegalArgumentException, IllegalStateException, ExportException;
+
+    /**
+     * Returns a {@link TemplateWriter} which imports everything written to it into the specified {@link Context}.
+     * <p>
+     * Each {@link Entity} is created with the {@link UUID} passed to {@link TemplateWriter#beginEntity(UUID)} and
+     * each {@link Component} is added as soon as {@link TemplateWriter#endComponent()} is invoked. If the import
+     * fails, e.g. because a written property is unknown to the imported type of {@link Component}, the returned
+     * {@link TemplateWriter} throws an {@link ImportException}.
+     *
+     * @param context a {@link Context} to import into.
+     *
+     * @return a {@link TemplateWriter} which imports into the specified {@link Context}.
+     *
+     * @throws IllegalArgumentException if the passed {@link Context} is <code>null</code>.
+     * @throws IllegalStateException if the passed {@link Context} has been disposed.
+     */
+    TemplateWriter importContext(Context context) throws IllegalArgumentException, IllegalStateException;
 }
@@ -0,0 +1,68 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.template.api;
+
+
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+
+import java.io.IOException;
+import java.util.UUID;
+
+
+/**
+ * A <code>TemplateWriter</code> receives the content of a {@link Context} as a stream of callbacks.
+ * <p>
+ * In contrast to the {@link EntityTemplate}, {@link ComponentTemplate} and {@link PropertyTemplate} object graphs,
+ * a <code>TemplateWriter</code> never sees more than one {@link Component} at a time. Therefore a whole
+ * {@link Context} can be exported or imported in bounded memory.
+ * <p>
+ * The callbacks are invoked in the following order:
+ * <pre>
+ *     ( beginEntity ( beginComponent ( write... )* endComponent )* endEntity )*
+ * </pre>
+ * Properties of the types <code>boolean</code>, <code>int</code>, <code>long</code>, <code>float</code> and
+ * <code>double</code> are passed through the primitive callbacks without boxing. All other properties are passed
+ * through {@link TemplateWriter#writeObject(String, Class, Object)}.
+ *
+ * @see TemplateManager#exportContext(Context, TemplateWriter)
+ * @see TemplateManager#importContext(Context)
+ */
+public interface TemplateWriter
+{
+    void beginEntity(UUID id) throws IOException;
+
+    void endEntity() throws IOException;
+
+    void beginComponent(Class<? extends Component> type) throws IOException;
+
+    void endComponent() throws IOException;
+
+    void writeBoolean(String name, boolean value) throws IOException;
+
+    void writeInt(String name, int value) throws IOException;
+
+    void writeLong(String name, long value) throws IOException;
+
+    void writeFloat(String name, float value) throws IOException;
+
+    void writeDouble(String name, double value) throws IOException;
+
+    void writeObject(String name, Class<?> type, Object value) throws IOException;
+}
@@ -0,0 +1,598 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.util;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Utility functions to write values into and read values from a {@link ByteBuffer} at absolute offsets.
+ * <p>
+ * Every <code>put</code> operation returns the number of bytes written, which always equals the result of the
+ * corresponding <code>sizeOf</code> operation. The position of the {@link ByteBuffer} is never changed.
+ * <p>
+ * Boxed values are prefixed with a single byte indicating whether the value is <code>null</code>. Strings and arrays
+ * are prefixed with their length, where <code>-1</code> denotes <code>null</code>. Enums are written as the name of
+ * their constant, so that they are restored correctly after constants have been added or reordered.
+ */
+public class BinaryUtil
+{
+    private static final byte NULL = 0;
+    private static final byte PRESENT = 1;
+    private static final int NULL_LENGTH = -1;
+
+    private BinaryUtil()
+    {
+    }
+
+    public static int sizeOf(Boolean value)
+    {
+        return value != null ? 2 : 1;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Boolean value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.put(offset + 1, (byte) (value ? 1 : 0));
+        return 2;
+    }
+
+    public static Boolean getBooleanObject(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return buffer.get(offset + 1) != 0;
+    }
+
+    public static int sizeOf(Byte value)
+    {
+        return value != null ? 2 : 1;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Byte value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.put(offset + 1, value);
+        return 2;
+    }
+
+    public static Byte getByteObject(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return buffer.get(offset + 1);
+    }
+
+    public static int sizeOf(Short value)
+    {
+        return value != null ? 3 : 1;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Short value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.putShort(offset + 1, value);
+        return 3;
+    }
+
+    public static Short getShortObject(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return buffer.getShort(offset + 1);
+    }
+
+    public static int sizeOf(Integer value)
+    {
+        return value != null ? 5 : 1;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Integer value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.putInt(offset + 1, value);
+        return 5;
+    }
+
+    public static Integer getIntegerObject(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return buffer.getInt(offset + 1);
+    }
+
+    public static int sizeOf(Long value)
+    {
+        return value != null ? 9 : 1;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Long value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.putLong(offset + 1, value);
+        return 9;
+    }
+
+    public static Long getLongObject(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return buffer.getLong(offset + 1);
+    }
+
+    public static int sizeOf(Float value)
+    {
+        return value != null ? 5 : 1;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Float value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.putFloat(offset + 1, value);
+        return 5;
+    }
+
+    public static Float getFloatObject(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return buffer.getFloat(offset + 1);
+    }
+
+    public static int sizeOf(Double value)
+    {
+        return value != null ? 9 : 1;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Double value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.putDouble(offset + 1, value);
+        return 9;
+    }
+
+    public static Double getDoubleObject(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return buffer.getDouble(offset + 1);
+    }
+
+    public static int sizeOf(boolean[] value)
+    {
+        return value != null ? 4 + value.length : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, boolean[] value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        buffer.putInt(offset, value.length);
+
+        for (int i = 0, position = offset + 4; i < value.length; ++i, ++position)
+        {
+            buffer.put(position, (byte) (value[i] ? 1 : 0));
+        }
+
+        return sizeOf(value);
+    }
+
+    public static boolean[] getBooleanArray(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final boolean[] result = new boolean[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, ++position)
+        {
+            result[i] = buffer.get(position) != 0;
+        }
+
+        return result;
+    }
+
+    public static int sizeOf(byte[] value)
+    {
+        return value != null ? 4 + value.length : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, byte[] value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        buffer.putInt(offset, value.length);
+
+        for (int i = 0, position = offset + 4; i < value.length; ++i, ++position)
+        {
+            buffer.put(position, value[i]);
+        }
+
+        return sizeOf(value);
+    }
+
+    public static byte[] getByteArray(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final byte[] result = new byte[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, ++position)
+        {
+            result[i] = buffer.get(position);
+        }
+
+        return result;
+    }
+
+    public static int sizeOf(short[] value)
+    {
+        return value != null ? 4 + value.length * 2 : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, short[] value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        buffer.putInt(offset, value.length);
+
+        for (int i = 0, position = offset + 4; i < value.length; ++i, position += 2)
+        {
+            buffer.putShort(position, value[i]);
+        }
+
+        return sizeOf(value);
+    }
+
+    public static short[] getShortArray(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final short[] result = new short[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, position += 2)
+        {
+            result[i] = buffer.getShort(position);
+        }
+
+        return result;
+    }
+
+    public static int sizeOf(int[] value)
+    {
+        return value != null ? 4 + value.length * 4 : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, int[] value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        buffer.putInt(offset, value.length);
+
+        for (int i = 0, position = offset + 4; i < value.length; ++i, position += 4)
+        {
+            buffer.putInt(position, value[i]);
+        }
+
+        return sizeOf(value);
+    }
+
+    public static int[] getIntArray(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final int[] result = new int[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, position += 4)
+        {
+            result[i] = buffer.getInt(position);
+        }
+
+        return result;
+    }
+
+    public static int sizeOf(long[] value)
+    {
+        return value != null ? 4 + value.length * 8 : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, long[] value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        buffer.putInt(offset, value.length);
+
+        for (int i = 0, position = offset + 4; i < value.length; ++i, position += 8)
+        {
+            buffer.putLong(position, value[i]);
+        }
+
+        return sizeOf(value);
+    }
+
+    public static long[] getLongArray(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final long[] result = new long[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, position += 8)
+        {
+            result[i] = buffer.getLong(position);
+        }
+
+        return result;
+    }
+
+    public static int sizeOf(float[] value)
+    {
+        return value != null ? 4 + value.length * 4 : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, float[] value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        buffer.putInt(offset, value.length);
+
+        for (int i = 0, position = offset + 4; i < value.length; ++i, position += 4)
+        {
+            buffer.putFloat(position, value[i]);
+        }
+
+        return sizeOf(value);
+    }
+
+    public static float[] getFloatArray(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final float[] result = new float[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, position += 4)
+        {
+            result[i] = buffer.getFloat(position);
+        }
+
+        return result;
+    }
+
+    public static int sizeOf(double[] value)
+    {
+        return value != null ? 4 + value.length * 8 : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, double[] value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        buffer.putInt(offset, value.length);
+
+        for (int i = 0, position = offset + 4; i < value.length; ++i, position += 8)
+        {
+            buffer.putDouble(position, value[i]);
+        }
+
+        return sizeOf(value);
+    }
+
+    public static double[] getDoubleArray(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final double[] result = new double[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, position += 8)
+        {
+            result[i] = buffer.getDouble(position);
+        }
+
+        return result;
+    }
+
+    public static int sizeOf(String value)
+    {
+        return value != null ? 4 + value.length() * 2 : 4;
+    }
+
+    public static int put(ByteBuffer buffer, int offset, String value)
+    {
+        if (value == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        final int length = value.length();
+
+        buffer.putInt(offset, length);
+
+        for (int i = 0, position = offset + 4; i < length; ++i, position += 2)
+        {
+            buffer.putChar(position, value.charAt(i));
+        }
+
+        return sizeOf(value);
+    }
+
+    public static String getString(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final char[] chars = new char[length];
+
+        for (int i = 0, position = offset + 4; i < length; ++i, position += 2)
+        {
+            chars[i] = buffer.getChar(position);
+        }
+
+        return new String(chars);
+    }
+
+    public static int sizeOf(Enum value)
+    {
+        return sizeOf(value != null ? value.name() : null);
+    }
+
+    public static int put(ByteBuffer buffer, int offset, Enum value)
+    {
+        return put(buffer, offset, value != null ? value.name() : null);
+    }
+
+    /**
+     * Reads the name of a constant of the specified enum type and returns the constant.
+     *
+     * @throws IllegalArgumentException if the enum type has no constant with the read name.
+     */
+    public static <E extends Enum<E>> E getEnum(ByteBuffer buffer, int offset, Class<E> type)
+    {
+        final String name = getString(buffer, offset);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+}
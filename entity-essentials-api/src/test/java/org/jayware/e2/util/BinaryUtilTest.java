@@ -0,0 +1,316 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.util;
+
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.util.BinaryUtil.getBooleanArray;
+import static org.jayware.e2.util.BinaryUtil.getBooleanObject;
+import static org.jayware.e2.util.BinaryUtil.getByteArray;
+import static org.jayware.e2.util.BinaryUtil.getByteObject;
+import static org.jayware.e2.util.BinaryUtil.getDoubleArray;
+import static org.jayware.e2.util.BinaryUtil.getDoubleObject;
+import static org.jayware.e2.util.BinaryUtil.getEnum;
+import static org.jayware.e2.util.BinaryUtil.getFloatArray;
+import static org.jayware.e2.util.BinaryUtil.getFloatObject;
+import static org.jayware.e2.util.BinaryUtil.getIntArray;
+import static org.jayware.e2.util.BinaryUtil.getIntegerObject;
+import static org.jayware.e2.util.BinaryUtil.getLongArray;
+import static org.jayware.e2.util.BinaryUtil.getLongObject;
+import static org.jayware.e2.util.BinaryUtil.getShortArray;
+import static org.jayware.e2.util.BinaryUtil.getShortObject;
+import static org.jayware.e2.util.BinaryUtil.getString;
+import static org.jayware.e2.util.BinaryUtil.put;
+import static org.jayware.e2.util.BinaryUtil.sizeOf;
+
+
+public class BinaryUtilTest
+{
+    private static final int OFFSET = 7;
+
+    private ByteBuffer buffer;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        buffer = ByteBuffer.allocate(256);
+    }
+
+    @Test
+    public void test_Boolean_round_trip()
+    {
+        for (Boolean value : new Boolean[] {true, false, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getBooleanObject(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((Boolean) null)).isEqualTo(1);
+        assertThat(sizeOf(Boolean.TRUE)).isEqualTo(2);
+    }
+
+    @Test
+    public void test_Byte_round_trip()
+    {
+        for (Byte value : new Byte[] {Byte.MIN_VALUE, 0, Byte.MAX_VALUE, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getByteObject(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((Byte) null)).isEqualTo(1);
+        assertThat(sizeOf((byte) 1)).isEqualTo(2);
+    }
+
+    @Test
+    public void test_Short_round_trip()
+    {
+        for (Short value : new Short[] {Short.MIN_VALUE, 0, Short.MAX_VALUE, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getShortObject(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((Short) null)).isEqualTo(1);
+        assertThat(sizeOf((short) 1)).isEqualTo(3);
+    }
+
+    @Test
+    public void test_Integer_round_trip()
+    {
+        for (Integer value : new Integer[] {Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getIntegerObject(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((Integer) null)).isEqualTo(1);
+        assertThat(sizeOf(1)).isEqualTo(5);
+    }
+
+    @Test
+    public void test_Long_round_trip()
+    {
+        for (Long value : new Long[] {Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getLongObject(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((Long) null)).isEqualTo(1);
+        assertThat(sizeOf(1L)).isEqualTo(9);
+    }
+
+    @Test
+    public void test_Float_round_trip()
+    {
+        for (Float value : new Float[] {-Float.MAX_VALUE, Float.MIN_VALUE, -0.0f, Float.NaN, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getFloatObject(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((Float) null)).isEqualTo(1);
+        assertThat(sizeOf(1.0f)).isEqualTo(5);
+    }
+
+    @Test
+    public void test_Double_round_trip()
+    {
+        for (Double value : new Double[] {-Double.MAX_VALUE, Double.MIN_VALUE, -0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getDoubleObject(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((Double) null)).isEqualTo(1);
+        assertThat(sizeOf(1.0)).isEqualTo(9);
+    }
+
+    @Test
+    public void test_boolean_array_round_trip()
+    {
+        for (boolean[] value : new boolean[][] {{true, false, true}, {}, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getBooleanArray(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((boolean[]) null)).isEqualTo(4);
+        assertThat(sizeOf(new boolean[3])).isEqualTo(4 + 3);
+    }
+
+    @Test
+    public void test_byte_array_round_trip()
+    {
+        for (byte[] value : new byte[][] {{Byte.MIN_VALUE, 0, Byte.MAX_VALUE}, {}, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getByteArray(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((byte[]) null)).isEqualTo(4);
+        assertThat(sizeOf(new byte[3])).isEqualTo(4 + 3);
+    }
+
+    @Test
+    public void test_short_array_round_trip()
+    {
+        for (short[] value : new short[][] {{Short.MIN_VALUE, 0, Short.MAX_VALUE}, {}, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getShortArray(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((short[]) null)).isEqualTo(4);
+        assertThat(sizeOf(new short[3])).isEqualTo(4 + 3 * 2);
+    }
+
+    @Test
+    public void test_int_array_round_trip()
+    {
+        for (int[] value : new int[][] {{Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE}, {}, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getIntArray(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((int[]) null)).isEqualTo(4);
+        assertThat(sizeOf(new int[3])).isEqualTo(4 + 3 * 4);
+    }
+
+    @Test
+    public void test_long_array_round_trip()
+    {
+        for (long[] value : new long[][] {{Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE}, {}, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getLongArray(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((long[]) null)).isEqualTo(4);
+        assertThat(sizeOf(new long[3])).isEqualTo(4 + 3 * 8);
+    }
+
+    @Test
+    public void test_float_array_round_trip()
+    {
+        for (float[] value : new float[][] {{-Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN, Float.POSITIVE_INFINITY}, {}, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getFloatArray(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((float[]) null)).isEqualTo(4);
+        assertThat(sizeOf(new float[3])).isEqualTo(4 + 3 * 4);
+    }
+
+    @Test
+    public void test_double_array_round_trip()
+    {
+        for (double[] value : new double[][] {{-Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.NEGATIVE_INFINITY}, {}, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getDoubleArray(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((double[]) null)).isEqualTo(4);
+        assertThat(sizeOf(new double[3])).isEqualTo(4 + 3 * 8);
+    }
+
+    @Test
+    public void test_String_round_trip()
+    {
+        for (String value : new String[] {"fubar", "", "ä€😀", null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getString(buffer, OFFSET)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((String) null)).isEqualTo(4);
+        assertThat(sizeOf("fubar")).isEqualTo(4 + 5 * 2);
+    }
+
+    @Test
+    public void test_Enum_round_trip()
+    {
+        for (TestEnum value : new TestEnum[] {TestEnum.FIRST, TestEnum.LAST, null})
+        {
+            assertThat(put(buffer, OFFSET, value)).isEqualTo(sizeOf(value));
+            assertThat(getEnum(buffer, OFFSET, TestEnum.class)).isEqualTo(value);
+        }
+
+        assertThat(sizeOf((TestEnum) null)).isEqualTo(4);
+        assertThat(sizeOf(TestEnum.LAST)).isEqualTo(sizeOf("LAST"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_getEnum_Throws_IllegalArgumentException_if_the_enum_has_no_constant_with_the_read_name()
+    {
+        put(buffer, OFFSET, "fubar");
+        getEnum(buffer, OFFSET, TestEnum.class);
+    }
+
+    @Test
+    public void test_put_Does_not_change_the_position_of_the_buffer()
+    {
+        buffer.position(3);
+
+        put(buffer, OFFSET, 42L);
+        put(buffer, OFFSET, new int[] {1, 2, 3});
+        put(buffer, OFFSET, "fubar");
+
+        assertThat(buffer.position()).isEqualTo(3);
+    }
+
+    @Test
+    public void test_put_Writes_values_back_to_back_into_a_direct_buffer()
+    {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+
+        int offset = 0;
+        offset += put(buffer, offset, (Integer) 42);
+        offset += put(buffer, offset, "ab");
+        offset += put(buffer, offset, new double[] {1.5});
+        offset += put(buffer, offset, TestEnum.LAST);
+
+        assertThat(offset).isEqualTo(5 + 8 + 12 + 12);
+
+        assertThat(getIntegerObject(buffer, 0)).isEqualTo(42);
+        assertThat(getString(buffer, 5)).isEqualTo("ab");
+        assertThat(getDoubleArray(buffer, 13)).containsExactly(1.5);
+        assertThat(getEnum(buffer, 25, TestEnum.class)).isEqualTo(TestEnum.LAST);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void test_put_Throws_IndexOutOfBoundsException_if_the_value_exceeds_the_buffer()
+    {
+        put(ByteBuffer.allocate(8), 4, 42L);
+    }
+
+    private enum TestEnum
+    {
+        FIRST, MIDDLE, LAST
+    }
+}
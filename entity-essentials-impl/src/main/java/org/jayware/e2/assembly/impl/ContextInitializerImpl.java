@@ -22,6 +22,7 @@ import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.ContextInitializer;
 
 import static org.jayware.e2.assembly.impl.TreeManagerImpl.TREE_HUB;
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
 
 
 public class ContextInitializerImpl
@@ -32,7 +33,9 @@ implements ContextInitializer
         @Override
         public TreeHub provide(Context context)
         {
-            return new TreeHub(context);
+            final TreeHub treeHub = new TreeHub(context);
+            context.get(COMPONENT_STORE).addSynchronizer(treeHub);
+            return treeHub;
         }
     };
 
@@ -20,47 +20,76 @@ package org.jayware.e2.assembly.impl;
 
 import org.jayware.e2.assembly.api.Group;
 import org.jayware.e2.assembly.api.components.GroupComponent;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentEvent.ComponentAddedEvent;
+import org.jayware.e2.component.api.ComponentEvent.ComponentRemovedEvent;
 import org.jayware.e2.component.api.ComponentManager;
+import org.jayware.e2.component.impl.ComponentStore;
+import org.jayware.e2.component.impl.ComponentStore.ComponentSynchronizer;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.Disposable;
 import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityEvent.EntityDeletedEvent;
 import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.event.api.Event;
 import org.jayware.e2.event.api.EventManager;
 import org.jayware.e2.event.api.Handle;
 import org.jayware.e2.event.api.Param;
+import org.jayware.e2.event.api.Query;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.unmodifiableList;
 import static org.jayware.e2.assembly.api.GroupEvent.CreateGroupEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.CreateGroupEvent.GroupNameParam;
 import static org.jayware.e2.assembly.api.GroupEvent.DeleteGroupEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupCreatedEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupDeletedEvent;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.AddEntitiesToGroupEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.AddEntityToGroupEvent;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntitiesFromGroupRemovedEvent;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntitiesToGroupAddedEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntityFromGroupRemovedEvent;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntityRefListParam;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntityRefParam;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntityToGroupAddedEvent;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.RemoveEntitiesFromGroupEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.RemoveEntityFromGroupEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupParam;
 import static org.jayware.e2.component.api.Aspect.aspect;
+import static org.jayware.e2.component.api.ComponentEvent.ComponentParam;
+import static org.jayware.e2.component.api.ComponentEvent.ComponentTypeParam;
 import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
 import static org.jayware.e2.event.api.Parameters.param;
-import static org.jayware.e2.util.ArrayUtil.concat;
 
 
+/**
+ * The {@link GroupHub} keeps the names and the members of the groups of a {@link Context} in a {@link GroupIndex}.
+ * <p>
+ * The {@link GroupComponent GroupComponents} of the groups are not written on every change of their members. Instead
+ * the changed groups are marked and their components are written when the {@link ComponentStore} is read the next
+ * time, so that adding or removing a single member stays independent of the size of the group.
+ */
 public class GroupHub
-implements Disposable
+implements ComponentSynchronizer, Disposable
 {
     private final Context myContext;
     private final EntityManager myEntityManager;
     private final ComponentManager myComponentManager;
     private final EventManager myEventManager;
 
+    private final GroupIndex myGroupIndex;
+    private volatile boolean myGroupsLoaded;
+
+    private final Set<EntityRef> myDirtyGroups = new LinkedHashSet<EntityRef>();
+    private volatile boolean isDirty;
+
     GroupHub(Context context)
     {
         myContext = context;
@@ -68,12 +97,13 @@ implements Disposable
         myEntityManager = myContext.getService(EntityManager.class);
         myComponentManager = myContext.getService(ComponentManager.class);
         myEventManager = myContext.getService(EventManager.class);
+        myGroupIndex = new GroupIndex();
 
         myEventManager.subscribe(context, this);
     }
 
     @Handle(CreateGroupEvent.class)
-    public void handleCreateGroupEvent(@Param(GroupNameParam) String name)
+    public void handleCreateGroupEvent(Event event, @Param(GroupNameParam) String name)
     {
         final EntityRef ref = myEntityManager.createEntity(myContext);
         final GroupComponent component = myComponentManager.createComponent(myContext, GroupComponent.class);
@@ -81,72 +111,128 @@ implements Disposable
         component.setName(name);
         component.addTo(ref);
 
+        myGroupIndex.register(ref, null);
+        myGroupIndex.putName(ref, name);
+
+        final Group group = GroupImpl.createGroup(ref);
+
         myEventManager.post(
             GroupCreatedEvent.class,
             param(ContextParam, myContext),
-            param(GroupParam, GroupImpl.createGroup(ref)),
+            param(GroupParam, group),
             param(GroupNameParam, name)
         );
+
+        if (event.isQuery())
+        {
+            ((Query) event).result(GroupParam, group);
+        }
     }
 
     @Handle(DeleteGroupEvent.class)
-    public void handleDeleteGroupEvent(@Param(GroupNameParam) String name)
+    public void handleDeleteGroupEvent(@Param(GroupParam) Group group, @Param(GroupNameParam) String name)
     {
-        final List<EntityRef> groups = myEntityManager.findEntities(myContext, aspect(GroupComponent.class));
+        final EntityRef ref = group != null ? group : findGroupRef(name);
 
-        for (EntityRef ref : groups)
+        if (ref != null && ref.isValid())
         {
-            final GroupComponent component = myComponentManager.getComponent(ref, GroupComponent.class);
+            myGroupIndex.unregister(ref);
+            myEntityManager.deleteEntity(ref);
+
+            myEventManager.post(
+                GroupDeletedEvent.class,
+                param(ContextParam, myContext),
+                param(GroupParam, null),
+                param(GroupNameParam, name)
+            );
+        }
+    }
 
-            if (name.equals(component.getName()))
-            {
-                myEntityManager.deleteEntity(ref);
+    public Group findGroup(String name)
+    {
+        final EntityRef ref = findGroupRef(name);
+        return ref != null ? GroupImpl.createGroup(ref) : null;
+    }
 
-                myEventManager.post(
-                    GroupDeletedEvent.class,
-                    param(ContextParam, myContext),
-                    param(GroupParam, null),
-                    param(GroupNameParam, name)
-                );
+    void handleGroupRenamed(Group group, String name)
+    {
+        loadGroups();
+        myGroupIndex.putName(group, name);
+    }
+
+    public List<Group> getGroupsOf(EntityRef ref)
+    {
+        loadGroups();
+
+        final EntityRef[] groups = myGroupIndex.getGroupsOf(ref);
+        final List<Group> result = new ArrayList<Group>(groups.length);
 
-                return;
+        for (EntityRef group : groups)
+        {
+            if (group.isValid())
+            {
+                result.add(GroupImpl.createGroup(group));
             }
         }
+
+        return result;
     }
 
-    public Group findGroup(String name)
+    @Handle(ComponentAddedEvent.class)
+    public void handleComponentAddedEvent(@Param(EntityRefParam) EntityRef ref,
+                                          @Param(ComponentTypeParam) Class<? extends Component> type,
+                                          @Param(ComponentParam) Component component)
     {
-        final List<EntityRef> groups = myEntityManager.findEntities(myContext, aspect(GroupComponent.class));
+        if (GroupComponent.class.equals(type) && myGroupsLoaded)
+        {
+            final GroupComponent groupComponent = (GroupComponent) component;
 
-        for (EntityRef ref : groups)
+            myGroupIndex.putNameIfAbsent(ref, groupComponent.getName());
+            myGroupIndex.register(ref, validMembersOf(groupComponent));
+        }
+    }
+
+    @Handle(ComponentRemovedEvent.class)
+    public void handleComponentRemovedEvent(@Param(EntityRefParam) EntityRef ref,
+                                            @Param(ComponentTypeParam) Class<? extends Component> type)
+    {
+        if (GroupComponent.class.equals(type))
         {
-            GroupComponent component = myComponentManager.getComponent(ref, GroupComponent.class);
+            myGroupIndex.unregister(ref);
+        }
+    }
+
+    @Handle(EntityDeletedEvent.class)
+    public void handleEntityDeletedEvent(@Param(EntityRefParam) EntityRef ref)
+    {
+        myGroupIndex.unregister(ref);
 
-            if (name.equals(component.getName()))
+        for (EntityRef group : myGroupIndex.removeFromAllGroups(ref))
+        {
+            if (group.isValid())
             {
-                return GroupImpl.createGroup(ref);
+                markDirty(group);
+
+                myEventManager.post(
+                    EntityFromGroupRemovedEvent.class,
+                    param(ContextParam, myContext),
+                    param(GroupParam, GroupImpl.createGroup(group)),
+                    param(EntityRefParam, ref)
+                );
             }
         }
-
-        return null;
     }
 
     @Handle(AddEntityToGroupEvent.class)
     public void handleAddEntityToGroupEvent(@Param(GroupParam) Group group,
                                             @Param(EntityRefParam) EntityRef member)
     {
-        final GroupComponent groupComponent = myComponentManager.getComponent(group, GroupComponent.class);
-        EntityRef[] members = groupComponent.getMembers();
-
-        if (members == null)
+        if (myGroupIndex.addMembers(indexedGroup(group), singletonList(member)).isEmpty())
         {
-            members = new EntityRef[0];
+            return;
         }
 
-        members = concat(members, member);
-
-        groupComponent.setMembers(members);
-        groupComponent.pushTo(group);
+        markDirty(group);
 
         myEventManager.post(
             EntityToGroupAddedEvent.class,
@@ -160,12 +246,12 @@ implements Disposable
     public void handleRemoveEntityFromGroupEvent(@Param(GroupParam) Group group,
                                                  @Param(EntityRefParam) EntityRef member)
     {
-        final GroupComponent groupComponent = myComponentManager.getComponent(group, GroupComponent.class);
-        final Set<EntityRef> members = new HashSet<EntityRef>(asList(groupComponent.getMembers()));
+        if (myGroupIndex.removeMembers(indexedGroup(group), singletonList(member)).isEmpty())
+        {
+            return;
+        }
 
-        members.remove(member);
-        groupComponent.setMembers(members.toArray(new EntityRef[members.size()]));
-        groupComponent.pushTo(group);
+        markDirty(group);
 
         myEventManager.post(
             EntityFromGroupRemovedEvent.class,
@@ -175,12 +261,53 @@ implements Disposable
         );
     }
 
+    @Handle(AddEntitiesToGroupEvent.class)
+    public void handleAddEntitiesToGroupEvent(@Param(GroupParam) Group group,
+                                              @Param(EntityRefListParam) List<EntityRef> members)
+    {
+        final List<EntityRef> added = myGroupIndex.addMembers(indexedGroup(group), members);
+
+        if (added.isEmpty())
+        {
+            return;
+        }
+
+        markDirty(group);
+
+        myEventManager.post(
+            EntitiesToGroupAddedEvent.class,
+            param(ContextParam, myContext),
+            param(GroupParam, group),
+            param(EntityRefListParam, unmodifiableList(added))
+        );
+    }
+
+    @Handle(RemoveEntitiesFromGroupEvent.class)
+    public void handleRemoveEntitiesFromGroupEvent(@Param(GroupParam) Group group,
+                                                   @Param(EntityRefListParam) List<EntityRef> members)
+    {
+        final List<EntityRef> removed = myGroupIndex.removeMembers(indexedGroup(group), members);
+
+        if (removed.isEmpty())
+        {
+            return;
+        }
+
+        markDirty(group);
+
+        myEventManager.post(
+            EntitiesFromGroupRemovedEvent.class,
+            param(ContextParam, myContext),
+            param(GroupParam, group),
+            param(EntityRefListParam, unmodifiableList(removed))
+        );
+    }
+
     public List<EntityRef> getEntitiesOfGroup(Group group)
     {
-        final GroupComponent groupComponent = myComponentManager.getComponent(group, GroupComponent.class);
-        final EntityRef[] members = groupComponent.getMembers();
+        final EntityRef[] members = myGroupIndex.getMembers(indexedGroup(group));
 
-        if (members == null || members.length == 0)
+        if (members.length == 0)
         {
             return Collections.emptyList();
         }
@@ -190,15 +317,179 @@ implements Disposable
 
     public boolean isEntityMemberOfGroup(EntityRef ref, Group group)
     {
-        final GroupComponent groupComponent = myComponentManager.getComponent(group, GroupComponent.class);
-        final EntityRef[] members = groupComponent.getMembers();
+        return myGroupIndex.isMember(indexedGroup(group), ref);
+    }
+
+    @Override
+    public boolean isPending()
+    {
+        return isDirty;
+    }
+
+    /**
+     * Writes the members of the marked groups to their {@link GroupComponent GroupComponents}.
+     */
+    @Override
+    public void synchronize(ComponentStore store)
+    {
+        final List<EntityRef> groups;
+
+        synchronized (myDirtyGroups)
+        {
+            groups = new ArrayList<EntityRef>(myDirtyGroups);
+            myDirtyGroups.clear();
+            isDirty = false;
+        }
 
-        return members != null && asList(members).contains(ref);
+        final List<EntityRef> refs = new ArrayList<EntityRef>(groups.size());
+        final List<GroupComponent> components = new ArrayList<GroupComponent>(groups.size());
+
+        for (EntityRef group : groups)
+        {
+            final GroupComponent component = myGroupIndex.contains(group) ? store.findComponent(group, GroupComponent.class) : null;
+
+            if (component != null)
+            {
+                component.setMembers(myGroupIndex.getMembers(group));
+
+                refs.add(group);
+                components.add(component);
+            }
+        }
+
+        store.pushComponents(refs, components);
+    }
+
+    /**
+     * Discards the marked groups and the {@link GroupIndex}, which is loaded from the restored
+     * {@link GroupComponent GroupComponents} again with the next lookup.
+     */
+    @Override
+    public void invalidate()
+    {
+        synchronized (myDirtyGroups)
+        {
+            myDirtyGroups.clear();
+            isDirty = false;
+        }
+
+        synchronized (myGroupIndex)
+        {
+            myGroupIndex.clear();
+            myGroupsLoaded = false;
+        }
     }
 
     @Override
     public void dispose(Context context)
     {
         myEventManager.unsubscribe(context, this);
+        myGroupIndex.clear();
+
+        synchronized (myDirtyGroups)
+        {
+            myDirtyGroups.clear();
+            isDirty = false;
+        }
+    }
+
+    private EntityRef findGroupRef(String name)
+    {
+        loadGroups();
+
+        EntityRef ref = myGroupIndex.getGroup(name);
+
+        while (ref != null && ref.isInvalid())
+        {
+            myGroupIndex.unregister(ref);
+            ref = myGroupIndex.getGroup(name);
+        }
+
+        return ref;
+    }
+
+    /**
+     * Fills the {@link GroupIndex} with the names and members of the groups which already exist when the first lookup
+     * by name or by member takes place. Afterwards the index is kept up to date by the operations of this hub.
+     */
+    private void loadGroups()
+    {
+        if (myGroupsLoaded)
+        {
+            return;
+        }
+
+        synchronized (myGroupIndex)
+        {
+            if (!myGroupsLoaded)
+            {
+                for (EntityRef ref : myEntityManager.findEntities(myContext, aspect(GroupComponent.class)))
+                {
+                    final GroupComponent component = myComponentManager.findComponent(ref, GroupComponent.class);
+
+                    if (component != null)
+                    {
+                        myGroupIndex.putNameIfAbsent(ref, component.getName());
+                        myGroupIndex.register(ref, validMembersOf(component));
+                    }
+                }
+
+                myGroupsLoaded = true;
+            }
+        }
+    }
+
+    /**
+     * Ensures that the specified {@link Group} is part of the {@link GroupIndex}. Groups which have not been created
+     * through this hub are registered with the valid members of their {@link GroupComponent}.
+     */
+    private EntityRef indexedGroup(Group group)
+    {
+        if (!myGroupIndex.contains(group))
+        {
+            final GroupComponent groupComponent = myComponentManager.getComponent(group, GroupComponent.class);
+            myGroupIndex.register(group, validMembersOf(groupComponent));
+        }
+
+        return group;
+    }
+
+    /**
+     * Returns the members of the specified {@link GroupComponent} without the ones which have been deleted while the
+     * group was not part of the {@link GroupIndex}.
+     */
+    private static EntityRef[] validMembersOf(GroupComponent component)
+    {
+        final EntityRef[] members = component.getMembers();
+
+        if (members == null)
+        {
+            return null;
+        }
+
+        final List<EntityRef> result = new ArrayList<EntityRef>(members.length);
+
+        for (EntityRef member : members)
+        {
+            if (member != null && member.isValid())
+            {
+                result.add(member);
+            }
+        }
+
+        return result.toArray(new EntityRef[result.size()]);
+    }
+
+    /**
+     * Marks the {@link GroupComponent} of the specified group to be written with the next
+     * {@link GroupHub#synchronize(ComponentStore)}.
+     */
+    private void markDirty(EntityRef group)
+    {
+        synchronized (myDirtyGroups)
+        {
+            myDirtyGroups.add(group);
+            isDirty = true;
+        }
     }
 }
@@ -32,6 +32,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
+import static org.jayware.e2.assembly.impl.GroupManagerImpl.GROUP_HUB;
+
 
 public class GroupImpl
 implements Group
@@ -114,6 +116,12 @@ implements Group
 
         myGroupComponent.setName(name);
         myGroupComponent.pushTo(myRef);
+
+        final GroupHub hub = myContext.get(GROUP_HUB);
+        if (hub != null)
+        {
+            hub.handleGroupRenamed(this, name);
+        }
     }
 
     @Override
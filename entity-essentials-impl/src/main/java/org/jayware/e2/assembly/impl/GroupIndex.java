@@ -0,0 +1,438 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.assembly.impl;
+
+
+import org.jayware.e2.entity.api.EntityRef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+/**
+ * Membership and name index of the group subsystem.
+ * <p>
+ * The members of every registered group are kept in a set which preserves the order in which they were added. For
+ * every member the index keeps the set of registered groups it belongs to. As several groups may share a name, the
+ * index keeps the set of groups of every name, in the order in which they got their name, and the name of every group.
+ */
+class GroupIndex
+{
+    private static final EntityRef[] NO_MEMBERS = new EntityRef[0];
+    private static final EntityRef[] NO_GROUPS = NO_MEMBERS;
+
+    private final Map<EntityRef, Set<EntityRef>> myMembers = new HashMap<EntityRef, Set<EntityRef>>();
+    private final Map<EntityRef, Set<EntityRef>> myGroups = new HashMap<EntityRef, Set<EntityRef>>();
+    private final Map<String, Set<EntityRef>> myGroupsByName = new HashMap<String, Set<EntityRef>>();
+    private final Map<EntityRef, String> myNames = new HashMap<EntityRef, String>();
+
+    private final ReadWriteLock myReadWriteLock = new ReentrantReadWriteLock();
+    private final Lock myReadLock = myReadWriteLock.readLock();
+    private final Lock myWriteLock = myReadWriteLock.writeLock();
+
+    /**
+     * Registers the specified group with the specified initial members, unless the group is already registered.
+     */
+    void register(EntityRef group, EntityRef[] members)
+    {
+        checkNotNull(group);
+
+        myWriteLock.lock();
+        try
+        {
+            if (!myMembers.containsKey(group))
+            {
+                final Set<EntityRef> set = new LinkedHashSet<EntityRef>();
+
+                if (members != null)
+                {
+                    for (EntityRef member : members)
+                    {
+                        if (member != null && set.add(member))
+                        {
+                            addGroupOf(member, group);
+                        }
+                    }
+                }
+
+                myMembers.put(group, set);
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the members and the name of the specified group from the index.
+     */
+    void unregister(EntityRef group)
+    {
+        myWriteLock.lock();
+        try
+        {
+            final Set<EntityRef> members = myMembers.remove(group);
+
+            if (members != null)
+            {
+                for (EntityRef member : members)
+                {
+                    removeGroupOf(member, group);
+                }
+            }
+
+            removeName(group);
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    boolean contains(EntityRef group)
+    {
+        myReadLock.lock();
+        try
+        {
+            return myMembers.containsKey(group);
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Sets the name of the specified group, replacing a previous one. A <code>null</code> name removes the group from
+     * the name index.
+     */
+    void putName(EntityRef group, String name)
+    {
+        checkNotNull(group);
+
+        myWriteLock.lock();
+        try
+        {
+            removeName(group);
+
+            if (name != null)
+            {
+                addName(group, name);
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Sets the name of the specified group, unless the index already knows a name of the group.
+     */
+    void putNameIfAbsent(EntityRef group, String name)
+    {
+        checkNotNull(group);
+
+        myWriteLock.lock();
+        try
+        {
+            if (name != null && !myNames.containsKey(group))
+            {
+                addName(group, name);
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the group which got the specified name first or <code>null</code>.
+     */
+    EntityRef getGroup(String name)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Set<EntityRef> groups = myGroupsByName.get(name);
+            return groups != null ? groups.iterator().next() : null;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the specified members to the specified group.
+     *
+     * @return the members which have not been members of the group before.
+     */
+    List<EntityRef> addMembers(EntityRef group, Collection<EntityRef> members)
+    {
+        checkNotNull(members);
+
+        myWriteLock.lock();
+        try
+        {
+            final Set<EntityRef> set = getMemberSet(group);
+            final List<EntityRef> added = new ArrayList<EntityRef>(members.size());
+
+            for (EntityRef member : members)
+            {
+                if (set.add(checkNotNull(member)))
+                {
+                    addGroupOf(member, group);
+                    added.add(member);
+                }
+            }
+
+            return added;
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified members from the specified group.
+     *
+     * @return the members which actually have been removed.
+     */
+    List<EntityRef> removeMembers(EntityRef group, Collection<EntityRef> members)
+    {
+        checkNotNull(members);
+
+        myWriteLock.lock();
+        try
+        {
+            final Set<EntityRef> set = getMemberSet(group);
+            final List<EntityRef> removed = new ArrayList<EntityRef>(members.size());
+
+            for (EntityRef member : members)
+            {
+                if (set.remove(member))
+                {
+                    removeGroupOf(member, group);
+                    removed.add(member);
+                }
+            }
+
+            return removed;
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    boolean isMember(EntityRef group, EntityRef member)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Set<EntityRef> set = myMembers.get(group);
+            return set != null && set.contains(member);
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    EntityRef[] getMembers(EntityRef group)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Set<EntityRef> set = myMembers.get(group);
+
+            if (set == null || set.isEmpty())
+            {
+                return NO_MEMBERS;
+            }
+
+            return set.toArray(new EntityRef[set.size()]);
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified entity from every registered group it is a member of.
+     *
+     * @return the groups the entity has been removed from.
+     */
+    EntityRef[] removeFromAllGroups(EntityRef member)
+    {
+        myWriteLock.lock();
+        try
+        {
+            final Set<EntityRef> groups = myGroups.remove(member);
+
+            if (groups == null)
+            {
+                return NO_GROUPS;
+            }
+
+            for (EntityRef group : groups)
+            {
+                myMembers.get(group).remove(member);
+            }
+
+            return groups.toArray(new EntityRef[groups.size()]);
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the registered groups the specified entity is a member of.
+     */
+    EntityRef[] getGroupsOf(EntityRef member)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Set<EntityRef> groups = myGroups.get(member);
+
+            if (groups == null)
+            {
+                return NO_GROUPS;
+            }
+
+            return groups.toArray(new EntityRef[groups.size()]);
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    int getNumberOfMembers(EntityRef group)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Set<EntityRef> set = myMembers.get(group);
+            return set != null ? set.size() : 0;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    void clear()
+    {
+        myWriteLock.lock();
+        try
+        {
+            myMembers.clear();
+            myGroups.clear();
+            myGroupsByName.clear();
+            myNames.clear();
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    private void addGroupOf(EntityRef member, EntityRef group)
+    {
+        Set<EntityRef> groups = myGroups.get(member);
+
+        if (groups == null)
+        {
+            groups = new LinkedHashSet<EntityRef>();
+            myGroups.put(member, groups);
+        }
+
+        groups.add(group);
+    }
+
+    private void removeGroupOf(EntityRef member, EntityRef group)
+    {
+        final Set<EntityRef> groups = myGroups.get(member);
+
+        if (groups != null && groups.remove(group) && groups.isEmpty())
+        {
+            myGroups.remove(member);
+        }
+    }
+
+    private void addName(EntityRef group, String name)
+    {
+        Set<EntityRef> groups = myGroupsByName.get(name);
+
+        if (groups == null)
+        {
+            groups = new LinkedHashSet<EntityRef>();
+            myGroupsByName.put(name, groups);
+        }
+
+        groups.add(group);
+        myNames.put(group, name);
+    }
+
+    private void removeName(EntityRef group)
+    {
+        final String name = myNames.remove(group);
+
+        if (name != null)
+        {
+            final Set<EntityRef> groups = myGroupsByName.get(name);
+
+            if (groups != null && groups.remove(group) && groups.isEmpty())
+            {
+                myGroupsByName.remove(name);
+            }
+        }
+    }
+
+    private Set<EntityRef> getMemberSet(EntityRef group)
+    {
+        final Set<EntityRef> set = myMembers.get(group);
+
+        if (set == null)
+        {
+            throw new IllegalArgumentException("There is no group: " + group);
+        }
+
+        return set;
+    }
+}
@@ -31,23 +31,34 @@ import org.jayware.e2.context.api.Context;
 import org.jayware.e2.entity.api.EntityManager;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.event.api.EventManager;
+import org.jayware.e2.event.api.MissingResultException;
+import org.jayware.e2.event.api.ResultSet;
 import org.jayware.e2.util.Key;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import static org.jayware.e2.assembly.api.GroupEvent.CreateGroupEvent.GroupNameParam;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.AddEntitiesToGroupEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.AddEntityToGroupEvent;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntityRefListParam;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.EntityRefParam;
+import static org.jayware.e2.assembly.api.GroupEvent.GroupMembershipEvent.RemoveEntitiesFromGroupEvent;
 import static org.jayware.e2.assembly.api.GroupEvent.GroupParam;
 import static org.jayware.e2.assembly.api.Preconditions.checkGroupNotNullAndValid;
 import static org.jayware.e2.component.api.Aspect.aspect;
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
 import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
 import static org.jayware.e2.context.api.Preconditions.checkContextualsNotNullAndSameContext;
 import static org.jayware.e2.entity.api.Preconditions.checkRefNotNullAndValid;
 import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
 import static org.jayware.e2.event.api.Parameters.param;
+import static org.jayware.e2.event.api.Query.State.Success;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
 import static org.jayware.e2.util.Preconditions.checkStringNotEmpty;
 
 
@@ -56,14 +67,16 @@ implements GroupManager
 {
     private static final long TIMEOUT_IN_MILLISECONDS = 5000;
 
-    private static final Key<GroupHub> GROUP_HUB = Key.createKey("org.jayware.e2.GroupHub");
+    static final Key<GroupHub> GROUP_HUB = Key.createKey("org.jayware.e2.GroupHub");
 
     private static final Context.ValueProvider<GroupHub> GROUP_HUB_VALUE_PROVIDER = new Context.ValueProvider<GroupHub>()
     {
         @Override
         public GroupHub provide(Context context)
         {
-            return new GroupHub(context);
+            final GroupHub groupHub = new GroupHub(context);
+            context.get(COMPONENT_STORE).addSynchronizer(groupHub);
+            return groupHub;
         }
     };
 
@@ -83,15 +96,25 @@ implements GroupManager
         getOrCreateGroupHub(context);
 
         final EventManager eventManager = context.getService(EventManager.class);
-
-        eventManager.send(
+        final ResultSet resultSet = eventManager.query(
             CreateGroupEvent.class,
             param(ContextParam, context),
-            param(GroupParam, null),
             param(GroupNameParam, name)
         );
 
-        return getGroup(context, name);
+        if (!resultSet.await(Success, TIMEOUT_IN_MILLISECONDS, MILLISECONDS))
+        {
+            throw new GroupManagerException("Failed to create group '%s' within %sms!", null, name, TIMEOUT_IN_MILLISECONDS);
+        }
+
+        try
+        {
+            return resultSet.get(GroupParam);
+        }
+        catch (MissingResultException e)
+        {
+            throw new GroupManagerException("Failed to create group '%s' !", e, name);
+        }
     }
 
     @Override
@@ -105,7 +128,7 @@ implements GroupManager
         eventManager.send(
             DeleteGroupEvent.class,
             param(ContextParam, context),
-            param(GroupParam, null),
+            param(GroupParam, group),
             param(GroupNameParam, group.getName())
         );
     }
@@ -164,32 +187,11 @@ implements GroupManager
     @Override
     public List<Group> findGroups(final EntityRef ref)
     {
-        final Context context;
-        final EntityManager entityManager;
-        final List<EntityRef> entities;
-        final List<Group> result;
-
         checkRefNotNullAndValid(ref);
 
         try
         {
-            context = ref.getContext();
-            entityManager = context.getService(EntityManager.class);
-            entities = entityManager.findEntities(context, aspect(GroupComponent.class));
-
-            result = new ArrayList<Group>();
-
-            for (EntityRef entity : entities)
-            {
-                final Group group = GroupImpl.createGroup(entity);
-
-                if (isEntityMemberOfGroup(ref, group))
-                {
-                    result.add(group);
-                }
-            }
-
-            return result;
+            return getGroupsOf(ref);
         }
         catch (Exception e)
         {
@@ -197,6 +199,14 @@ implements GroupManager
         }
     }
 
+    @Override
+    public List<Group> getGroupsOf(EntityRef ref)
+    {
+        checkRefNotNullAndValid(ref);
+
+        return getOrCreateGroupHub(ref.getContext()).getGroupsOf(ref);
+    }
+
     @Override
     public void addEntityToGroup(EntityRef ref, Group group)
     throws IllegalArgumentException
@@ -208,6 +218,8 @@ implements GroupManager
         final Context context = ref.getContext();
         final EventManager eventManager = context.getService(EventManager.class);
 
+        getOrCreateGroupHub(context);
+
         eventManager.send(
             AddEntityToGroupEvent.class,
             param(ContextParam, context),
@@ -226,6 +238,8 @@ implements GroupManager
         final Context context = ref.getContext();
         final EventManager eventManager = context.getService(EventManager.class);
 
+        getOrCreateGroupHub(context);
+
         eventManager.send(
             RemoveEntityFromGroupEvent.class,
             param(ContextParam, context),
@@ -234,6 +248,55 @@ implements GroupManager
         );
     }
 
+    @Override
+    public void addEntitiesToGroup(Collection<EntityRef> refs, Group group)
+    {
+        checkNotNull(refs);
+        checkGroupNotNullAndValid(group);
+
+        for (EntityRef ref : refs)
+        {
+            checkRefNotNullAndValid(ref);
+            checkContextualsNotNullAndSameContext(ref, group);
+        }
+
+        final Context context = group.getContext();
+        final EventManager eventManager = context.getService(EventManager.class);
+
+        getOrCreateGroupHub(context);
+
+        eventManager.send(
+            AddEntitiesToGroupEvent.class,
+            param(ContextParam, context),
+            param(GroupParam, group),
+            param(EntityRefListParam, new ArrayList<EntityRef>(refs))
+        );
+    }
+
+    @Override
+    public void removeEntitiesFromGroup(Collection<EntityRef> refs, Group group)
+    {
+        checkNotNull(refs);
+        checkGroupNotNullAndValid(group);
+
+        for (EntityRef ref : refs)
+        {
+            checkNotNull(ref);
+        }
+
+        final Context context = group.getContext();
+        final EventManager eventManager = context.getService(EventManager.class);
+
+        getOrCreateGroupHub(context);
+
+        eventManager.send(
+            RemoveEntitiesFromGroupEvent.class,
+            param(ContextParam, context),
+            param(GroupParam, group),
+            param(EntityRefListParam, new ArrayList<EntityRef>(refs))
+        );
+    }
+
     @Override
     public List<EntityRef> getEntitiesOfGroup(Group group)
     {
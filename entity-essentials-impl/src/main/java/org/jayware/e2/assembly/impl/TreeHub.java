@@ -28,10 +28,15 @@ import org.jayware.e2.assembly.api.TreeEvent.DeleteTreeNodeEvent;
 import org.jayware.e2.assembly.api.TreeEvent.DeletingTreeNodeEvent;
 import org.jayware.e2.assembly.api.TreeEvent.FindChildrenQuery;
 import org.jayware.e2.assembly.api.TreeEvent.RemoveChildNodeEvent;
+import org.jayware.e2.assembly.api.TreeEvent.SubtreeDeletedEvent;
 import org.jayware.e2.assembly.api.TreeEvent.TreeNodeCreatedEvent;
+import org.jayware.e2.assembly.api.TreeManagerException;
 import org.jayware.e2.assembly.api.TreeNode;
+import org.jayware.e2.assembly.api.TreeNodeVisitor;
 import org.jayware.e2.assembly.api.components.TreeNodeComponent;
 import org.jayware.e2.component.api.ComponentManager;
+import org.jayware.e2.component.impl.ComponentStore;
+import org.jayware.e2.component.impl.ComponentStore.ComponentSynchronizer;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.Contextual;
 import org.jayware.e2.context.api.Disposable;
@@ -45,36 +50,57 @@ import org.jayware.e2.event.api.Param;
 import org.jayware.e2.event.api.Query;
 import org.jayware.e2.util.ObjectUtil;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
-import static java.util.Arrays.asList;
+import static java.lang.Boolean.TRUE;
 import static org.jayware.e2.assembly.api.TreeEvent.ChildNodeRemovedEvent.ParentNodeParam;
 import static org.jayware.e2.assembly.api.TreeEvent.FindChildrenQuery.ChildrenParam;
+import static org.jayware.e2.assembly.api.TreeEvent.NodeListParam;
 import static org.jayware.e2.assembly.api.TreeEvent.NodeParam;
 import static org.jayware.e2.assembly.api.TreeEvent.NodePendantParam;
+import static org.jayware.e2.assembly.api.TreeEvent.NotifyEachNodeParam;
 import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
 import static org.jayware.e2.event.api.Parameters.param;
 import static org.jayware.e2.event.api.Presence.Optional;
 
 
+/**
+ * The <code>TreeHub</code> maintains the hierarchy of the {@link TreeNode TreeNodes} of a {@link Context} in a
+ * {@link TreeIndex}.
+ * <p>
+ * The {@link TreeNodeComponent} of a node is kept as a view of the hierarchy. Attaching and detaching a node only
+ * marks the affected nodes, whose components are written in one batch before components are read from the
+ * {@link ComponentStore}. Nodes which exist only as {@link TreeNodeComponent}, e.g. restored from a snapshot, are
+ * registered in the index from their components when they are used the first time.
+ */
 public class TreeHub
-implements Disposable
+implements ComponentSynchronizer, Disposable
 {
-    private static final double CHILD_ARRAY_FRAGMENTATION_THRESHOLD = 0.5;
-
     private final Context myContext;
     private final EntityManager myEntityManager;
     private final ComponentManager myComponentManager;
     private final EventManager myEventManager;
 
+    private final TreeIndex myTreeIndex;
+
+    private final Set<EntityRef> myDirtyNodes = new LinkedHashSet<EntityRef>();
+    private volatile boolean isDirty;
+
     TreeHub(Context context)
     {
         myContext = context;
         myEntityManager = myContext.getService(EntityManager.class);
         myComponentManager = myContext.getService(ComponentManager.class);
         myEventManager = myContext.getService(EventManager.class);
+        myTreeIndex = new TreeIndex();
 
         myEventManager.subscribe(myContext, this);
     }
@@ -89,7 +115,8 @@ implements Disposable
         component.setPendant(pendant);
         component.pushTo(ref);
 
-        treeNode = new TreeNodeImpl(ref);
+        treeNode = new TreeNodeImpl(ref, component.getPendant());
+        myTreeIndex.register(ref, treeNode);
 
         fireTreeNodeCreatedEvent(treeNode, pendant);
 
@@ -100,63 +127,57 @@ implements Disposable
     }
 
     @Handle(DeleteTreeNodeEvent.class)
-    public void handleDeleteTreeNodeEvent(@Param(NodeParam) TreeNode node)
+    public void handleDeleteTreeNodeEvent(@Param(NodeParam) TreeNode node, @Param(value = NotifyEachNodeParam, presence = Optional) Boolean notifyEachNode)
     {
         fireDeletingTreeNodeEvent(node);
 
         final EntityRef nodeRef = node.getNodeRef();
-        final TreeNodeComponent nodeComponent = myComponentManager.getComponent(nodeRef, TreeNodeComponent.class);
 
-        if (nodeComponent.getParent() != null)
+        if (parentOf(nodeRef) != null)
         {
             fireRemoveChildEvent(node);
         }
 
-        if (nodeComponent.getChildren() != null)
+        final List<EntityRef> subtreeRefs = subtreeOf(nodeRef);
+        final List<TreeNode> subtree = new ArrayList<TreeNode>(subtreeRefs.size());
+
+        for (EntityRef ref : subtreeRefs)
         {
-            for (EntityRef childRef : nodeComponent.getChildren())
+            subtree.add(ref.equals(nodeRef) ? node : treeNodeOf(ref));
+        }
+
+        myTreeIndex.unregisterSubtree(nodeRef);
+        myEntityManager.deleteEntities(myContext, subtreeRefs);
+
+        if (TRUE.equals(notifyEachNode))
+        {
+            for (TreeNode deleted : subtree)
             {
-                if (childRef != null)
-                {
-                    fireDeleteTreeNodeEvent(new TreeNodeImpl(childRef));
-                }
+                fireTreeNodeDeletedEvent(deleted);
             }
         }
+        else
+        {
+            fireTreeNodeDeletedEvent(node);
+        }
 
-        myEntityManager.deleteEntity(nodeRef);
-
-        fireTreeNodeDeletedEvent(node);
+        fireSubtreeDeletedEvent(node, subtree);
     }
 
     @Handle(AddChildNodeEvent.class)
     public void handleAddChildNodeEvent(@Param(ParentNodeParam) TreeNode parent, @Param(NodeParam) TreeNode child)
     {
-        final EntityRef parentNodeRef = parent.getNodeRef();
-        final EntityRef childNodeRef = child.getNodeRef();
+        final EntityRef parentNodeRef = index(parent.getNodeRef());
+        final EntityRef childNodeRef = index(child.getNodeRef());
 
-        final TreeNodeComponent parentComponent = myComponentManager.getComponent(parentNodeRef, TreeNodeComponent.class);
-        final TreeNodeComponent childComponent = myComponentManager.getComponent(childNodeRef, TreeNodeComponent.class);
-
-        if (childComponent.getParent() != null)
+        if (parentOf(childNodeRef) != null)
         {
             fireRemoveChildEvent(child);
-            childComponent.pullFrom(childNodeRef);
-        }
-
-        final List<EntityRef> children = new ArrayList<EntityRef>();
-
-        if (parentComponent.getChildren() != null)
-        {
-            children.addAll(asList(parentComponent.getChildren()));
         }
 
-        children.add(childNodeRef);
-
-        parentComponent.setChildren(children.toArray(new EntityRef[children.size()]));
-        parentComponent.pushTo(parentNodeRef);
+        myTreeIndex.attach(parentNodeRef, childNodeRef);
 
-        childComponent.setParent(parentNodeRef);
-        childComponent.pushTo(childNodeRef);
+        markDirty(parentNodeRef, childNodeRef);
 
         fireChildNodeAddedEvent(parent, child);
     }
@@ -164,38 +185,20 @@ implements Disposable
     @Handle(RemoveChildNodeEvent.class)
     public void handleRemoveChildNodeEvent(@Param(NodeParam) TreeNode child)
     {
-        final EntityRef childRef;
-        final EntityRef parentRef;
-        final TreeNodeComponent parentComponent;
-        final TreeNodeComponent childComponent;
+        final EntityRef childRef = index(child.getNodeRef());
+        final EntityRef parentRef = myTreeIndex.detach(childRef);
 
-        childRef = child.getNodeRef();
-        childComponent = myComponentManager.getComponent(childRef, TreeNodeComponent.class);
-
-        if (childComponent.getParent() != null)
+        if (parentRef != null)
         {
-            final TreeNode parent = child.getParent();
-            List<EntityRef> children;
-
-            parentRef = parent.getNodeRef();
-            parentComponent = myComponentManager.getComponent(parentRef, TreeNodeComponent.class);
-
-            children = asList(parentComponent.getChildren());
-            children.remove(childRef);
-            childComponent.pushTo(childRef);
+            markDirty(parentRef, childRef);
 
-            childComponent.setParent(null);
-            parentComponent.pushTo(parentRef);
-
-            fireChildNodeRemovedEvent(parent, child);
+            fireChildNodeRemovedEvent(treeNodeOf(parentRef), child);
         }
     }
 
     @Handle(FindChildrenQuery.class)
     public void handleFindChildrenQuery(Query query, @Param(NodeParam) TreeNode node, @Param(value = ChildrenParam, presence = Optional) List<TreeNode> children)
     {
-        final TreeNodeComponent nodeComponent;
-
         if (children == null)
         {
             children = new ArrayList<TreeNode>();
@@ -205,20 +208,298 @@ implements Disposable
             children.clear();
         }
 
-        nodeComponent = myComponentManager.getComponent(node.getNodeRef(), TreeNodeComponent.class);
-
-        for (EntityRef entityRef : nodeComponent.getChildren())
+        for (EntityRef entityRef : childrenOf(node.getNodeRef()))
         {
-            children.add(new TreeNodeImpl(entityRef));
+            children.add(treeNodeOf(entityRef));
         }
 
         query.result(ChildrenParam, children);
     }
 
+    @Override
+    public boolean isPending()
+    {
+        return isDirty;
+    }
+
+    /**
+     * Writes the parent and the children of the marked nodes to their {@link TreeNodeComponent TreeNodeComponents}.
+     */
+    @Override
+    public void synchronize(ComponentStore store)
+    {
+        final List<EntityRef> nodes;
+
+        synchronized (myDirtyNodes)
+        {
+            nodes = new ArrayList<EntityRef>(myDirtyNodes);
+            myDirtyNodes.clear();
+            isDirty = false;
+        }
+
+        final List<EntityRef> refs = new ArrayList<EntityRef>(nodes.size());
+        final List<TreeNodeComponent> components = new ArrayList<TreeNodeComponent>(nodes.size());
+
+        for (EntityRef nodeRef : nodes)
+        {
+            final TreeNodeComponent component = myTreeIndex.contains(nodeRef) ? store.findComponent(nodeRef, TreeNodeComponent.class) : null;
+
+            if (component != null)
+            {
+                component.setParent(myTreeIndex.getParent(nodeRef));
+                component.setChildren(myTreeIndex.getChildren(nodeRef));
+
+                refs.add(nodeRef);
+                components.add(component);
+            }
+        }
+
+        store.pushComponents(refs, components);
+    }
+
+    /**
+     * Discards the marked nodes and the {@link TreeIndex}. The nodes are registered from the restored
+     * {@link TreeNodeComponent TreeNodeComponents} again when they are used the next time.
+     */
+    @Override
+    public void invalidate()
+    {
+        synchronized (myDirtyNodes)
+        {
+            myDirtyNodes.clear();
+            isDirty = false;
+        }
+
+        myTreeIndex.clear();
+    }
+
     @Override
     public void dispose(Context context)
     {
         myEventManager.unsubscribe(context, this);
+        myTreeIndex.clear();
+
+        synchronized (myDirtyNodes)
+        {
+            myDirtyNodes.clear();
+            isDirty = false;
+        }
+    }
+
+    TreeIndex getTreeIndex()
+    {
+        return myTreeIndex;
+    }
+
+    Iterable<TreeNode> preOrder(TreeNode node)
+    {
+        final EntityRef rootRef = indexedNodeRef(node);
+
+        return new Iterable<TreeNode>()
+        {
+            @Override
+            public Iterator<TreeNode> iterator()
+            {
+                return myTreeIndex.preOrderIterator(rootRef);
+            }
+        };
+    }
+
+    Iterable<TreeNode> postOrder(TreeNode node)
+    {
+        final EntityRef rootRef = indexedNodeRef(node);
+
+        return new Iterable<TreeNode>()
+        {
+            @Override
+            public Iterator<TreeNode> iterator()
+            {
+                return myTreeIndex.postOrderIterator(rootRef);
+            }
+        };
+    }
+
+    Iterable<TreeNode> levelOrder(TreeNode node)
+    {
+        final EntityRef rootRef = indexedNodeRef(node);
+
+        return new Iterable<TreeNode>()
+        {
+            @Override
+            public Iterator<TreeNode> iterator()
+            {
+                return myTreeIndex.levelOrderIterator(rootRef);
+            }
+        };
+    }
+
+    void accept(TreeNode node, TreeNodeVisitor visitor)
+    {
+        myTreeIndex.accept(indexedNodeRef(node), visitor);
+    }
+
+    private EntityRef indexedNodeRef(TreeNode node)
+    {
+        final EntityRef nodeRef = node.getNodeRef();
+
+        if (!myTreeIndex.contains(nodeRef) && myComponentManager.findComponent(nodeRef, TreeNodeComponent.class) == null)
+        {
+            throw new TreeManagerException("The TreeNode '" + nodeRef + "' is not known to the tree of '" + myContext + "'!");
+        }
+
+        return index(nodeRef);
+    }
+
+    /**
+     * Ensures that the specified node is registered in the {@link TreeIndex}.
+     * <p>
+     * A node which is not registered yet, is registered from its {@link TreeNodeComponent} together with the whole
+     * tree it belongs to, as far as it is not registered either. Nodes which are not reachable via the children of
+     * their parent are attached to their parent individually.
+     */
+    private EntityRef index(EntityRef nodeRef)
+    {
+        if (myTreeIndex.contains(nodeRef))
+        {
+            return nodeRef;
+        }
+
+        final Set<EntityRef> visited = new HashSet<EntityRef>();
+        EntityRef topRef = nodeRef;
+        EntityRef topParentRef = myComponentManager.getComponent(nodeRef, TreeNodeComponent.class).getParent();
+
+        visited.add(nodeRef);
+
+        while (topParentRef != null && !myTreeIndex.contains(topParentRef) && visited.add(topParentRef))
+        {
+            topRef = topParentRef;
+            topParentRef = myComponentManager.getComponent(topRef, TreeNodeComponent.class).getParent();
+        }
+
+        indexSubtree(topRef, topParentRef != null && myTreeIndex.contains(topParentRef) ? topParentRef : null);
+
+        if (!myTreeIndex.contains(nodeRef))
+        {
+            final EntityRef parentRef = myComponentManager.getComponent(nodeRef, TreeNodeComponent.class).getParent();
+            indexSubtree(nodeRef, parentRef != null && myTreeIndex.contains(parentRef) ? parentRef : null);
+        }
+
+        return nodeRef;
+    }
+
+    /**
+     * Registers the specified node and its descendants, which are not registered yet, from their
+     * {@link TreeNodeComponent TreeNodeComponents} and attaches the node to the specified parent.
+     */
+    private void indexSubtree(EntityRef rootRef, EntityRef parentRef)
+    {
+        final Deque<EntityRef[]> stack = new ArrayDeque<EntityRef[]>();
+
+        stack.push(new EntityRef[] {parentRef, rootRef});
+
+        while (!stack.isEmpty())
+        {
+            final EntityRef[] link = stack.pop();
+            final EntityRef ref = link[1];
+            final TreeNodeComponent component = myComponentManager.findComponent(ref, TreeNodeComponent.class);
+
+            if (component == null || myTreeIndex.contains(ref))
+            {
+                continue;
+            }
+
+            myTreeIndex.register(ref, new TreeNodeImpl(ref, component.getPendant()));
+
+            if (link[0] != null)
+            {
+                myTreeIndex.attach(link[0], ref);
+            }
+
+            final EntityRef[] children = component.getChildren();
+
+            if (children != null)
+            {
+                for (int i = children.length - 1; i >= 0; --i)
+                {
+                    if (children[i] != null)
+                    {
+                        stack.push(new EntityRef[] {ref, children[i]});
+                    }
+                }
+            }
+        }
+    }
+
+    private TreeNode treeNodeOf(EntityRef nodeRef)
+    {
+        final TreeNode treeNode = myTreeIndex.getTreeNode(nodeRef);
+        return treeNode != null ? treeNode : new TreeNodeImpl(nodeRef);
+    }
+
+    private EntityRef parentOf(EntityRef nodeRef)
+    {
+        if (myTreeIndex.contains(nodeRef))
+        {
+            return myTreeIndex.getParent(nodeRef);
+        }
+
+        return myComponentManager.getComponent(nodeRef, TreeNodeComponent.class).getParent();
+    }
+
+    private List<EntityRef> subtreeOf(EntityRef nodeRef)
+    {
+        if (myTreeIndex.contains(nodeRef))
+        {
+            return myTreeIndex.getSubtree(nodeRef);
+        }
+
+        final List<EntityRef> result = new ArrayList<EntityRef>();
+        final Deque<EntityRef> stack = new ArrayDeque<EntityRef>();
+
+        stack.push(nodeRef);
+
+        while (!stack.isEmpty())
+        {
+            final EntityRef current = stack.pop();
+            final EntityRef[] children = childrenOf(current);
+
+            result.add(current);
+
+            for (int i = children.length - 1; i >= 0; --i)
+            {
+                if (children[i] != null)
+                {
+                    stack.push(children[i]);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private EntityRef[] childrenOf(EntityRef nodeRef)
+    {
+        if (myTreeIndex.contains(nodeRef))
+        {
+            return myTreeIndex.getChildren(nodeRef);
+        }
+
+        final EntityRef[] children = myComponentManager.getComponent(nodeRef, TreeNodeComponent.class).getChildren();
+        return children != null ? children : new EntityRef[0];
+    }
+
+    /**
+     * Marks the {@link TreeNodeComponent TreeNodeComponents} of the specified nodes to be written with the next
+     * {@link TreeHub#synchronize(ComponentStore)}.
+     */
+    private void markDirty(EntityRef parentRef, EntityRef childRef)
+    {
+        synchronized (myDirtyNodes)
+        {
+            myDirtyNodes.add(parentRef);
+            myDirtyNodes.add(childRef);
+            isDirty = true;
+        }
     }
 
     private void fireTreeNodeCreatedEvent(TreeNode treeNode, EntityRef pendant)
@@ -231,14 +512,6 @@ implements Disposable
         );
     }
 
-    private void fireDeleteTreeNodeEvent(TreeNode node)
-    {
-        myEventManager.send(
-            DeleteTreeNodeEvent.class,
-            param(ContextParam, myContext),
-            param(NodeParam, node)
-        );
-    }
 
     private void fireDeletingTreeNodeEvent(TreeNode node)
     {
@@ -260,6 +533,16 @@ implements Disposable
         );
     }
 
+    private void fireSubtreeDeletedEvent(TreeNode node, List<TreeNode> subtree)
+    {
+        myEventManager.post(
+            SubtreeDeletedEvent.class,
+            param(ContextParam, myContext),
+            param(NodeParam, node),
+            param(NodeListParam, subtree)
+        );
+    }
+
     private void fireAddChildNodeEvent(TreeNode parent, TreeNode child)
     {
         myEventManager.send(
@@ -303,29 +586,47 @@ implements Disposable
     implements TreeNode
     {
         private final EntityRef myNodeRef;
-        private final TreeNodeComponent myNodeComponent;
-
         private final EntityRef myPendantRef;
 
         public TreeNodeImpl(EntityRef ref)
+        {
+            this(ref, myComponentManager.getComponent(ref, TreeNodeComponent.class).getPendant());
+        }
+
+        public TreeNodeImpl(EntityRef ref, EntityRef pendant)
         {
             myNodeRef = ref;
-            myNodeComponent = myComponentManager.getComponent(myNodeRef, TreeNodeComponent.class);
-            myPendantRef = myNodeComponent.getPendant();
+            myPendantRef = pendant;
         }
 
         @Override
         public TreeNode getParent()
         {
-            myComponentManager.pullComponent(myNodeRef, myNodeComponent);
-            return new TreeNodeImpl(myNodeComponent.getParent());
+            final EntityRef parentRef = parentOf(myNodeRef);
+            return parentRef != null ? treeNodeOf(parentRef) : null;
         }
 
         @Override
         public boolean hasParent()
         {
-            myComponentManager.pullComponent(myNodeRef, myNodeComponent);
-            return myNodeComponent.getParent() != null;
+            return parentOf(myNodeRef) != null;
+        }
+
+        @Override
+        public int getDepth()
+        {
+            if (myTreeIndex.contains(myNodeRef))
+            {
+                return myTreeIndex.getDepth(myNodeRef);
+            }
+
+            int depth = 0;
+            for (EntityRef ref = parentOf(myNodeRef); ref != null; ref = parentOf(ref))
+            {
+                ++depth;
+            }
+
+            return depth;
         }
 
         @Override
@@ -344,14 +645,10 @@ implements Disposable
         public List<TreeNode> children()
         {
             final List<TreeNode> result = new ArrayList<TreeNode>();
-            myComponentManager.pullComponent(myNodeRef, myNodeComponent);
 
-            if (myNodeComponent.getChildren() != null)
+            for (EntityRef ref : childrenOf(myNodeRef))
             {
-                for (EntityRef ref : myNodeComponent.getChildren())
-                {
-                    result.add(new TreeNodeImpl(ref));
-                }
+                result.add(treeNodeOf(ref));
             }
 
             return result;
@@ -0,0 +1,727 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.assembly.impl;
+
+
+import org.jayware.e2.assembly.api.TreeNode;
+import org.jayware.e2.assembly.api.TreeNodeVisitor;
+import org.jayware.e2.entity.api.EntityRef;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+/**
+ * Hierarchy index of the tree subsystem.
+ * <p>
+ * Every registered node keeps a parent pointer, first-child/last-child and previous/next-sibling links and its depth.
+ * Attaching and detaching a node only relinks its neighbours, whereas the depth of an attached subtree is updated by
+ * walking that subtree.
+ */
+class TreeIndex
+{
+    private static final EntityRef[] NO_CHILDREN = new EntityRef[0];
+
+    private final Map<EntityRef, Entry> myEntries = new HashMap<EntityRef, Entry>();
+
+    private final ReadWriteLock myReadWriteLock = new ReentrantReadWriteLock();
+    private final Lock myReadLock = myReadWriteLock.readLock();
+    private final Lock myWriteLock = myReadWriteLock.writeLock();
+
+    void register(EntityRef node)
+    {
+        register(node, null);
+    }
+
+    void register(EntityRef node, TreeNode treeNode)
+    {
+        checkNotNull(node);
+
+        myWriteLock.lock();
+        try
+        {
+            if (!myEntries.containsKey(node))
+            {
+                myEntries.put(node, new Entry(node, treeNode));
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified node from the index. The node is detached from its parent and its children become roots.
+     */
+    void unregister(EntityRef node)
+    {
+        checkNotNull(node);
+
+        myWriteLock.lock();
+        try
+        {
+            final Entry entry = myEntries.remove(node);
+
+            if (entry != null)
+            {
+                unlink(entry);
+
+                Entry child = entry.myFirstChild;
+                while (child != null)
+                {
+                    final Entry next = child.myNextSibling;
+                    child.myParent = null;
+                    child.myPreviousSibling = null;
+                    child.myNextSibling = null;
+                    updateDepth(child, 0);
+                    child = next;
+                }
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified node and all of its descendants from the index. The subtree is walked iteratively.
+     *
+     * @return the removed nodes in pre-order or an empty list if the node is not registered.
+     */
+    List<EntityRef> unregisterSubtree(EntityRef node)
+    {
+        checkNotNull(node);
+
+        myWriteLock.lock();
+        try
+        {
+            final Entry root = myEntries.get(node);
+
+            if (root == null)
+            {
+                return Collections.emptyList();
+            }
+
+            final List<EntityRef> result = new ArrayList<EntityRef>();
+
+            unlink(root);
+
+            Entry current = root;
+            while (current != null)
+            {
+                result.add(current.myNode);
+                myEntries.remove(current.myNode);
+                current = nextInPreOrder(root, current);
+            }
+
+            return result;
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the specified child to the children of the specified parent, detaching it from its former parent.
+     *
+     * @return the former parent of the child or <code>null</code>.
+     *
+     * @throws IllegalArgumentException if one of the nodes is not registered or the child is the parent itself or one
+     *                                  of its ancestors.
+     */
+    EntityRef attach(EntityRef parent, EntityRef child)
+    {
+        checkNotNull(parent);
+        checkNotNull(child);
+
+        myWriteLock.lock();
+        try
+        {
+            final Entry parentEntry = getEntry(parent);
+            final Entry childEntry = getEntry(child);
+            final EntityRef formerParent = childEntry.myParent != null ? childEntry.myParent.myNode : null;
+
+            for (Entry ancestor = parentEntry; ancestor != null; ancestor = ancestor.myParent)
+            {
+                if (ancestor == childEntry)
+                {
+                    throw new IllegalArgumentException("A node can not become a child of itself or of one of its descendants!");
+                }
+            }
+
+            unlink(childEntry);
+
+            childEntry.myParent = parentEntry;
+            childEntry.myPreviousSibling = parentEntry.myLastChild;
+
+            if (parentEntry.myLastChild != null)
+            {
+                parentEntry.myLastChild.myNextSibling = childEntry;
+            }
+            else
+            {
+                parentEntry.myFirstChild = childEntry;
+            }
+
+            parentEntry.myLastChild = childEntry;
+            ++parentEntry.myChildCount;
+
+            updateDepth(childEntry, parentEntry.myDepth + 1);
+
+            return formerParent;
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Detaches the specified node from its parent.
+     *
+     * @return the former parent of the node or <code>null</code> if the node did not have a parent.
+     */
+    EntityRef detach(EntityRef child)
+    {
+        checkNotNull(child);
+
+        myWriteLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(child);
+
+            if (entry == null || entry.myParent == null)
+            {
+                return null;
+            }
+
+            final EntityRef formerParent = entry.myParent.myNode;
+            unlink(entry);
+            updateDepth(entry, 0);
+
+            return formerParent;
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    boolean contains(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            return myEntries.containsKey(node);
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    EntityRef getParent(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(node);
+            return entry != null && entry.myParent != null ? entry.myParent.myNode : null;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the {@link TreeNode} registered for the specified node or <code>null</code>.
+     */
+    TreeNode getTreeNode(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(node);
+            return entry != null ? entry.myTreeNode : null;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    EntityRef getFirstChild(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(node);
+            return entry != null && entry.myFirstChild != null ? entry.myFirstChild.myNode : null;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    EntityRef getNextSibling(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(node);
+            return entry != null && entry.myNextSibling != null ? entry.myNextSibling.myNode : null;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the depth of the specified node, i.e. <code>0</code> for a root and <code>-1</code> for an unknown node.
+     */
+    int getDepth(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(node);
+            return entry != null ? entry.myDepth : -1;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    int getNumberOfChildren(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(node);
+            return entry != null ? entry.myChildCount : 0;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the specified node and all of its descendants in pre-order.
+     */
+    List<EntityRef> getSubtree(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry root = myEntries.get(node);
+
+            if (root == null)
+            {
+                return Collections.emptyList();
+            }
+
+            final List<EntityRef> result = new ArrayList<EntityRef>();
+
+            for (Entry current = root; current != null; current = nextInPreOrder(root, current))
+            {
+                result.add(current.myNode);
+            }
+
+            return result;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the children of the specified node in the order they were attached.
+     */
+    EntityRef[] getChildren(EntityRef node)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Entry entry = myEntries.get(node);
+
+            if (entry == null || entry.myChildCount == 0)
+            {
+                return NO_CHILDREN;
+            }
+
+            final EntityRef[] result = new EntityRef[entry.myChildCount];
+
+            int index = 0;
+            for (Entry child = entry.myFirstChild; child != null; child = child.myNextSibling)
+            {
+                result[index++] = child.myNode;
+            }
+
+            return result;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a lazy {@link Iterator} which visits the specified node and its descendants in pre-order.
+     * <p>
+     * The links of the index are followed step by step, therefore modifications of the hierarchy during an iteration
+     * are only partially reflected.
+     */
+    Iterator<TreeNode> preOrderIterator(EntityRef root)
+    {
+        return new PreOrderIterator(checkedEntry(root));
+    }
+
+    /**
+     * Returns a lazy {@link Iterator} which visits the descendants of the specified node and finally the node itself
+     * in post-order.
+     */
+    Iterator<TreeNode> postOrderIterator(EntityRef root)
+    {
+        return new PostOrderIterator(checkedEntry(root));
+    }
+
+    /**
+     * Returns a lazy {@link Iterator} which visits the specified node and its descendants level by level.
+     */
+    Iterator<TreeNode> levelOrderIterator(EntityRef root)
+    {
+        return new LevelOrderIterator(checkedEntry(root));
+    }
+
+    /**
+     * Passes the specified node and its descendants in pre-order to the specified {@link TreeNodeVisitor}. The
+     * children of a node are skipped if the visitor returns <code>false</code>.
+     */
+    void accept(EntityRef root, TreeNodeVisitor visitor)
+    {
+        checkNotNull(visitor);
+
+        final Entry rootEntry = checkedEntry(root);
+
+        Entry current = rootEntry;
+        while (current != null)
+        {
+            final boolean descend = visitor.visit(current.myTreeNode);
+
+            myReadLock.lock();
+            try
+            {
+                current = descend ? nextInPreOrder(rootEntry, current) : nextSkippingChildren(rootEntry, current);
+            }
+            finally
+            {
+                myReadLock.unlock();
+            }
+        }
+    }
+
+    void clear()
+    {
+        myWriteLock.lock();
+        try
+        {
+            myEntries.clear();
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    private Entry checkedEntry(EntityRef node)
+    {
+        checkNotNull(node);
+
+        myReadLock.lock();
+        try
+        {
+            return getEntry(node);
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    private Entry getEntry(EntityRef node)
+    {
+        final Entry entry = myEntries.get(node);
+
+        if (entry == null)
+        {
+            throw new IllegalArgumentException("There is no tree node: " + node);
+        }
+
+        return entry;
+    }
+
+    private void unlink(Entry entry)
+    {
+        final Entry parent = entry.myParent;
+
+        if (parent == null)
+        {
+            return;
+        }
+
+        if (entry.myPreviousSibling != null)
+        {
+            entry.myPreviousSibling.myNextSibling = entry.myNextSibling;
+        }
+        else
+        {
+            parent.myFirstChild = entry.myNextSibling;
+        }
+
+        if (entry.myNextSibling != null)
+        {
+            entry.myNextSibling.myPreviousSibling = entry.myPreviousSibling;
+        }
+        else
+        {
+            parent.myLastChild = entry.myPreviousSibling;
+        }
+
+        --parent.myChildCount;
+
+        entry.myParent = null;
+        entry.myPreviousSibling = null;
+        entry.myNextSibling = null;
+    }
+
+    private void updateDepth(Entry root, int depth)
+    {
+        final int delta = depth - root.myDepth;
+
+        if (delta == 0)
+        {
+            return;
+        }
+
+        Entry current = root;
+        while (current != null)
+        {
+            current.myDepth += delta;
+            current = nextInPreOrder(root, current);
+        }
+    }
+
+    private static Entry nextInPreOrder(Entry root, Entry current)
+    {
+        if (current.myFirstChild != null)
+        {
+            return current.myFirstChild;
+        }
+
+        return nextSkippingChildren(root, current);
+    }
+
+    private static Entry nextSkippingChildren(Entry root, Entry current)
+    {
+        while (current != root && current.myNextSibling == null)
+        {
+            current = current.myParent;
+
+            if (current == null)
+            {
+                return null;
+            }
+        }
+
+        return current != root ? current.myNextSibling : null;
+    }
+
+    private static Entry nextInPostOrder(Entry root, Entry current)
+    {
+        if (current == root)
+        {
+            return null;
+        }
+
+        if (current.myNextSibling != null)
+        {
+            return firstInPostOrder(current.myNextSibling);
+        }
+
+        return current.myParent;
+    }
+
+    private static Entry firstInPostOrder(Entry entry)
+    {
+        while (entry.myFirstChild != null)
+        {
+            entry = entry.myFirstChild;
+        }
+
+        return entry;
+    }
+
+    private abstract class TreeIterator
+    implements Iterator<TreeNode>
+    {
+        private Entry myNext;
+
+        TreeIterator(Entry first)
+        {
+            myNext = first;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return myNext != null;
+        }
+
+        @Override
+        public TreeNode next()
+        {
+            final Entry current = myNext;
+
+            if (current == null)
+            {
+                throw new NoSuchElementException();
+            }
+
+            myReadLock.lock();
+            try
+            {
+                myNext = advance(current);
+            }
+            finally
+            {
+                myReadLock.unlock();
+            }
+
+            return current.myTreeNode;
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        abstract Entry advance(Entry current);
+    }
+
+    private class PreOrderIterator
+    extends TreeIterator
+    {
+        private final Entry myRoot;
+
+        PreOrderIterator(Entry root)
+        {
+            super(root);
+            myRoot = root;
+        }
+
+        @Override
+        Entry advance(Entry current)
+        {
+            return nextInPreOrder(myRoot, current);
+        }
+    }
+
+    private class PostOrderIterator
+    extends TreeIterator
+    {
+        private final Entry myRoot;
+
+        PostOrderIterator(Entry root)
+        {
+            super(firstInPostOrder(root));
+            myRoot = root;
+        }
+
+        @Override
+        Entry advance(Entry current)
+        {
+            return nextInPostOrder(myRoot, current);
+        }
+    }
+
+    private class LevelOrderIterator
+    extends TreeIterator
+    {
+        private final Deque<Entry> myQueue = new ArrayDeque<Entry>();
+
+        LevelOrderIterator(Entry root)
+        {
+            super(root);
+        }
+
+        @Override
+        Entry advance(Entry current)
+        {
+            for (Entry child = current.myFirstChild; child != null; child = child.myNextSibling)
+            {
+                myQueue.add(child);
+            }
+
+            return myQueue.poll();
+        }
+    }
+
+    private static class Entry
+    {
+        private final EntityRef myNode;
+        private final TreeNode myTreeNode;
+
+        private Entry myParent;
+        private Entry myFirstChild;
+        private Entry myLastChild;
+        private Entry myPreviousSibling;
+        private Entry myNextSibling;
+
+        private int myDepth;
+        private int myChildCount;
+
+        private Entry(EntityRef node, TreeNode treeNode)
+        {
+            myNode = node;
+            myTreeNode = treeNode;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.jayware.e2.assembly.api.TreeEvent.FindChildrenQuery;
 import org.jayware.e2.assembly.api.TreeManager;
 import org.jayware.e2.assembly.api.TreeManagerException;
 import org.jayware.e2.assembly.api.TreeNode;
+import org.jayware.e2.assembly.api.TreeNodeVisitor;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.event.api.EventManager;
@@ -40,10 +41,12 @@ import static org.jayware.e2.assembly.api.TreeEvent.DeleteTreeNodeEvent;
 import static org.jayware.e2.assembly.api.TreeEvent.FindChildrenQuery.ChildrenParam;
 import static org.jayware.e2.assembly.api.TreeEvent.NodeParam;
 import static org.jayware.e2.assembly.api.TreeEvent.NodePendantParam;
+import static org.jayware.e2.assembly.api.TreeEvent.NotifyEachNodeParam;
 import static org.jayware.e2.entity.api.Preconditions.checkRefNotNullAndValid;
 import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
 import static org.jayware.e2.event.api.Parameters.param;
 import static org.jayware.e2.event.api.Query.State.Success;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
 
 
 public class TreeManagerImpl
@@ -82,6 +85,12 @@ implements TreeManager
 
     @Override
     public void deleteTreeNode(TreeNode node)
+    {
+        deleteTreeNode(node, false);
+    }
+
+    @Override
+    public void deleteTreeNode(TreeNode node, boolean notifyEachNode)
     {
         checkNodeNotNullAndValid(node);
 
@@ -90,7 +99,8 @@ implements TreeManager
 
         eventManager.send(DeleteTreeNodeEvent.class,
                           param(ContextParam, context),
-                          param(NodeParam, node));
+                          param(NodeParam, node),
+                          param(NotifyEachNodeParam, notifyEachNode));
     }
 
     @Override
@@ -116,6 +126,45 @@ implements TreeManager
         return resultSet.resultOf(ChildrenParam);
     }
 
+    @Override
+    public Iterable<TreeNode> preOrder(TreeNode node)
+    {
+        return treeHubOf(checkNodeNotNullAndValid(node)).preOrder(node);
+    }
+
+    @Override
+    public Iterable<TreeNode> postOrder(TreeNode node)
+    {
+        return treeHubOf(checkNodeNotNullAndValid(node)).postOrder(node);
+    }
+
+    @Override
+    public Iterable<TreeNode> levelOrder(TreeNode node)
+    {
+        return treeHubOf(checkNodeNotNullAndValid(node)).levelOrder(node);
+    }
+
+    @Override
+    public void accept(TreeNode node, TreeNodeVisitor visitor)
+    {
+        checkNodeNotNullAndValid(node);
+        checkNotNull(visitor);
+
+        treeHubOf(node).accept(node, visitor);
+    }
+
+    private TreeHub treeHubOf(TreeNode node)
+    {
+        final TreeHub treeHub = node.getContext().get(TREE_HUB);
+
+        if (treeHub == null)
+        {
+            throw new TreeManagerException("There is no tree within: " + node.getContext());
+        }
+
+        return treeHub;
+    }
+
     private ResultSet await(ResultSet resultSet)
     {
         if (!resultSet.await(Success, 30, SECONDS))
@@ -0,0 +1,134 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl;
+
+
+import org.jayware.e2.component.api.Aspect;
+
+
+/**
+ * An {@link Aspect} compiled against the ids a {@link ComponentStore} assigned to the types of components.
+ * <p>
+ * The all-of, one-of and none-of sets of the {@link Aspect} are represented as bit masks, which are matched with
+ * the component signature of an entity word by word.
+ *
+ * @see ComponentStore#compile(Aspect)
+ */
+public final class AspectMask
+{
+    private final Aspect myAspect;
+    private final long[] myAllOf;
+    private final long[] myOneOf;
+    private final long[] myNoneOf;
+
+    AspectMask(Aspect aspect, long[] allOf, long[] oneOf, long[] noneOf)
+    {
+        myAspect = aspect;
+        myAllOf = allOf;
+        myOneOf = oneOf;
+        myNoneOf = noneOf;
+    }
+
+    /**
+     * Returns the {@link Aspect} this mask has been compiled from.
+     */
+    public Aspect getAspect()
+    {
+        return myAspect;
+    }
+
+    boolean matches(long[] signature)
+    {
+        boolean matchesOneOf = myOneOf.length == 0;
+
+        for (int i = 0; i < myAllOf.length; ++i)
+        {
+            if ((word(signature, i) & myAllOf[i]) != myAllOf[i])
+            {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < myNoneOf.length; ++i)
+        {
+            if ((word(signature, i) & myNoneOf[i]) != 0)
+            {
+                return false;
+            }
+        }
+
+        for (int i = 0; !matchesOneOf && i < myOneOf.length; ++i)
+        {
+            matchesOneOf = (word(signature, i) & myOneOf[i]) != 0;
+        }
+
+        return matchesOneOf;
+    }
+
+    static long[] set(long[] bits, int index)
+    {
+        final int word = index >>> 6;
+        long[] result = bits;
+
+        if (result == null || result.length <= word)
+        {
+            result = new long[word + 1];
+
+            if (bits != null)
+            {
+                System.arraycopy(bits, 0, result, 0, bits.length);
+            }
+        }
+
+        result[word] |= 1L << index;
+
+        return result;
+    }
+
+    static void clear(long[] bits, int index)
+    {
+        final int word = index >>> 6;
+
+        if (bits != null && word < bits.length)
+        {
+            bits[word] &= ~(1L << index);
+        }
+    }
+
+    static boolean isEmpty(long[] bits)
+    {
+        if (bits != null)
+        {
+            for (long word : bits)
+            {
+                if (word != 0)
+                {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static long word(long[] bits, int index)
+    {
+        return bits != null && index < bits.length ? bits[index] : 0;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl;
+
+
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentChunk;
+import org.jayware.e2.entity.api.EntityRef;
+
+
+/**
+ * The {@link ComponentChunk} of a {@link ComponentStore}. The components are kept column-wise, one array per type.
+ */
+class ComponentChunkImpl
+implements ComponentChunk
+{
+    final Class<? extends Component>[] myTypes;
+    final EntityRef[] myEntities;
+    final Component[][] myComponents;
+    final boolean[][] myChanged;
+
+    int mySize;
+    boolean isChanged;
+
+    ComponentChunkImpl(Class<? extends Component>[] types, int capacity)
+    {
+        myTypes = types;
+        myEntities = new EntityRef[capacity];
+        myComponents = new Component[types.length][capacity];
+        myChanged = new boolean[types.length][capacity];
+    }
+
+    @Override
+    public int size()
+    {
+        return mySize;
+    }
+
+    @Override
+    public EntityRef getEntity(int index)
+    {
+        checkIndex(index);
+        return myEntities[index];
+    }
+
+    @Override
+    public <T extends Component> T getComponent(int index, int column)
+    {
+        checkIndex(index);
+        return (T) myComponents[column][index];
+    }
+
+    @Override
+    public void changed(int index, int column)
+    {
+        checkIndex(index);
+        myChanged[column][index] = true;
+        isChanged = true;
+    }
+
+    boolean isFull()
+    {
+        return mySize == myEntities.length;
+    }
+
+    void clear()
+    {
+        for (int column = 0; column < myTypes.length; ++column)
+        {
+            for (int index = 0; index < mySize; ++index)
+            {
+                myComponents[column][index] = null;
+                myChanged[column][index] = false;
+            }
+        }
+
+        for (int index = 0; index < mySize; ++index)
+        {
+            myEntities[index] = null;
+        }
+
+        mySize = 0;
+        isChanged = false;
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= mySize)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mySize);
+        }
+    }
+}
@@ -27,67 +27,30 @@ import org.jayware.e2.component.api.Component;
 import org.jayware.e2.component.api.ComponentFactory;
 import org.jayware.e2.component.api.ComponentFactoryException;
 import org.jayware.e2.component.api.ComponentInstancer;
-import org.jayware.e2.component.api.ComponentProperty;
 import org.jayware.e2.component.api.MalformedComponentException;
+import org.jayware.e2.component.impl.generation.ComponentClassGenerator;
 import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
-import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlanFactory;
 import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGenerationPlan;
-import org.jayware.e2.component.impl.generation.writer.ComponentCopyConstructorWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentCopyOtherMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentCopyThisMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentDefaultConstructorWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentEqualsMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentGetMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentGetPropertyNamesMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentGetPropertyTypesMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentHasMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentHashCodeMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentPropertyFieldWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentPropertyGetterMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentPropertySetterMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentSetMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentStaticInitializerWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentToStringMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentTypeMethodWriter;
-import org.jayware.e2.component.impl.generation.writer.ComponentWriterFactory;
-import org.objectweb.asm.ClassWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.Class.forName;
-import static java.util.Arrays.asList;
 import static org.jayware.e2.util.Preconditions.checkNotNull;
-import static org.objectweb.asm.Opcodes.ACC_FINAL;
-import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
-import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
-import static org.objectweb.asm.Opcodes.ACC_STATIC;
-import static org.objectweb.asm.Opcodes.ACC_SUPER;
-import static org.objectweb.asm.Opcodes.V1_6;
-import static org.objectweb.asm.Type.getDescriptor;
-import static org.objectweb.asm.Type.getInternalName;
 
 
 public class ComponentFactoryImpl
 implements ComponentFactory
 {
-    private final ComponentWriterFactory myWriterFactory = new ComponentWriterFactory();
-    private final ComponentGenerationPlanFactory myGenerationPlanFactory = new ComponentGenerationPlanFactory();
+    private final ComponentClassGenerator myGenerator = new ComponentClassGenerator();
 
     private final File myOutputDirectory;
 
@@ -203,261 +166,91 @@ implements ComponentFactory
             if (!isComponentPrepared(componentClass))
             {
                 log.debug("Preparing Component: {}", componentClass.getName());
-                generateComponentClass(analyseComponent(componentClass));
+
+                final ComponentGenerationPlan componentGenerationPlan = myGenerator.analyseComponent(componentClass);
+                Class<? extends Component> generatedClass = loadPregeneratedComponentClass(componentGenerationPlan);
+
+                if (generatedClass == null)
+                {
+                    generatedClass = generateComponentClass(componentGenerationPlan);
+                }
+
+                myCache.put(componentClass.getName(), new ComponentInstancerImpl<Component, Component>(componentGenerationPlan, generatedClass));
+
+                log.debug("Component prepared: {}", componentClass.getName());
             }
         }
     }
 
-    private ComponentGenerationPlan analyseComponent(Class<? extends Component> componentClass)
+    private Class<? extends Component> loadPregeneratedComponentClass(ComponentGenerationPlan componentGenerationPlan)
+    throws ComponentFactoryException
     {
-        final ComponentGenerationPlan componentGenerationPlan = myGenerationPlanFactory.createComponentGenerationPlan(componentClass);
-        final Map<String, ComponentPropertyGenerationPlan> propertyDescriptorMap = new HashMap<String, ComponentPropertyGenerationPlan>();
-        final Queue<Class> componentClasses = new LinkedList<Class>();
-        final Set<Method> methods = new HashSet<Method>();
+        final Class<? extends Component> componentClass = componentGenerationPlan.getComponentType();
+        final ClassLoader classLoader = componentClass.getClassLoader();
+        final Class<?> pregeneratedClass;
 
-        componentClasses.add(componentClass);
-        while (!componentClasses.isEmpty())
+        if (classLoader == null)
         {
-            final Class aClass = componentClasses.poll();
-            for (Class interfaceClass : aClass.getInterfaces())
-            {
-                if (!(interfaceClass.isInterface()))
-                {
-                    throw new MalformedComponentException("Invalid inheritance of a non component interface: " + interfaceClass.getName());
-                }
-
-                if (!interfaceClass.equals(Component.class))
-                {
-                    componentClasses.add(interfaceClass);
-                }
-            }
+            return null;
+        }
 
-            methods.addAll(asList(aClass.getDeclaredMethods()));
+        try
+        {
+            pregeneratedClass = classLoader.loadClass(componentGenerationPlan.getGeneratedClassName());
+        }
+        catch (ClassNotFoundException e)
+        {
+            return null;
         }
 
-        for (Method method : methods)
+        if (!AbstractComponent.class.isAssignableFrom(pregeneratedClass) || !componentClass.isAssignableFrom(pregeneratedClass) || Modifier.isAbstract(pregeneratedClass.getModifiers()))
         {
-            final int parameterCount = method.getParameterTypes().length;
-            final String methodName = method.getName();
-            final String methodNamePrefix = methodName.substring(0, 3);
-            final boolean isGetter = "get".equals(methodNamePrefix);
-            final boolean isSetter = "set".equals(methodNamePrefix);
+            throw new ComponentFactoryException("The pregenerated class '" + pregeneratedClass.getName() + "' is not an implementation of: " + componentClass.getName());
+        }
 
-            ComponentPropertyGenerationPlan propertyGenerationPlan;
-            String propertyName;
+        for (ComponentPropertyGenerationPlan propertyPlan : componentGenerationPlan.getComponentPropertyGenerationPlans())
+        {
+            final Method getter = propertyPlan.getPropertyGetterMethod();
+            final Method setter = propertyPlan.getPropertySetterMethod();
 
-            if (isGetter || isSetter)
+            try
             {
-                propertyName = methodName.substring(3);
-                propertyName = propertyName.substring(0, 1).toLowerCase() + propertyName.substring(1);
-                propertyGenerationPlan = propertyDescriptorMap.get(propertyName);
-
-                final ComponentProperty componentPropertyAnnotation = method.getAnnotation(ComponentProperty.class);
-
-                if (propertyGenerationPlan == null)
-                {
-                    propertyGenerationPlan = myGenerationPlanFactory.createComponentPropertyGenerationPlan(componentGenerationPlan, propertyName);
-                    propertyDescriptorMap.put(propertyName, propertyGenerationPlan);
-                }
-
-                if (isGetter)
-                {
-                    if (parameterCount != 0)
-                    {
-                        throw new MalformedComponentException("Invalid getter for property '" + propertyGenerationPlan.getPropertyName() + "'! A getter mustn't have any parameter!");
-                    }
-
-                    if (propertyGenerationPlan.hasSetter())
-                    {
-                        final Method setter = propertyGenerationPlan.getPropertySetterMethod();
-                        final Class<?> parameterType = setter.getParameterTypes()[0];
-
-                        if (!parameterType.equals(method.getReturnType()))
-                        {
-                            throw new MalformedComponentException("Invalid getter for property '" + propertyGenerationPlan.getPropertyName() + "'! The return type of the getter does not match the parameter type of the setter!");
-                        }
-                    }
-
-                    propertyGenerationPlan.setPropertyGetterMethod(method);
-                    propertyGenerationPlan.setPropertyType(method.getReturnType());
-                }
-                else if (isSetter)
-                {
-                    if (parameterCount != 1)
-                    {
-                        throw new MalformedComponentException("Invalid setter for property '" + propertyGenerationPlan.getPropertyName() + "'! A setter has to take exactly one parameter with the appropriate type!");
-                    }
-
-                    if (propertyGenerationPlan.hasGetter())
-                    {
-                        final Method getter = propertyGenerationPlan.getPropertyGetterMethod();
-                        final Class<?> returnType = getter.getReturnType();
-
-                        if (!returnType.equals(method.getParameterTypes()[0]))
-                        {
-                            throw new MalformedComponentException("Invalid setter for property '" + propertyGenerationPlan.getPropertyName() + "'! The parameter type of the setter does not match the return type of the getter!");
-                        }
-                    }
-
-                    propertyGenerationPlan.setPropertySetterMethod(method);
-                }
-
-                if (componentPropertyAnnotation != null)
-                {
-                    if (propertyGenerationPlan.getPropertyAnnotation() != null)
-                    {
-                        throw new MalformedComponentException("Ambiguous ComponentProperty annotation for '" + propertyGenerationPlan.getPropertyName() + "' in '" + propertyGenerationPlan.getPropertyType().getName() + "'! Remove the annotation either from the setter or getter.");
-                    }
-
-                    propertyGenerationPlan.setPropertyAnnotation(componentPropertyAnnotation);
-                }
+                pregeneratedClass.getDeclaredMethod(getter.getName(), getter.getParameterTypes());
+                pregeneratedClass.getDeclaredMethod(setter.getName(), setter.getParameterTypes());
             }
-            else
+            catch (NoSuchMethodException e)
             {
-                throw new MalformedComponentException("Method '" + method + "' is neither a setter nor a getter!");
+                throw new ComponentFactoryException("The pregenerated class '" + pregeneratedClass.getName() + "' is outdated and has to be regenerated: " + componentClass.getName(), e);
             }
         }
 
-        for (ComponentPropertyGenerationPlan propertyGenerationPlan : propertyDescriptorMap.values())
+        /* A class pregenerated by an older generator misses the operations which have been added to AbstractComponent since. */
+        for (Method method : pregeneratedClass.getMethods())
         {
-            if (propertyGenerationPlan.isComplete())
+            if (Modifier.isAbstract(method.getModifiers()))
             {
-                componentGenerationPlan.addComponentPropertyGenerationPlan(propertyGenerationPlan);
-            }
-            else
-            {
-                final String propertyName = propertyGenerationPlan.getPropertyName();
-
-                if (!propertyGenerationPlan.hasGetter())
-                {
-                    throw new MalformedComponentException("There is no getter for property: " + propertyName);
-                }
-                else if (!propertyGenerationPlan.hasSetter())
-                {
-                    throw new MalformedComponentException("There is no setter for property: " + propertyName);
-                }
-                else
-                {
-                    throw new MalformedComponentException("Incomplete ComponentPropertyGenerationPlan: " + propertyGenerationPlan);
-                }
+                throw new ComponentFactoryException("The pregenerated class '" + pregeneratedClass.getName() + "' is outdated and has to be regenerated, it does not implement '" + method + "': " + componentClass.getName());
             }
         }
 
-        return componentGenerationPlan;
+        log.debug("Using pregenerated class for component: {}", componentClass.getName());
+
+        return pregeneratedClass.asSubclass(Component.class);
     }
 
-    private void generateComponentClass(ComponentGenerationPlan componentGenerationPlan)
+    private Class<? extends Component> generateComponentClass(ComponentGenerationPlan componentGenerationPlan)
     throws ComponentFactoryException, MalformedComponentException
     {
-        final ComponentStaticInitializerWriter staticInitializerWriter = myWriterFactory.createComponentStaticInitializerWriter();
-        final ComponentDefaultConstructorWriter defaultConstructorWriter = myWriterFactory.createComponentDefaultConstructorWriter();
-        final ComponentCopyConstructorWriter copyConstructorWriter = myWriterFactory.createComponentCopyConstructorWriter();
-        final ComponentPropertyGetterMethodWriter propertyGetterWriter = myWriterFactory.createComponentPropertyGetterWriter();
-        final ComponentPropertySetterMethodWriter propertySetterWriter = myWriterFactory.createComponentPropertySetterWriter();
-        final ComponentPropertyFieldWriter propertyFieldWriter = myWriterFactory.createComponentPropertyFieldWriter();
-        final ComponentGetPropertyNamesMethodWriter getPropertyNamesMethodWriter = myWriterFactory.createGetPropertyNamesMethodWriter();
-        final ComponentGetPropertyTypesMethodWriter getPropertyTypeNamesMethodWriter = myWriterFactory.createGetPropertyTypeNamesMethodWriter();
-        final ComponentGetMethodWriter getMethodWriter = myWriterFactory.createComponentGetMethodWriter();
-        final ComponentSetMethodWriter setMethodWriter = myWriterFactory.createComponentSetMethodWriter();
-        final ComponentHasMethodWriter hasMethodWriter = myWriterFactory.createComponentHasMethodWriter();
-        final ComponentTypeMethodWriter typeMethodWriter = myWriterFactory.createComponentTypeMethodWriter();
-        final ComponentCopyOtherMethodWriter copyOtherMethodWriter = myWriterFactory.createComponentCopyOtherMethodWriter();
-        final ComponentCopyThisMethodWriter copyThisMethodWriter = myWriterFactory.createComponentCopyThisMethodWriter();
-        final ComponentEqualsMethodWriter equalsMethodWriter = myWriterFactory.createComponentEqualsMethodWriter();
-        final ComponentHashCodeMethodWriter hashCodeMethodWriter = myWriterFactory.createComponentHashcodeMethodWriter();
-        final ComponentToStringMethodWriter toStringMethodWriter = myWriterFactory.createComponentToStringMethodWriter();
-
         final Class<? extends Component> componentClass = componentGenerationPlan.getComponentType();
-
-        componentGenerationPlan.setOutputDirectory(myOutputDirectory);
-        componentGenerationPlan.setClassWriter(new ClassWriter(ClassWriter.COMPUTE_FRAMES));
-
-        final ClassWriter classWriter = componentGenerationPlan.getClassWriter();
         final String classInternalName = componentGenerationPlan.getGeneratedClassInternalName();
+        final byte[] bytecode = myGenerator.generateComponentClass(componentGenerationPlan);
 
-        classWriter.visit(
-            V1_6,
-            ACC_PUBLIC + ACC_SUPER,
-            componentGenerationPlan.getGeneratedClassInternalName(),
-            null,
-            getInternalName(AbstractComponent.class),
-            new String[]{getInternalName(componentClass)}
-        );
-
-        {
-            classWriter.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "ourPropertyNames", getDescriptor(List.class), null, null);
-            classWriter.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "ourPropertyTypes", getDescriptor(List.class), null, null);
-        }
-
-        for (ComponentPropertyGenerationPlan propertyPlan : componentGenerationPlan.getComponentPropertyGenerationPlans())
-        {
-            propertyFieldWriter.writePropertyFieldFor(propertyPlan);
-        }
-
-        staticInitializerWriter.writeStaticInitializerFor(componentGenerationPlan);
-
-        defaultConstructorWriter.writeDefaultConstructorFor(componentGenerationPlan);
-        copyConstructorWriter.writeCopyConstructorFor(componentGenerationPlan);
-
-        for (ComponentPropertyGenerationPlan plan : componentGenerationPlan.getComponentPropertyGenerationPlans())
-        {
-            propertyGetterWriter.writePropertyGetterFor(plan);
-            propertySetterWriter.writePropertySetterFor(plan);
-        }
-
-        getPropertyNamesMethodWriter.writeGetPropertyNamesMethodFor(componentGenerationPlan);
-
-        getPropertyTypeNamesMethodWriter.writeGetPropertyTypeNamesMethodFor(componentGenerationPlan);
-
-        getMethodWriter.writeGetMethodFor(componentGenerationPlan);
-
-        setMethodWriter.writeSetMethodFor(componentGenerationPlan);
-
-        hasMethodWriter.writeHasMethodFor(componentGenerationPlan);
-
-        typeMethodWriter.writeTypeMethodFor(componentGenerationPlan);
-
-        copyThisMethodWriter.writeCopyThisMethodFor(componentGenerationPlan);
-
-        copyOtherMethodWriter.writeCopyOtherMethodFor(componentGenerationPlan);
-
-        equalsMethodWriter.writeEqualsMethodFor(componentGenerationPlan);
-
-        hashCodeMethodWriter.writeHashCodeMethodFor(componentGenerationPlan);
-
-        toStringMethodWriter.writeToStringMethodFor(componentGenerationPlan);
-
-        try
-        {
-            final File classFile = componentGenerationPlan.getGeneratedClassFile();
-            final File parentFile = classFile.getParentFile();
-
-            if (!parentFile.exists())
-            {
-                if (!parentFile.mkdirs())
-                {
-                    throw new IOException("Failed to create output directory: " + parentFile.getAbsolutePath());
-                }
-            }
-
-            DataOutputStream dataOutputStream = new DataOutputStream(new FileOutputStream(classFile));
-            dataOutputStream.write(classWriter.toByteArray());
-            dataOutputStream.flush();
-            dataOutputStream.close();
-        }
-        catch (IOException e)
-        {
-            throw new ComponentFactoryException("Failed to write class file to: " + myOutputDirectory.getAbsolutePath(), e);
-        }
+        myGenerator.writeComponentClass(componentGenerationPlan, bytecode, myOutputDirectory);
 
         try
         {
             final ClassLoader classLoader = new URLClassLoader(new URL[]{myOutputDirectory.toURI().toURL()}, componentClass.getClassLoader());
-            final Class<? extends Component> loadedClass = (Class<? extends Component>) classLoader.loadClass(componentGenerationPlan.getGeneratedClassName());
-
-            myCache.put(componentClass.getName(), new ComponentInstancerImpl<Component, Component>(componentGenerationPlan, loadedClass));
-
-            log.debug("Component prepared: {}", componentClass.getName());
+            return (Class<? extends Component>) classLoader.loadClass(componentGenerationPlan.getGeneratedClassName());
         }
         catch (Exception e)
         {
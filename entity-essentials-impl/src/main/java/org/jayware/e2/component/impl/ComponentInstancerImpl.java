@@ -22,6 +22,7 @@
 package org.jayware.e2.component.impl;
 
 import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentFactoryException;
 import org.jayware.e2.component.api.ComponentInstancer;
 import org.jayware.e2.component.api.ComponentInstantiationException;
 import org.jayware.e2.component.api.ComponentManager;
@@ -32,8 +33,11 @@ import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGeneration
 import org.jayware.e2.context.api.Context;
 
 import java.lang.reflect.Constructor;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 
 public class ComponentInstancerImpl<C extends Component, T extends C>
@@ -41,13 +45,27 @@ implements ComponentInstancer<C>
 {
     private final ComponentGenerationPlan myComponentGenerationPlan;
     private final Class<T> myComponentClass;
+    private final Constructor<T> myConstructor;
     private final Set<Class<? extends ComponentPropertyAdapter>> myRequiredAdaptersSet;
+    private final Map<Context, Boolean> myAdapterRegistrations;
+
+    private volatile Context myLastAdapterRegistration;
 
     public ComponentInstancerImpl(ComponentGenerationPlan componentGenerationPlan, Class<? extends Component> componentClass)
     {
         myComponentGenerationPlan = componentGenerationPlan;
         myComponentClass = (Class<T>) componentClass;
         myRequiredAdaptersSet = new HashSet<Class<? extends ComponentPropertyAdapter>>();
+        myAdapterRegistrations = Collections.synchronizedMap(new WeakHashMap<Context, Boolean>());
+
+        try
+        {
+            myConstructor = myComponentClass.getConstructor(Context.class);
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new ComponentFactoryException("The generated class does not provide a constructor which takes a context: " + componentClass.getName(), e);
+        }
 
         for (ComponentPropertyGenerationPlan propertyPlan : componentGenerationPlan.getComponentPropertyGenerationPlans())
         {
@@ -64,13 +82,11 @@ implements ComponentInstancer<C>
     {
         try
         {
-            final Constructor<C> constructor = (Constructor<C>) myComponentClass.getConstructor(Context.class);
-            final C instance = constructor.newInstance(context);
+            final C instance = myConstructor.newInstance(context);
 
-            final ComponentManager componentManager = context.getService(ComponentManager.class);
-            for (Class<? extends ComponentPropertyAdapter> adapter : myRequiredAdaptersSet)
+            if (!myRequiredAdaptersSet.isEmpty() && myLastAdapterRegistration != context)
             {
-                componentManager.registerPropertyAdapter(context, adapter);
+                registerRequiredAdapters(context);
             }
 
             return instance;
@@ -80,4 +96,23 @@ implements ComponentInstancer<C>
             throw new ComponentInstantiationException(e);
         }
     }
+
+    private void registerRequiredAdapters(Context context)
+    {
+        synchronized (myAdapterRegistrations)
+        {
+            if (!myAdapterRegistrations.containsKey(context))
+            {
+                final ComponentManager componentManager = context.getService(ComponentManager.class);
+                for (Class<? extends ComponentPropertyAdapter> adapter : myRequiredAdaptersSet)
+                {
+                    componentManager.registerPropertyAdapter(context, adapter);
+                }
+
+                myAdapterRegistrations.put(context, Boolean.TRUE);
+            }
+
+            myLastAdapterRegistration = context;
+        }
+    }
 }
@@ -23,7 +23,9 @@ package org.jayware.e2.component.impl;
 
 import org.jayware.e2.component.api.AbstractComponent;
 import org.jayware.e2.component.api.AbstractComponentWrapper;
+import org.jayware.e2.component.api.Aspect;
 import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentChunkVisitor;
 import org.jayware.e2.component.api.ComponentEvent.AddComponentEvent;
 import org.jayware.e2.component.api.ComponentEvent.ComponentTypesQuery;
 import org.jayware.e2.component.api.ComponentEvent.CreateComponentEvent;
@@ -59,6 +61,7 @@ import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
 import static org.jayware.e2.event.api.Parameters.param;
 import static org.jayware.e2.event.api.Query.State.Success;
 import static org.jayware.e2.util.Key.createKey;
+import static org.jayware.e2.util.Preconditions.checkArgument;
 import static org.jayware.e2.util.Preconditions.checkNotNull;
 
 
@@ -66,6 +69,7 @@ public class ComponentManagerImpl
 implements ComponentManager
 {
     private static final long TIMEOUT_IN_MILLIS = 5000;
+    private static final int CHUNK_SIZE = 256;
 
     public static final Key<ComponentStore> COMPONENT_STORE = createKey("org.jayware.e2.ComponentStore");
     public static final Key<ComponentFactory> COMPONENT_FACTORY = createKey("org.jayware.e2.ComponentFactory");
@@ -323,6 +327,34 @@ implements ComponentManager
         return componentStore.hasComponents(ref, components);
     }
 
+    @Override
+    public boolean matches(EntityRef ref, Aspect aspect)
+    {
+        checkRefNotNullAndValid(ref);
+        checkNotNull(aspect);
+
+        final ComponentStore componentStore = getOrCreateComponentStore(ref);
+        return componentStore.matches(ref, aspect);
+    }
+
+    @Override
+    public void forEachChunk(Context context, Aspect aspect, ComponentChunkVisitor visitor, Class<? extends Component>... types)
+    {
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(aspect);
+        checkNotNull(visitor);
+        checkNotNull(types);
+        checkArgument(types.length > 0);
+
+        for (Class<? extends Component> type : types)
+        {
+            checkNotNull(type);
+        }
+
+        final ComponentStore componentStore = getOrCreateComponentStore(context);
+        componentStore.forEachChunk(aspect, types.clone(), visitor, CHUNK_SIZE);
+    }
+
     @Override
     public int getNumberOfComponents(EntityRef ref)
     {
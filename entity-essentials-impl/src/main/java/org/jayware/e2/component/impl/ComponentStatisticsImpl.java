@@ -0,0 +1,235 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl;
+
+
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.storage.api.ComponentStatistics;
+import org.jayware.e2.storage.api.LockStatistics;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.reflect.Modifier.isStatic;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+class ComponentStatisticsImpl
+implements ComponentStatistics
+{
+    /* Sizes in bytes on a 64-bit JVM with compressed references. */
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    private static final int HASH_MAP = 48;
+    private static final int HASH_MAP_NODE = 32;
+    private static final int HASH_MAP_INITIAL_CAPACITY = 16;
+
+    private final Map<Class<? extends Component>, Integer> myNumberOfComponents;
+    private final Map<Class<? extends Component>, Long> myEstimatedFootprints;
+    private final int myTotalNumberOfComponents;
+    private final long myTotalEstimatedFootprint;
+
+    private final long myAddedComponents;
+    private final long myRemovedComponents;
+
+    private final LockStatistics myReadLockStatistics;
+    private final LockStatistics myWriteLockStatistics;
+
+    ComponentStatisticsImpl(Set<Class<? extends Component>> types, Map<Class<? extends Component>, Map<EntityRef, Component>> database,
+                            long addedComponents, long removedComponents,
+                            LockStatistics readLockStatistics, LockStatistics writeLockStatistics)
+    {
+        final Map<Class<? extends Component>, Integer> numberOfComponents = new HashMap<Class<? extends Component>, Integer>();
+        final Map<Class<? extends Component>, Long> estimatedFootprints = new HashMap<Class<? extends Component>, Long>();
+        int totalNumberOfComponents = 0;
+        long totalEstimatedFootprint = 0;
+
+        for (Class<? extends Component> type : types)
+        {
+            final Map<EntityRef, Component> row = database.get(type);
+            final int size = row != null ? row.size() : 0;
+            final long footprint = row != null ? estimateFootprint(row) : 0;
+
+            numberOfComponents.put(type, size);
+            estimatedFootprints.put(type, footprint);
+            totalNumberOfComponents += size;
+            totalEstimatedFootprint += footprint;
+        }
+
+        myNumberOfComponents = Collections.unmodifiableMap(numberOfComponents);
+        myEstimatedFootprints = Collections.unmodifiableMap(estimatedFootprints);
+        myTotalNumberOfComponents = totalNumberOfComponents;
+        myTotalEstimatedFootprint = totalEstimatedFootprint;
+        myAddedComponents = addedComponents;
+        myRemovedComponents = removedComponents;
+        myReadLockStatistics = readLockStatistics;
+        myWriteLockStatistics = writeLockStatistics;
+    }
+
+    @Override
+    public Set<Class<? extends Component>> getComponentTypes()
+    {
+        return myNumberOfComponents.keySet();
+    }
+
+    @Override
+    public int getNumberOfComponents()
+    {
+        return myTotalNumberOfComponents;
+    }
+
+    @Override
+    public int getNumberOfComponents(Class<? extends Component> type)
+    {
+        final Integer numberOfComponents = myNumberOfComponents.get(checkNotNull(type));
+        return numberOfComponents != null ? numberOfComponents : 0;
+    }
+
+    @Override
+    public long getEstimatedFootprint()
+    {
+        return myTotalEstimatedFootprint;
+    }
+
+    @Override
+    public long getEstimatedFootprint(Class<? extends Component> type)
+    {
+        final Long footprint = myEstimatedFootprints.get(checkNotNull(type));
+        return footprint != null ? footprint : 0;
+    }
+
+    @Override
+    public long getNumberOfAddedComponents()
+    {
+        return myAddedComponents;
+    }
+
+    @Override
+    public long getNumberOfRemovedComponents()
+    {
+        return myRemovedComponents;
+    }
+
+    @Override
+    public LockStatistics getReadLockStatistics()
+    {
+        return myReadLockStatistics;
+    }
+
+    @Override
+    public LockStatistics getWriteLockStatistics()
+    {
+        return myWriteLockStatistics;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ComponentStatistics { components: " + myTotalNumberOfComponents +
+               ", estimated footprint: " + myTotalEstimatedFootprint + " bytes, per type: " + myNumberOfComponents + " }";
+    }
+
+    /**
+     * Estimates the bytes occupied by the specified row, its nodes and the shallow size of its components.
+     */
+    static long estimateFootprint(Map<EntityRef, Component> row)
+    {
+        final int size = row.size();
+
+        long footprint = HASH_MAP + align(ARRAY_HEADER + (long) REFERENCE * capacity(size)) + (long) HASH_MAP_NODE * size;
+
+        if (size > 0)
+        {
+            footprint += shallowSize(row.values().iterator().next().getClass()) * size;
+        }
+
+        return footprint;
+    }
+
+    /**
+     * Returns the capacity of the table of a {@link HashMap} with the default load factor holding the specified
+     * number of entries.
+     */
+    static int capacity(int size)
+    {
+        int capacity = HASH_MAP_INITIAL_CAPACITY;
+
+        while (size > capacity - (capacity >>> 2) && capacity < (1 << 30))
+        {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    /**
+     * Returns the shallow size of an instance of the specified class, ignoring the padding between fields.
+     */
+    static long shallowSize(Class<?> type)
+    {
+        long size = OBJECT_HEADER;
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass())
+        {
+            for (Field field : current.getDeclaredFields())
+            {
+                if (!isStatic(field.getModifiers()))
+                {
+                    size += sizeOf(field.getType());
+                }
+            }
+        }
+
+        return align(size);
+    }
+
+    private static int sizeOf(Class<?> type)
+    {
+        if (type == long.class || type == double.class)
+        {
+            return 8;
+        }
+        else if (type == int.class || type == float.class)
+        {
+            return 4;
+        }
+        else if (type == short.class || type == char.class)
+        {
+            return 2;
+        }
+        else if (type == byte.class || type == boolean.class)
+        {
+            return 1;
+        }
+
+        return REFERENCE;
+    }
+
+    private static long align(long size)
+    {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
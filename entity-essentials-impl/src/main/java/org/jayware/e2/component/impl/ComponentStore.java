@@ -26,6 +26,8 @@ import org.jayware.e2.component.api.Aspect;
 import org.jayware.e2.component.api.AspectEvent.AspectGainedEvent;
 import org.jayware.e2.component.api.AspectEvent.AspectLostEvent;
 import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentChunk;
+import org.jayware.e2.component.api.ComponentChunkVisitor;
 import org.jayware.e2.component.api.ComponentEvent.AddComponentEvent;
 import org.jayware.e2.component.api.ComponentEvent.ComponentAddedEvent;
 import org.jayware.e2.component.api.ComponentEvent.ComponentCreatedEvent;
@@ -40,6 +42,7 @@ import org.jayware.e2.component.api.ComponentEvent.PullComponentEvent;
 import org.jayware.e2.component.api.ComponentEvent.PushComponentEvent;
 import org.jayware.e2.component.api.ComponentEvent.RemoveComponentEvent;
 import org.jayware.e2.component.api.ComponentFactory;
+import org.jayware.e2.component.api.ComponentInstancer;
 import org.jayware.e2.component.api.ComponentNotFoundException;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.Disposable;
@@ -50,14 +53,18 @@ import org.jayware.e2.event.api.EventManager;
 import org.jayware.e2.event.api.Handle;
 import org.jayware.e2.event.api.Param;
 import org.jayware.e2.event.api.Query;
+import org.jayware.e2.storage.api.ComponentStatistics;
+import org.jayware.e2.storage.impl.MeasuredLock;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static java.lang.Class.forName;
@@ -87,10 +94,24 @@ implements Disposable
 
     private final Map<String, Class<? extends Component>> myComponentClassMap;
     private final Map<Class<? extends Component>, Map<EntityRef, Component>> myComponentDatabase;
+    private final Map<Class<? extends Component>, ComponentInstancer<? extends Component>> myComponentInstancerMap;
 
-    private final ReadWriteLock myReadWriteLock = new ReentrantReadWriteLock();
-    private final Lock myReadLock = myReadWriteLock.readLock();
-    private final Lock myWriteLock = myReadWriteLock.writeLock();
+    private final Map<Class<? extends Component>, Integer> myComponentTypeIds;
+    private final Map<EntityRef, long[]> mySignatures;
+    private final Map<Aspect, AspectMask> myAspectMasks;
+
+    private Map<Class<? extends Component>, Set<EntityRef>> myChangedComponents;
+    private Set<EntityRef> myDeletedEntities;
+    private volatile boolean isTrackingChanges;
+
+    private final ReentrantReadWriteLock myReadWriteLock = new ReentrantReadWriteLock();
+    private final MeasuredLock myReadLock = new MeasuredLock(myReadWriteLock.readLock());
+    private final MeasuredLock myWriteLock = new MeasuredLock(myReadWriteLock.writeLock());
+
+    private long myAddedComponents;
+    private long myRemovedComponents;
+
+    private final List<ComponentSynchronizer> mySynchronizers = new CopyOnWriteArrayList<ComponentSynchronizer>();
 
     public ComponentStore(Context context)
     {
@@ -100,6 +121,14 @@ implements Disposable
 
         myComponentClassMap = new HashMap<String, Class<? extends Component>>();
         myComponentDatabase = new HashMap<Class<? extends Component>, Map<EntityRef, Component>>();
+        myComponentInstancerMap = new ConcurrentHashMap<Class<? extends Component>, ComponentInstancer<? extends Component>>();
+
+        myComponentTypeIds = new ConcurrentHashMap<Class<? extends Component>, Integer>();
+        mySignatures = new HashMap<EntityRef, long[]>();
+        myAspectMasks = new ConcurrentHashMap<Aspect, AspectMask>();
+
+        myChangedComponents = new HashMap<Class<? extends Component>, Set<EntityRef>>();
+        myDeletedEntities = new HashSet<EntityRef>();
 
         myEventManager.subscribe(context, this);
     }
@@ -157,6 +186,8 @@ implements Disposable
 
     public <T extends Component> T getComponent(EntityRef ref, Class<T> component)
     {
+        synchronize();
+
         myReadLock.lock();
         try
         {
@@ -177,6 +208,8 @@ implements Disposable
 
     public <T extends Component> Collection<T> getComponents(EntityRef ref)
     {
+        synchronize();
+
         myReadLock.lock();
         try
         {
@@ -225,6 +258,8 @@ implements Disposable
 
     public <T extends Component> T findComponent(EntityRef ref, Class<T> type)
     {
+        synchronize();
+
         myReadLock.lock();
         try
         {
@@ -337,6 +372,682 @@ implements Disposable
         }
     }
 
+    /**
+     * Returns the number of components of the specified type.
+     */
+    public int numberOfComponents(Class<? extends Component> type)
+    {
+        myReadLock.lock();
+        try
+        {
+            final Map<EntityRef, Component> row = myComponentDatabase.get(type);
+            return row != null ? row.size() : 0;
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Passes every component of the specified type to the {@link ComponentVisitor} while the read lock of this store
+     * is held. Hence, all visited components belong to the same state of the store.
+     * <p>
+     * <b>Note:</b> The visitor receives the stored instances, which must neither be modified nor be kept. Reading
+     * components of this store from within the visitor throws an {@link IllegalStateException} if a
+     * {@link ComponentSynchronizer} is pending.
+     */
+    public void accept(Class<? extends Component> type, ComponentVisitor visitor)
+    {
+        synchronize();
+
+        myReadLock.lock();
+        try
+        {
+            final Map<EntityRef, Component> row = myComponentDatabase.get(type);
+
+            if (row != null)
+            {
+                for (Map.Entry<EntityRef, Component> entry : row.entrySet())
+                {
+                    visitor.visit(entry.getKey(), (AbstractComponent) entry.getValue());
+                }
+            }
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Passes the components of the specified type, which are associated to the specified {@link EntityRef}s, to
+     * the {@link ComponentVisitor} while the read lock of this store is held. If an {@link EntityRef} has no
+     * component of the specified type, <code>null</code> is passed to the visitor instead.
+     *
+     * @see ComponentStore#accept(Class, ComponentVisitor)
+     */
+    public void accept(Class<? extends Component> type, Collection<EntityRef> refs, ComponentVisitor visitor)
+    {
+        synchronize();
+
+        myReadLock.lock();
+        try
+        {
+            final Map<EntityRef, Component> row = myComponentDatabase.get(type);
+
+            for (EntityRef ref : refs)
+            {
+                visitor.visit(ref, row != null ? (AbstractComponent) row.get(ref) : null);
+            }
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Passes the entities, which match the specified {@link Aspect} and have components of all specified types,
+     * together with these components in {@link ComponentChunk ComponentChunks} of the specified size to the
+     * {@link ComponentChunkVisitor}.
+     * <p>
+     * The entities are taken from the smallest row of the specified types. The write lock of this store is held
+     * while a chunk is filled, visited and its changes are recorded for {@link ComponentStore#takeChanges()}, so
+     * that the visitor is able to modify the stored instances without racing with other readers and writers. The
+     * lock is released between the chunks.
+     *
+     * @see ComponentChunk
+     */
+    public void forEachChunk(Aspect aspect, Class<? extends Component>[] types, ComponentChunkVisitor visitor, int chunkSize)
+    {
+        final AspectMask mask = aspect.getClass() == Aspect.class ? compile(aspect) : null;
+        final EntityRef[] refs;
+
+        if (aspect == Aspect.EMPTY)
+        {
+            return;
+        }
+
+        synchronize();
+
+        myReadLock.lock();
+        try
+        {
+            Map<EntityRef, Component> smallestRow = null;
+
+            for (Class<? extends Component> type : types)
+            {
+                final Map<EntityRef, Component> row = myComponentDatabase.get(type);
+
+                if (row == null || row.isEmpty())
+                {
+                    return;
+                }
+
+                if (smallestRow == null || row.size() < smallestRow.size())
+                {
+                    smallestRow = row;
+                }
+            }
+
+            refs = smallestRow.keySet().toArray(new EntityRef[smallestRow.size()]);
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+
+        final ComponentChunkImpl chunk = new ComponentChunkImpl(types, Math.min(chunkSize, refs.length));
+        final Map<EntityRef, Component>[] rows = new Map[types.length];
+        int next = 0;
+
+        while (next < refs.length)
+        {
+            myWriteLock.lock();
+            try
+            {
+                for (int column = 0; column < types.length; ++column)
+                {
+                    rows[column] = myComponentDatabase.get(types[column]);
+
+                    if (rows[column] == null)
+                    {
+                        return;
+                    }
+                }
+
+                while (next < refs.length && !chunk.isFull())
+                {
+                    final EntityRef ref = refs[next++];
+
+                    if (mask != null ? !mask.matches(mySignatures.get(ref)) : !aspect.matches(ref))
+                    {
+                        continue;
+                    }
+
+                    if (fillChunk(chunk, ref, rows))
+                    {
+                        ++chunk.mySize;
+                    }
+                }
+
+                if (chunk.mySize > 0)
+                {
+                    visitor.visit(chunk);
+                    recordChanges(chunk);
+                }
+            }
+            finally
+            {
+                chunk.clear();
+                myWriteLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Creates a new instance of the specified type of component without firing a {@link ComponentCreatedEvent}.
+     */
+    public AbstractComponent newComponent(Class<? extends Component> type)
+    {
+        return (AbstractComponent) instantiateComponent(type);
+    }
+
+    /**
+     * Puts the specified components of one type into this store under a single write lock. Components which are
+     * already associated to one of the {@link EntityRef}s are replaced.
+     * <p>
+     * <b>Note:</b> In contrast to {@link ComponentStore#addComponent(EntityRef, Class)} neither component nor aspect
+     * events are fired. This operation is meant to restore a store, before the components are in use. Pending
+     * {@link ComponentSynchronizer ComponentSynchronizers} are written first, so that they do not overwrite the put
+     * components afterwards. Once the store has been restored {@link ComponentStore#invalidateSynchronizers()} has to
+     * be invoked.
+     *
+     * @param type the type of the components.
+     * @param refs the {@link EntityRef}s to associate the components to.
+     * @param components the components, which are taken over by this store.
+     * @param length the number of components to put.
+     */
+    public void putComponents(Class<? extends Component> type, EntityRef[] refs, Component[] components, int length)
+    {
+        prepareComponent(type);
+        synchronize();
+
+        myWriteLock.lock();
+        try
+        {
+            Map<EntityRef, Component> row = myComponentDatabase.get(type);
+
+            if (row == null)
+            {
+                row = new HashMap<EntityRef, Component>();
+                myComponentDatabase.put(type, row);
+            }
+
+            for (int i = 0; i < length; ++i)
+            {
+                if (row.put(refs[i], components[i]) == null)
+                {
+                    ++myAddedComponents;
+                }
+
+                addToSignature(refs[i], type);
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the specified components to the specified {@link EntityRef}s under a single write lock. The i-th row of
+     * the array holds the components of the i-th {@link EntityRef}, which are taken over by this store. If an
+     * {@link EntityRef} already has a component of the same type, the state of the passed component is pushed to
+     * it instead.
+     * <p>
+     * After the write lock has been released, a {@link ComponentAddedEvent} respectively {@link ComponentPushedEvent}
+     * is fired for each component and a single {@link AspectGainedEvent} for each {@link EntityRef}.
+     *
+     * @param refs the {@link EntityRef}s to add the components to.
+     * @param components the components of each {@link EntityRef}.
+     */
+    public void addComponents(List<EntityRef> refs, Component[][] components)
+    {
+        final Aspect[] oldAspects = new Aspect[refs.size()];
+        final Aspect[] newAspects = new Aspect[refs.size()];
+        final Component[][] oldComponents = new Component[refs.size()][];
+
+        for (Component[] row : components)
+        {
+            for (Component component : row)
+            {
+                prepareComponent(component.type());
+            }
+        }
+
+        myWriteLock.lock();
+        try
+        {
+            for (int i = 0; i < oldAspects.length; ++i)
+            {
+                final EntityRef ref = refs.get(i);
+
+                oldAspects[i] = getAspect(ref);
+                oldComponents[i] = new Component[components[i].length];
+
+                for (int k = 0; k < components[i].length; ++k)
+                {
+                    final Component component = components[i][k];
+                    Map<EntityRef, Component> row = myComponentDatabase.get(component.type());
+
+                    if (row == null)
+                    {
+                        row = new HashMap<EntityRef, Component>();
+                        myComponentDatabase.put(component.type(), row);
+                    }
+
+                    final AbstractComponent instance = (AbstractComponent) row.get(ref);
+
+                    if (instance == null)
+                    {
+                        row.put(ref, component);
+                        addToSignature(ref, component.type());
+                        ++myAddedComponents;
+                    }
+                    else
+                    {
+                        oldComponents[i][k] = instance.copy();
+                        instance.copy(component);
+                    }
+
+                    markChanged(ref, component.type());
+                }
+
+                newAspects[i] = getAspect(ref);
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+
+        for (int i = 0; i < oldAspects.length; ++i)
+        {
+            final EntityRef ref = refs.get(i);
+
+            for (int k = 0; k < components[i].length; ++k)
+            {
+                if (oldComponents[i][k] == null)
+                {
+                    fireComponentAddedEvent(ref, components[i][k]);
+                }
+                else
+                {
+                    fireComponentPushedEvent(ref, components[i][k], oldComponents[i][k]);
+                }
+            }
+
+            if (!newAspects[i].equals(oldAspects[i]))
+            {
+                fireAspectGainedEvent(ref, newAspects[i], oldAspects[i]);
+            }
+        }
+    }
+
+    /**
+     * Pushes the state of the specified components to the components of the same type, which are associated to the
+     * specified {@link EntityRef}s, under a single write lock. Components which are not associated anymore are
+     * skipped. A {@link ComponentPushedEvent} is fired for each pushed component after the lock has been released.
+     *
+     * @param refs the {@link EntityRef}s of the components.
+     * @param components the new state of the components.
+     */
+    public void pushComponents(List<EntityRef> refs, List<? extends Component> components)
+    {
+        final int size = refs.size();
+        final Component[] newComponents = new Component[size];
+        final Component[] oldComponents = new Component[size];
+
+        myWriteLock.lock();
+        try
+        {
+            for (int i = 0; i < size; ++i)
+            {
+                final EntityRef ref = refs.get(i);
+                final Component component = components.get(i);
+                final AbstractComponent instance = getComponentFromDatabase(ref, component.type());
+
+                if (instance != null)
+                {
+                    oldComponents[i] = instance.copy();
+                    instance.copy(component);
+                    newComponents[i] = instance.copy();
+                    markChanged(ref, component.type());
+                }
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+
+        for (int i = 0; i < size; ++i)
+        {
+            if (newComponents[i] != null)
+            {
+                fireComponentPushedEvent(refs.get(i), newComponents[i], oldComponents[i]);
+            }
+        }
+    }
+
+    /**
+     * Removes the components of one type from the specified {@link EntityRef}s under a single write lock.
+     * <p>
+     * <b>Note:</b> Like {@link ComponentStore#putComponents(Class, EntityRef[], Component[], int)} this operation
+     * fires no events and is meant to restore a store.
+     *
+     * @param type the type of the components.
+     * @param refs the {@link EntityRef}s to remove the components from.
+     * @param length the number of {@link EntityRef}s.
+     */
+    public void removeComponents(Class<? extends Component> type, EntityRef[] refs, int length)
+    {
+        synchronize();
+
+        myWriteLock.lock();
+        try
+        {
+            final Map<EntityRef, Component> row = myComponentDatabase.get(type);
+
+            if (row != null)
+            {
+                for (int i = 0; i < length; ++i)
+                {
+                    if (row.remove(refs[i]) != null)
+                    {
+                        ++myRemovedComponents;
+                    }
+
+                    removeFromSignature(refs[i], type);
+                }
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Starts tracking the changes of this {@link ComponentStore}, unless they are tracked already.
+     * <p>
+     * Changes are not tracked until either this operation or {@link ComponentStore#takeChanges()} is invoked, hence
+     * a {@link ComponentStore} which is never asked for its changes doesn't accumulate them.
+     */
+    public void trackChanges()
+    {
+        myWriteLock.lock();
+        try
+        {
+            isTrackingChanges = true;
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether the changes of this {@link ComponentStore} are tracked.
+     *
+     * @see ComponentStore#trackChanges()
+     */
+    public boolean isTrackingChanges()
+    {
+        return isTrackingChanges;
+    }
+
+    /**
+     * Returns the components which have been added, pushed or removed and the entities which have been deleted
+     * since the last call of this operation, and starts tracking the subsequent changes from scratch.
+     * <p>
+     * The first call returns the changes since {@link ComponentStore#trackChanges()} has been invoked, or an empty
+     * {@link ChangeSet} if the changes have not been tracked so far.
+     * <p>
+     * Changes made through {@link ComponentStore#putComponents(Class, EntityRef[], Component[], int)} and
+     * {@link ComponentStore#removeComponents(Class, EntityRef[], int)} are not tracked.
+     *
+     * @return a {@link ChangeSet}.
+     */
+    public ChangeSet takeChanges()
+    {
+        synchronize();
+
+        myWriteLock.lock();
+        try
+        {
+            final ChangeSet changes = new ChangeSet(myChangedComponents, myDeletedEntities);
+
+            myChangedComponents = new HashMap<Class<? extends Component>, Set<EntityRef>>();
+            myDeletedEntities = new HashSet<EntityRef>();
+            isTrackingChanges = true;
+
+            return changes;
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Merges the specified {@link ChangeSet}, which has been taken by {@link ComponentStore#takeChanges()}, back
+     * into the tracked changes, e.g. because the changes could not be written.
+     *
+     * @param changes a {@link ChangeSet}.
+     */
+    public void restoreChanges(ChangeSet changes)
+    {
+        myWriteLock.lock();
+        try
+        {
+            if (!isTrackingChanges)
+            {
+                return;
+            }
+
+            for (Map.Entry<Class<? extends Component>, Set<EntityRef>> entry : changes.myChangedComponents.entrySet())
+            {
+                for (EntityRef ref : entry.getValue())
+                {
+                    if (!myDeletedEntities.contains(ref))
+                    {
+                        markChanged(ref, entry.getKey());
+                    }
+                }
+            }
+
+            myDeletedEntities.addAll(changes.myDeletedEntities);
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the id of the specified type of component. Ids are assigned in ascending order starting at zero, the
+     * first time a type is passed to this operation, and remain valid for the lifetime of this store.
+     */
+    public int getComponentTypeId(Class<? extends Component> type)
+    {
+        Integer id = myComponentTypeIds.get(type);
+
+        if (id == null)
+        {
+            synchronized (myComponentTypeIds)
+            {
+                id = myComponentTypeIds.get(type);
+
+                if (id == null)
+                {
+                    id = myComponentTypeIds.size();
+                    myComponentTypeIds.put(type, id);
+                }
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * Compiles the all-of, one-of and none-of sets of the specified {@link Aspect} into an {@link AspectMask}.
+     * <p>
+     * <b>Note:</b> The mask considers the sets only. Therefore, {@link Aspect#ANY} and {@link Aspect#EMPTY} are
+     * not compiled as such, but as an {@link Aspect} which matches every entity.
+     */
+    public AspectMask compile(Aspect aspect)
+    {
+        AspectMask mask = myAspectMasks.get(aspect);
+
+        if (mask == null)
+        {
+            mask = new AspectMask(aspect, mask(aspect.getIntersectionSet()), mask(aspect.getUnificationSet()), mask(aspect.getDifferenceSet()));
+            myAspectMasks.put(aspect, mask);
+        }
+
+        return mask;
+    }
+
+    /**
+     * Returns whether the components of the specified {@link EntityRef} match the specified {@link Aspect}.
+     */
+    public boolean matches(EntityRef ref, Aspect aspect)
+    {
+        if (aspect == Aspect.ANY)
+        {
+            return true;
+        }
+
+        if (aspect == Aspect.EMPTY)
+        {
+            myReadLock.lock();
+            try
+            {
+                return AspectMask.isEmpty(mySignatures.get(ref));
+            }
+            finally
+            {
+                myReadLock.unlock();
+            }
+        }
+
+        return matches(ref, compile(aspect));
+    }
+
+    /**
+     * Returns whether the components of the specified {@link EntityRef} match the specified {@link AspectMask}.
+     */
+    public boolean matches(EntityRef ref, AspectMask mask)
+    {
+        myReadLock.lock();
+        try
+        {
+            return mask.matches(mySignatures.get(ref));
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the {@link ComponentStatistics} of this store.
+     */
+    public ComponentStatistics getStatistics()
+    {
+        myReadLock.lock();
+        try
+        {
+            return new ComponentStatisticsImpl(new HashSet<Class<? extends Component>>(myComponentClassMap.values()), myComponentDatabase,
+                myAddedComponents, myRemovedComponents, myReadLock.getStatistics(), myWriteLock.getStatistics()
+            );
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    public void enableLockStatistics()
+    {
+        myReadLock.enable();
+        myWriteLock.enable();
+    }
+
+    public void disableLockStatistics()
+    {
+        myReadLock.disable();
+        myWriteLock.disable();
+    }
+
+    public boolean isLockStatisticsEnabled()
+    {
+        return myReadLock.isEnabled();
+    }
+
+    /**
+     * Adds a {@link ComponentSynchronizer}, which is asked to write its deferred state before components are read.
+     */
+    public void addSynchronizer(ComponentSynchronizer synchronizer)
+    {
+        mySynchronizers.add(synchronizer);
+    }
+
+    public void removeSynchronizer(ComponentSynchronizer synchronizer)
+    {
+        mySynchronizers.remove(synchronizer);
+    }
+
+    /**
+     * Lets every {@link ComponentSynchronizer} discard the state it derived from the components of this store. Must be
+     * invoked after the store has been restored with operations which fire no events, like
+     * {@link ComponentStore#putComponents(Class, EntityRef[], Component[], int)}, so that the derived state is built
+     * from the restored components again.
+     */
+    public void invalidateSynchronizers()
+    {
+        for (ComponentSynchronizer synchronizer : mySynchronizers)
+        {
+            synchronizer.invalidate();
+        }
+    }
+
+    /**
+     * Lets the pending {@link ComponentSynchronizer ComponentSynchronizers} write their state.
+     *
+     * @throws IllegalStateException if a {@link ComponentSynchronizer} is pending while the calling thread holds the
+     *                               read lock but not the write lock of this store, e.g. within a
+     *                               {@link ComponentVisitor}, because the read lock cannot be upgraded.
+     */
+    private void synchronize()
+    {
+        for (ComponentSynchronizer synchronizer : mySynchronizers)
+        {
+            if (synchronizer.isPending())
+            {
+                if (myReadWriteLock.getReadHoldCount() > 0 && !myReadWriteLock.isWriteLockedByCurrentThread())
+                {
+                    throw new IllegalStateException("Pending components can't be written by a thread which holds the read lock of the component store!");
+                }
+
+                synchronizer.synchronize(this);
+            }
+        }
+    }
+
     public Set<Class<? extends Component>> getComponentClasses()
     {
         myReadLock.lock();
@@ -421,9 +1132,22 @@ implements Disposable
                     if (instance != null)
                     {
                         row.remove(ref);
+                        ++myRemovedComponents;
                     }
                 }
             }
+
+            mySignatures.remove(ref);
+
+            if (isTrackingChanges)
+            {
+                for (Set<EntityRef> refs : myChangedComponents.values())
+                {
+                    refs.remove(ref);
+                }
+
+                myDeletedEntities.add(ref);
+            }
         }
         finally
         {
@@ -487,6 +1211,8 @@ implements Disposable
                 instance = (AbstractComponent) instantiateComponent(componentType);
 
                 row.put(ref, instance);
+                addToSignature(ref, componentType);
+                ++myAddedComponents;
                 fireEvents = true;
             }
 
@@ -498,6 +1224,11 @@ implements Disposable
 
                 firePushedEvent = true;
             }
+
+            if (fireEvents || firePushedEvent)
+            {
+                markChanged(ref, componentType);
+            }
         }
         finally
         {
@@ -548,6 +1279,9 @@ implements Disposable
                     newAspect = aspect(getComponentTypes(ref));
 
                     row.remove(ref);
+                    removeFromSignature(ref, componentType);
+                    markChanged(ref, componentType);
+                    ++myRemovedComponents;
 
                     removedComponent = true;
                 }
@@ -580,6 +1314,8 @@ implements Disposable
         Component oldComponent = null;
         boolean fireEvents = false;
 
+        synchronize();
+
         myWriteLock.lock();
         try
         {
@@ -621,6 +1357,7 @@ implements Disposable
             {
                 oldComponent = instance.copy();
                 instance.copy(newComponent);
+                markChanged(ref, newComponent.type());
 
                 fireEvents = true;
             }
@@ -673,14 +1410,124 @@ implements Disposable
         return types;
     }
 
+    private long[] mask(Set<Class<? extends Component>> types)
+    {
+        long[] mask = new long[0];
+
+        for (Class<? extends Component> type : types)
+        {
+            mask = AspectMask.set(mask, getComponentTypeId(type));
+        }
+
+        return mask;
+    }
+
+    /**
+     * Adds the specified type of component to the signature of an entity. Must be called while the write lock is
+     * held.
+     */
+    private void addToSignature(EntityRef ref, Class<? extends Component> type)
+    {
+        mySignatures.put(ref, AspectMask.set(mySignatures.get(ref), getComponentTypeId(type)));
+    }
+
+    /**
+     * Removes the specified type of component from the signature of an entity. Must be called while the write lock
+     * is held.
+     */
+    private void removeFromSignature(EntityRef ref, Class<? extends Component> type)
+    {
+        AspectMask.clear(mySignatures.get(ref), getComponentTypeId(type));
+    }
+
+    /**
+     * Puts the components of the specified entity at the next index of the {@link ComponentChunkImpl}. Must be
+     * called while the read lock is held.
+     *
+     * @return <code>false</code> if the entity lacks a component of one of the types, otherwise <code>true</code>.
+     */
+    private boolean fillChunk(ComponentChunkImpl chunk, EntityRef ref, Map<EntityRef, Component>[] rows)
+    {
+        final int index = chunk.mySize;
+
+        for (int column = 0; column < rows.length; ++column)
+        {
+            final Component component = rows[column].get(ref);
+
+            if (component == null)
+            {
+                while (column > 0)
+                {
+                    chunk.myComponents[--column][index] = null;
+                }
+
+                return false;
+            }
+
+            chunk.myComponents[column][index] = component;
+        }
+
+        chunk.myEntities[index] = ref;
+        return true;
+    }
+
+    /**
+     * Records the components marked as changed within the specified chunk. Must be called while the write lock is
+     * held.
+     */
+    private void recordChanges(ComponentChunkImpl chunk)
+    {
+        if (!chunk.isChanged || !isTrackingChanges)
+        {
+            return;
+        }
+
+        for (int column = 0; column < chunk.myTypes.length; ++column)
+        {
+            for (int index = 0; index < chunk.mySize; ++index)
+            {
+                if (chunk.myChanged[column][index])
+                {
+                    markChanged(chunk.myEntities[index], chunk.myTypes[column]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a change of the component of the specified type of an entity, if changes are tracked. Must be called
+     * while the write lock is held.
+     */
+    private void markChanged(EntityRef ref, Class<? extends Component> type)
+    {
+        if (!isTrackingChanges)
+        {
+            return;
+        }
+
+        Set<EntityRef> refs = myChangedComponents.get(type);
+
+        if (refs == null)
+        {
+            refs = new HashSet<EntityRef>();
+            myChangedComponents.put(type, refs);
+        }
+
+        refs.add(ref);
+    }
+
     private Component instantiateComponent(Class<? extends Component> type)
     {
-        if (!myComponentClassMap.containsKey(type.getName()))
+        ComponentInstancer<? extends Component> instancer = myComponentInstancerMap.get(type);
+
+        if (instancer == null)
         {
             prepareComponent(type);
+            instancer = myComponentFactory.createComponent(type);
+            myComponentInstancerMap.put(type, instancer);
         }
 
-        return myComponentFactory.createComponent(type).newInstance(myContext);
+        return instancer.newInstance(myContext);
     }
 
     @Override
@@ -690,11 +1537,17 @@ implements Disposable
         try
         {
             myComponentClassMap.clear();
+            myComponentInstancerMap.clear();
             for (Map<EntityRef, Component> row : myComponentDatabase.values())
             {
                 row.clear();
             }
             myComponentDatabase.clear();
+            mySignatures.clear();
+            mySynchronizers.clear();
+            myAspectMasks.clear();
+            myChangedComponents.clear();
+            myDeletedEntities.clear();
         }
         finally
         {
@@ -809,4 +1662,87 @@ implements Disposable
             param(OldAspectParam, oldAspect)
         );
     }
+
+    /**
+     * A <code>ComponentSynchronizer</code> maintains components whose state is derived from another structure and
+     * written into the {@link ComponentStore} lazily, i.e. before the components are read. The state is written by
+     * the reading thread, also if it holds the write lock of the store, e.g. within a {@link ComponentChunkVisitor}.
+     *
+     * @see ComponentStore#addSynchronizer(ComponentSynchronizer)
+     */
+    public interface ComponentSynchronizer
+    {
+        /**
+         * Returns whether there is state which has not been written into the {@link ComponentStore} yet.
+         */
+        boolean isPending();
+
+        /**
+         * Writes the pending state into the specified {@link ComponentStore}.
+         */
+        void synchronize(ComponentStore store);
+
+        /**
+         * Discards the pending state and everything derived from the components of the {@link ComponentStore},
+         * because its components have been replaced without firing events.
+         *
+         * @see ComponentStore#invalidateSynchronizers()
+         */
+        void invalidate();
+    }
+
+    /**
+     * Visits the components of a {@link ComponentStore}.
+     *
+     * @see ComponentStore#accept(Class, ComponentVisitor)
+     */
+    public interface ComponentVisitor
+    {
+        void visit(EntityRef ref, AbstractComponent component);
+    }
+
+    /**
+     * The changes of a {@link ComponentStore} between two calls of {@link ComponentStore#takeChanges()}.
+     */
+    public static class ChangeSet
+    {
+        private final Map<Class<? extends Component>, Set<EntityRef>> myChangedComponents;
+        private final Set<EntityRef> myDeletedEntities;
+
+        private ChangeSet(Map<Class<? extends Component>, Set<EntityRef>> changedComponents, Set<EntityRef> deletedEntities)
+        {
+            myChangedComponents = changedComponents;
+            myDeletedEntities = deletedEntities;
+        }
+
+        /**
+         * Returns the types of the components which have been added, pushed or removed.
+         */
+        public Set<Class<? extends Component>> getChangedTypes()
+        {
+            return Collections.unmodifiableSet(myChangedComponents.keySet());
+        }
+
+        /**
+         * Returns the {@link EntityRef}s whose component of the specified type has been added, pushed or removed.
+         */
+        public Set<EntityRef> getChangedComponents(Class<? extends Component> type)
+        {
+            final Set<EntityRef> refs = myChangedComponents.get(type);
+            return refs != null ? Collections.unmodifiableSet(refs) : Collections.<EntityRef>emptySet();
+        }
+
+        /**
+         * Returns the {@link EntityRef}s of the entities which have been deleted.
+         */
+        public Set<EntityRef> getDeletedEntities()
+        {
+            return Collections.unmodifiableSet(myDeletedEntities);
+        }
+
+        public boolean isEmpty()
+        {
+            return myChangedComponents.isEmpty() && myDeletedEntities.isEmpty();
+        }
+    }
 }
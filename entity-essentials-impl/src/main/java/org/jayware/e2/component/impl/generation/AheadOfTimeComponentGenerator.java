@@ -0,0 +1,118 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl.generation;
+
+
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentFactoryException;
+import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+/**
+ * Generates the implementations of components ahead of time.
+ * <p>
+ * The generated class files are written into the specified output directory, which is meant to be the class output
+ * directory of the project declaring the components. At runtime the {@code ComponentFactoryImpl} picks up these classes
+ * from the component's {@link ClassLoader} instead of generating them on first use.
+ * <p>
+ * Usage: {@code AheadOfTimeComponentGenerator <output-directory> <component-class> [<component-class> ...]}
+ * <p>
+ * For example, a gradle build may invoke the generator after compiling the components:
+ * <pre>
+ * task generateComponents(type: JavaExec, dependsOn: classes) {
+ *     classpath = sourceSets.main.runtimeClasspath
+ *     main = 'org.jayware.e2.component.impl.generation.AheadOfTimeComponentGenerator'
+ *     args = [sourceSets.main.output.classesDir, 'com.example.PositionComponent']
+ * }
+ * jar.dependsOn generateComponents
+ * </pre>
+ */
+public class AheadOfTimeComponentGenerator
+{
+    private final ComponentClassGenerator myGenerator = new ComponentClassGenerator();
+
+    private final File myOutputDirectory;
+
+    public AheadOfTimeComponentGenerator(File outputDirectory)
+    {
+        myOutputDirectory = checkNotNull(outputDirectory, "The output directory mustn't be null!");
+    }
+
+    public File generate(Class<? extends Component> componentClass)
+    throws ComponentFactoryException
+    {
+        checkNotNull(componentClass, "The component's class mustn't be null!");
+
+        final ComponentGenerationPlan plan = myGenerator.analyseComponent(componentClass);
+        final byte[] bytecode = myGenerator.generateComponentClass(plan);
+
+        return myGenerator.writeComponentClass(plan, bytecode, myOutputDirectory);
+    }
+
+    public List<File> generate(List<Class<? extends Component>> componentClasses)
+    throws ComponentFactoryException
+    {
+        final List<File> result = new ArrayList<File>(componentClasses.size());
+
+        for (Class<? extends Component> componentClass : componentClasses)
+        {
+            result.add(generate(componentClass));
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args)
+    throws Exception
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: " + AheadOfTimeComponentGenerator.class.getSimpleName() + " <output-directory> <component-class> [<component-class> ...]");
+            System.exit(1);
+        }
+
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final AheadOfTimeComponentGenerator generator = new AheadOfTimeComponentGenerator(new File(args[0]));
+        final List<Class<? extends Component>> componentClasses = new ArrayList<Class<? extends Component>>();
+
+        for (String className : asList(args).subList(1, args.length))
+        {
+            final Class<?> aClass = Class.forName(className, false, classLoader);
+
+            if (!aClass.isInterface() || !Component.class.isAssignableFrom(aClass))
+            {
+                throw new IllegalArgumentException("Not a component: " + className);
+            }
+
+            componentClasses.add(aClass.asSubclass(Component.class));
+        }
+
+        for (File file : generator.generate(componentClasses))
+        {
+            System.out.println("Generated: " + file.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl.generation;
+
+
+import org.jayware.e2.component.api.AbstractComponent;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentFactoryException;
+import org.jayware.e2.component.api.ComponentProperty;
+import org.jayware.e2.component.api.MalformedComponentException;
+import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
+import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlanFactory;
+import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGenerationPlan;
+import org.jayware.e2.component.impl.generation.writer.ComponentCopyConstructorWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentCopyOtherMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentCopyThisMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentDefaultConstructorWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentEqualsMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentGetMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentGetPropertyNamesMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentGetPropertyTypesMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentHasMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentHashCodeMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentIndexOfMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentPrimitiveAccessorMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentPropertyFieldWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentPropertyGetterMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentPropertySetterMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentSerializationMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentSetMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentStaticInitializerWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentToStringMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentTypeMethodWriter;
+import org.jayware.e2.component.impl.generation.writer.ComponentWriterFactory;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.V1_6;
+import static org.objectweb.asm.Type.getDescriptor;
+import static org.objectweb.asm.Type.getInternalName;
+
+
+public class ComponentClassGenerator
+{
+    private final ComponentWriterFactory myWriterFactory = new ComponentWriterFactory();
+    private final ComponentGenerationPlanFactory myGenerationPlanFactory = new ComponentGenerationPlanFactory();
+
+    public ComponentGenerationPlan analyseComponent(Class<? extends Component> componentClass)
+    throws MalformedComponentException
+    {
+        final ComponentGenerationPlan componentGenerationPlan = myGenerationPlanFactory.createComponentGenerationPlan(componentClass);
+        final Map<String, ComponentPropertyGenerationPlan> propertyDescriptorMap = new HashMap<String, ComponentPropertyGenerationPlan>();
+        final Queue<Class> componentClasses = new LinkedList<Class>();
+        final Set<Method> methods = new HashSet<Method>();
+
+        componentClasses.add(componentClass);
+        while (!componentClasses.isEmpty())
+        {
+            final Class aClass = componentClasses.poll();
+            for (Class interfaceClass : aClass.getInterfaces())
+            {
+                if (!(interfaceClass.isInterface()))
+                {
+                    throw new MalformedComponentException("Invalid inheritance of a non component interface: " + interfaceClass.getName());
+                }
+
+                if (!interfaceClass.equals(Component.class))
+                {
+                    componentClasses.add(interfaceClass);
+                }
+            }
+
+            methods.addAll(asList(aClass.getDeclaredMethods()));
+        }
+
+        for (Method method : methods)
+        {
+            final int parameterCount = method.getParameterTypes().length;
+            final String methodName = method.getName();
+            final String methodNamePrefix = methodName.substring(0, 3);
+            final boolean isGetter = "get".equals(methodNamePrefix);
+            final boolean isSetter = "set".equals(methodNamePrefix);
+
+            ComponentPropertyGenerationPlan propertyGenerationPlan;
+            String propertyName;
+
+            if (isGetter || isSetter)
+            {
+                propertyName = methodName.substring(3);
+                propertyName = propertyName.substring(0, 1).toLowerCase() + propertyName.substring(1);
+                propertyGenerationPlan = propertyDescriptorMap.get(propertyName);
+
+                final ComponentProperty componentPropertyAnnotation = method.getAnnotation(ComponentProperty.class);
+
+                if (propertyGenerationPlan == null)
+                {
+                    propertyGenerationPlan = myGenerationPlanFactory.createComponentPropertyGenerationPlan(componentGenerationPlan, propertyName);
+                    propertyDescriptorMap.put(propertyName, propertyGenerationPlan);
+                }
+
+                if (isGetter)
+                {
+                    if (parameterCount != 0)
+                    {
+                        throw new MalformedComponentException("Invalid getter for property '" + propertyGenerationPlan.getPropertyName() + "'! A getter mustn't have any parameter!");
+                    }
+
+                    if (propertyGenerationPlan.hasSetter())
+                    {
+                        final Method setter = propertyGenerationPlan.getPropertySetterMethod();
+                        final Class<?> parameterType = setter.getParameterTypes()[0];
+
+                        if (!parameterType.equals(method.getReturnType()))
+                        {
+                            throw new MalformedComponentException("Invalid getter for property '" + propertyGenerationPlan.getPropertyName() + "'! The return type of the getter does not match the parameter type of the setter!");
+                        }
+                    }
+
+                    propertyGenerationPlan.setPropertyGetterMethod(method);
+                    propertyGenerationPlan.setPropertyType(method.getReturnType());
+                }
+                else if (isSetter)
+                {
+                    if (parameterCount != 1)
+                    {
+                        throw new MalformedComponentException("Invalid setter for property '" + propertyGenerationPlan.getPropertyName() + "'! A setter has to take exactly one parameter with the appropriate type!");
+                    }
+
+                    if (propertyGenerationPlan.hasGetter())
+                    {
+                        final Method getter = propertyGenerationPlan.getPropertyGetterMethod();
+                        final Class<?> returnType = getter.getReturnType();
+
+                        if (!returnType.equals(method.getParameterTypes()[0]))
+                        {
+                            throw new MalformedComponentException("Invalid setter for property '" + propertyGenerationPlan.getPropertyName() + "'! The parameter type of the setter does not match the return type of the getter!");
+                        }
+                    }
+
+                    propertyGenerationPlan.setPropertySetterMethod(method);
+                }
+
+                if (componentPropertyAnnotation != null)
+                {
+                    if (propertyGenerationPlan.getPropertyAnnotation() != null)
+                    {
+                        throw new MalformedComponentException("Ambiguous ComponentProperty annotation for '" + propertyGenerationPlan.getPropertyName() + "' in '" + propertyGenerationPlan.getPropertyType().getName() + "'! Remove the annotation either from the setter or getter.");
+                    }
+
+                    propertyGenerationPlan.setPropertyAnnotation(componentPropertyAnnotation);
+                }
+            }
+            else
+            {
+                throw new MalformedComponentException("Method '" + method + "' is neither a setter nor a getter!");
+            }
+        }
+
+        for (ComponentPropertyGenerationPlan propertyGenerationPlan : propertyDescriptorMap.values())
+        {
+            if (propertyGenerationPlan.isComplete())
+            {
+                componentGenerationPlan.addComponentPropertyGenerationPlan(propertyGenerationPlan);
+            }
+            else
+            {
+                final String propertyName = propertyGenerationPlan.getPropertyName();
+
+                if (!propertyGenerationPlan.hasGetter())
+                {
+                    throw new MalformedComponentException("There is no getter for property: " + propertyName);
+                }
+                else if (!propertyGenerationPlan.hasSetter())
+                {
+                    throw new MalformedComponentException("There is no setter for property: " + propertyName);
+                }
+                else
+                {
+                    throw new MalformedComponentException("Incomplete ComponentPropertyGenerationPlan: " + propertyGenerationPlan);
+                }
+            }
+        }
+
+        return componentGenerationPlan;
+    }
+
+    public byte[] generateComponentClass(ComponentGenerationPlan componentGenerationPlan)
+    throws ComponentFactoryException, MalformedComponentException
+    {
+        final ComponentStaticInitializerWriter staticInitializerWriter = myWriterFactory.createComponentStaticInitializerWriter();
+        final ComponentDefaultConstructorWriter defaultConstructorWriter = myWriterFactory.createComponentDefaultConstructorWriter();
+        final ComponentCopyConstructorWriter copyConstructorWriter = myWriterFactory.createComponentCopyConstructorWriter();
+        final ComponentPropertyGetterMethodWriter propertyGetterWriter = myWriterFactory.createComponentPropertyGetterWriter();
+        final ComponentPropertySetterMethodWriter propertySetterWriter = myWriterFactory.createComponentPropertySetterWriter();
+        final ComponentPropertyFieldWriter propertyFieldWriter = myWriterFactory.createComponentPropertyFieldWriter();
+        final ComponentGetPropertyNamesMethodWriter getPropertyNamesMethodWriter = myWriterFactory.createGetPropertyNamesMethodWriter();
+        final ComponentGetPropertyTypesMethodWriter getPropertyTypeNamesMethodWriter = myWriterFactory.createGetPropertyTypeNamesMethodWriter();
+        final ComponentIndexOfMethodWriter indexOfMethodWriter = myWriterFactory.createComponentIndexOfMethodWriter();
+        final ComponentGetMethodWriter getMethodWriter = myWriterFactory.createComponentGetMethodWriter();
+        final ComponentSetMethodWriter setMethodWriter = myWriterFactory.createComponentSetMethodWriter();
+        final ComponentPrimitiveAccessorMethodWriter primitiveAccessorMethodWriter = myWriterFactory.createComponentPrimitiveAccessorMethodWriter();
+        final ComponentHasMethodWriter hasMethodWriter = myWriterFactory.createComponentHasMethodWriter();
+        final ComponentSerializationMethodWriter serializationMethodWriter = myWriterFactory.createComponentSerializationMethodWriter();
+        final ComponentTypeMethodWriter typeMethodWriter = myWriterFactory.createComponentTypeMethodWriter();
+        final ComponentCopyOtherMethodWriter copyOtherMethodWriter = myWriterFactory.createComponentCopyOtherMethodWriter();
+        final ComponentCopyThisMethodWriter copyThisMethodWriter = myWriterFactory.createComponentCopyThisMethodWriter();
+        final ComponentEqualsMethodWriter equalsMethodWriter = myWriterFactory.createComponentEqualsMethodWriter();
+        final ComponentHashCodeMethodWriter hashCodeMethodWriter = myWriterFactory.createComponentHashcodeMethodWriter();
+        final ComponentToStringMethodWriter toStringMethodWriter = myWriterFactory.createComponentToStringMethodWriter();
+
+        final Class<? extends Component> componentClass = componentGenerationPlan.getComponentType();
+
+        componentGenerationPlan.setClassWriter(new ClassWriter(ClassWriter.COMPUTE_FRAMES));
+
+        final ClassWriter classWriter = componentGenerationPlan.getClassWriter();
+
+        classWriter.visit(
+            V1_6,
+            ACC_PUBLIC + ACC_SUPER,
+            componentGenerationPlan.getGeneratedClassInternalName(),
+            null,
+            getInternalName(AbstractComponent.class),
+            new String[]{getInternalName(componentClass)}
+        );
+
+        {
+            classWriter.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "ourPropertyNames", getDescriptor(List.class), null, null);
+            classWriter.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "ourPropertyTypes", getDescriptor(List.class), null, null);
+        }
+
+        for (ComponentPropertyGenerationPlan propertyPlan : componentGenerationPlan.getComponentPropertyGenerationPlans())
+        {
+            propertyFieldWriter.writePropertyFieldFor(propertyPlan);
+        }
+
+        staticInitializerWriter.writeStaticInitializerFor(componentGenerationPlan);
+
+        defaultConstructorWriter.writeDefaultConstructorFor(componentGenerationPlan);
+        copyConstructorWriter.writeCopyConstructorFor(componentGenerationPlan);
+
+        for (ComponentPropertyGenerationPlan plan : componentGenerationPlan.getComponentPropertyGenerationPlans())
+        {
+            propertyGetterWriter.writePropertyGetterFor(plan);
+            propertySetterWriter.writePropertySetterFor(plan);
+        }
+
+        getPropertyNamesMethodWriter.writeGetPropertyNamesMethodFor(componentGenerationPlan);
+
+        getPropertyTypeNamesMethodWriter.writeGetPropertyTypeNamesMethodFor(componentGenerationPlan);
+
+        indexOfMethodWriter.writeIndexOfMethodFor(componentGenerationPlan);
+
+        getMethodWriter.writeGetMethodFor(componentGenerationPlan);
+
+        setMethodWriter.writeSetMethodFor(componentGenerationPlan);
+
+        primitiveAccessorMethodWriter.writePrimitiveAccessorMethodsFor(componentGenerationPlan);
+
+        hasMethodWriter.writeHasMethodFor(componentGenerationPlan);
+
+        serializationMethodWriter.writeSerializationMethodsFor(componentGenerationPlan);
+
+        typeMethodWriter.writeTypeMethodFor(componentGenerationPlan);
+
+        copyThisMethodWriter.writeCopyThisMethodFor(componentGenerationPlan);
+
+        copyOtherMethodWriter.writeCopyOtherMethodFor(componentGenerationPlan);
+
+        equalsMethodWriter.writeEqualsMethodFor(componentGenerationPlan);
+
+        hashCodeMethodWriter.writeHashCodeMethodFor(componentGenerationPlan);
+
+        toStringMethodWriter.writeToStringMethodFor(componentGenerationPlan);
+
+        classWriter.visitEnd();
+
+        return classWriter.toByteArray();
+    }
+
+    public File writeComponentClass(ComponentGenerationPlan componentGenerationPlan, byte[] bytecode, File outputDirectory)
+    throws ComponentFactoryException
+    {
+        componentGenerationPlan.setOutputDirectory(outputDirectory);
+
+        try
+        {
+            final File classFile = componentGenerationPlan.getGeneratedClassFile();
+            final File parentFile = classFile.getParentFile();
+
+            if (!parentFile.exists())
+            {
+                if (!parentFile.mkdirs())
+                {
+                    throw new IOException("Failed to create output directory: " + parentFile.getAbsolutePath());
+                }
+            }
+
+            final DataOutputStream dataOutputStream = new DataOutputStream(new FileOutputStream(classFile));
+            try
+            {
+                dataOutputStream.write(bytecode);
+                dataOutputStream.flush();
+            }
+            finally
+            {
+                dataOutputStream.close();
+            }
+
+            return classFile;
+        }
+        catch (IOException e)
+        {
+            throw new ComponentFactoryException("Failed to write class file to: " + outputDirectory.getAbsolutePath(), e);
+        }
+    }
+}
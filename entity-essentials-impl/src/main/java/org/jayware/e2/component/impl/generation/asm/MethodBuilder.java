@@ -44,16 +44,24 @@ import static org.objectweb.asm.Opcodes.ARETURN;
 import static org.objectweb.asm.Opcodes.ARRAYLENGTH;
 import static org.objectweb.asm.Opcodes.ASTORE;
 import static org.objectweb.asm.Opcodes.ATHROW;
+import static org.objectweb.asm.Opcodes.BIPUSH;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
 import static org.objectweb.asm.Opcodes.DCONST_0;
 import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.F2D;
 import static org.objectweb.asm.Opcodes.FCONST_0;
 import static org.objectweb.asm.Opcodes.GETFIELD;
 import static org.objectweb.asm.Opcodes.GETSTATIC;
 import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.I2D;
+import static org.objectweb.asm.Opcodes.I2F;
+import static org.objectweb.asm.Opcodes.I2L;
+import static org.objectweb.asm.Opcodes.IADD;
 import static org.objectweb.asm.Opcodes.ICONST_0;
 import static org.objectweb.asm.Opcodes.ICONST_1;
+import static org.objectweb.asm.Opcodes.ICONST_M1;
 import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.IFLT;
 import static org.objectweb.asm.Opcodes.IFNE;
 import static org.objectweb.asm.Opcodes.IFNONNULL;
 import static org.objectweb.asm.Opcodes.IFNULL;
@@ -65,6 +73,9 @@ import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.IRETURN;
 import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.ISUB;
+import static org.objectweb.asm.Opcodes.L2D;
+import static org.objectweb.asm.Opcodes.L2F;
 import static org.objectweb.asm.Opcodes.LCONST_0;
 import static org.objectweb.asm.Opcodes.NEW;
 import static org.objectweb.asm.Opcodes.NEWARRAY;
@@ -73,6 +84,7 @@ import static org.objectweb.asm.Opcodes.POP2;
 import static org.objectweb.asm.Opcodes.PUTFIELD;
 import static org.objectweb.asm.Opcodes.PUTSTATIC;
 import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
 import static org.objectweb.asm.Opcodes.SWAP;
 import static org.objectweb.asm.Type.VOID_TYPE;
 import static org.objectweb.asm.Type.getDescriptor;
@@ -119,6 +131,26 @@ public class MethodBuilder
         myVisitor.visitInsn(ICONST_1);
     }
 
+    public void pushInt(int value)
+    {
+        if (value >= -1 && value <= 5)
+        {
+            myVisitor.visitInsn(ICONST_M1 + value + 1);
+        }
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+        {
+            myVisitor.visitIntInsn(BIPUSH, value);
+        }
+        else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+        {
+            myVisitor.visitIntInsn(SIPUSH, value);
+        }
+        else
+        {
+            myVisitor.visitLdcInsn(value);
+        }
+    }
+
     public void newInstanceOf(Class<?> type)
     {
         myVisitor.visitTypeInsn(NEW, getInternalName(type));
@@ -322,6 +354,32 @@ public class MethodBuilder
         myVisitor.visitJumpInsn(IFNE, label);
     }
 
+    /**
+     * Jumps if the current stack element is less than 0.
+     */
+    public void jumpIfLessThanZero(Label label)
+    {
+        myVisitor.visitJumpInsn(IFLT, label);
+    }
+
+    /**
+     * Jumps to the label at position (value - min) if the current stack element is within [min, max], otherwise to
+     * the default label.
+     */
+    public void tableSwitch(int min, int max, Label defaultLabel, Label... labels)
+    {
+        myVisitor.visitTableSwitchInsn(min, max, defaultLabel, labels);
+    }
+
+    /**
+     * Jumps to the label which corresponds to the current stack element, otherwise to the default label. The keys
+     * have to be sorted in ascending order.
+     */
+    public void lookupSwitch(Label defaultLabel, int[] keys, Label[] labels)
+    {
+        myVisitor.visitLookupSwitchInsn(defaultLabel, keys, labels);
+    }
+
     public void jumpIfNull(Label label)
     {
         myVisitor.visitJumpInsn(IFNULL, label);
@@ -357,6 +415,132 @@ public class MethodBuilder
         myVisitor.visitTypeInsn(CHECKCAST, internalName);
     }
 
+    public void box(Class<?> type)
+    {
+        if (isBooleanPrimitiveType(type))
+        {
+            invokeStaticMethod(Boolean.class, "valueOf", Boolean.class, boolean.class);
+        }
+        else if (isBytePrimitiveType(type))
+        {
+            invokeStaticMethod(Byte.class, "valueOf", Byte.class, byte.class);
+        }
+        else if (isShortPrimitiveType(type))
+        {
+            invokeStaticMethod(Short.class, "valueOf", Short.class, short.class);
+        }
+        else if (isIntegerPrimitiveType(type))
+        {
+            invokeStaticMethod(Integer.class, "valueOf", Integer.class, int.class);
+        }
+        else if (isLongPrimitiveType(type))
+        {
+            invokeStaticMethod(Long.class, "valueOf", Long.class, long.class);
+        }
+        else if (isFloatPrimitiveType(type))
+        {
+            invokeStaticMethod(Float.class, "valueOf", Float.class, float.class);
+        }
+        else if (isDoublePrimitiveType(type))
+        {
+            invokeStaticMethod(Double.class, "valueOf", Double.class, double.class);
+        }
+        else
+        {
+            throw new RuntimeException();
+        }
+    }
+
+    public void unbox(Class<?> type)
+    {
+        if (isBooleanPrimitiveType(type))
+        {
+            invokeVirtualMethod(Boolean.class, "booleanValue", boolean.class);
+        }
+        else if (isBytePrimitiveType(type))
+        {
+            invokeVirtualMethod(Byte.class, "byteValue", byte.class);
+        }
+        else if (isShortPrimitiveType(type))
+        {
+            invokeVirtualMethod(Short.class, "shortValue", short.class);
+        }
+        else if (isIntegerPrimitiveType(type))
+        {
+            invokeVirtualMethod(Integer.class, "intValue", int.class);
+        }
+        else if (isLongPrimitiveType(type))
+        {
+            invokeVirtualMethod(Long.class, "longValue", long.class);
+        }
+        else if (isFloatPrimitiveType(type))
+        {
+            invokeVirtualMethod(Float.class, "floatValue", float.class);
+        }
+        else if (isDoublePrimitiveType(type))
+        {
+            invokeVirtualMethod(Double.class, "doubleValue", double.class);
+        }
+        else
+        {
+            throw new RuntimeException();
+        }
+    }
+
+    /**
+     * Converts the current stack element from one primitive type to another by a widening primitive conversion.
+     */
+    public void convert(Class<?> from, Class<?> to)
+    {
+        final int fromSort = getType(from).getSort();
+        final int toSort = getType(to).getSort();
+        final boolean fromInt = fromSort == Type.BYTE || fromSort == Type.SHORT || fromSort == Type.INT;
+
+        if (fromSort == toSort || (fromInt && (toSort == Type.SHORT || toSort == Type.INT)))
+        {
+            return;
+        }
+
+        if (fromInt && toSort == Type.LONG)
+        {
+            myVisitor.visitInsn(I2L);
+        }
+        else if (fromInt && toSort == Type.FLOAT)
+        {
+            myVisitor.visitInsn(I2F);
+        }
+        else if (fromInt && toSort == Type.DOUBLE)
+        {
+            myVisitor.visitInsn(I2D);
+        }
+        else if (fromSort == Type.LONG && toSort == Type.FLOAT)
+        {
+            myVisitor.visitInsn(L2F);
+        }
+        else if (fromSort == Type.LONG && toSort == Type.DOUBLE)
+        {
+            myVisitor.visitInsn(L2D);
+        }
+        else if (fromSort == Type.FLOAT && toSort == Type.DOUBLE)
+        {
+            myVisitor.visitInsn(F2D);
+        }
+        else
+        {
+            throw new RuntimeException();
+        }
+    }
+
+    public void addInt()
+    {
+        myVisitor.visitInsn(IADD);
+    }
+
+    public void subtractInt()
+    {
+        myVisitor.visitInsn(ISUB);
+    }
+
     public void swap()
     {
         myVisitor.visitInsn(SWAP);
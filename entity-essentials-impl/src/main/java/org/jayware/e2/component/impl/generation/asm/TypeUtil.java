@@ -228,4 +228,41 @@ public class TypeUtil
             throw new RuntimeException();
         }
     }
+
+    /**
+     * Returns whether a value of the primitive type <code>from</code> is assignable to the primitive type
+     * <code>to</code>, either because both types are the same or by a widening primitive conversion.
+     */
+    public static boolean isAssignablePrimitiveType(Class<?> from, Class<?> to)
+    {
+        if (!isPrimitiveType(from) || !isPrimitiveType(to))
+        {
+            return false;
+        }
+
+        if (from.equals(to))
+        {
+            return true;
+        }
+
+        final int fromRank = primitiveNumericTypeRank(from);
+        final int toRank = primitiveNumericTypeRank(to);
+
+        return fromRank >= 0 && toRank >= 0 && fromRank < toRank;
+    }
+
+    private static int primitiveNumericTypeRank(Class<?> type)
+    {
+        switch (getType(type).getSort())
+        {
+            case Type.BYTE: return 0;
+            case Type.SHORT: return 1;
+            case Type.INT: return 2;
+            case Type.LONG: return 3;
+            case Type.FLOAT: return 4;
+            case Type.DOUBLE: return 5;
+        }
+
+        return -1;
+    }
 }
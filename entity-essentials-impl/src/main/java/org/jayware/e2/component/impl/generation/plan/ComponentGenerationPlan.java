@@ -27,8 +27,8 @@ import org.objectweb.asm.ClassWriter;
 
 import java.io.File;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static org.objectweb.asm.Type.getInternalName;
 
@@ -50,7 +50,7 @@ public class ComponentGenerationPlan
         myComponentType = component;
         myGeneratedClassPackageName = component.getPackage().getName();
         myGeneratedClassName = "_generated_" + component.getSimpleName();
-        myPropertyGenerationPlans = new HashMap<String, ComponentPropertyGenerationPlan>();
+        myPropertyGenerationPlans = new TreeMap<String, ComponentPropertyGenerationPlan>();
     }
 
     public Class<? extends Component> getComponentType()
@@ -78,6 +78,10 @@ public class ComponentGenerationPlan
         myPropertyGenerationPlans.remove(plan.getPropertyName());
     }
 
+    /**
+     * Returns the {@link ComponentPropertyGenerationPlan}s sorted by the name of the property. The position of a plan
+     * within the returned {@link Collection} is the index of the property.
+     */
     public Collection<ComponentPropertyGenerationPlan> getComponentPropertyGenerationPlans()
     {
         return myPropertyGenerationPlans.values();
@@ -22,98 +22,87 @@
 package org.jayware.e2.component.impl.generation.writer;
 
 
+import org.jayware.e2.component.impl.generation.asm.MethodBuilder;
 import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
 import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGenerationPlan;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
-import org.objectweb.asm.MethodVisitor;
-import org.objectweb.asm.Type;
-
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isBooleanPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isBytePrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isDoublePrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isFloatPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isIntegerPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isLongPrimitiveType;
+
+import java.util.Collection;
+
+import static org.jayware.e2.component.impl.generation.asm.MethodBuilder.createMethodBuilder;
 import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isShortPrimitiveType;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
-import static org.objectweb.asm.Opcodes.ACONST_NULL;
-import static org.objectweb.asm.Opcodes.ALOAD;
-import static org.objectweb.asm.Opcodes.ARETURN;
-import static org.objectweb.asm.Opcodes.GETFIELD;
-import static org.objectweb.asm.Opcodes.IFEQ;
-import static org.objectweb.asm.Opcodes.INVOKESTATIC;
-import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
-import static org.objectweb.asm.Type.getDescriptor;
-import static org.objectweb.asm.Type.getInternalName;
 
 
 public class ComponentGetMethodWriter
 {
     public void writeGetMethodFor(ComponentGenerationPlan componentPlan)
+    {
+        writeGetByNameMethodFor(componentPlan);
+        writeGetByIndexMethodFor(componentPlan);
+    }
+
+    private void writeGetByNameMethodFor(ComponentGenerationPlan componentPlan)
     {
         final String classInternalName = componentPlan.getGeneratedClassInternalName();
         final ClassWriter classWriter = componentPlan.getClassWriter();
-        final MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "get", "(Ljava/lang/String;)Ljava/lang/Object;", null, null);
 
-        visitor.visitCode();
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, "get", "(Ljava/lang/String;)Ljava/lang/Object;");
+        builder.beginMethod();
+        builder.loadThis();
+        builder.loadThis();
+        builder.loadReferenceVariable(1);
+        builder.invokeVirtualMethod(classInternalName, "indexOf", int.class, String.class);
+        builder.invokeVirtualMethod(classInternalName, "get", Object.class, int.class);
+        builder.returnReference();
+        builder.endMethod();
+    }
 
-        for (ComponentPropertyGenerationPlan propertyPlan : componentPlan.getComponentPropertyGenerationPlans())
-        {
-            final String propertyName = propertyPlan.getPropertyName();
-            final Class<?> propertyType = propertyPlan.getPropertyType();
-            final String propertyTypeDescriptor = Type.getDescriptor(propertyPlan.getPropertyType());
+    private void writeGetByIndexMethodFor(ComponentGenerationPlan componentPlan)
+    {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
+        final ClassWriter classWriter = componentPlan.getClassWriter();
+        final Collection<ComponentPropertyGenerationPlan> propertyPlans = componentPlan.getComponentPropertyGenerationPlans();
 
-            final Label endIfPropertyNameEqualsLabel = new Label();
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, "get", "(I)Ljava/lang/Object;");
+        builder.beginMethod();
 
-            visitor.visitLdcInsn(propertyName);
-            visitor.visitVarInsn(ALOAD, 1);
-            visitor.visitMethodInsn(INVOKEVIRTUAL, getInternalName(String.class), "equals", "(Ljava/lang/Object;)Z", false);
-            visitor.visitJumpInsn(IFEQ, endIfPropertyNameEqualsLabel);
+        final Label notFound = new Label();
 
-            visitor.visitVarInsn(ALOAD, 0);
-            visitor.visitFieldInsn(GETFIELD, classInternalName, propertyName, propertyTypeDescriptor);
+        if (!propertyPlans.isEmpty())
+        {
+            final Label[] labels = new Label[propertyPlans.size()];
 
-            if (isPrimitiveType(propertyType))
+            for (int i = 0; i < labels.length; ++i)
             {
-                if (isBooleanPrimitiveType(propertyType))
-                {
-                    visitor.visitMethodInsn(INVOKESTATIC, getInternalName(Boolean.class), "valueOf", "(Z)" + getDescriptor(Boolean.class), false);
-                }
-                else if (isBytePrimitiveType(propertyType))
-                {
-                    visitor.visitMethodInsn(INVOKESTATIC, getInternalName(Byte.class), "valueOf", "(B)" + getDescriptor(Byte.class), false);
-                }
-                else if (isShortPrimitiveType(propertyType))
-                {
-                    visitor.visitMethodInsn(INVOKESTATIC, getInternalName(Short.class), "valueOf", "(S)" + getDescriptor(Short.class), false);
-                }
-                else if (isIntegerPrimitiveType(propertyType))
-                {
-                    visitor.visitMethodInsn(INVOKESTATIC, getInternalName(Integer.class), "valueOf", "(I)" + getDescriptor(Integer.class), false);
-                }
-                else if (isLongPrimitiveType(propertyType))
-                {
-                    visitor.visitMethodInsn(INVOKESTATIC, getInternalName(Long.class), "valueOf", "(J)" + getDescriptor(Long.class), false);
-                }
-                else if (isFloatPrimitiveType(propertyType))
-                {
-                    visitor.visitMethodInsn(INVOKESTATIC, getInternalName(Float.class), "valueOf", "(F)" + getDescriptor(Float.class), false);
-                }
-                else if (isDoublePrimitiveType(propertyType))
+                labels[i] = new Label();
+            }
+
+            builder.loadVariable(1, int.class);
+            builder.tableSwitch(0, labels.length - 1, notFound, labels);
+
+            int index = 0;
+            for (ComponentPropertyGenerationPlan propertyPlan : propertyPlans)
+            {
+                final Class<?> propertyType = propertyPlan.getPropertyType();
+
+                builder.label(labels[index++]);
+                builder.loadThis();
+                builder.loadField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+
+                if (isPrimitiveType(propertyType))
                 {
-                    visitor.visitMethodInsn(INVOKESTATIC, getInternalName(Double.class), "valueOf", "(D)" + getDescriptor(Double.class), false);
+                    builder.box(propertyType);
                 }
-            }
 
-            visitor.visitInsn(ARETURN);
-            visitor.visitLabel(endIfPropertyNameEqualsLabel);
+                builder.returnReference();
+            }
         }
 
-        visitor.visitInsn(ACONST_NULL);
-        visitor.visitInsn(ARETURN);
-        visitor.visitMaxs(0, 0);
-        visitor.visitEnd();
+        builder.label(notFound);
+        builder.pushNull();
+        builder.returnReference();
+        builder.endMethod();
     }
 }
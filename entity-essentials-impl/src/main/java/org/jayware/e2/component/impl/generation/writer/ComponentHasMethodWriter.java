@@ -25,6 +25,7 @@ package org.jayware.e2.component.impl.generation.writer;
 import org.jayware.e2.component.impl.generation.asm.MethodBuilder;
 import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
 
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 
@@ -33,14 +34,24 @@ public class ComponentHasMethodWriter
 {
     public void writeHasMethodFor(ComponentGenerationPlan componentPlan)
     {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
         final ClassWriter classWriter = componentPlan.getClassWriter();
 
         final MethodBuilder methodBuilder = MethodBuilder.createMethodBuilder(classWriter, ACC_PUBLIC, "has", "(Ljava/lang/String;)Z");
         methodBuilder.beginMethod();
-        methodBuilder.newInstanceOf(UnsupportedOperationException.class);
-        methodBuilder.duplicateTopStackElement();
-        methodBuilder.invokeConstructor(UnsupportedOperationException.class);
-        methodBuilder.throwException();
+
+        final Label notFound = new Label();
+
+        methodBuilder.loadThis();
+        methodBuilder.loadReferenceVariable(1);
+        methodBuilder.invokeVirtualMethod(classInternalName, "indexOf", int.class, String.class);
+        methodBuilder.jumpIfLessThanZero(notFound);
+        methodBuilder.push_1i();
+        methodBuilder.returnValue(boolean.class);
+
+        methodBuilder.label(notFound);
+        methodBuilder.push_0i();
+        methodBuilder.returnValue(boolean.class);
         methodBuilder.endMethod();
     }
 }
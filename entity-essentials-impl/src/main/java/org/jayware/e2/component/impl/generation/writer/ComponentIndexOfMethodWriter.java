@@ -0,0 +1,114 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl.generation.writer;
+
+
+import org.jayware.e2.component.impl.generation.asm.MethodBuilder;
+import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
+import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGenerationPlan;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.jayware.e2.component.impl.generation.asm.MethodBuilder.createMethodBuilder;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+
+
+public class ComponentIndexOfMethodWriter
+{
+    public void writeIndexOfMethodFor(ComponentGenerationPlan componentPlan)
+    {
+        final ClassWriter classWriter = componentPlan.getClassWriter();
+        final Map<Integer, List<String>> namesByHashCode = new TreeMap<Integer, List<String>>();
+        final Map<String, Integer> indices = new TreeMap<String, Integer>();
+
+        int index = 0;
+        for (ComponentPropertyGenerationPlan propertyPlan : componentPlan.getComponentPropertyGenerationPlans())
+        {
+            final String propertyName = propertyPlan.getPropertyName();
+            final Integer hashCode = propertyName.hashCode();
+
+            List<String> names = namesByHashCode.get(hashCode);
+            if (names == null)
+            {
+                names = new ArrayList<String>();
+                namesByHashCode.put(hashCode, names);
+            }
+
+            names.add(propertyName);
+            indices.put(propertyName, index++);
+        }
+
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, "indexOf", "(Ljava/lang/String;)I");
+        builder.beginMethod();
+
+        final Label notFound = new Label();
+
+        if (!namesByHashCode.isEmpty())
+        {
+            final int[] keys = new int[namesByHashCode.size()];
+            final Label[] labels = new Label[namesByHashCode.size()];
+
+            int i = 0;
+            for (Integer hashCode : namesByHashCode.keySet())
+            {
+                keys[i] = hashCode;
+                labels[i] = new Label();
+                ++i;
+            }
+
+            builder.loadReferenceVariable(1);
+            builder.jumpIfNull(notFound);
+
+            builder.loadReferenceVariable(1);
+            builder.invokeVirtualMethod(String.class, "hashCode", int.class);
+            builder.lookupSwitch(notFound, keys, labels);
+
+            i = 0;
+            for (List<String> names : namesByHashCode.values())
+            {
+                builder.label(labels[i++]);
+
+                for (String name : names)
+                {
+                    final Label next = new Label();
+
+                    builder.loadConstant(name);
+                    builder.loadReferenceVariable(1);
+                    builder.invokeVirtualMethod(String.class, "equals", boolean.class, Object.class);
+                    builder.jumpIfEquals(next);
+                    builder.pushInt(indices.get(name));
+                    builder.returnValue(int.class);
+                    builder.label(next);
+                }
+
+                builder.jumpTo(notFound);
+            }
+        }
+
+        builder.label(notFound);
+        builder.pushInt(-1);
+        builder.returnValue(int.class);
+        builder.endMethod();
+    }
+}
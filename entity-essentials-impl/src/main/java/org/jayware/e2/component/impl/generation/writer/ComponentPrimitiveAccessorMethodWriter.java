@@ -0,0 +1,160 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl.generation.writer;
+
+
+import org.jayware.e2.component.impl.generation.asm.MethodBuilder;
+import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
+import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGenerationPlan;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+
+import java.util.Collection;
+
+import static org.jayware.e2.component.impl.generation.asm.MethodBuilder.createMethodBuilder;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isAssignablePrimitiveType;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Type.getDescriptor;
+
+
+public class ComponentPrimitiveAccessorMethodWriter
+{
+    private static final Class[] ACCESSOR_TYPES = {boolean.class, int.class, long.class, float.class, double.class};
+
+    public void writePrimitiveAccessorMethodsFor(ComponentGenerationPlan componentPlan)
+    {
+        for (Class<?> accessorType : ACCESSOR_TYPES)
+        {
+            writePrimitiveGetMethodFor(componentPlan, accessorType);
+            writePrimitiveSetMethodFor(componentPlan, accessorType);
+        }
+    }
+
+    private void writePrimitiveGetMethodFor(ComponentGenerationPlan componentPlan, Class<?> accessorType)
+    {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
+        final ClassWriter classWriter = componentPlan.getClassWriter();
+        final Collection<ComponentPropertyGenerationPlan> propertyPlans = componentPlan.getComponentPropertyGenerationPlans();
+
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, accessorName("get", accessorType), "(I)" + getDescriptor(accessorType));
+        builder.beginMethod();
+
+        final Label fail = new Label();
+        final Label[] labels = createLabels(propertyPlans, accessorType, true, fail);
+
+        if (labels.length > 0)
+        {
+            builder.loadVariable(1, int.class);
+            builder.tableSwitch(0, labels.length - 1, fail, labels);
+        }
+
+        int index = 0;
+        for (ComponentPropertyGenerationPlan propertyPlan : propertyPlans)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            if (labels[index] != fail)
+            {
+                builder.label(labels[index]);
+                builder.loadThis();
+                builder.loadField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+                builder.convert(propertyType, accessorType);
+                builder.returnValue(accessorType);
+            }
+
+            ++index;
+        }
+
+        builder.label(fail);
+        builder.newInstanceOf(IllegalArgumentException.class);
+        builder.duplicateTopStackElement();
+        builder.loadConstant("There is no property of type '" + accessorType.getName() + "' with index: ");
+        builder.loadVariable(1, int.class);
+        builder.invokeStaticMethod(String.class, "valueOf", String.class, int.class);
+        builder.invokeVirtualMethod(String.class, "concat", String.class, String.class);
+        builder.invokeConstructor(IllegalArgumentException.class, String.class);
+        builder.throwException();
+        builder.endMethod();
+    }
+
+    private void writePrimitiveSetMethodFor(ComponentGenerationPlan componentPlan, Class<?> accessorType)
+    {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
+        final ClassWriter classWriter = componentPlan.getClassWriter();
+        final Collection<ComponentPropertyGenerationPlan> propertyPlans = componentPlan.getComponentPropertyGenerationPlans();
+
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, accessorName("set", accessorType), "(I" + getDescriptor(accessorType) + ")Z");
+        builder.beginMethod();
+
+        final Label fail = new Label();
+        final Label[] labels = createLabels(propertyPlans, accessorType, false, fail);
+
+        if (labels.length > 0)
+        {
+            builder.loadVariable(1, int.class);
+            builder.tableSwitch(0, labels.length - 1, fail, labels);
+        }
+
+        int index = 0;
+        for (ComponentPropertyGenerationPlan propertyPlan : propertyPlans)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            if (labels[index] != fail)
+            {
+                builder.label(labels[index]);
+                builder.loadThis();
+                builder.loadVariable(2, accessorType);
+                builder.convert(accessorType, propertyType);
+                builder.storeField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+                builder.push_1i();
+                builder.returnValue(boolean.class);
+            }
+
+            ++index;
+        }
+
+        builder.label(fail);
+        builder.push_0i();
+        builder.returnValue(boolean.class);
+        builder.endMethod();
+    }
+
+    private static Label[] createLabels(Collection<ComponentPropertyGenerationPlan> propertyPlans, Class<?> accessorType, boolean isGetter, Label fail)
+    {
+        final Label[] labels = new Label[propertyPlans.size()];
+
+        int index = 0;
+        for (ComponentPropertyGenerationPlan propertyPlan : propertyPlans)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+            final boolean isAccessible = isGetter ? isAssignablePrimitiveType(propertyType, accessorType) : isAssignablePrimitiveType(accessorType, propertyType);
+
+            labels[index++] = isAccessible ? new Label() : fail;
+        }
+
+        return labels;
+    }
+
+    private static String accessorName(String prefix, Class<?> accessorType)
+    {
+        final String typeName = accessorType.getName();
+        return prefix + Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1);
+    }
+}
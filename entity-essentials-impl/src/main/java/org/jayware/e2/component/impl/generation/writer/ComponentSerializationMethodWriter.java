@@ -0,0 +1,341 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl.generation.writer;
+
+
+import org.jayware.e2.component.impl.generation.asm.MethodBuilder;
+import org.jayware.e2.component.impl.generation.plan.ComponentGenerationPlan;
+import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGenerationPlan;
+import org.jayware.e2.util.BinaryUtil;
+import org.objectweb.asm.ClassWriter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jayware.e2.component.impl.generation.asm.MethodBuilder.createMethodBuilder;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.boxed;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isBooleanPrimitiveType;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isBytePrimitiveType;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isDoublePrimitiveType;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isFloatPrimitiveType;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isIntegerPrimitiveType;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isLongPrimitiveType;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isShortPrimitiveType;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isStringType;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+
+
+public class ComponentSerializationMethodWriter
+{
+    private static final int BUFFER = 1, OFFSET = 2, POSITION = 3;
+
+    public void writeSerializationMethodsFor(ComponentGenerationPlan componentPlan)
+    {
+        final List<ComponentPropertyGenerationPlan> fixedSizeProperties = new ArrayList<ComponentPropertyGenerationPlan>();
+        final List<ComponentPropertyGenerationPlan> variableSizeProperties = new ArrayList<ComponentPropertyGenerationPlan>();
+        boolean isSerializable = true;
+
+        for (ComponentPropertyGenerationPlan propertyPlan : componentPlan.getComponentPropertyGenerationPlans())
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            if (isFixedSizeType(propertyType))
+            {
+                fixedSizeProperties.add(propertyPlan);
+            }
+            else if (isVariableSizeType(propertyType))
+            {
+                variableSizeProperties.add(propertyPlan);
+            }
+            else
+            {
+                isSerializable = false;
+            }
+        }
+
+        writeIsSerializableMethod(componentPlan, isSerializable);
+
+        if (isSerializable)
+        {
+            writeSerializedSizeMethod(componentPlan, fixedSizeProperties, variableSizeProperties);
+            writeSerializeMethod(componentPlan, fixedSizeProperties, variableSizeProperties);
+            writeRestoreMethod(componentPlan, fixedSizeProperties, variableSizeProperties);
+        }
+        else
+        {
+            writeUnsupportedMethod(componentPlan, "serializedSize", "()I");
+            writeUnsupportedMethod(componentPlan, "serialize", "(Ljava/nio/ByteBuffer;I)I");
+            writeUnsupportedMethod(componentPlan, "restore", "(Ljava/nio/ByteBuffer;I)I");
+        }
+    }
+
+    private void writeIsSerializableMethod(ComponentGenerationPlan componentPlan, boolean isSerializable)
+    {
+        final MethodBuilder builder = createMethodBuilder(componentPlan.getClassWriter(), ACC_PUBLIC, "isSerializable", "()Z");
+        builder.beginMethod();
+        builder.pushInt(isSerializable ? 1 : 0);
+        builder.returnValue(boolean.class);
+        builder.endMethod();
+    }
+
+    private void writeSerializedSizeMethod(ComponentGenerationPlan componentPlan, List<ComponentPropertyGenerationPlan> fixedSizeProperties, List<ComponentPropertyGenerationPlan> variableSizeProperties)
+    {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
+        final MethodBuilder builder = createMethodBuilder(componentPlan.getClassWriter(), ACC_PUBLIC, "serializedSize", "()I");
+        builder.beginMethod();
+        builder.pushInt(sizeOf(fixedSizeProperties));
+
+        for (ComponentPropertyGenerationPlan propertyPlan : variableSizeProperties)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            builder.loadThis();
+            builder.loadField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+            builder.invokeStaticMethod(BinaryUtil.class, "sizeOf", int.class, parameterTypeOf(propertyType));
+            builder.addInt();
+        }
+
+        builder.returnValue(int.class);
+        builder.endMethod();
+    }
+
+    private void writeSerializeMethod(ComponentGenerationPlan componentPlan, List<ComponentPropertyGenerationPlan> fixedSizeProperties, List<ComponentPropertyGenerationPlan> variableSizeProperties)
+    {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
+        final ClassWriter classWriter = componentPlan.getClassWriter();
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, "serialize", "(Ljava/nio/ByteBuffer;I)I");
+        builder.beginMethod();
+
+        int position = 0;
+        for (ComponentPropertyGenerationPlan propertyPlan : fixedSizeProperties)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            builder.loadReferenceVariable(BUFFER);
+            builder.loadVariable(OFFSET, int.class);
+            builder.pushInt(position);
+            builder.addInt();
+            builder.loadThis();
+            builder.loadField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+            builder.invokeVirtualMethod(ByteBuffer.class, "put" + bufferAccessorSuffixOf(propertyType), ByteBuffer.class, int.class, bufferValueTypeOf(propertyType));
+            builder.pop();
+
+            position += sizeOf(propertyType);
+        }
+
+        builder.loadVariable(OFFSET, int.class);
+        builder.pushInt(position);
+        builder.addInt();
+        builder.storeVariable(POSITION, int.class);
+
+        for (ComponentPropertyGenerationPlan propertyPlan : variableSizeProperties)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            builder.loadVariable(POSITION, int.class);
+            builder.loadReferenceVariable(BUFFER);
+            builder.loadVariable(POSITION, int.class);
+            builder.loadThis();
+            builder.loadField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+            builder.invokeStaticMethod(BinaryUtil.class, "put", int.class, ByteBuffer.class, int.class, parameterTypeOf(propertyType));
+            builder.addInt();
+            builder.storeVariable(POSITION, int.class);
+        }
+
+        builder.loadVariable(POSITION, int.class);
+        builder.loadVariable(OFFSET, int.class);
+        builder.subtractInt();
+        builder.returnValue(int.class);
+        builder.endMethod();
+    }
+
+    private void writeRestoreMethod(ComponentGenerationPlan componentPlan, List<ComponentPropertyGenerationPlan> fixedSizeProperties, List<ComponentPropertyGenerationPlan> variableSizeProperties)
+    {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
+        final ClassWriter classWriter = componentPlan.getClassWriter();
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, "restore", "(Ljava/nio/ByteBuffer;I)I");
+        builder.beginMethod();
+
+        int position = 0;
+        for (ComponentPropertyGenerationPlan propertyPlan : fixedSizeProperties)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            builder.loadThis();
+            builder.loadReferenceVariable(BUFFER);
+            builder.loadVariable(OFFSET, int.class);
+            builder.pushInt(position);
+            builder.addInt();
+            builder.invokeVirtualMethod(ByteBuffer.class, "get" + bufferAccessorSuffixOf(propertyType), bufferValueTypeOf(propertyType), int.class);
+            builder.storeField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+
+            position += sizeOf(propertyType);
+        }
+
+        builder.loadVariable(OFFSET, int.class);
+        builder.pushInt(position);
+        builder.addInt();
+        builder.storeVariable(POSITION, int.class);
+
+        for (ComponentPropertyGenerationPlan propertyPlan : variableSizeProperties)
+        {
+            final Class<?> propertyType = propertyPlan.getPropertyType();
+
+            builder.loadThis();
+            builder.loadReferenceVariable(BUFFER);
+            builder.loadVariable(POSITION, int.class);
+
+            if (propertyType.isEnum())
+            {
+                builder.loadConstant(propertyType);
+                builder.invokeStaticMethod(BinaryUtil.class, "getEnum", Enum.class, ByteBuffer.class, int.class, Class.class);
+                builder.castTo(propertyType);
+            }
+            else
+            {
+                builder.invokeStaticMethod(BinaryUtil.class, readMethodNameOf(propertyType), propertyType, ByteBuffer.class, int.class);
+            }
+
+            builder.storeField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+
+            builder.loadVariable(POSITION, int.class);
+            builder.loadThis();
+            builder.loadField(classInternalName, propertyPlan.getPropertyName(), propertyType);
+            builder.invokeStaticMethod(BinaryUtil.class, "sizeOf", int.class, parameterTypeOf(propertyType));
+            builder.addInt();
+            builder.storeVariable(POSITION, int.class);
+        }
+
+        builder.loadVariable(POSITION, int.class);
+        builder.loadVariable(OFFSET, int.class);
+        builder.subtractInt();
+        builder.returnValue(int.class);
+        builder.endMethod();
+    }
+
+    private void writeUnsupportedMethod(ComponentGenerationPlan componentPlan, String name, String descriptor)
+    {
+        final MethodBuilder builder = createMethodBuilder(componentPlan.getClassWriter(), ACC_PUBLIC, name, descriptor);
+        builder.beginMethod();
+        builder.newInstanceOf(UnsupportedOperationException.class);
+        builder.duplicateTopStackElement();
+        builder.loadConstant("The component '" + componentPlan.getComponentType().getName() + "' has properties which are not serializable!");
+        builder.invokeConstructor(UnsupportedOperationException.class, String.class);
+        builder.throwException();
+        builder.endMethod();
+    }
+
+    private static boolean isFixedSizeType(Class<?> type)
+    {
+        return sizeOf(type) > 0;
+    }
+
+    private static boolean isVariableSizeType(Class<?> type)
+    {
+        return isStringType(type) || type.isEnum()
+            || (type.isArray() && isFixedSizeType(type.getComponentType()))
+            || (!type.isPrimitive() && !type.isArray() && isFixedSizeType(unboxed(type)));
+    }
+
+    private static int sizeOf(List<ComponentPropertyGenerationPlan> propertyPlans)
+    {
+        int size = 0;
+
+        for (ComponentPropertyGenerationPlan propertyPlan : propertyPlans)
+        {
+            size += sizeOf(propertyPlan.getPropertyType());
+        }
+
+        return size;
+    }
+
+    private static int sizeOf(Class<?> type)
+    {
+        if (isBooleanPrimitiveType(type) || isBytePrimitiveType(type))
+        {
+            return 1;
+        }
+        else if (isShortPrimitiveType(type))
+        {
+            return 2;
+        }
+        else if (isIntegerPrimitiveType(type) || isFloatPrimitiveType(type))
+        {
+            return 4;
+        }
+        else if (isLongPrimitiveType(type) || isDoublePrimitiveType(type))
+        {
+            return 8;
+        }
+
+        return 0;
+    }
+
+    private static String bufferAccessorSuffixOf(Class<?> type)
+    {
+        if (isBooleanPrimitiveType(type) || isBytePrimitiveType(type))
+        {
+            return "";
+        }
+
+        final String name = type.getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static Class<?> bufferValueTypeOf(Class<?> type)
+    {
+        return isBooleanPrimitiveType(type) ? byte.class : type;
+    }
+
+    private static Class<?> parameterTypeOf(Class<?> type)
+    {
+        return type.isEnum() ? Enum.class : type;
+    }
+
+    private static String readMethodNameOf(Class<?> type)
+    {
+        if (isStringType(type))
+        {
+            return "getString";
+        }
+        else if (type.isArray())
+        {
+            final String name = type.getComponentType().getName();
+            return "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "Array";
+        }
+        else
+        {
+            return "get" + type.getSimpleName() + "Object";
+        }
+    }
+
+    private static Class<?> unboxed(Class<?> type)
+    {
+        for (Class<?> primitiveType : new Class[]{boolean.class, byte.class, short.class, int.class, long.class, float.class, double.class})
+        {
+            if (boxed(primitiveType).equals(type))
+            {
+                return primitiveType;
+            }
+        }
+
+        return type;
+    }
+}
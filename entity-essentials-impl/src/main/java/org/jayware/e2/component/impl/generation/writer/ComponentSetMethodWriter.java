@@ -29,43 +29,72 @@ import org.jayware.e2.component.impl.generation.plan.ComponentPropertyGeneration
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 
+import java.util.Collection;
+
 import static org.jayware.e2.component.impl.generation.asm.MethodBuilder.createMethodBuilder;
 import static org.jayware.e2.component.impl.generation.asm.TypeUtil.boxed;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isBooleanPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isBytePrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isDoublePrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isFloatPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isIntegerPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isLongPrimitiveType;
 import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isObjectArrayType;
 import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isObjectType;
 import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isPrimitiveArrayType;
 import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isPrimitiveType;
-import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isShortPrimitiveType;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 
 
 public class ComponentSetMethodWriter
 {
     public void writeSetMethodFor(ComponentGenerationPlan componentPlan)
+    {
+        writeSetByNameMethodFor(componentPlan);
+        writeSetByIndexMethodFor(componentPlan);
+    }
+
+    private void writeSetByNameMethodFor(ComponentGenerationPlan componentPlan)
     {
         final String classInternalName = componentPlan.getGeneratedClassInternalName();
         final ClassWriter classWriter = componentPlan.getClassWriter();
 
         final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, "set", "(Ljava/lang/String;Ljava/lang/Object;)Z");
         builder.beginMethod();
+        builder.loadThis();
+        builder.loadThis();
+        builder.loadReferenceVariable(1);
+        builder.invokeVirtualMethod(classInternalName, "indexOf", int.class, String.class);
+        builder.loadReferenceVariable(2);
+        builder.invokeVirtualMethod(classInternalName, "set", boolean.class, int.class, Object.class);
+        builder.returnValue(boolean.class);
+        builder.endMethod();
+    }
+
+    private void writeSetByIndexMethodFor(ComponentGenerationPlan componentPlan)
+    {
+        final String classInternalName = componentPlan.getGeneratedClassInternalName();
+        final ClassWriter classWriter = componentPlan.getClassWriter();
+        final Collection<ComponentPropertyGenerationPlan> propertyPlans = componentPlan.getComponentPropertyGenerationPlans();
 
-        for (ComponentPropertyGenerationPlan propertyPlan : componentPlan.getComponentPropertyGenerationPlans())
+        final MethodBuilder builder = createMethodBuilder(classWriter, ACC_PUBLIC, "set", "(ILjava/lang/Object;)Z");
+        builder.beginMethod();
+
+        final Label fail = new Label();
+        final Label[] labels = new Label[propertyPlans.size()];
+
+        for (int i = 0; i < labels.length; ++i)
+        {
+            labels[i] = new Label();
+        }
+
+        if (labels.length > 0)
+        {
+            builder.loadVariable(1, int.class);
+            builder.tableSwitch(0, labels.length - 1, fail, labels);
+        }
+
+        int index = 0;
+        for (ComponentPropertyGenerationPlan propertyPlan : propertyPlans)
         {
             final String propertyName = propertyPlan.getPropertyName();
             final Class<?> propertyType = propertyPlan.getPropertyType();
 
-            final Label fail = new Label();
-
-            builder.loadConstant(propertyName);
-            builder.loadReferenceVariable(1);
-            builder.invokeVirtualMethod(String.class, "equals", boolean.class, Object.class);
-            builder.jumpIfEquals(fail);
+            builder.label(labels[index++]);
 
             if (isObjectType(propertyType) || isObjectArrayType(propertyType))
             {
@@ -114,39 +143,7 @@ public class ComponentSetMethodWriter
 
                 builder.loadVariable(2, Object.class);
                 builder.castTo(boxed(propertyType));
-
-                if (isBooleanPrimitiveType(propertyType))
-                {
-                    builder.invokeVirtualMethod(Boolean.class, "booleanValue", boolean.class);
-                }
-                else if (isBytePrimitiveType(propertyType))
-                {
-                    builder.invokeVirtualMethod(Byte.class, "byteValue", byte.class);
-                }
-                else if (isShortPrimitiveType(propertyType))
-                {
-                    builder.invokeVirtualMethod(Short.class, "shortValue", short.class);
-                }
-                else if (isIntegerPrimitiveType(propertyType))
-                {
-                    builder.invokeVirtualMethod(Integer.class, "intValue", int.class);
-                }
-                else if (isLongPrimitiveType(propertyType))
-                {
-                    builder.invokeVirtualMethod(Long.class, "longValue", long.class);
-                }
-                else if (isFloatPrimitiveType(propertyType))
-                {
-                    builder.invokeVirtualMethod(Float.class, "floatValue", float.class);
-                }
-                else if (isDoublePrimitiveType(propertyType))
-                {
-                    builder.invokeVirtualMethod(Double.class, "doubleValue", double.class);
-                }
-                else
-                {
-                    throw new ComponentFactoryException();
-                }
+                builder.unbox(propertyType);
 
                 builder.storeField(classInternalName, propertyName, propertyType);
                 builder.push_1i();
@@ -283,10 +280,9 @@ public class ComponentSetMethodWriter
             {
                 throw new ComponentFactoryException();
             }
-
-            builder.label(fail);
         }
 
+        builder.label(fail);
         builder.push_0i();
         builder.returnValue(boolean.class);
         builder.endMethod();
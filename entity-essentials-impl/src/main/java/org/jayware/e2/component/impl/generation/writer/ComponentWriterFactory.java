@@ -64,11 +64,21 @@ public class ComponentWriterFactory
         return new ComponentGetPropertyTypesMethodWriter();
     }
 
+    public ComponentIndexOfMethodWriter createComponentIndexOfMethodWriter()
+    {
+        return new ComponentIndexOfMethodWriter();
+    }
+
     public ComponentGetMethodWriter createComponentGetMethodWriter()
     {
         return new ComponentGetMethodWriter();
     }
 
+    public ComponentPrimitiveAccessorMethodWriter createComponentPrimitiveAccessorMethodWriter()
+    {
+        return new ComponentPrimitiveAccessorMethodWriter();
+    }
+
     public ComponentSetMethodWriter createComponentSetMethodWriter()
     {
         return new ComponentSetMethodWriter();
@@ -79,6 +89,11 @@ public class ComponentWriterFactory
         return new ComponentHasMethodWriter();
     }
 
+    public ComponentSerializationMethodWriter createComponentSerializationMethodWriter()
+    {
+        return new ComponentSerializationMethodWriter();
+    }
+
     public ComponentTypeMethodWriter createComponentTypeMethodWriter()
     {
         return new ComponentTypeMethodWriter();
@@ -23,9 +23,11 @@ import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.Contextual;
 import org.jayware.e2.entity.api.ContextualEntityManager;
 import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityQuery;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.util.Filter;
 
+import java.util.Collection;
 import java.util.List;
 
 import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
@@ -73,6 +75,14 @@ implements ContextualEntityManager
         return myDelegate.deleteEntities(myContext);
     }
 
+    @Override
+    public List<EntityRef> deleteEntities(Collection<EntityRef> refs)
+    {
+        checkContextNotNullAndNotDisposed(myContext);
+
+        return myDelegate.deleteEntities(myContext, refs);
+    }
+
     @Override
     public List<EntityRef> findEntities()
     {
@@ -109,6 +119,14 @@ implements ContextualEntityManager
         return myDelegate.findEntities(myContext, aspect, filters);
     }
 
+    @Override
+    public EntityQuery queryEntities()
+    {
+        checkContextNotNullAndNotDisposed(myContext);
+
+        return myDelegate.queryEntities(myContext);
+    }
+
     @Override
     public Context getContext()
     {
@@ -25,6 +25,7 @@ package org.jayware.e2.entity.impl;
 import org.jayware.e2.component.api.Aspect;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.entity.api.ContextualEntityManager;
+import org.jayware.e2.entity.api.EntityEvent.CreateEntitiesEvent;
 import org.jayware.e2.entity.api.EntityEvent.CreateEntityEvent;
 import org.jayware.e2.entity.api.EntityEvent.DeleteEntitiesEvent;
 import org.jayware.e2.entity.api.EntityEvent.DeleteEntityEvent;
@@ -32,6 +33,7 @@ import org.jayware.e2.entity.api.EntityEvent.FindEntitiesEvent;
 import org.jayware.e2.entity.api.EntityEvent.ResolveEntityEvent;
 import org.jayware.e2.entity.api.EntityManager;
 import org.jayware.e2.entity.api.EntityManagerException;
+import org.jayware.e2.entity.api.EntityQuery;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.event.api.EventManager;
 import org.jayware.e2.event.api.QueryBuilder;
@@ -39,6 +41,8 @@ import org.jayware.e2.event.api.ResultSet;
 import org.jayware.e2.util.Filter;
 import org.jayware.e2.util.TimeoutException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -48,6 +52,7 @@ import static org.jayware.e2.component.api.Aspect.ANY;
 import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
 import static org.jayware.e2.entity.api.EntityEvent.AspectParam;
 import static org.jayware.e2.entity.api.EntityEvent.CreateEntityEvent.EntityIdParam;
+import static org.jayware.e2.entity.api.EntityEvent.EntityIdListParam;
 import static org.jayware.e2.entity.api.EntityEvent.CreateEntityEvent.EntityRefParam;
 import static org.jayware.e2.entity.api.EntityEvent.EntityRefListParam;
 import static org.jayware.e2.entity.api.EntityEvent.FilterListParam;
@@ -100,6 +105,42 @@ implements EntityManager
         }
     }
 
+    @Override
+    public List<EntityRef> createEntities(Context context, Collection<UUID> ids)
+    {
+        final EventManager eventManager;
+        final ResultSet resultSet;
+
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(ids, "Collection of UUIDs mustn't be null!");
+
+        for (UUID id : ids)
+        {
+            checkNotNull(id, "UUID mustn't be null!");
+        }
+
+        try
+        {
+            eventManager = context.getService(EventManager.class);
+            resultSet = eventManager.query(CreateEntitiesEvent.class,
+                param(ContextParam, context),
+                param(EntityIdListParam, new ArrayList<UUID>(ids))
+            );
+
+            resultSet.timeout(Success, TIMEOUT_IN_MILLISECONDS, "Failed to create %s entities within %sms", ids.size(), TIMEOUT_IN_MILLISECONDS);
+
+            return resultSet.get(EntityRefListParam);
+        }
+        catch (TimeoutException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new EntityManagerException(e, "Failed to create %s entities!", ids.size());
+        }
+    }
+
     @Override
     public void deleteEntity(EntityRef ref)
     {
@@ -159,6 +200,37 @@ implements EntityManager
         }
     }
 
+    @Override
+    public List<EntityRef> deleteEntities(Context context, Collection<EntityRef> refs)
+    {
+        final EventManager eventManager;
+        final ResultSet resultSet;
+
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(refs, "Collection of EntityRefs mustn't be null!");
+
+        try
+        {
+            eventManager = context.getService(EventManager.class);
+            resultSet = eventManager.query(DeleteEntitiesEvent.class,
+                param(ContextParam, context),
+                param(EntityRefListParam, new ArrayList<EntityRef>(refs))
+            );
+
+            resultSet.timeout(Success, TIMEOUT_IN_MILLISECONDS, "Failed to delete %s entities within %sms", refs.size(), TIMEOUT_IN_MILLISECONDS);
+
+            return resultSet.get(EntityRefListParam);
+        }
+        catch (TimeoutException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new EntityManagerException(e, "Failed to delete %s entities!", refs.size());
+        }
+    }
+
     @Override
     public List<EntityRef> findEntities(Context context)
     {
@@ -221,6 +293,14 @@ implements EntityManager
         }
     }
 
+    @Override
+    public EntityQuery queryEntities(Context context)
+    {
+        checkContextNotNullAndNotDisposed(context);
+
+        return new EntityQueryImpl(context);
+    }
+
     @Override
     public EntityRef resolveEntity(Context context, UUID id)
     {
@@ -0,0 +1,274 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.entity.impl;
+
+
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.Contextual;
+import org.jayware.e2.entity.api.EntityEvent.VisitEntitiesEvent;
+import org.jayware.e2.entity.api.EntityManagerException;
+import org.jayware.e2.entity.api.EntityQuery;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.entity.api.EntityVisitor;
+import org.jayware.e2.event.api.EventManager;
+import org.jayware.e2.event.api.QueryBuilder;
+import org.jayware.e2.event.api.ResultSet;
+import org.jayware.e2.util.Filter;
+import org.jayware.e2.util.TimeoutException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.jayware.e2.component.api.Aspect.ANY;
+import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
+import static org.jayware.e2.entity.api.EntityEvent.AspectParam;
+import static org.jayware.e2.entity.api.EntityEvent.EntityIteratorParam;
+import static org.jayware.e2.entity.api.EntityEvent.FilterListParam;
+import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
+import static org.jayware.e2.event.api.Query.State.Success;
+import static org.jayware.e2.util.Preconditions.checkArgument;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+class EntityQueryImpl
+implements EntityQuery
+{
+    private static final long TIMEOUT_IN_MILLISECONDS = 5000;
+
+    private final Context myContext;
+    private final List<Filter<EntityRef>> myFilters;
+
+    private Aspect myAspect;
+    private int myOffset;
+    private int myLimit;
+
+    EntityQueryImpl(Context context)
+    {
+        myContext = context;
+        myFilters = new ArrayList<Filter<EntityRef>>();
+        myAspect = ANY;
+        myOffset = 0;
+        myLimit = Integer.MAX_VALUE;
+    }
+
+    @Override
+    public EntityQuery withAspect(Aspect aspect)
+    {
+        myAspect = checkNotNull(aspect, "Aspect mustn't be null!");
+        return this;
+    }
+
+    @Override
+    public EntityQuery withFilter(Filter<EntityRef> filter)
+    {
+        myFilters.add(checkNotNull(filter, "Filter mustn't be null!"));
+        return this;
+    }
+
+    @Override
+    public EntityQuery offset(int offset)
+    {
+        checkArgument(offset >= 0);
+        myOffset = offset;
+        return this;
+    }
+
+    @Override
+    public EntityQuery limit(int limit)
+    {
+        checkArgument(limit >= 0);
+        myLimit = limit;
+        return this;
+    }
+
+    @Override
+    public int forEach(EntityVisitor visitor)
+    {
+        checkNotNull(visitor, "EntityVisitor mustn't be null!");
+        return run(new Cursor(visitor)).myVisited;
+    }
+
+    @Override
+    public int count()
+    {
+        return run(new Cursor(null)).myVisited;
+    }
+
+    @Override
+    public boolean any()
+    {
+        return first() != null;
+    }
+
+    @Override
+    public EntityRef first()
+    {
+        final Cursor cursor = new Cursor(null);
+        cursor.myRemaining = Math.min(1, myLimit);
+        return run(cursor).myLast;
+    }
+
+    @Override
+    public List<EntityRef> list()
+    {
+        final List<EntityRef> result = new ArrayList<EntityRef>();
+
+        forEach(new EntityVisitor()
+        {
+            @Override
+            public boolean visit(EntityRef ref)
+            {
+                result.add(ref);
+                return true;
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public Context getContext()
+    {
+        return myContext;
+    }
+
+    @Override
+    public boolean belongsTo(Context context)
+    {
+        return myContext.equals(context);
+    }
+
+    @Override
+    public boolean belongsTo(Contextual contextual)
+    {
+        return contextual != null && myContext.equals(contextual.getContext());
+    }
+
+    /**
+     * Obtains an {@link Iterator} over the matching entities from the storage and passes them to the specified
+     * {@link Cursor}. Only obtaining the {@link Iterator} is subject to the timeout, the entities are visited on the
+     * calling thread and the storage locks them only while it fetches the next chunk.
+     */
+    private Cursor run(Cursor cursor)
+    {
+        final Iterator<EntityRef> entities;
+
+        checkContextNotNullAndNotDisposed(myContext);
+
+        if (cursor.myRemaining == 0)
+        {
+            return cursor;
+        }
+
+        try
+        {
+            final EventManager eventManager = myContext.getService(EventManager.class);
+            final QueryBuilder builder = eventManager.createQuery(VisitEntitiesEvent.class);
+            final ResultSet resultSet;
+
+            builder.set(ContextParam).to(myContext)
+                   .set(AspectParam).to(myAspect);
+
+            if (!myFilters.isEmpty())
+            {
+                builder.set(FilterListParam).to(new ArrayList<Filter<EntityRef>>(myFilters));
+            }
+
+            resultSet = eventManager.query(builder);
+            resultSet.timeout(Success, TIMEOUT_IN_MILLISECONDS, "Failed to query entities within %sms", TIMEOUT_IN_MILLISECONDS);
+
+            entities = resultSet.get(EntityIteratorParam);
+        }
+        catch (TimeoutException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new EntityManagerException(e, "Failed to query entities!");
+        }
+
+        while (hasNext(entities))
+        {
+            if (!cursor.visit(entities.next()))
+            {
+                break;
+            }
+        }
+
+        return cursor;
+    }
+
+    private static boolean hasNext(Iterator<EntityRef> entities)
+    {
+        try
+        {
+            return entities.hasNext();
+        }
+        catch (Exception e)
+        {
+            throw new EntityManagerException(e, "Failed to query entities!");
+        }
+    }
+
+    /**
+     * Applies the offset and the limit of the query and counts the visited entities. An exception thrown by the
+     * delegate is rethrown as {@link EntityManagerException}.
+     */
+    private class Cursor
+    implements EntityVisitor
+    {
+        private final EntityVisitor myDelegate;
+
+        private int mySkip = myOffset;
+        private int myRemaining = myLimit;
+        private int myVisited;
+        private EntityRef myLast;
+
+        private Cursor(EntityVisitor delegate)
+        {
+            myDelegate = delegate;
+        }
+
+        @Override
+        public boolean visit(EntityRef ref)
+        {
+            if (mySkip > 0)
+            {
+                --mySkip;
+                return true;
+            }
+
+            ++myVisited;
+            --myRemaining;
+            myLast = ref;
+
+            try
+            {
+                return (myDelegate == null || myDelegate.visit(ref)) && myRemaining > 0;
+            }
+            catch (RuntimeException e)
+            {
+                throw new EntityManagerException(e, "Failed to query entities because the visitor threw an exception!");
+            }
+        }
+    }
+}
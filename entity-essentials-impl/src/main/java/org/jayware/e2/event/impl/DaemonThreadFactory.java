@@ -0,0 +1,63 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.impl;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jayware.e2.util.Preconditions.checkStringNotEmpty;
+
+
+/**
+ * A {@link ThreadFactory} which creates daemon {@link Thread Threads} within the "entity-essentials"
+ * {@link ThreadGroup}. The {@link Thread Threads} are named after the group, the name passed to the factory and
+ * a running number, e.g. <code>entity-essentials-finder-0</code>.
+ * <p>
+ * Shared by the worker pools of the implementation, it is not part of the API.
+ */
+public class DaemonThreadFactory
+implements ThreadFactory
+{
+    public static final String THREAD_GROUP_NAME = "entity-essentials";
+
+    private final ThreadGroup myThreadGroup;
+    private final String myNamePrefix;
+    private final AtomicInteger myNextThreadId = new AtomicInteger();
+
+    /**
+     * Creates a new {@link DaemonThreadFactory}.
+     *
+     * @param name the name of the {@link Thread Threads} within the "entity-essentials" {@link ThreadGroup}.
+     *
+     * @throws IllegalArgumentException if the passed name is <code>null</code> or empty.
+     */
+    public DaemonThreadFactory(String name)
+    {
+        myThreadGroup = new ThreadGroup(THREAD_GROUP_NAME);
+        myNamePrefix = THREAD_GROUP_NAME + "-" + checkStringNotEmpty(name) + "-";
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable)
+    {
+        final Thread thread = new Thread(myThreadGroup, runnable, myNamePrefix + myNextThreadId.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -27,6 +27,7 @@ import org.jayware.e2.event.api.Event;
 import org.jayware.e2.event.api.EventDispatcher;
 import org.jayware.e2.event.api.EventDispatcherFactory;
 import org.jayware.e2.event.api.EventFilter;
+import org.jayware.e2.event.api.EventMetrics;
 import org.jayware.e2.event.api.Query;
 import org.jayware.e2.event.api.ResultSet;
 import org.jayware.e2.event.api.Subscription;
@@ -38,12 +39,12 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.jayware.e2.event.api.EventMetrics.NONE;
 import static org.jayware.e2.util.ObjectUtil.getClassNameOf;
 
 
@@ -59,15 +60,22 @@ implements Disposable
 
     private final SubscriptionBookkeeper myBookkeeper;
 
+    private final EventMetrics myMetrics;
+
     private final ThreadPoolExecutor myWorkerPool;
 
     public EventBus(Context context)
     {
+        final EventMetrics metrics = context.findService(EventMetrics.class);
+
         myContext = context;
         myEventDispatcherFactory = new EventDispatcherFactoryImpl();
         mySubscriptionFactory = new SubscriptionFactoryImpl();
         myBookkeeper = new SubscriptionBookkeeperImpl();
-        myWorkerPool = new ThreadPoolExecutor(4, 4, 0L, SECONDS, new ArrayBlockingQueue<Runnable>(256), new EventBusThreadFactory(), new CallerRunsPolicy());
+        myMetrics = metrics != null && metrics.isEnabled() ? metrics : NONE;
+
+        final RejectedExecutionHandler rejectionPolicy = myMetrics != NONE ? new MeasuredCallerRunsPolicy() : new CallerRunsPolicy();
+        myWorkerPool = new ThreadPoolExecutor(4, 4, 0L, SECONDS, new ArrayBlockingQueue<Runnable>(256), new DaemonThreadFactory("worker"), rejectionPolicy);
     }
 
     public void subscribe(Object subscriber, ReferenceType referenceType, EventFilter[] filters)
@@ -104,13 +112,13 @@ implements Disposable
     public void post(Event event)
     {
         final EventDispatch dispatch = createEventDispatch(event);
-        myWorkerPool.execute(dispatch);
+        submit(dispatch);
     }
 
     public ResultSet query(Query query)
     {
         final QueryDispatch dispatch = createQueryDispatch(query);
-        myWorkerPool.execute(dispatch);
+        submit(dispatch);
         return dispatch.getResult();
     }
 
@@ -127,26 +135,39 @@ implements Disposable
         myBookkeeper.clear();
     }
 
+    private void submit(EventDispatch dispatch)
+    {
+        if (myMetrics != NONE)
+        {
+            myMetrics.recordSubmission(dispatch.getEvent().getType(), myWorkerPool.getQueue().size());
+            dispatch.submitted();
+        }
+
+        myWorkerPool.execute(dispatch);
+    }
+
     private EventDispatch createEventDispatch(Event event)
     {
-        return new EventDispatch(myContext, event, myBookkeeper.subscriptions());
+        return new EventDispatch(myContext, event, myBookkeeper.subscriptions(), myMetrics);
     }
 
     private QueryDispatch createQueryDispatch(Query query)
     {
-        return new QueryDispatch(myContext, (QueryImpl) query, myBookkeeper.subscriptions());
+        return new QueryDispatch(myContext, (QueryImpl) query, myBookkeeper.subscriptions(), myMetrics);
     }
 
-    private static class EventBusThreadFactory
-    implements ThreadFactory
+    private class MeasuredCallerRunsPolicy
+    extends CallerRunsPolicy
     {
-        private final ThreadGroup myThreadGroup = new ThreadGroup("entity-essentials");
-        private final AtomicInteger nextWorkerId = new AtomicInteger();
-
         @Override
-        public Thread newThread(Runnable runnable)
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor)
         {
-            return new Thread(myThreadGroup, runnable, myThreadGroup.getName() + "-worker-" + nextWorkerId.getAndIncrement());
+            if (!executor.isShutdown() && runnable instanceof EventDispatch)
+            {
+                myMetrics.recordCallerRuns(((EventDispatch) runnable).getEvent().getType());
+            }
+
+            super.rejectedExecution(runnable, executor);
         }
     }
 }
@@ -22,6 +22,7 @@ import org.jayware.e2.context.api.Context;
 import org.jayware.e2.event.api.Event;
 import org.jayware.e2.event.api.EventDispatcher;
 import org.jayware.e2.event.api.EventFilter;
+import org.jayware.e2.event.api.EventMetrics;
 import org.jayware.e2.event.api.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +31,7 @@ import java.util.concurrent.CountDownLatch;
 
 import static org.jayware.e2.event.api.EventDispatchException.throwEventDispatchException;
 import static org.jayware.e2.event.api.EventDispatchException.throwEventDispatchExceptionWithReport;
+import static org.jayware.e2.event.api.EventMetrics.NONE;
 
 
 public class EventDispatch
@@ -41,12 +43,22 @@ implements Runnable
     protected final Event myEvent;
     protected final Iterable<Subscription> mySubscriptions;
     protected final CountDownLatch isDispatched;
+    protected final EventMetrics myMetrics;
+
+    private long mySubmissionTime;
+    private boolean isSubmitted;
 
     EventDispatch(Context context, Event event, Iterable<Subscription> subscriptions)
+    {
+        this(context, event, subscriptions, NONE);
+    }
+
+    EventDispatch(Context context, Event event, Iterable<Subscription> subscriptions, EventMetrics metrics)
     {
         myContext = context;
         myEvent = event;
         mySubscriptions = subscriptions;
+        myMetrics = metrics;
         isDispatched = new CountDownLatch(1);
     }
 
@@ -69,8 +81,22 @@ implements Runnable
         catch (InterruptedException ignored) {}
     }
 
+    /**
+     * Marks this {@link EventDispatch} as submitted to a worker, so that the time it waits for the worker is measured.
+     */
+    public void submitted()
+    {
+        if (myMetrics != NONE)
+        {
+            mySubmissionTime = System.nanoTime();
+            isSubmitted = true;
+        }
+    }
+
     public void run()
     {
+        final long start = startMeasurement();
+
         try
         {
             for (Subscription subscription : mySubscriptions)
@@ -87,6 +113,7 @@ implements Runnable
         }
         finally
         {
+            recordDispatch(start);
             isDispatched.countDown();
         }
     }
@@ -95,14 +122,39 @@ implements Runnable
     {
         if (acceptedEvent(dispatcher) && passedFilters(filters))
         {
+            final long start = startMeasurement();
+            boolean failed = true;
+
             try
             {
                 dispatcher.dispatch(myEvent, subscriber);
+                failed = false;
             }
             catch (Exception cause)
             {
                 throwEventDispatchExceptionWithReport(cause, myEvent, "Failed to dispatch event to: %s", subscriber);
             }
+            finally
+            {
+                if (myMetrics != NONE)
+                {
+                    myMetrics.recordHandler(myEvent.getType(), subscriber.getClass(), System.nanoTime() - start, failed);
+                }
+            }
+        }
+    }
+
+    protected long startMeasurement()
+    {
+        return myMetrics != NONE ? System.nanoTime() : 0L;
+    }
+
+    protected void recordDispatch(long start)
+    {
+        if (myMetrics != NONE)
+        {
+            final long waitTime = isSubmitted ? start - mySubmissionTime : 0L;
+            myMetrics.recordDispatch(myEvent.getType(), waitTime, System.nanoTime() - start);
         }
     }
 
@@ -62,16 +62,21 @@ import java.util.Set;
 
 import static java.nio.charset.Charset.forName;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static javax.xml.bind.DatatypeConverter.printHexBinary;
 import static org.jayware.e2.util.ConfigurationUtil.getPropertyOrDefault;
 import static org.jayware.e2.util.Parameter.parametersFrom;
+import static org.objectweb.asm.Opcodes.AALOAD;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_STATIC;
 import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.ATHROW;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
 import static org.objectweb.asm.Opcodes.GETSTATIC;
 import static org.objectweb.asm.Opcodes.GOTO;
 import static org.objectweb.asm.Opcodes.ICONST_0;
@@ -86,6 +91,11 @@ import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.LSTORE;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.POP2;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
 import static org.objectweb.asm.Opcodes.PUTSTATIC;
 import static org.objectweb.asm.Opcodes.RETURN;
 import static org.objectweb.asm.Opcodes.V1_6;
@@ -98,10 +108,13 @@ public class EventDispatcherFactoryImpl
 implements EventDispatcherFactory
 {
     private static final String EVENT_DISPATCHER_NAME_PREFIX = "org.jayware.e2.event.generated.EventDispatcher_";
+    private static final String PROFILED_EVENT_DISPATCHER_NAME_SUFFIX = "_Profiled";
+    private static final String PROFILES_FIELD_NAME = "profiles";
     private static final Logger log = LoggerFactory.getLogger(EventDispatcherFactoryImpl.class);
 
     private File myOutputDirectory;
     private MessageDigest myMessageDigest;
+    private final boolean isProfiling;
 
     private final Map<Class<?>, TargetDescriptor> myTargetDescriptionMap;
 
@@ -114,6 +127,17 @@ implements EventDispatcherFactory
     {
         myOutputDirectory = new File(getPropertyOrDefault(properties, PROPERTY_OUT_DIRECTORY, System.getProperty("user.dir") + "/.generated"));
         myTargetDescriptionMap = new HashMap<Class<?>, TargetDescriptor>();
+        isProfiling = Boolean.parseBoolean(String.valueOf(getPropertyOrDefault(properties, PROPERTY_PROFILING, System.getProperty(PROPERTY_PROFILING))));
+
+        if (isProfiling)
+        {
+            final long dumpInterval = Long.parseLong(String.valueOf(getPropertyOrDefault(properties, PROPERTY_PROFILING_DUMP_INTERVAL, System.getProperty(PROPERTY_PROFILING_DUMP_INTERVAL, "0"))));
+
+            if (dumpInterval > 0 && !HandlerProfiler.isDumpingPeriodically())
+            {
+                HandlerProfiler.startPeriodicDump(dumpInterval, SECONDS);
+            }
+        }
 
         try
         {
@@ -211,7 +235,7 @@ implements EventDispatcherFactory
     {
         final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
         final Class<?> target = targetDescriptor.target;
-        final String className = createDispatcherName(target);
+        final String className = createDispatcherName(target) + (isProfiling ? PROFILED_EVENT_DISPATCHER_NAME_SUFFIX : "");
         final String classInternalName = className.replace('.', '/');
         final String classFileName = classInternalName + ".class";
         final File classFile = new File(myOutputDirectory, classFileName);
@@ -229,6 +253,11 @@ implements EventDispatcherFactory
             final FieldVisitor fv = classWriter.visitField(ACC_PUBLIC + ACC_STATIC + ACC_FINAL, "log", getDescriptor(Logger.class), null, null);
         }
 
+        if (isProfiling)
+        {
+            final FieldVisitor fv = classWriter.visitField(ACC_PRIVATE + ACC_FINAL, PROFILES_FIELD_NAME, getDescriptor(HandlerProfile[].class), null, null);
+        }
+
         {   // <static>
             final MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC + ACC_STATIC, "<clinit>", "()V", null, null);
             mv.visitCode();
@@ -240,6 +269,7 @@ implements EventDispatcherFactory
             mv.visitEnd();
         }
 
+        if (!isProfiling)
         {   // Constructor
             final MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
             mv.visitCode();
@@ -249,6 +279,19 @@ implements EventDispatcherFactory
             mv.visitMaxs(0, 0);
             mv.visitEnd();
         }
+        else
+        {   // Constructor of a profiled dispatcher, which takes the profiles of its handlers.
+            final MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC, "<init>", "(" + getDescriptor(HandlerProfile[].class) + ")V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, getInternalName(Object.class), "<init>", "()V", false);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitFieldInsn(PUTFIELD, classInternalName, PROFILES_FIELD_NAME, getDescriptor(HandlerProfile[].class));
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
 
         {   // dispatch
             final MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC, "dispatch", "(" + getDescriptor(Event.class) + getDescriptor(Object.class) + ")V", null, null);
@@ -390,6 +433,23 @@ implements EventDispatcherFactory
                         }
                     }
 
+                    // When profiling, take the start time and guard the invocation to record failures too.
+                    final int startTimeIndex = index;
+                    final int profileIndex = targetDescriptor.profiles.size();
+                    final Label startInvocation = new Label();
+                    final Label endInvocation = new Label();
+                    final Label failedInvocation = new Label();
+
+                    if (isProfiling)
+                    {
+                        targetDescriptor.profiles.add(HandlerProfiler.profileOf(target, descriptor.getMethod(), eventType));
+
+                        mv.visitTryCatchBlock(startInvocation, endInvocation, failedInvocation, getInternalName(Throwable.class));
+                        mv.visitMethodInsn(INVOKESTATIC, getInternalName(System.class), "nanoTime", "()J", false);
+                        mv.visitVarInsn(LSTORE, startTimeIndex);
+                        mv.visitLabel(startInvocation);
+                    }
+
                     mv.visitVarInsn(ALOAD, 3);
 
                     // Load and cast all necessary parameters.
@@ -454,6 +514,28 @@ implements EventDispatcherFactory
                     // At last call the handler.
                     mv.visitMethodInsn(INVOKEVIRTUAL, targetDescriptor.getTargetInternalName(), descriptor.getMethodName(), descriptor.getMethodDescriptor(), false);
 
+                    if (isProfiling)
+                    {
+                        final Class<?> returnType = descriptor.getMethod().getReturnType();
+
+                        if (long.class.equals(returnType) || double.class.equals(returnType))
+                        {
+                            mv.visitInsn(POP2);
+                        }
+                        else if (!void.class.equals(returnType))
+                        {
+                            mv.visitInsn(POP);
+                        }
+
+                        mv.visitLabel(endInvocation);
+                        visitRecordProfile(mv, classInternalName, profileIndex, startTimeIndex, "record");
+                        mv.visitJumpInsn(GOTO, endHandler);
+
+                        mv.visitLabel(failedInvocation);
+                        visitRecordProfile(mv, classInternalName, profileIndex, startTimeIndex, "recordFailure");
+                        mv.visitInsn(ATHROW);
+                    }
+
                     mv.visitLabel(endHandler);
                 }
 
@@ -511,7 +593,16 @@ implements EventDispatcherFactory
         try
         {
             Class<? extends EventDispatcher> eventDispatcherClass = (Class<? extends EventDispatcher>) new URLClassLoader(new URL[]{myOutputDirectory.toURI().toURL()}, getClass().getClassLoader()).loadClass(className);
-            targetDescriptor.eventDispatcher = eventDispatcherClass.newInstance();
+
+            if (!isProfiling)
+            {
+                targetDescriptor.eventDispatcher = eventDispatcherClass.newInstance();
+            }
+            else
+            {
+                final HandlerProfile[] profiles = targetDescriptor.profiles.toArray(new HandlerProfile[targetDescriptor.profiles.size()]);
+                targetDescriptor.eventDispatcher = eventDispatcherClass.getConstructor(HandlerProfile[].class).newInstance((Object) profiles);
+            }
 
             log.info("Created EventDispatcher for: '{}'. EventDispatcher class stored in: '{}' ", target, classFile.getAbsolutePath());
         }
@@ -521,6 +612,16 @@ implements EventDispatcherFactory
         }
     }
 
+    private static void visitRecordProfile(MethodVisitor mv, String classInternalName, int profileIndex, int startTimeIndex, String method)
+    {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, classInternalName, PROFILES_FIELD_NAME, getDescriptor(HandlerProfile[].class));
+        mv.visitLdcInsn(profileIndex);
+        mv.visitInsn(AALOAD);
+        mv.visitVarInsn(LLOAD, startTimeIndex);
+        mv.visitMethodInsn(INVOKEVIRTUAL, getInternalName(HandlerProfile.class), method, "(J)V", false);
+    }
+
     private String createDispatcherName(Class target)
     {
         final Charset charset = forName("UTF-8");
@@ -537,6 +638,7 @@ implements EventDispatcherFactory
         private final Class<?> target;
         private final List<HandlerDescriptor> handlerDescriptors = new ArrayList<HandlerDescriptor>();
         private final Map<Class<? extends EventType>, List<HandlerDescriptor>> eventTypeHandlerDescriptorMap = new HashMap<Class<? extends EventType>, List<HandlerDescriptor>>();
+        private final List<HandlerProfile> profiles = new ArrayList<HandlerProfile>();
         private EventDispatcher eventDispatcher;
 
         private TargetDescriptor(Class<?> target)
@@ -0,0 +1,202 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.impl;
+
+
+import org.jayware.e2.event.api.EventType;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/**
+ * A <code>HandlerProfile</code> accumulates the invocations of a single handler method for a single
+ * {@link EventType}.
+ * <p>
+ * <code>HandlerProfiles</code> are updated by profiled event dispatchers and obtained via {@link HandlerProfiler}.
+ *
+ * @see HandlerProfiler
+ */
+public class HandlerProfile
+{
+    private final Class<?> mySubscriberType;
+    private final Method myHandler;
+    private final Class<? extends EventType> myEventType;
+
+    private final AtomicLong myInvocations = new AtomicLong();
+    private final AtomicLong myFailures = new AtomicLong();
+    private final AtomicLong myTotalTime = new AtomicLong();
+    private final AtomicLong myMaxTime = new AtomicLong();
+
+    HandlerProfile(Class<?> subscriberType, Method handler, Class<? extends EventType> eventType)
+    {
+        mySubscriberType = subscriberType;
+        myHandler = handler;
+        myEventType = eventType;
+    }
+
+    /**
+     * Records an invocation of the handler which returned normally.
+     * <p>
+     * <b>Note:</b> This operation is invoked by generated code and not intended to be called otherwise.
+     *
+     * @param startTimeInNanos the value of {@link System#nanoTime()} when the invocation started.
+     */
+    public void record(long startTimeInNanos)
+    {
+        record(startTimeInNanos, false);
+    }
+
+    /**
+     * Records an invocation of the handler which threw an exception.
+     * <p>
+     * <b>Note:</b> This operation is invoked by generated code and not intended to be called otherwise.
+     *
+     * @param startTimeInNanos the value of {@link System#nanoTime()} when the invocation started.
+     */
+    public void recordFailure(long startTimeInNanos)
+    {
+        record(startTimeInNanos, true);
+    }
+
+    private void record(long startTimeInNanos, boolean failed)
+    {
+        final long time = System.nanoTime() - startTimeInNanos;
+
+        myInvocations.incrementAndGet();
+        myTotalTime.addAndGet(time);
+
+        if (failed)
+        {
+            myFailures.incrementAndGet();
+        }
+
+        long max;
+        do
+        {
+            max = myMaxTime.get();
+        }
+        while (time > max && !myMaxTime.compareAndSet(max, time));
+    }
+
+    /**
+     * Returns the type of the subscriber which declares the handler.
+     *
+     * @return the subscriber type.
+     */
+    public Class<?> getSubscriberType()
+    {
+        return mySubscriberType;
+    }
+
+    /**
+     * Returns the handler method.
+     *
+     * @return a {@link Method}.
+     */
+    public Method getHandler()
+    {
+        return myHandler;
+    }
+
+    /**
+     * Returns the {@link EventType} for which the handler has been invoked.
+     *
+     * @return an {@link EventType}.
+     */
+    public Class<? extends EventType> getEventType()
+    {
+        return myEventType;
+    }
+
+    /**
+     * Returns the number of invocations of the handler.
+     *
+     * @return the number of invocations.
+     */
+    public long getInvocationCount()
+    {
+        return myInvocations.get();
+    }
+
+    /**
+     * Returns the number of invocations of the handler which threw an exception.
+     *
+     * @return the number of failed invocations.
+     */
+    public long getFailureCount()
+    {
+        return myFailures.get();
+    }
+
+    /**
+     * Returns the time spent in the handler in the specified {@link TimeUnit}.
+     *
+     * @param unit a {@link TimeUnit}.
+     *
+     * @return the total time.
+     */
+    public long getTotalTime(TimeUnit unit)
+    {
+        return unit.convert(myTotalTime.get(), NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest invocation of the handler in the specified {@link TimeUnit}.
+     *
+     * @param unit a {@link TimeUnit}.
+     *
+     * @return the longest time.
+     */
+    public long getMaxTime(TimeUnit unit)
+    {
+        return unit.convert(myMaxTime.get(), NANOSECONDS);
+    }
+
+    /**
+     * Returns the mean time of an invocation of the handler in the specified {@link TimeUnit}.
+     *
+     * @param unit a {@link TimeUnit}.
+     *
+     * @return the mean time or <code>0</code> if the handler has not been invoked yet.
+     */
+    public double getMeanTime(TimeUnit unit)
+    {
+        final long invocations = myInvocations.get();
+        return invocations > 0 ? (double) myTotalTime.get() / invocations / unit.toNanos(1) : 0.0;
+    }
+
+    void reset()
+    {
+        myInvocations.set(0);
+        myFailures.set(0);
+        myTotalTime.set(0);
+        myMaxTime.set(0);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "HandlerProfile { " + mySubscriberType.getName() + "#" + myHandler.getName() + " [ " + myEventType.getSimpleName() + " ]" +
+        ", invocations: " + myInvocations.get() + ", failures: " + myFailures.get() + ", total: " + myTotalTime.get() + "ns, max: " + myMaxTime.get() + "ns }";
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.impl;
+
+
+import org.jayware.e2.event.api.EventDispatcherFactory;
+import org.jayware.e2.event.api.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jayware.e2.util.Preconditions.checkArgument;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+/**
+ * The <code>HandlerProfiler</code> provides access to the {@link HandlerProfile HandlerProfiles} recorded by profiled
+ * event dispatchers.
+ * <p>
+ * Profiling is disabled by default and enabled by setting the property
+ * {@link EventDispatcherFactory#PROPERTY_PROFILING} to <code>true</code>, either as configuration of the
+ * {@link EventDispatcherFactory} or as system property. Then every event dispatcher created afterwards records the
+ * invocation count and time of each handler per {@link EventType}. The profiles are shared by all dispatchers of the
+ * JVM, hence the invocations of a handler are accumulated across all contexts.
+ * <p>
+ * If the property {@link EventDispatcherFactory#PROPERTY_PROFILING_DUMP_INTERVAL} is set as well, the profiles are
+ * logged periodically.
+ *
+ * @see HandlerProfile
+ */
+public class HandlerProfiler
+{
+    private static final Logger log = LoggerFactory.getLogger(HandlerProfiler.class);
+
+    private static final ConcurrentMap<ProfileKey, HandlerProfile> PROFILES = new ConcurrentHashMap<ProfileKey, HandlerProfile>();
+
+    private static final Comparator<HandlerProfile> BY_TOTAL_TIME = new Comparator<HandlerProfile>()
+    {
+        @Override
+        public int compare(HandlerProfile a, HandlerProfile b)
+        {
+            final long totalTimeA = a.getTotalTime(TimeUnit.NANOSECONDS);
+            final long totalTimeB = b.getTotalTime(TimeUnit.NANOSECONDS);
+            return totalTimeA < totalTimeB ? 1 : (totalTimeA == totalTimeB ? 0 : -1);
+        }
+    };
+
+    private static ScheduledExecutorService ourDumpExecutor;
+
+    private HandlerProfiler()
+    {
+    }
+
+    /**
+     * Returns all {@link HandlerProfile HandlerProfiles} recorded so far, sorted by the total time spent in the
+     * handler in descending order.
+     *
+     * @return a {@link List} of {@link HandlerProfile HandlerProfiles}.
+     */
+    public static List<HandlerProfile> getProfiles()
+    {
+        final List<HandlerProfile> profiles = new ArrayList<HandlerProfile>(PROFILES.values());
+        Collections.sort(profiles, BY_TOTAL_TIME);
+        return profiles;
+    }
+
+    /**
+     * Returns the {@link HandlerProfile} of the specified handler for the specified {@link EventType} or
+     * <code>null</code> if the handler has not been profiled.
+     *
+     * @param handler a handler {@link Method}.
+     * @param eventType an {@link EventType}.
+     *
+     * @return a {@link HandlerProfile} or <code>null</code>.
+     */
+    public static HandlerProfile getProfile(Method handler, Class<? extends EventType> eventType)
+    {
+        checkNotNull(handler);
+        checkNotNull(eventType);
+
+        return PROFILES.get(new ProfileKey(handler.getDeclaringClass(), handler, eventType));
+    }
+
+    /**
+     * Resets the recorded values of all {@link HandlerProfile HandlerProfiles}.
+     */
+    public static void reset()
+    {
+        for (HandlerProfile profile : PROFILES.values())
+        {
+            profile.reset();
+        }
+    }
+
+    /**
+     * Returns a human readable table of all {@link HandlerProfile HandlerProfiles} of invoked handlers, sorted by the
+     * total time spent in the handler in descending order.
+     *
+     * @return a {@link String}.
+     */
+    public static String dump()
+    {
+        final StringBuilder builder = new StringBuilder("Handler profiles:\n");
+
+        builder.append(String.format("%12s %12s %10s %10s %9s  %s%n", "total[ms]", "invocations", "mean[us]", "max[us]", "failures", "handler [event-type]"));
+
+        for (HandlerProfile profile : getProfiles())
+        {
+            if (profile.getInvocationCount() == 0)
+            {
+                continue;
+            }
+
+            builder.append(String.format("%12d %12d %10.2f %10d %9d  %s#%s [%s]%n",
+                profile.getTotalTime(MILLISECONDS),
+                profile.getInvocationCount(),
+                profile.getMeanTime(MICROSECONDS),
+                profile.getMaxTime(MICROSECONDS),
+                profile.getFailureCount(),
+                profile.getSubscriberType().getName(),
+                profile.getHandler().getName(),
+                profile.getEventType().getSimpleName()
+            ));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Starts to log the {@link #dump()} periodically with the specified period. If the profiles are already logged
+     * periodically, the previous period is replaced.
+     *
+     * @param period the period between two dumps.
+     * @param unit the {@link TimeUnit} of the period.
+     *
+     * @throws IllegalArgumentException if the specified period is not positive or the {@link TimeUnit} is
+     *                                  <code>null</code>.
+     */
+    public static synchronized void startPeriodicDump(long period, TimeUnit unit)
+    {
+        checkArgument(period > 0);
+        checkNotNull(unit);
+
+        stopPeriodicDump();
+
+        ourDumpExecutor = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("profiler"));
+        ourDumpExecutor.scheduleAtFixedRate(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                log.info(dump());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops to log the profiles periodically.
+     */
+    public static synchronized void stopPeriodicDump()
+    {
+        if (ourDumpExecutor != null)
+        {
+            ourDumpExecutor.shutdownNow();
+            ourDumpExecutor = null;
+        }
+    }
+
+    static synchronized boolean isDumpingPeriodically()
+    {
+        return ourDumpExecutor != null;
+    }
+
+    static HandlerProfile profileOf(Class<?> subscriberType, Method handler, Class<? extends EventType> eventType)
+    {
+        final ProfileKey key = new ProfileKey(subscriberType, handler, eventType);
+
+        HandlerProfile profile = PROFILES.get(key);
+        if (profile == null)
+        {
+            final HandlerProfile newProfile = new HandlerProfile(subscriberType, handler, eventType);
+            profile = PROFILES.putIfAbsent(key, newProfile);
+            if (profile == null)
+            {
+                profile = newProfile;
+            }
+        }
+
+        return profile;
+    }
+
+    private static class ProfileKey
+    {
+        private final Class<?> mySubscriberType;
+        private final Method myHandler;
+        private final Class<? extends EventType> myEventType;
+
+        private ProfileKey(Class<?> subscriberType, Method handler, Class<? extends EventType> eventType)
+        {
+            mySubscriberType = subscriberType;
+            myHandler = handler;
+            myEventType = eventType;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+
+            if (!(o instanceof ProfileKey))
+            {
+                return false;
+            }
+
+            final ProfileKey other = (ProfileKey) o;
+            return mySubscriberType.equals(other.mySubscriberType) && myHandler.equals(other.myHandler) && myEventType.equals(other.myEventType);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = mySubscriberType.hashCode();
+            result = 31 * result + myHandler.hashCode();
+            result = 31 * result + myEventType.hashCode();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.impl;
+
+
+import org.jayware.e2.event.api.EventMetrics;
+import org.jayware.e2.event.api.EventType;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.jayware.e2.util.Preconditions.checkArgument;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+/**
+ * An {@link EventMetrics} which aggregates all measurements in memory.
+ * <p>
+ * Per event type it keeps a {@link Timer} for the time events wait for a worker, a {@link Timer} for the time it
+ * takes to dispatch them, a {@link Timer} per subscriber for the time spent in its handlers and a counter of how
+ * often the dispatch was run by the submitting thread. Additionally a {@link Histogram} of the queue depth at
+ * submission is kept.
+ * <p>
+ * {@link Timer Timers} and {@link Histogram Histograms} are lock-free and record into logarithmic buckets, hence
+ * percentiles are approximated by the upper bound of the bucket they fall into.
+ */
+public class InMemoryEventMetrics
+implements EventMetrics
+{
+    private final Histogram myQueueDepth = new Histogram();
+    private final AtomicLong myCallerRuns = new AtomicLong();
+
+    private final ConcurrentMap<Class<? extends EventType>, Timer> myWaitTimers = new ConcurrentHashMap<Class<? extends EventType>, Timer>();
+    private final ConcurrentMap<Class<? extends EventType>, Timer> myDispatchTimers = new ConcurrentHashMap<Class<? extends EventType>, Timer>();
+    private final ConcurrentMap<Class<? extends EventType>, ConcurrentMap<Class<?>, Timer>> myHandlerTimers = new ConcurrentHashMap<Class<? extends EventType>, ConcurrentMap<Class<?>, Timer>>();
+    private final ConcurrentMap<Class<? extends EventType>, AtomicLong> myCallerRunsByType = new ConcurrentHashMap<Class<? extends EventType>, AtomicLong>();
+
+    @Override
+    public boolean isEnabled()
+    {
+        return true;
+    }
+
+    @Override
+    public void recordSubmission(Class<? extends EventType> type, int queueDepth)
+    {
+        myQueueDepth.record(queueDepth);
+    }
+
+    @Override
+    public void recordCallerRuns(Class<? extends EventType> type)
+    {
+        myCallerRuns.incrementAndGet();
+
+        AtomicLong counter = myCallerRunsByType.get(type);
+        if (counter == null)
+        {
+            final AtomicLong newCounter = new AtomicLong();
+            counter = myCallerRunsByType.putIfAbsent(type, newCounter);
+            if (counter == null)
+            {
+                counter = newCounter;
+            }
+        }
+
+        counter.incrementAndGet();
+    }
+
+    @Override
+    public void recordDispatch(Class<? extends EventType> type, long waitTimeInNanos, long dispatchTimeInNanos)
+    {
+        timerOf(myWaitTimers, type).record(waitTimeInNanos, false);
+        timerOf(myDispatchTimers, type).record(dispatchTimeInNanos, false);
+    }
+
+    @Override
+    public void recordHandler(Class<? extends EventType> type, Class<?> subscriberType, long timeInNanos, boolean failed)
+    {
+        ConcurrentMap<Class<?>, Timer> timers = myHandlerTimers.get(type);
+        if (timers == null)
+        {
+            final ConcurrentMap<Class<?>, Timer> newTimers = new ConcurrentHashMap<Class<?>, Timer>();
+            timers = myHandlerTimers.putIfAbsent(type, newTimers);
+            if (timers == null)
+            {
+                timers = newTimers;
+            }
+        }
+
+        timerOf(timers, subscriberType).record(timeInNanos, failed);
+    }
+
+    /**
+     * Returns the {@link Histogram} of the number of dispatches which were waiting for a worker when an event was
+     * submitted.
+     *
+     * @return a {@link Histogram}.
+     */
+    public Histogram getQueueDepth()
+    {
+        return myQueueDepth;
+    }
+
+    /**
+     * Returns how often a dispatch was run by the submitting thread, because the queue of the workers was full.
+     *
+     * @return the number of dispatches run by the submitting thread.
+     */
+    public long getCallerRunsCount()
+    {
+        return myCallerRuns.get();
+    }
+
+    /**
+     * Returns how often the dispatch of an event of the specified type was run by the submitting thread.
+     *
+     * @param type an {@link EventType}.
+     *
+     * @return the number of dispatches of the specified type run by the submitting thread.
+     */
+    public long getCallerRunsCount(Class<? extends EventType> type)
+    {
+        final AtomicLong counter = myCallerRunsByType.get(checkNotNull(type));
+        return counter != null ? counter.get() : 0L;
+    }
+
+    /**
+     * Returns the types of the events which have been dispatched so far.
+     *
+     * @return an unmodifiable {@link Set} of {@link EventType EventTypes}.
+     */
+    public Set<Class<? extends EventType>> getEventTypes()
+    {
+        return Collections.unmodifiableSet(myDispatchTimers.keySet());
+    }
+
+    /**
+     * Returns the types of the subscribers which handled events of the specified type so far.
+     *
+     * @param type an {@link EventType}.
+     *
+     * @return an unmodifiable {@link Set} of subscriber types.
+     */
+    public Set<Class<?>> getSubscriberTypes(Class<? extends EventType> type)
+    {
+        final ConcurrentMap<Class<?>, Timer> timers = myHandlerTimers.get(checkNotNull(type));
+        return timers != null ? Collections.unmodifiableSet(timers.keySet()) : Collections.<Class<?>>emptySet();
+    }
+
+    /**
+     * Returns the {@link Timer} of the time events of the specified type waited for a worker.
+     *
+     * @param type an {@link EventType}.
+     *
+     * @return a {@link Timer} or <code>null</code> if no event of the specified type has been dispatched yet.
+     */
+    public Timer getWaitTimer(Class<? extends EventType> type)
+    {
+        return myWaitTimers.get(checkNotNull(type));
+    }
+
+    /**
+     * Returns the {@link Timer} of the time it took to dispatch events of the specified type to all subscribers.
+     *
+     * @param type an {@link EventType}.
+     *
+     * @return a {@link Timer} or <code>null</code> if no event of the specified type has been dispatched yet.
+     */
+    public Timer getDispatchTimer(Class<? extends EventType> type)
+    {
+        return myDispatchTimers.get(checkNotNull(type));
+    }
+
+    /**
+     * Returns the {@link Timer} of the time spent in the handlers of the specified subscriber type for events of the
+     * specified type.
+     *
+     * @param type an {@link EventType}.
+     * @param subscriberType the type of a subscriber.
+     *
+     * @return a {@link Timer} or <code>null</code> if no such event has been handled by such a subscriber yet.
+     */
+    public Timer getHandlerTimer(Class<? extends EventType> type, Class<?> subscriberType)
+    {
+        final ConcurrentMap<Class<?>, Timer> timers = myHandlerTimers.get(checkNotNull(type));
+        return timers != null ? timers.get(checkNotNull(subscriberType)) : null;
+    }
+
+    private static <K> Timer timerOf(ConcurrentMap<K, Timer> timers, K key)
+    {
+        Timer timer = timers.get(key);
+        if (timer == null)
+        {
+            final Timer newTimer = new Timer();
+            timer = timers.putIfAbsent(key, newTimer);
+            if (timer == null)
+            {
+                timer = newTimer;
+            }
+        }
+
+        return timer;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InMemoryEventMetrics { event-types: " + myDispatchTimers.size() + ", caller-runs: " + myCallerRuns.get() + ", queue-depth: " + myQueueDepth + " }";
+    }
+
+    /**
+     * A lock-free distribution of non-negative values.
+     * <p>
+     * Values are recorded into 64 buckets, where bucket <code>i</code> holds the values in the range
+     * <code>[2^(i-1), 2^i)</code> and bucket <code>0</code> holds <code>0</code>.
+     */
+    public static class Histogram
+    {
+        private static final int BUCKETS = 64;
+
+        private final AtomicLong myCount = new AtomicLong();
+        private final AtomicLong mySum = new AtomicLong();
+        private final AtomicLong myMax = new AtomicLong();
+        private final AtomicLongArray myBuckets = new AtomicLongArray(BUCKETS);
+
+        Histogram()
+        {
+        }
+
+        void record(long value)
+        {
+            final long sanitized = Math.max(0L, value);
+
+            myBuckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(sanitized));
+            mySum.addAndGet(sanitized);
+            myCount.incrementAndGet();
+
+            long max;
+            do
+            {
+                max = myMax.get();
+            }
+            while (sanitized > max && !myMax.compareAndSet(max, sanitized));
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the number of recorded values.
+         */
+        public long getCount()
+        {
+            return myCount.get();
+        }
+
+        /**
+         * Returns the sum of all recorded values.
+         *
+         * @return the sum of all recorded values.
+         */
+        public long getSum()
+        {
+            return mySum.get();
+        }
+
+        /**
+         * Returns the greatest recorded value.
+         *
+         * @return the greatest recorded value or <code>0</code> if no value has been recorded yet.
+         */
+        public long getMax()
+        {
+            return myMax.get();
+        }
+
+        /**
+         * Returns the arithmetic mean of all recorded values.
+         *
+         * @return the mean or <code>0</code> if no value has been recorded yet.
+         */
+        public double getMean()
+        {
+            final long count = myCount.get();
+            return count > 0 ? (double) mySum.get() / count : 0.0;
+        }
+
+        /**
+         * Returns an approximation of the value at the specified percentile.
+         * <p>
+         * The result is the upper bound of the bucket the percentile falls into, but never greater than
+         * {@link #getMax()}.
+         *
+         * @param percentile a percentile between <code>0.0</code> and <code>1.0</code>.
+         *
+         * @return the approximated value at the specified percentile.
+         *
+         * @throws IllegalArgumentException if the specified percentile is not between <code>0.0</code> and
+         *                                  <code>1.0</code>.
+         */
+        public long getValueAtPercentile(double percentile)
+        {
+            checkArgument(percentile >= 0.0 && percentile <= 1.0);
+
+            final long count = myCount.get();
+            final long rank = Math.max(1L, (long) Math.ceil(percentile * count));
+            long seen = 0;
+
+            for (int bucket = 0; bucket < BUCKETS; ++bucket)
+            {
+                seen += myBuckets.get(bucket);
+
+                if (seen >= rank)
+                {
+                    return Math.min(upperBoundOf(bucket), getMax());
+                }
+            }
+
+            return getMax();
+        }
+
+        private static long upperBoundOf(int bucket)
+        {
+            return bucket < BUCKETS - 1 ? (1L << bucket) - 1 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "{ count: " + getCount() + ", mean: " + getMean() + ", max: " + getMax() + " }";
+        }
+    }
+
+    /**
+     * A {@link Histogram} of durations in nanoseconds, which additionally counts the failed operations.
+     */
+    public static class Timer
+    extends Histogram
+    {
+        private final AtomicLong myFailures = new AtomicLong();
+
+        Timer()
+        {
+        }
+
+        void record(long timeInNanos, boolean failed)
+        {
+            record(timeInNanos);
+
+            if (failed)
+            {
+                myFailures.incrementAndGet();
+            }
+        }
+
+        /**
+         * Returns the number of recorded operations which failed.
+         *
+         * @return the number of failed operations.
+         */
+        public long getFailureCount()
+        {
+            return myFailures.get();
+        }
+
+        /**
+         * Returns the total recorded time in the specified {@link TimeUnit}.
+         *
+         * @param unit a {@link TimeUnit}.
+         *
+         * @return the total time.
+         */
+        public long getTotalTime(TimeUnit unit)
+        {
+            return unit.convert(getSum(), NANOSECONDS);
+        }
+
+        /**
+         * Returns the longest recorded time in the specified {@link TimeUnit}.
+         *
+         * @param unit a {@link TimeUnit}.
+         *
+         * @return the longest time.
+         */
+        public long getMaxTime(TimeUnit unit)
+        {
+            return unit.convert(getMax(), NANOSECONDS);
+        }
+
+        /**
+         * Returns the mean of the recorded times in the specified {@link TimeUnit}.
+         *
+         * @param unit a {@link TimeUnit}.
+         *
+         * @return the mean time.
+         */
+        public double getMeanTime(TimeUnit unit)
+        {
+            return getMean() / unit.toNanos(1);
+        }
+
+        /**
+         * Returns an approximation of the time at the specified percentile in the specified {@link TimeUnit}.
+         *
+         * @param percentile a percentile between <code>0.0</code> and <code>1.0</code>.
+         * @param unit a {@link TimeUnit}.
+         *
+         * @return the approximated time at the specified percentile.
+         *
+         * @see Histogram#getValueAtPercentile(double)
+         */
+        public long getTimeAtPercentile(double percentile, TimeUnit unit)
+        {
+            return unit.convert(getValueAtPercentile(percentile), NANOSECONDS);
+        }
+    }
+}
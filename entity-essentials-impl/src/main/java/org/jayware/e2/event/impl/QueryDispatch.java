@@ -21,13 +21,13 @@ package org.jayware.e2.event.impl;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.event.api.EventDispatcher;
 import org.jayware.e2.event.api.EventFilter;
+import org.jayware.e2.event.api.EventMetrics;
 import org.jayware.e2.event.api.Query;
 import org.jayware.e2.event.api.ResultSet;
 import org.jayware.e2.event.api.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static org.jayware.e2.event.api.EventDispatchException.throwEventDispatchExceptionWithReport;
 import static org.jayware.e2.event.api.Query.State.Failed;
 import static org.jayware.e2.event.api.Query.State.Running;
 import static org.jayware.e2.event.api.Query.State.Success;
@@ -42,7 +42,12 @@ extends EventDispatch
 
     public QueryDispatch(Context context, QueryImpl query, Iterable<Subscription> subscriptions)
     {
-        super(context, new QueryWrapper(query, new QueryResultSet(query)), subscriptions);
+        this(context, query, subscriptions, EventMetrics.NONE);
+    }
+
+    public QueryDispatch(Context context, QueryImpl query, Iterable<Subscription> subscriptions, EventMetrics metrics)
+    {
+        super(context, new QueryWrapper(query, new QueryResultSet(query)), subscriptions, metrics);
         myQuery = (QueryWrapper) myEvent;
     }
 
@@ -60,6 +65,7 @@ extends EventDispatch
     public void run()
     {
         final QueryResultSet result = myQuery.getResult();
+        final long start = startMeasurement();
         result.signal(Running);
 
         try
@@ -87,27 +93,21 @@ extends EventDispatch
                 result.signal(Success);
             }
         }
+        catch (RuntimeException e)
+        {
+            result.fail(e);
+            throw e;
+        }
         finally
         {
+            recordDispatch(start);
             isDispatched.countDown();
         }
     }
 
     private boolean runQueryDispatch(final EventDispatcher dispatcher, final Object subscriber, final EventFilter[] filters)
     {
-        if (acceptedEvent(dispatcher) && passedFilters(filters))
-        {
-            try
-            {
-                dispatcher.dispatch(myQuery, subscriber);
-            }
-            catch (Exception cause)
-            {
-                throwEventDispatchExceptionWithReport(cause, myEvent, "Failed to dispatch event to: %s", subscriber);
-                return true;
-            }
-        }
-
+        runEventDispatch(dispatcher, subscriber, filters);
         return false;
     }
 
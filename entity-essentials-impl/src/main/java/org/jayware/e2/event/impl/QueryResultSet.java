@@ -20,21 +20,29 @@ package org.jayware.e2.event.impl;
 
 import org.jayware.e2.event.api.MissingResultException;
 import org.jayware.e2.event.api.Query;
+import org.jayware.e2.event.api.QueryException;
 import org.jayware.e2.event.api.Result;
 import org.jayware.e2.event.api.ResultSet;
 import org.jayware.e2.util.Consumer;
 import org.jayware.e2.util.Key;
-import org.jayware.e2.util.StateLatch;
 import org.jayware.e2.util.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.jayware.e2.event.api.Query.State.Failed;
+import static org.jayware.e2.event.api.Query.State.Ready;
 import static org.jayware.e2.event.api.Query.State.Success;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
 import static org.jayware.e2.util.NotationUtil.shortNotationOf;
 
 
@@ -43,19 +51,43 @@ implements ResultSet
 {
     private static final Logger log = LoggerFactory.getLogger(QueryResultSet.class);
 
+    /**
+     * Marks the stack of completion callbacks as consumed. Callbacks registered afterwards are invoked immediately.
+     */
+    private static final Completion COMPLETED = new Completion(null);
+
+    private static final AtomicReferenceFieldUpdater<QueryResultSet, Completion> COMPLETIONS =
+        AtomicReferenceFieldUpdater.newUpdater(QueryResultSet.class, Completion.class, "myCompletions");
+
+    private static final AtomicIntegerFieldUpdater<QueryResultSet> WAITERS =
+        AtomicIntegerFieldUpdater.newUpdater(QueryResultSet.class, "myWaiters");
+
     private final Query myQuery;
 
-    private final StateLatch<Query.State> myStateLatch;
+    private volatile Query.State myState;
+    private volatile Throwable myFailure;
+
+    /*
+     * Completion callbacks are pushed onto a lock-free stack. Blocking waiters are counted, so that a state-change
+     * only enters the monitor of this result-set if there is actually a thread to wake up.
+     */
+    private volatile Completion myCompletions;
+    private volatile int myWaiters;
+
+    /*
+     * Nearly all queries produce a single result. Hence the first result is kept in a slot and the map is allocated
+     * only when a second key is written. Writers synchronize on this result-set, readers do not.
+     */
+    private volatile Object mySlotKey;
+    private volatile Object mySlotValue;
+    private volatile Map<Object, Object> myResultMap;
 
-    private final Map<Object, Object> myResultMap;
     private final Map<Query.State, Consumer<ResultSet>> myConsumers;
 
     QueryResultSet(QueryImpl query)
     {
         myQuery = query;
-
-        myStateLatch = new StateLatch<Query.State>(Query.State.class);
-        myResultMap = new ConcurrentHashMap<Object, Object>();
+        myState = Ready;
         myConsumers = query.getConsumers();
     }
 
@@ -68,13 +100,33 @@ implements ResultSet
     @Override
     public boolean await(Query.State state)
     {
-        return myStateLatch.await(state);
+        checkNotNull(state);
+
+        try
+        {
+            awaitState(state, -1);
+            return myState == state;
+        }
+        catch (InterruptedException e)
+        {
+            return false;
+        }
     }
 
     @Override
     public boolean await(Query.State state, long time, TimeUnit unit)
     {
-        return myStateLatch.await(state, time, unit);
+        checkNotNull(state);
+        checkNotNull(unit);
+
+        try
+        {
+            return awaitState(state, Math.max(0, unit.toNanos(time)));
+        }
+        catch (InterruptedException e)
+        {
+            return false;
+        }
     }
 
     @Override
@@ -107,18 +159,41 @@ implements ResultSet
     @Override
     public boolean hasStatus(Query.State state)
     {
-        return myStateLatch.hasState(state);
+        return myState == state;
     }
 
     @Override
     public boolean hasResult()
     {
-        return myStateLatch.hasState(Success);
+        return myState == Success;
     }
 
     public void put(Object key, Object value)
     {
-        myResultMap.put(key, value);
+        checkNotNull(key);
+        checkNotNull(value);
+
+        synchronized (this)
+        {
+            final Map<Object, Object> map = myResultMap;
+
+            if (map != null)
+            {
+                map.put(key, value);
+            }
+            else if (mySlotKey == null || mySlotKey.equals(key))
+            {
+                mySlotValue = value;
+                mySlotKey = key;
+            }
+            else
+            {
+                final Map<Object, Object> inflated = new ConcurrentHashMap<Object, Object>(4);
+                inflated.put(mySlotKey, mySlotValue);
+                inflated.put(key, value);
+                myResultMap = inflated;
+            }
+        }
     }
 
     @Override
@@ -151,26 +226,26 @@ implements ResultSet
     public <V> V find(String name)
     {
         await(Success);
-        return (V) myResultMap.get(name);
+        return (V) lookup(name);
     }
 
     @Override
     public <V> V find(Key<V> key)
     {
         await(Success);
-        return (V) myResultMap.get(key);
+        return (V) lookup(key);
     }
 
     @Override
     public boolean has(String name)
     {
-        return myResultMap.containsKey(name);
+        return lookup(name) != null;
     }
 
     @Override
     public boolean has(Key<?> key)
     {
-        return myResultMap.containsKey(key);
+        return lookup(key) != null;
     }
 
     @Override
@@ -185,9 +260,48 @@ implements ResultSet
         return new NameQueryResult<T>(name);
     }
 
+    @Override
+    public ResultSet onCompletion(Consumer<ResultSet> consumer)
+    {
+        checkNotNull(consumer);
+
+        final Completion completion = new Completion(consumer);
+        Completion head;
+
+        do
+        {
+            head = myCompletions;
+
+            if (head == COMPLETED)
+            {
+                complete(consumer);
+                return this;
+            }
+
+            completion.next = head;
+        }
+        while (!COMPLETIONS.compareAndSet(this, head, completion));
+
+        return this;
+    }
+
+    @Override
+    public Future<ResultSet> toFuture()
+    {
+        return new ResultSetFuture();
+    }
+
     public void signal(Query.State state)
     {
-        myStateLatch.signal(state);
+        myState = state;
+
+        if (myWaiters > 0)
+        {
+            synchronized (this)
+            {
+                notifyAll();
+            }
+        }
 
         try
         {
@@ -201,6 +315,188 @@ implements ResultSet
         {
             log.error("Failed to signal query state-change!", e);
         }
+
+        if (isCompleted(state))
+        {
+            runCompletions();
+        }
+    }
+
+    /**
+     * Signals the state {@link Query.State#Failed} and retains the specified {@link Throwable} as cause of the failure.
+     *
+     * @param cause the {@link Throwable} which caused the {@link Query} to fail.
+     */
+    public void fail(Throwable cause)
+    {
+        myFailure = cause;
+        signal(Failed);
+    }
+
+    /**
+     * Waits until the current state is equal to or has passed the specified state.
+     *
+     * @param state the {@link Query.State} to await.
+     * @param timeoutInNanos the maximum time to wait in nanoseconds or a negative value to wait without timeout.
+     *
+     * @return <code>true</code> if the specified state has been reached, otherwise <code>false</code>.
+     *
+     * @throws InterruptedException if the current thread has been interrupted while waiting.
+     */
+    private boolean awaitState(Query.State state, long timeoutInNanos)
+    throws InterruptedException
+    {
+        if (myState.compareTo(state) >= 0)
+        {
+            return true;
+        }
+
+        final long deadline = System.nanoTime() + timeoutInNanos;
+
+        WAITERS.incrementAndGet(this);
+        try
+        {
+            synchronized (this)
+            {
+                while (myState.compareTo(state) < 0)
+                {
+                    if (timeoutInNanos < 0)
+                    {
+                        wait();
+                    }
+                    else
+                    {
+                        final long remaining = deadline - System.nanoTime();
+
+                        if (remaining <= 0)
+                        {
+                            return false;
+                        }
+
+                        NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+            }
+
+            return true;
+        }
+        finally
+        {
+            WAITERS.decrementAndGet(this);
+        }
+    }
+
+    private Object lookup(Object key)
+    {
+        final Map<Object, Object> map = myResultMap;
+
+        if (map != null)
+        {
+            return map.get(key);
+        }
+
+        return key.equals(mySlotKey) ? mySlotValue : null;
+    }
+
+    private void runCompletions()
+    {
+        Completion head = COMPLETIONS.getAndSet(this, COMPLETED);
+        Completion reversed = null;
+
+        while (head != null && head != COMPLETED)
+        {
+            final Completion next = head.next;
+            head.next = reversed;
+            reversed = head;
+            head = next;
+        }
+
+        while (reversed != null)
+        {
+            complete(reversed.consumer);
+            reversed = reversed.next;
+        }
+    }
+
+    private void complete(Consumer<ResultSet> consumer)
+    {
+        try
+        {
+            consumer.accept(this);
+        }
+        catch (Exception e)
+        {
+            log.error("Failed to notify query completion!", e);
+        }
+    }
+
+    private static boolean isCompleted(Query.State state)
+    {
+        return state == Success || state == Failed;
+    }
+
+    private static class Completion
+    {
+        private final Consumer<ResultSet> consumer;
+        private Completion next;
+
+        private Completion(Consumer<ResultSet> consumer)
+        {
+            this.consumer = consumer;
+        }
+    }
+
+    private class ResultSetFuture
+    implements Future<ResultSet>
+    {
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isDone()
+        {
+            return isCompleted(myState);
+        }
+
+        @Override
+        public ResultSet get()
+        throws InterruptedException, ExecutionException
+        {
+            awaitState(Success, -1);
+            return report();
+        }
+
+        @Override
+        public ResultSet get(long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, java.util.concurrent.TimeoutException
+        {
+            if (!awaitState(Success, Math.max(0, unit.toNanos(timeout))))
+            {
+                throw new java.util.concurrent.TimeoutException();
+            }
+
+            return report();
+        }
+
+        private ResultSet report()
+        throws ExecutionException
+        {
+            if (myState == Failed)
+            {
+                throw new ExecutionException(new QueryException("Query failed!", myQuery, myFailure));
+            }
+
+            return QueryResultSet.this;
+        }
     }
 
     private abstract class AbstractQueryResult<T>
@@ -19,28 +19,73 @@
 package org.jayware.e2.storage.impl;
 
 import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.component.impl.AspectMask;
+import org.jayware.e2.component.impl.ComponentStore;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.entity.api.EntityVisitor;
+import org.jayware.e2.event.impl.DaemonThreadFactory;
 import org.jayware.e2.storage.api.EntityFinder;
 import org.jayware.e2.storage.api.EntityFinderException;
 import org.jayware.e2.util.Filter;
 import org.jayware.e2.util.Provider;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
 
+
+/**
+ * An {@link EntityFinder} which evaluates the {@link Aspect} and the {@link Filter Filters} either sequentially or,
+ * if the number of entities reaches the parallel threshold, in chunks on a pool of worker threads.
+ * <p>
+ * In the parallel mode, each chunk collects its matches into a list of its own and the lists are concatenated in
+ * the order of the chunks. Entities which became invalid in the meantime are skipped, so that the entities can be
+ * filtered without holding a lock of the storage.
+ */
 public class EntityFinderImpl
 implements EntityFinder
 {
+    static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    private static final int MIN_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+
     private final Context myContext;
     private final Provider<List<EntityRef>> myListProvider;
+    private final int myParallelThreshold;
+    private final int myNumberOfWorkers;
+
+    private ThreadPoolExecutor myWorkerPool;
 
     public EntityFinderImpl(final Context context, final Provider<List<EntityRef>> listProvider)
+    {
+        this(context, listProvider, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public EntityFinderImpl(final Context context, final Provider<List<EntityRef>> listProvider, int parallelThreshold)
+    {
+        this(context, listProvider, parallelThreshold, Runtime.getRuntime().availableProcessors());
+    }
+
+    EntityFinderImpl(final Context context, final Provider<List<EntityRef>> listProvider, int parallelThreshold, int numberOfWorkers)
     {
         myContext = context;
         myListProvider = listProvider;
+        myParallelThreshold = parallelThreshold;
+        myNumberOfWorkers = numberOfWorkers;
     }
 
     @Override
@@ -49,20 +94,79 @@ implements EntityFinder
         final List<EntityRef> result = myListProvider.provide();
         final Aspect computationAspect = aspect != null ? aspect : Aspect.ANY;
         final List<Filter<EntityRef>> computationFilterList = filters != null ? filters : Collections.<Filter<EntityRef>>emptyList();
+        final ComponentStore componentStore = computationAspect.getClass() == Aspect.class ? myContext.get(COMPONENT_STORE) : null;
+        final AspectMask computationMask = componentStore != null ? componentStore.compile(computationAspect) : null;
 
-        for (EntityRef ref : entities)
+        if (isParallel(entities.size()))
         {
-            boolean addToResult = filterEntity(ref, computationAspect, computationFilterList);
-
-            if (addToResult)
+            for (List<EntityRef> chunkResult : filterParallel(entities, computationAspect, computationMask, componentStore, computationFilterList))
             {
-                result.add(ref);
+                result.addAll(chunkResult);
             }
         }
+        else
+        {
+            filterChunk(entities, computationAspect, computationMask, componentStore, computationFilterList, false, result);
+        }
 
         return result;
     }
 
+    /**
+     * Passes the matching entities sequentially to the specified {@link EntityVisitor}. If the {@link EntityVisitor}
+     * stops the visitation, the {@link Iterator} is left right behind the last visited entity.
+     *
+     * @return <code>false</code> if the {@link EntityVisitor} stopped the visitation, otherwise <code>true</code>.
+     */
+    @Override
+    public boolean visit(final Iterator<EntityRef> entities, final Aspect aspect, final List<Filter<EntityRef>> filters, final EntityVisitor visitor)
+    {
+        final Aspect computationAspect = aspect != null ? aspect : Aspect.ANY;
+        final List<Filter<EntityRef>> computationFilterList = filters != null ? filters : Collections.<Filter<EntityRef>>emptyList();
+        final ComponentStore componentStore = computationAspect.getClass() == Aspect.class ? myContext.get(COMPONENT_STORE) : null;
+        final AspectMask computationMask = componentStore != null ? componentStore.compile(computationAspect) : null;
+        final Aspect remainingAspect = computationMask != null ? Aspect.ANY : computationAspect;
+
+        while (entities.hasNext())
+        {
+            final EntityRef ref = entities.next();
+
+            if (computationMask != null && !componentStore.matches(ref, computationMask))
+            {
+                continue;
+            }
+
+            if (filterEntity(ref, remainingAspect, computationFilterList) && !visitor.visit(ref))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the specified number of entities is filtered in parallel. In this case the entities passed to
+     * {@link EntityFinderImpl#filter(Collection, Aspect, List)} should be a copy, which is filtered without holding
+     * a lock, because the workers may have to acquire the same lock.
+     */
+    boolean isParallel(int numberOfEntities)
+    {
+        return myNumberOfWorkers > 1 && numberOfEntities >= myParallelThreshold;
+    }
+
+    /**
+     * Shuts the worker pool down, if it has been started.
+     */
+    synchronized void dispose()
+    {
+        if (myWorkerPool != null)
+        {
+            myWorkerPool.shutdownNow();
+            myWorkerPool = null;
+        }
+    }
+
     boolean filterEntity(final EntityRef ref, final Aspect aspect, final List<Filter<EntityRef>> filters)
     {
         if (!aspect.matches(ref))
@@ -81,6 +185,91 @@ implements EntityFinder
         return true;
     }
 
+    private List<List<EntityRef>> filterParallel(final Collection<EntityRef> entities, final Aspect aspect, final AspectMask mask,
+                                                 final ComponentStore componentStore, final List<Filter<EntityRef>> filters)
+    {
+        final List<EntityRef> list = entities instanceof List ? (List<EntityRef>) entities : new ArrayList<EntityRef>(entities);
+        final int chunkSize = max(MIN_CHUNK_SIZE, list.size() / (myNumberOfWorkers * CHUNKS_PER_WORKER) + 1);
+        final int numberOfChunks = (list.size() + chunkSize - 1) / chunkSize;
+        final List<Future<List<EntityRef>>> futures = new ArrayList<Future<List<EntityRef>>>(numberOfChunks);
+        final List<List<EntityRef>> result = new ArrayList<List<EntityRef>>(numberOfChunks);
+        final ThreadPoolExecutor workerPool = getOrCreateWorkerPool();
+
+        try
+        {
+            for (int chunk = 1; chunk < numberOfChunks; ++chunk)
+            {
+                final int from = chunk * chunkSize;
+                final int to = min(from + chunkSize, list.size());
+
+                futures.add(workerPool.submit(new Callable<List<EntityRef>>()
+                {
+                    @Override
+                    public List<EntityRef> call()
+                    {
+                        return filterChunk(list.subList(from, to), aspect, mask, componentStore, filters, true, new ArrayList<EntityRef>(to - from));
+                    }
+                }));
+            }
+
+            result.add(filterChunk(list.subList(0, min(chunkSize, list.size())), aspect, mask, componentStore, filters, true, new ArrayList<EntityRef>(chunkSize)));
+
+            for (Future<List<EntityRef>> future : futures)
+            {
+                result.add(future.get());
+            }
+
+            return result;
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof EntityFinderException)
+            {
+                throw (EntityFinderException) e.getCause();
+            }
+
+            throw new EntityFinderException("Failed to filter entities in parallel!", e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new EntityFinderException("Interrupted while filtering entities in parallel!", e);
+        }
+        finally
+        {
+            for (Future<List<EntityRef>> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private List<EntityRef> filterChunk(final Collection<EntityRef> entities, final Aspect aspect, final AspectMask mask, final ComponentStore componentStore,
+                                        final List<Filter<EntityRef>> filters, boolean skipInvalid, final List<EntityRef> result)
+    {
+        final Aspect remainingAspect = mask != null ? Aspect.ANY : aspect;
+
+        for (EntityRef ref : entities)
+        {
+            if (skipInvalid && ref.isInvalid())
+            {
+                continue;
+            }
+
+            if (mask != null && !componentStore.matches(ref, mask))
+            {
+                continue;
+            }
+
+            if (filterEntity(ref, remainingAspect, filters))
+            {
+                result.add(ref);
+            }
+        }
+
+        return result;
+    }
+
     private boolean applyFilter(final EntityRef ref, final Filter<EntityRef> filter)
     {
         try
@@ -92,4 +281,15 @@ implements EntityFinder
             throw new EntityFinderException("Failed to apply filter '%s' on entity '%s' because filter threw exception!", e, filter, ref);
         }
     }
+
+    private synchronized ThreadPoolExecutor getOrCreateWorkerPool()
+    {
+        if (myWorkerPool == null)
+        {
+            myWorkerPool = new ThreadPoolExecutor(myNumberOfWorkers, myNumberOfWorkers, 30L, SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("finder"));
+            myWorkerPool.allowCoreThreadTimeOut(true);
+        }
+
+        return myWorkerPool;
+    }
 }
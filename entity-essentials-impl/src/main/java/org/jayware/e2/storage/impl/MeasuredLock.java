@@ -0,0 +1,299 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.storage.api.LockStatistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+/**
+ * A {@link Lock} which measures the wait and hold times of another {@link Lock}.
+ * <p>
+ * The measurement is disabled by default. In this case every operation is passed through and costs a single
+ * volatile read. Enabling the measurement resets the {@link LockStatistics}. The hold time is tracked per thread
+ * and only for the outermost acquisition of a reentrant lock. Acquisitions which happened before the measurement
+ * has been enabled are not tracked.
+ * <p>
+ * <b>Note:</b> Waiting on a {@link Condition} of this lock is not accounted. The time a thread waits on a
+ * {@link Condition} is counted as hold time.
+ */
+public class MeasuredLock
+implements Lock
+{
+    private static final int GENERATION = 0;
+    private static final int DEPTH = 1;
+    private static final int START = 2;
+
+    private final Lock myLock;
+
+    private final ThreadLocal<long[]> myHolds = new ThreadLocal<long[]>()
+    {
+        @Override
+        protected long[] initialValue()
+        {
+            return new long[3];
+        }
+    };
+
+    private final AtomicLong myAcquisitions = new AtomicLong();
+    private final AtomicLong myTotalWaitTime = new AtomicLong();
+    private final AtomicLong myMaxWaitTime = new AtomicLong();
+    private final AtomicLong myTotalHoldTime = new AtomicLong();
+    private final AtomicLong myMaxHoldTime = new AtomicLong();
+
+    private volatile boolean isEnabled;
+    private volatile long myGeneration;
+
+    public MeasuredLock(Lock lock)
+    {
+        myLock = checkNotNull(lock);
+    }
+
+    @Override
+    public void lock()
+    {
+        if (!isEnabled)
+        {
+            myLock.lock();
+            return;
+        }
+
+        final long start = nanoTime();
+        myLock.lock();
+        acquired(start);
+    }
+
+    @Override
+    public void lockInterruptibly()
+    throws InterruptedException
+    {
+        if (!isEnabled)
+        {
+            myLock.lockInterruptibly();
+            return;
+        }
+
+        final long start = nanoTime();
+        myLock.lockInterruptibly();
+        acquired(start);
+    }
+
+    @Override
+    public boolean tryLock()
+    {
+        if (!isEnabled)
+        {
+            return myLock.tryLock();
+        }
+
+        final long start = nanoTime();
+        if (myLock.tryLock())
+        {
+            acquired(start);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit)
+    throws InterruptedException
+    {
+        if (!isEnabled)
+        {
+            return myLock.tryLock(time, unit);
+        }
+
+        final long start = nanoTime();
+        if (myLock.tryLock(time, unit))
+        {
+            acquired(start);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void unlock()
+    {
+        if (isEnabled)
+        {
+            released();
+        }
+
+        myLock.unlock();
+    }
+
+    @Override
+    public Condition newCondition()
+    {
+        return myLock.newCondition();
+    }
+
+    /**
+     * Resets the {@link LockStatistics} and starts measuring.
+     */
+    public synchronized void enable()
+    {
+        myAcquisitions.set(0);
+        myTotalWaitTime.set(0);
+        myMaxWaitTime.set(0);
+        myTotalHoldTime.set(0);
+        myMaxHoldTime.set(0);
+
+        /* Invalidates the holds of all threads, which might be left over from a previous measurement. */
+        myGeneration = myGeneration + 1;
+        isEnabled = true;
+    }
+
+    /**
+     * Stops measuring. The {@link LockStatistics} measured so far are retained.
+     */
+    public synchronized void disable()
+    {
+        isEnabled = false;
+    }
+
+    public boolean isEnabled()
+    {
+        return isEnabled;
+    }
+
+    /**
+     * Returns a snapshot of the {@link LockStatistics} of this lock.
+     */
+    public LockStatistics getStatistics()
+    {
+        return new Snapshot(myAcquisitions.get(), myTotalWaitTime.get(), myMaxWaitTime.get(), myTotalHoldTime.get(), myMaxHoldTime.get());
+    }
+
+    private void acquired(long start)
+    {
+        final long now = nanoTime();
+        final long waitTime = now - start;
+        final long generation = myGeneration;
+        final long[] hold = myHolds.get();
+
+        myAcquisitions.incrementAndGet();
+        myTotalWaitTime.addAndGet(waitTime);
+        max(myMaxWaitTime, waitTime);
+
+        if (hold[GENERATION] != generation)
+        {
+            hold[GENERATION] = generation;
+            hold[DEPTH] = 0;
+        }
+
+        if (hold[DEPTH]++ == 0)
+        {
+            hold[START] = now;
+        }
+    }
+
+    private void released()
+    {
+        final long[] hold = myHolds.get();
+
+        if (hold[GENERATION] == myGeneration && hold[DEPTH] > 0 && --hold[DEPTH] == 0)
+        {
+            final long holdTime = nanoTime() - hold[START];
+
+            myTotalHoldTime.addAndGet(holdTime);
+            max(myMaxHoldTime, holdTime);
+        }
+    }
+
+    private static void max(AtomicLong max, long value)
+    {
+        long current = max.get();
+
+        while (value > current && !max.compareAndSet(current, value))
+        {
+            current = max.get();
+        }
+    }
+
+    private static class Snapshot
+    implements LockStatistics
+    {
+        private final long myAcquisitions;
+        private final long myTotalWaitTime;
+        private final long myMaxWaitTime;
+        private final long myTotalHoldTime;
+        private final long myMaxHoldTime;
+
+        private Snapshot(long acquisitions, long totalWaitTime, long maxWaitTime, long totalHoldTime, long maxHoldTime)
+        {
+            myAcquisitions = acquisitions;
+            myTotalWaitTime = totalWaitTime;
+            myMaxWaitTime = maxWaitTime;
+            myTotalHoldTime = totalHoldTime;
+            myMaxHoldTime = maxHoldTime;
+        }
+
+        @Override
+        public long getNumberOfAcquisitions()
+        {
+            return myAcquisitions;
+        }
+
+        @Override
+        public long getTotalWaitTime(TimeUnit unit)
+        {
+            return checkNotNull(unit).convert(myTotalWaitTime, NANOSECONDS);
+        }
+
+        @Override
+        public long getMaxWaitTime(TimeUnit unit)
+        {
+            return checkNotNull(unit).convert(myMaxWaitTime, NANOSECONDS);
+        }
+
+        @Override
+        public long getTotalHoldTime(TimeUnit unit)
+        {
+            return checkNotNull(unit).convert(myTotalHoldTime, NANOSECONDS);
+        }
+
+        @Override
+        public long getMaxHoldTime(TimeUnit unit)
+        {
+            return checkNotNull(unit).convert(myMaxHoldTime, NANOSECONDS);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "LockStatistics { acquisitions: " + myAcquisitions +
+                   ", total wait: " + myTotalWaitTime + "ns, max wait: " + myMaxWaitTime +
+                   "ns, total hold: " + myTotalHoldTime + "ns, max hold: " + myMaxHoldTime + "ns }";
+        }
+    }
+}
@@ -0,0 +1,441 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.util.BinaryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+
+/**
+ * Constants and property encoding of the binary snapshot format.
+ * <p>
+ * A snapshot is laid out as follows, where every section is prefixed with its length in bytes:
+ * <pre>
+ *     int     magic, int version
+ *     long    length, int n, n * (long, long)                     -- ids of the entities
+ *     int     number of types
+ *     long    length, type, int m, m * (int entity, state)        -- one section per type
+ * </pre>
+ * The type header consists of the name of the type, its layout and the name and type name of each property. If a
+ * component supports the generated binary serialization its state is written in the {@link #GENERATED_LAYOUT},
+ * otherwise each property is written one after another in the {@link #PROPERTY_LAYOUT}, which additionally supports
+ * {@link EntityRef}s and arrays of them by storing the ids of the referenced entities. In both layouts enums are
+ * stored by the name of their constant.
+ * <p>
+ * A delta snapshot starts with the {@link #DELTA_MAGIC} and has the same layout, except that it contains only the
+ * entities and components which changed since the previous snapshot. Each type section is followed by the ids of
+ * the entities which lost their component of that type and the snapshot ends with the ids of the deleted entities:
+ * <pre>
+ *     long    length, type, int m, m * (int entity, state), int r, r * (long, long)
+ *     long    length, int d, d * (long, long)                     -- ids of the deleted entities
+ * </pre>
+ */
+final class SnapshotFormat
+{
+    static final int MAGIC = 0x45325353;
+    static final int DELTA_MAGIC = 0x45325344;
+    static final int VERSION = 2;
+
+    static final byte GENERATED_LAYOUT = 0;
+    static final byte PROPERTY_LAYOUT = 1;
+
+    static final int UNSUPPORTED = -1;
+
+    private static final int BOOLEAN = 0;
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int CHAR = 3;
+    private static final int INT = 4;
+    private static final int LONG = 5;
+    private static final int FLOAT = 6;
+    private static final int DOUBLE = 7;
+    private static final int BOOLEAN_OBJECT = 8;
+    private static final int BYTE_OBJECT = 9;
+    private static final int SHORT_OBJECT = 10;
+    private static final int CHAR_OBJECT = 11;
+    private static final int INT_OBJECT = 12;
+    private static final int LONG_OBJECT = 13;
+    private static final int FLOAT_OBJECT = 14;
+    private static final int DOUBLE_OBJECT = 15;
+    private static final int STRING = 16;
+    private static final int ENUM = 17;
+    private static final int BOOLEAN_ARRAY = 18;
+    private static final int BYTE_ARRAY = 19;
+    private static final int SHORT_ARRAY = 20;
+    private static final int INT_ARRAY = 21;
+    private static final int LONG_ARRAY = 22;
+    private static final int FLOAT_ARRAY = 23;
+    private static final int DOUBLE_ARRAY = 24;
+    private static final int ENTITY_REF = 25;
+    private static final int ENTITY_REF_ARRAY = 26;
+
+    private static final Map<Class<?>, Integer> CODES = new HashMap<Class<?>, Integer>();
+
+    private static final byte NULL = 0;
+    private static final byte PRESENT = 1;
+    private static final int NULL_LENGTH = -1;
+    private static final int ID_SIZE = 17;
+
+    static
+    {
+        final Class<?>[] types = {
+            boolean.class, byte.class, short.class, char.class, int.class, long.class, float.class, double.class,
+            Boolean.class, Byte.class, Short.class, Character.class, Integer.class, Long.class, Float.class, Double.class,
+            String.class, Enum.class,
+            boolean[].class, byte[].class, short[].class, int[].class, long[].class, float[].class, double[].class,
+            EntityRef.class, EntityRef[].class
+        };
+
+        for (int code = 0; code < types.length; ++code)
+        {
+            CODES.put(types[code], code);
+        }
+    }
+
+    private SnapshotFormat()
+    {
+    }
+
+    /**
+     * Returns the code used to encode properties of the specified type or {@link #UNSUPPORTED}.
+     */
+    static int codeOf(Class<?> type)
+    {
+        final Integer code = CODES.get(type.isEnum() ? Enum.class : type);
+        return code != null ? code : UNSUPPORTED;
+    }
+
+    static int sizeOf(int code, Object value)
+    {
+        switch (code)
+        {
+            case BOOLEAN:
+            case BYTE:
+                return 1;
+            case SHORT:
+            case CHAR:
+                return 2;
+            case INT:
+            case FLOAT:
+                return 4;
+            case LONG:
+            case DOUBLE:
+                return 8;
+            case BOOLEAN_OBJECT:
+                return BinaryUtil.sizeOf((Boolean) value);
+            case BYTE_OBJECT:
+                return BinaryUtil.sizeOf((Byte) value);
+            case SHORT_OBJECT:
+                return BinaryUtil.sizeOf((Short) value);
+            case CHAR_OBJECT:
+                return value != null ? 3 : 1;
+            case INT_OBJECT:
+                return BinaryUtil.sizeOf((Integer) value);
+            case LONG_OBJECT:
+                return BinaryUtil.sizeOf((Long) value);
+            case FLOAT_OBJECT:
+                return BinaryUtil.sizeOf((Float) value);
+            case DOUBLE_OBJECT:
+                return BinaryUtil.sizeOf((Double) value);
+            case STRING:
+                return BinaryUtil.sizeOf((String) value);
+            case ENUM:
+                return BinaryUtil.sizeOf((Enum) value);
+            case BOOLEAN_ARRAY:
+                return BinaryUtil.sizeOf((boolean[]) value);
+            case BYTE_ARRAY:
+                return BinaryUtil.sizeOf((byte[]) value);
+            case SHORT_ARRAY:
+                return BinaryUtil.sizeOf((short[]) value);
+            case INT_ARRAY:
+                return BinaryUtil.sizeOf((int[]) value);
+            case LONG_ARRAY:
+                return BinaryUtil.sizeOf((long[]) value);
+            case FLOAT_ARRAY:
+                return BinaryUtil.sizeOf((float[]) value);
+            case DOUBLE_ARRAY:
+                return BinaryUtil.sizeOf((double[]) value);
+            case ENTITY_REF:
+                return value != null ? ID_SIZE : 1;
+            case ENTITY_REF_ARRAY:
+                return sizeOfIds(value != null ? ((EntityRef[]) value).length : NULL_LENGTH, (Object[]) value);
+            default:
+                throw new IllegalArgumentException("Unknown property code: " + code);
+        }
+    }
+
+    /**
+     * Returns the number of bytes occupied by a value, which has been read by {@link #get(ByteBuffer, int, int, Class)}.
+     */
+    static int sizeOfRead(int code, Object value)
+    {
+        if (code == ENTITY_REF_ARRAY)
+        {
+            return sizeOfIds(value != null ? ((UUID[]) value).length : NULL_LENGTH, (Object[]) value);
+        }
+
+        return sizeOf(code, value);
+    }
+
+    static int put(ByteBuffer buffer, int offset, int code, Object value)
+    {
+        switch (code)
+        {
+            case BOOLEAN:
+                buffer.put(offset, (byte) ((Boolean) value ? 1 : 0));
+                return 1;
+            case BYTE:
+                buffer.put(offset, (Byte) value);
+                return 1;
+            case SHORT:
+                buffer.putShort(offset, (Short) value);
+                return 2;
+            case CHAR:
+                buffer.putChar(offset, (Character) value);
+                return 2;
+            case INT:
+                buffer.putInt(offset, (Integer) value);
+                return 4;
+            case LONG:
+                buffer.putLong(offset, (Long) value);
+                return 8;
+            case FLOAT:
+                buffer.putFloat(offset, (Float) value);
+                return 4;
+            case DOUBLE:
+                buffer.putDouble(offset, (Double) value);
+                return 8;
+            case BOOLEAN_OBJECT:
+                return BinaryUtil.put(buffer, offset, (Boolean) value);
+            case BYTE_OBJECT:
+                return BinaryUtil.put(buffer, offset, (Byte) value);
+            case SHORT_OBJECT:
+                return BinaryUtil.put(buffer, offset, (Short) value);
+            case CHAR_OBJECT:
+                return putCharacter(buffer, offset, (Character) value);
+            case INT_OBJECT:
+                return BinaryUtil.put(buffer, offset, (Integer) value);
+            case LONG_OBJECT:
+                return BinaryUtil.put(buffer, offset, (Long) value);
+            case FLOAT_OBJECT:
+                return BinaryUtil.put(buffer, offset, (Float) value);
+            case DOUBLE_OBJECT:
+                return BinaryUtil.put(buffer, offset, (Double) value);
+            case STRING:
+                return BinaryUtil.put(buffer, offset, (String) value);
+            case ENUM:
+                return BinaryUtil.put(buffer, offset, (Enum) value);
+            case BOOLEAN_ARRAY:
+                return BinaryUtil.put(buffer, offset, (boolean[]) value);
+            case BYTE_ARRAY:
+                return BinaryUtil.put(buffer, offset, (byte[]) value);
+            case SHORT_ARRAY:
+                return BinaryUtil.put(buffer, offset, (short[]) value);
+            case INT_ARRAY:
+                return BinaryUtil.put(buffer, offset, (int[]) value);
+            case LONG_ARRAY:
+                return BinaryUtil.put(buffer, offset, (long[]) value);
+            case FLOAT_ARRAY:
+                return BinaryUtil.put(buffer, offset, (float[]) value);
+            case DOUBLE_ARRAY:
+                return BinaryUtil.put(buffer, offset, (double[]) value);
+            case ENTITY_REF:
+                return putId(buffer, offset, (EntityRef) value);
+            case ENTITY_REF_ARRAY:
+                return putIds(buffer, offset, (EntityRef[]) value);
+            default:
+                throw new IllegalArgumentException("Unknown property code: " + code);
+        }
+    }
+
+    /**
+     * Reads a value. Instead of an {@link EntityRef} or an array of them the id of the referenced entity is returned
+     * as {@link UUID}, respectively an array of {@link UUID}s.
+     */
+    static Object get(ByteBuffer buffer, int offset, int code, Class<?> type)
+    {
+        switch (code)
+        {
+            case BOOLEAN:
+                return buffer.get(offset) != 0;
+            case BYTE:
+                return buffer.get(offset);
+            case SHORT:
+                return buffer.getShort(offset);
+            case CHAR:
+                return buffer.getChar(offset);
+            case INT:
+                return buffer.getInt(offset);
+            case LONG:
+                return buffer.getLong(offset);
+            case FLOAT:
+                return buffer.getFloat(offset);
+            case DOUBLE:
+                return buffer.getDouble(offset);
+            case BOOLEAN_OBJECT:
+                return BinaryUtil.getBooleanObject(buffer, offset);
+            case BYTE_OBJECT:
+                return BinaryUtil.getByteObject(buffer, offset);
+            case SHORT_OBJECT:
+                return BinaryUtil.getShortObject(buffer, offset);
+            case CHAR_OBJECT:
+                return buffer.get(offset) != NULL ? buffer.getChar(offset + 1) : null;
+            case INT_OBJECT:
+                return BinaryUtil.getIntegerObject(buffer, offset);
+            case LONG_OBJECT:
+                return BinaryUtil.getLongObject(buffer, offset);
+            case FLOAT_OBJECT:
+                return BinaryUtil.getFloatObject(buffer, offset);
+            case DOUBLE_OBJECT:
+                return BinaryUtil.getDoubleObject(buffer, offset);
+            case STRING:
+                return BinaryUtil.getString(buffer, offset);
+            case ENUM:
+                return BinaryUtil.getEnum(buffer, offset, (Class<Enum>) type);
+            case BOOLEAN_ARRAY:
+                return BinaryUtil.getBooleanArray(buffer, offset);
+            case BYTE_ARRAY:
+                return BinaryUtil.getByteArray(buffer, offset);
+            case SHORT_ARRAY:
+                return BinaryUtil.getShortArray(buffer, offset);
+            case INT_ARRAY:
+                return BinaryUtil.getIntArray(buffer, offset);
+            case LONG_ARRAY:
+                return BinaryUtil.getLongArray(buffer, offset);
+            case FLOAT_ARRAY:
+                return BinaryUtil.getFloatArray(buffer, offset);
+            case DOUBLE_ARRAY:
+                return BinaryUtil.getDoubleArray(buffer, offset);
+            case ENTITY_REF:
+                return getId(buffer, offset);
+            case ENTITY_REF_ARRAY:
+                return getIds(buffer, offset);
+            default:
+                throw new IllegalArgumentException("Unknown property code: " + code);
+        }
+    }
+
+    static boolean isEntityRef(int code)
+    {
+        return code == ENTITY_REF;
+    }
+
+    static boolean isEntityRefArray(int code)
+    {
+        return code == ENTITY_REF_ARRAY;
+    }
+
+    private static int sizeOfIds(int length, Object[] ids)
+    {
+        int size = 4;
+
+        for (int i = 0; i < length; ++i)
+        {
+            size += ids[i] != null ? ID_SIZE : 1;
+        }
+
+        return size;
+    }
+
+    private static int putCharacter(ByteBuffer buffer, int offset, Character value)
+    {
+        if (value == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        buffer.put(offset, PRESENT);
+        buffer.putChar(offset + 1, value);
+        return 3;
+    }
+
+    private static int putId(ByteBuffer buffer, int offset, EntityRef ref)
+    {
+        if (ref == null)
+        {
+            buffer.put(offset, NULL);
+            return 1;
+        }
+
+        final UUID id = ref.getId();
+
+        buffer.put(offset, PRESENT);
+        buffer.putLong(offset + 1, id.getMostSignificantBits());
+        buffer.putLong(offset + 9, id.getLeastSignificantBits());
+        return ID_SIZE;
+    }
+
+    private static int putIds(ByteBuffer buffer, int offset, EntityRef[] refs)
+    {
+        if (refs == null)
+        {
+            buffer.putInt(offset, NULL_LENGTH);
+            return 4;
+        }
+
+        int position = offset + 4;
+
+        buffer.putInt(offset, refs.length);
+
+        for (EntityRef ref : refs)
+        {
+            position += putId(buffer, position, ref);
+        }
+
+        return position - offset;
+    }
+
+    private static UUID getId(ByteBuffer buffer, int offset)
+    {
+        if (buffer.get(offset) == NULL)
+        {
+            return null;
+        }
+
+        return new UUID(buffer.getLong(offset + 1), buffer.getLong(offset + 9));
+    }
+
+    private static UUID[] getIds(ByteBuffer buffer, int offset)
+    {
+        final int length = buffer.getInt(offset);
+
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        final UUID[] ids = new UUID[length];
+        int position = offset + 4;
+
+        for (int i = 0; i < length; ++i)
+        {
+            ids[i] = getId(buffer, position);
+            position += ids[i] != null ? ID_SIZE : 1;
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.storage.api.SnapshotException;
+import org.jayware.e2.storage.api.SnapshotManager;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static java.lang.String.format;
+import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+public class SnapshotManagerImpl
+implements SnapshotManager
+{
+    @Override
+    public void writeSnapshot(Context context, File file)
+    throws IllegalArgumentException, IllegalStateException, SnapshotException
+    {
+        write(context, file, false);
+    }
+
+    @Override
+    public void writeDeltaSnapshot(Context context, File file)
+    throws IllegalArgumentException, IllegalStateException, SnapshotException
+    {
+        write(context, file, true);
+    }
+
+    @Override
+    public void readSnapshot(Context context, File file)
+    throws IllegalArgumentException, IllegalStateException, SnapshotException
+    {
+        read(context, file, false);
+    }
+
+    @Override
+    public void readDeltaSnapshot(Context context, File file)
+    throws IllegalArgumentException, IllegalStateException, SnapshotException
+    {
+        read(context, file, true);
+    }
+
+    private void write(Context context, File file, boolean delta)
+    {
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(file, "File to write the snapshot to mustn't be null!");
+
+        try
+        {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try
+            {
+                final SnapshotWriter writer = new SnapshotWriter(context, randomAccessFile.getChannel());
+
+                randomAccessFile.setLength(0);
+
+                if (delta)
+                {
+                    writer.writeDelta();
+                }
+                else
+                {
+                    writer.write();
+                }
+            }
+            finally
+            {
+                randomAccessFile.close();
+            }
+        }
+        catch (SnapshotException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SnapshotException(format("Failed to write snapshot of context '%s' to: %s", context.getId(), file), e);
+        }
+    }
+
+    private void read(Context context, File file, boolean delta)
+    {
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(file, "File to read the snapshot from mustn't be null!");
+
+        try
+        {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try
+            {
+                new SnapshotReader(context, randomAccessFile.getChannel(), delta).read();
+            }
+            finally
+            {
+                randomAccessFile.close();
+            }
+        }
+        catch (SnapshotException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new SnapshotException(format("Failed to read snapshot of context '%s' from: %s", context.getId(), file), e);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.component.api.AbstractComponent;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.impl.ComponentStore;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.storage.api.SnapshotException;
+import org.jayware.e2.util.BinaryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
+import static org.jayware.e2.storage.impl.SnapshotFormat.DELTA_MAGIC;
+import static org.jayware.e2.storage.impl.SnapshotFormat.GENERATED_LAYOUT;
+import static org.jayware.e2.storage.impl.SnapshotFormat.MAGIC;
+import static org.jayware.e2.storage.impl.SnapshotFormat.UNSUPPORTED;
+import static org.jayware.e2.storage.impl.SnapshotFormat.VERSION;
+import static org.jayware.e2.storage.impl.SnapshotFormat.codeOf;
+import static org.jayware.e2.storage.impl.SnapshotFormat.isEntityRef;
+import static org.jayware.e2.storage.impl.SnapshotFormat.isEntityRefArray;
+import static org.jayware.e2.storage.impl.SnapshotFormat.sizeOfRead;
+
+
+/**
+ * Reads a snapshot from a {@link FileChannel} into a {@link Context}.
+ * <p>
+ * Every section of the snapshot is memory-mapped. The entities are created and the components are put into the
+ * {@link ComponentStore} in chunks, so that neither a single operation nor the temporary arrays grow with the size
+ * of the snapshot.
+ * <p>
+ * A delta snapshot is applied on top of the state of the {@link Context}: the changed components are put, the
+ * removed components are removed and finally the deleted entities are deleted.
+ * <p>
+ * Reading a full snapshot starts tracking the changes of the {@link ComponentStore}, so that delta snapshots can be
+ * written on top of the restored state.
+ * <p>
+ * The components are restored without firing events. Hence, the state derived from them, e.g. the indices of groups
+ * and trees, is invalidated after reading and built from the restored components again.
+ *
+ * @see SnapshotFormat
+ */
+class SnapshotReader
+{
+    private static final int CHUNK_SIZE = 4096;
+
+    private final Context myContext;
+    private final FileChannel myChannel;
+    private final EntityManager myEntityManager;
+    private final ComponentStore myComponentStore;
+    private final boolean myDelta;
+
+    private EntityRef[] myEntities;
+    private Map<UUID, EntityRef> myEntitiesById;
+
+    SnapshotReader(Context context, FileChannel channel, boolean delta)
+    {
+        myDelta = delta;
+        myContext = context;
+        myChannel = channel;
+        myEntityManager = context.getService(EntityManager.class);
+        myComponentStore = context.get(COMPONENT_STORE);
+    }
+
+    void read()
+    throws IOException
+    {
+        final ByteBuffer header = map(0, 8);
+        long position = 8;
+
+        if (header.getInt(0) != (myDelta ? DELTA_MAGIC : MAGIC))
+        {
+            throw new SnapshotException(myDelta ? "The file is not a delta snapshot!" : "The file is not a snapshot!");
+        }
+
+        if (header.getInt(4) != VERSION)
+        {
+            throw new SnapshotException(format("The version '%s' of the snapshot is not supported!", header.getInt(4)));
+        }
+
+        try
+        {
+            long length = map(position, 8).getLong(0);
+            readEntities(map(position + 8, length));
+            position += 8 + length;
+
+            final int numberOfTypes = map(position, 4).getInt(0);
+            position += 4;
+
+            for (int i = 0; i < numberOfTypes; ++i)
+            {
+                length = map(position, 8).getLong(0);
+                readType(map(position + 8, length));
+                position += 8 + length;
+            }
+
+            if (myDelta)
+            {
+                length = map(position, 8).getLong(0);
+                readDeletedEntities(map(position + 8, length));
+            }
+            else
+            {
+                myComponentStore.trackChanges();
+            }
+        }
+        finally
+        {
+            myComponentStore.invalidateSynchronizers();
+        }
+    }
+
+    private void readEntities(ByteBuffer buffer)
+    {
+        final int numberOfEntities = buffer.getInt(0);
+        final List<UUID> ids = new ArrayList<UUID>(min(numberOfEntities, CHUNK_SIZE));
+        int numberOfCreatedEntities = 0;
+
+        myEntities = new EntityRef[numberOfEntities];
+
+        for (int index = 0; index < numberOfEntities; ++index)
+        {
+            final int offset = 4 + index * 16;
+
+            ids.add(new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)));
+
+            if (ids.size() == CHUNK_SIZE || index + 1 == numberOfEntities)
+            {
+                for (EntityRef ref : myEntityManager.createEntities(myContext, ids))
+                {
+                    myEntities[numberOfCreatedEntities++] = ref;
+                }
+
+                ids.clear();
+            }
+        }
+    }
+
+    private void readType(ByteBuffer buffer)
+    {
+        int offset = 0;
+
+        final String typeName = BinaryUtil.getString(buffer, offset);
+        offset += BinaryUtil.sizeOf(typeName);
+
+        final byte layout = buffer.get(offset);
+        final int numberOfProperties = buffer.getInt(offset + 1);
+        offset += 5;
+
+        final Class<? extends Component> type = myComponentStore.resolveComponent(typeName);
+        final AbstractComponent template = myComponentStore.newComponent(type);
+        final List<String> names = template.getPropertyNames();
+        final List<Class> types = template.getPropertyTypes();
+        final int[] codes = new int[types.size()];
+
+        boolean matches = numberOfProperties == names.size() && (layout != GENERATED_LAYOUT || template.isSerializable());
+
+        for (int i = 0; i < numberOfProperties; ++i)
+        {
+            final String name = BinaryUtil.getString(buffer, offset);
+            offset += BinaryUtil.sizeOf(name);
+
+            final String propertyTypeName = BinaryUtil.getString(buffer, offset);
+            offset += BinaryUtil.sizeOf(propertyTypeName);
+
+            matches = matches && name.equals(names.get(i)) && propertyTypeName.equals(types.get(i).getName());
+        }
+
+        for (int i = 0; matches && i < codes.length; ++i)
+        {
+            codes[i] = codeOf(types.get(i));
+            matches = layout == GENERATED_LAYOUT || codes[i] != UNSUPPORTED;
+        }
+
+        if (!matches)
+        {
+            throw new SnapshotException(format("The schema of component '%s' does not match the snapshot!", typeName));
+        }
+
+        final int numberOfComponents = buffer.getInt(offset);
+        offset += 4;
+
+        final EntityRef[] refs = new EntityRef[min(numberOfComponents, CHUNK_SIZE)];
+        final Component[] components = new Component[refs.length];
+        int chunk = 0;
+
+        for (int n = 0; n < numberOfComponents; ++n)
+        {
+            final AbstractComponent component = myComponentStore.newComponent(type);
+
+            refs[chunk] = myEntities[buffer.getInt(offset)];
+            offset += 4;
+
+            try
+            {
+                if (layout == GENERATED_LAYOUT)
+                {
+                    offset += component.restore(buffer, offset);
+                }
+                else
+                {
+                    for (int i = 0; i < codes.length; ++i)
+                    {
+                        final Object value = SnapshotFormat.get(buffer, offset, codes[i], types.get(i));
+                        offset += sizeOfRead(codes[i], value);
+                        component.set(i, resolve(codes[i], value));
+                    }
+                }
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new SnapshotException(format("A component '%s' of the snapshot can't be restored!", typeName), e);
+            }
+
+            components[chunk++] = component;
+
+            if (chunk == refs.length)
+            {
+                myComponentStore.putComponents(type, refs, components, chunk);
+                chunk = 0;
+            }
+        }
+
+        if (chunk > 0)
+        {
+            myComponentStore.putComponents(type, refs, components, chunk);
+        }
+
+        if (myDelta)
+        {
+            final int numberOfRemovedComponents = buffer.getInt(offset);
+            final EntityRef[] removed = new EntityRef[numberOfRemovedComponents];
+
+            for (int n = 0; n < numberOfRemovedComponents; ++n)
+            {
+                final int position = offset + 4 + n * 16;
+                removed[n] = resolveEntity(new UUID(buffer.getLong(position), buffer.getLong(position + 8)));
+            }
+
+            myComponentStore.removeComponents(type, removed, removed.length);
+        }
+    }
+
+    private void readDeletedEntities(ByteBuffer buffer)
+    {
+        final int numberOfEntities = buffer.getInt(0);
+        final List<EntityRef> refs = new ArrayList<EntityRef>(numberOfEntities);
+
+        for (int index = 0; index < numberOfEntities; ++index)
+        {
+            final int offset = 4 + index * 16;
+            refs.add(myEntityManager.resolveEntity(myContext, new UUID(buffer.getLong(offset), buffer.getLong(offset + 8))));
+        }
+
+        if (!refs.isEmpty())
+        {
+            myEntityManager.deleteEntities(myContext, refs);
+        }
+    }
+
+    /**
+     * Replaces the ids read for {@link EntityRef} properties with {@link EntityRef}s of the restored entities.
+     */
+    private Object resolve(int code, Object value)
+    {
+        if (value == null)
+        {
+            return null;
+        }
+
+        if (isEntityRef(code))
+        {
+            return resolveEntity((UUID) value);
+        }
+
+        if (isEntityRefArray(code))
+        {
+            final UUID[] ids = (UUID[]) value;
+            final EntityRef[] refs = new EntityRef[ids.length];
+
+            for (int i = 0; i < ids.length; ++i)
+            {
+                refs[i] = ids[i] != null ? resolveEntity(ids[i]) : null;
+            }
+
+            return refs;
+        }
+
+        return value;
+    }
+
+    private EntityRef resolveEntity(UUID id)
+    {
+        if (myEntitiesById == null)
+        {
+            myEntitiesById = new HashMap<UUID, EntityRef>(myEntities.length * 2);
+
+            for (EntityRef ref : myEntities)
+            {
+                myEntitiesById.put(ref.getId(), ref);
+            }
+        }
+
+        final EntityRef ref = myEntitiesById.get(id);
+        return ref != null ? ref : myEntityManager.resolveEntity(myContext, id);
+    }
+
+    private ByteBuffer map(long position, long length)
+    throws IOException
+    {
+        if (length > Integer.MAX_VALUE)
+        {
+            throw new SnapshotException(format("The section at %s is too large to be mapped: %s bytes", position, length));
+        }
+
+        return myChannel.map(READ_ONLY, position, length);
+    }
+}
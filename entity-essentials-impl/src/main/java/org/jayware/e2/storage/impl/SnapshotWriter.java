@@ -0,0 +1,481 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.component.api.AbstractComponent;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.impl.ComponentStore;
+import org.jayware.e2.component.impl.ComponentStore.ChangeSet;
+import org.jayware.e2.component.impl.ComponentStore.ComponentVisitor;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.storage.api.SnapshotException;
+import org.jayware.e2.util.BinaryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static java.lang.String.format;
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
+import static org.jayware.e2.storage.impl.SnapshotFormat.DELTA_MAGIC;
+import static org.jayware.e2.storage.impl.SnapshotFormat.GENERATED_LAYOUT;
+import static org.jayware.e2.storage.impl.SnapshotFormat.MAGIC;
+import static org.jayware.e2.storage.impl.SnapshotFormat.PROPERTY_LAYOUT;
+import static org.jayware.e2.storage.impl.SnapshotFormat.UNSUPPORTED;
+import static org.jayware.e2.storage.impl.SnapshotFormat.VERSION;
+import static org.jayware.e2.storage.impl.SnapshotFormat.codeOf;
+
+
+/**
+ * Writes a snapshot of a {@link Context} through a buffer of bounded size into a {@link FileChannel}.
+ * <p>
+ * The number of components and the length of a section are only known after the section has been written, hence
+ * they are patched afterwards.
+ * <p>
+ * Both kinds of snapshots take the changes tracked by the {@link ComponentStore}, so that a subsequent delta
+ * snapshot contains only the changes since this snapshot. The first snapshot starts the tracking, hence a delta
+ * snapshot cannot be written before. If writing fails, the changes are restored.
+ *
+ * @see SnapshotFormat
+ */
+class SnapshotWriter
+implements ComponentVisitor
+{
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Context myContext;
+    private final FileChannel myChannel;
+    private final ComponentStore myComponentStore;
+    private final Map<EntityRef, Integer> myEntityIndices;
+    private final List<EntityRef> myRemovedComponents;
+
+    private ByteBuffer myBuffer;
+    private long myFlushedBytes;
+
+    private Class<? extends Component> myType;
+    private boolean myGeneratedLayout;
+    private int[] myCodes;
+    private Object[] myValues;
+    private int myNumberOfComponents;
+
+    SnapshotWriter(Context context, FileChannel channel)
+    {
+        myContext = context;
+        myChannel = channel;
+        myComponentStore = context.get(COMPONENT_STORE);
+        myEntityIndices = new HashMap<EntityRef, Integer>();
+        myRemovedComponents = new ArrayList<EntityRef>();
+        myBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * Writes all entities and components.
+     */
+    void write()
+    throws IOException
+    {
+        final ChangeSet changes = myComponentStore.takeChanges();
+        boolean written = false;
+
+        try
+        {
+            final List<EntityRef> entities = myContext.getService(EntityManager.class).findEntities(myContext);
+            final Set<Class<? extends Component>> types = myComponentStore.getComponentClasses();
+
+            writeHeader(MAGIC);
+            writeEntities(entities);
+
+            reserve(4);
+            myBuffer.putInt(types.size());
+
+            for (Class<? extends Component> type : types)
+            {
+                writeType(type, null);
+            }
+
+            flush();
+            written = true;
+        }
+        finally
+        {
+            if (!written)
+            {
+                myComponentStore.restoreChanges(changes);
+            }
+        }
+    }
+
+    /**
+     * Writes the components which have been added, pushed or removed and the entities which have been deleted
+     * since the previous snapshot.
+     */
+    void writeDelta()
+    throws IOException
+    {
+        if (!myComponentStore.isTrackingChanges())
+        {
+            throw new SnapshotException(format("A delta snapshot of context '%s' requires a previous snapshot!", myContext.getId()));
+        }
+
+        final ChangeSet changes = myComponentStore.takeChanges();
+        boolean written = false;
+
+        try
+        {
+            final Set<Class<? extends Component>> types = changes.getChangedTypes();
+            final Set<EntityRef> entities = new LinkedHashSet<EntityRef>();
+            final List<EntityRef> deletedEntities = new ArrayList<EntityRef>();
+
+            for (Class<? extends Component> type : types)
+            {
+                for (EntityRef ref : changes.getChangedComponents(type))
+                {
+                    if (ref.isValid())
+                    {
+                        entities.add(ref);
+                    }
+                }
+            }
+
+            for (EntityRef ref : changes.getDeletedEntities())
+            {
+                if (ref.isInvalid())
+                {
+                    deletedEntities.add(ref);
+                }
+            }
+
+            writeHeader(DELTA_MAGIC);
+            writeEntities(entities);
+
+            reserve(4);
+            myBuffer.putInt(types.size());
+
+            for (Class<? extends Component> type : types)
+            {
+                writeType(type, changes.getChangedComponents(type));
+            }
+
+            writeIds(deletedEntities);
+
+            flush();
+            written = true;
+        }
+        finally
+        {
+            if (!written)
+            {
+                myComponentStore.restoreChanges(changes);
+            }
+        }
+    }
+
+    @Override
+    public void visit(EntityRef ref, AbstractComponent component)
+    {
+        final Integer index = myEntityIndices.get(ref);
+
+        if (component == null)
+        {
+            myRemovedComponents.add(ref);
+            return;
+        }
+
+        if (index == null)
+        {
+            return;
+        }
+
+        try
+        {
+            if (myGeneratedLayout)
+            {
+                reserve(4 + component.serializedSize());
+
+                final int offset = myBuffer.position();
+                myBuffer.putInt(offset, index);
+                myBuffer.position(offset + 4 + component.serialize(myBuffer, offset + 4));
+            }
+            else
+            {
+                int size = 4;
+
+                for (int i = 0; i < myCodes.length; ++i)
+                {
+                    myValues[i] = component.get(i);
+                    size += SnapshotFormat.sizeOf(myCodes[i], myValues[i]);
+                }
+
+                reserve(size);
+
+                int offset = myBuffer.position();
+                myBuffer.putInt(offset, index);
+                offset += 4;
+
+                for (int i = 0; i < myCodes.length; ++i)
+                {
+                    offset += SnapshotFormat.put(myBuffer, offset, myCodes[i], myValues[i]);
+                    myValues[i] = null;
+                }
+
+                myBuffer.position(offset);
+            }
+
+            ++myNumberOfComponents;
+        }
+        catch (IOException e)
+        {
+            throw new SnapshotException(format("Failed to write component '%s' of entity: %s", myType.getName(), ref.getId()), e);
+        }
+    }
+
+    private void writeHeader(int magic)
+    throws IOException
+    {
+        reserve(8);
+        myBuffer.putInt(magic);
+        myBuffer.putInt(VERSION);
+    }
+
+    private void writeEntities(Collection<EntityRef> entities)
+    throws IOException
+    {
+        final long section = beginSection();
+        int index = 0;
+
+        reserve(4);
+        myBuffer.putInt(entities.size());
+
+        for (EntityRef ref : entities)
+        {
+            myEntityIndices.put(ref, index++);
+            putId(ref.getId());
+        }
+
+        endSection(section);
+    }
+
+    /**
+     * Writes the section of the specified type of component. If {@link EntityRef}s are specified, only their
+     * components are written, followed by the ids of those {@link EntityRef}s which have no such component.
+     */
+    private void writeType(Class<? extends Component> type, Collection<EntityRef> refs)
+    throws IOException
+    {
+        final AbstractComponent template = myComponentStore.newComponent(type);
+        final List<String> names = template.getPropertyNames();
+        final List<Class> types = template.getPropertyTypes();
+
+        myType = type;
+        myGeneratedLayout = template.isSerializable();
+        myCodes = new int[types.size()];
+        myValues = new Object[types.size()];
+        myNumberOfComponents = 0;
+
+        for (int i = 0; i < myCodes.length; ++i)
+        {
+            myCodes[i] = codeOf(types.get(i));
+
+            if (!myGeneratedLayout && myCodes[i] == UNSUPPORTED)
+            {
+                throw new SnapshotException(format("Failed to write component '%s', because the type '%s' of property '%s' is not supported!", type.getName(), types.get(i).getName(), names.get(i)));
+            }
+        }
+
+        final long section = beginSection();
+
+        putString(type.getName());
+        reserve(5);
+        myBuffer.put(myGeneratedLayout ? GENERATED_LAYOUT : PROPERTY_LAYOUT);
+        myBuffer.putInt(names.size());
+
+        for (int i = 0; i < names.size(); ++i)
+        {
+            putString(names.get(i));
+            putString(types.get(i).getName());
+        }
+
+        final long count = position();
+
+        reserve(4);
+        myBuffer.putInt(0);
+
+        if (refs == null)
+        {
+            myComponentStore.accept(type, this);
+            patchInt(count, myNumberOfComponents);
+        }
+        else
+        {
+            myComponentStore.accept(type, refs, this);
+            patchInt(count, myNumberOfComponents);
+
+            reserve(4);
+            myBuffer.putInt(myRemovedComponents.size());
+
+            for (EntityRef ref : myRemovedComponents)
+            {
+                putId(ref.getId());
+            }
+
+            myRemovedComponents.clear();
+        }
+
+        endSection(section);
+    }
+
+    private void writeIds(Collection<EntityRef> refs)
+    throws IOException
+    {
+        final long section = beginSection();
+
+        reserve(4);
+        myBuffer.putInt(refs.size());
+
+        for (EntityRef ref : refs)
+        {
+            putId(ref.getId());
+        }
+
+        endSection(section);
+    }
+
+    private long beginSection()
+    throws IOException
+    {
+        final long section = position();
+
+        reserve(8);
+        myBuffer.putLong(0);
+
+        return section;
+    }
+
+    private void endSection(long section)
+    throws IOException
+    {
+        patchLong(section, position() - section - 8);
+    }
+
+    private void patchLong(long position, long value)
+    throws IOException
+    {
+        if (position >= myFlushedBytes)
+        {
+            myBuffer.putLong((int) (position - myFlushedBytes), value);
+        }
+        else
+        {
+            final ByteBuffer patch = ByteBuffer.allocate(8);
+            patch.putLong(0, value);
+            writeFully(patch, position);
+        }
+    }
+
+    private void patchInt(long position, int value)
+    throws IOException
+    {
+        if (position >= myFlushedBytes)
+        {
+            myBuffer.putInt((int) (position - myFlushedBytes), value);
+        }
+        else
+        {
+            final ByteBuffer patch = ByteBuffer.allocate(4);
+            patch.putInt(0, value);
+            writeFully(patch, position);
+        }
+    }
+
+    private void putId(UUID id)
+    throws IOException
+    {
+        reserve(16);
+        myBuffer.putLong(id.getMostSignificantBits());
+        myBuffer.putLong(id.getLeastSignificantBits());
+    }
+
+    private void putString(String value)
+    throws IOException
+    {
+        final int size = BinaryUtil.sizeOf(value);
+
+        reserve(size);
+
+        final int offset = myBuffer.position();
+        myBuffer.position(offset + BinaryUtil.put(myBuffer, offset, value));
+    }
+
+    private long position()
+    {
+        return myFlushedBytes + myBuffer.position();
+    }
+
+    /**
+     * Ensures that the specified number of bytes can be put into the buffer.
+     */
+    private void reserve(int size)
+    throws IOException
+    {
+        if (myBuffer.remaining() < size)
+        {
+            flush();
+
+            if (myBuffer.capacity() < size)
+            {
+                myBuffer = ByteBuffer.allocateDirect(size);
+            }
+        }
+    }
+
+    private void flush()
+    throws IOException
+    {
+        myBuffer.flip();
+
+        while (myBuffer.hasRemaining())
+        {
+            myFlushedBytes += myChannel.write(myBuffer);
+        }
+
+        myBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position)
+    throws IOException
+    {
+        long offset = position;
+
+        while (buffer.hasRemaining())
+        {
+            offset += myChannel.write(buffer, offset);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.storage.api.ComponentStatistics;
+import org.jayware.e2.storage.api.StatisticsManager;
+import org.jayware.e2.storage.api.StorageStatistics;
+
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
+import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
+import static org.jayware.e2.storage.impl.StorageImpl.STORAGE_KEY;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+public class StatisticsManagerImpl
+implements StatisticsManager
+{
+    @Override
+    public StorageStatistics getStorageStatistics(Context context)
+    throws IllegalArgumentException, IllegalStateException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        return context.get(STORAGE_KEY).getStatistics();
+    }
+
+    @Override
+    public ComponentStatistics getComponentStatistics(Context context)
+    throws IllegalArgumentException, IllegalStateException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        return context.get(COMPONENT_STORE).getStatistics();
+    }
+
+    @Override
+    public int countEntities(Context context, Aspect aspect)
+    throws IllegalArgumentException, IllegalStateException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(aspect, "Aspect mustn't be null!");
+
+        return context.getService(EntityManager.class).queryEntities(context).withAspect(aspect).count();
+    }
+
+    @Override
+    public void enableLockStatistics(Context context)
+    throws IllegalArgumentException, IllegalStateException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        context.get(STORAGE_KEY).enableLockStatistics();
+        context.get(COMPONENT_STORE).enableLockStatistics();
+    }
+
+    @Override
+    public void disableLockStatistics(Context context)
+    throws IllegalArgumentException, IllegalStateException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        context.get(STORAGE_KEY).disableLockStatistics();
+        context.get(COMPONENT_STORE).disableLockStatistics();
+    }
+
+    @Override
+    public boolean isLockStatisticsEnabled(Context context)
+    throws IllegalArgumentException, IllegalStateException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        return context.get(STORAGE_KEY).isLockStatisticsEnabled();
+    }
+}
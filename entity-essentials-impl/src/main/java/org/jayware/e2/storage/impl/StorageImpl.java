@@ -24,6 +24,7 @@ import org.jayware.e2.component.api.Aspect;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.Contextual;
 import org.jayware.e2.context.api.Disposable;
+import org.jayware.e2.entity.api.EntityEvent.CreateEntitiesEvent;
 import org.jayware.e2.entity.api.EntityEvent.CreateEntityEvent;
 import org.jayware.e2.entity.api.EntityEvent.DeleteEntitiesEvent;
 import org.jayware.e2.entity.api.EntityEvent.DeleteEntityEvent;
@@ -32,16 +33,18 @@ import org.jayware.e2.entity.api.EntityEvent.EntityDeletedEvent;
 import org.jayware.e2.entity.api.EntityEvent.EntityDeletingEvent;
 import org.jayware.e2.entity.api.EntityEvent.FindEntitiesEvent;
 import org.jayware.e2.entity.api.EntityEvent.ResolveEntityEvent;
+import org.jayware.e2.entity.api.EntityEvent.VisitEntitiesEvent;
 import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.entity.api.EntityVisitor;
 import org.jayware.e2.event.api.Event;
 import org.jayware.e2.event.api.EventManager;
 import org.jayware.e2.event.api.Handle;
 import org.jayware.e2.event.api.Param;
 import org.jayware.e2.event.api.Query;
 import org.jayware.e2.storage.api.ComponentDatabase;
-import org.jayware.e2.storage.api.EntityFinder;
 import org.jayware.e2.storage.api.Storage;
 import org.jayware.e2.storage.api.StorageException;
+import org.jayware.e2.storage.api.StorageStatistics;
 import org.jayware.e2.util.Filter;
 import org.jayware.e2.util.Key;
 import org.jayware.e2.util.ObjectUtil;
@@ -49,17 +52,22 @@ import org.jayware.e2.util.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.Lock;
 
 import static org.jayware.e2.entity.api.EntityEvent.AspectParam;
+import static org.jayware.e2.entity.api.EntityEvent.EntityIdListParam;
 import static org.jayware.e2.entity.api.EntityEvent.EntityIdParam;
 import static org.jayware.e2.entity.api.EntityEvent.EntityRefListParam;
 import static org.jayware.e2.entity.api.EntityEvent.EntityRefParam;
+import static org.jayware.e2.entity.api.EntityEvent.EntityIteratorParam;
 import static org.jayware.e2.entity.api.EntityEvent.FilterListParam;
 import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
 import static org.jayware.e2.event.api.Parameters.param;
@@ -70,7 +78,9 @@ import static org.jayware.e2.util.Key.createKey;
 public class StorageImpl
 implements Storage, Disposable
 {
-    public static final Key<Storage> STORAGE_KEY = createKey("org.jayware.e2.Storage");
+    public static final Key<StorageImpl> STORAGE_KEY = createKey("org.jayware.e2.Storage");
+
+    private static final int VISIT_CHUNK_SIZE = 1024;
 
     private final Logger log = LoggerFactory.getLogger(StorageImpl.class);
 
@@ -78,14 +88,17 @@ implements Storage, Disposable
 
     private final EventManager myEventManager;
 
-    private final EntityFinder myEntityFinder;
+    private final EntityFinderImpl myEntityFinder;
 
     private final Map<UUID, EntityRef> myEntities;
     private final ComponentDatabase myComponentDatabase;
 
-    private final Lock myReadLock;
-    private final Lock myUpdateLock;
-    private final Lock myWriteLock;
+    private final MeasuredLock myReadLock;
+    private final MeasuredLock myUpdateLock;
+    private final MeasuredLock myWriteLock;
+
+    private long myCreatedEntities;
+    private long myDeletedEntities;
 
     public StorageImpl(Context context, Map<UUID, EntityRef> entities, ComponentDatabase database)
     {
@@ -96,16 +109,16 @@ implements Storage, Disposable
         myComponentDatabase = database;
 
         final ReadWriteUpdateLock myLock = new ReentrantReadWriteUpdateLock();
-        myReadLock = myLock.readLock();
-        myUpdateLock = myLock.updateLock();
-        myWriteLock = myLock.writeLock();
+        myReadLock = new MeasuredLock(myLock.readLock());
+        myUpdateLock = new MeasuredLock(myLock.updateLock());
+        myWriteLock = new MeasuredLock(myLock.writeLock());
 
         myEntityFinder = new EntityFinderImpl(context, new Provider<List<EntityRef>>()
         {
             @Override
             public List<EntityRef> provide()
             {
-                return new CopyOnWriteArrayList<EntityRef>();
+                return new ArrayList<EntityRef>();
             }
         });
     }
@@ -131,6 +144,7 @@ implements Storage, Disposable
                 try
                 {
                     myEntities.put(entityId, resultRef);
+                    ++myCreatedEntities;
                 }
                 finally
                 {
@@ -156,6 +170,46 @@ implements Storage, Disposable
         }
     }
 
+    @Handle(CreateEntitiesEvent.class)
+    public void handleCreateEntitiesEvent(Event event, @Param(EntityIdListParam) List<UUID> ids)
+    {
+        final List<EntityRef> result = new ArrayList<EntityRef>(ids.size());
+        final List<EntityRef> created = new ArrayList<EntityRef>(ids.size());
+
+        myWriteLock.lock();
+        try
+        {
+            for (UUID id : ids)
+            {
+                EntityRef ref = myEntities.get(id);
+
+                if (ref == null)
+                {
+                    ref = new EntityRefImpl(id);
+                    myEntities.put(id, ref);
+                    created.add(ref);
+                    ++myCreatedEntities;
+                }
+
+                result.add(ref);
+            }
+        }
+        finally
+        {
+            myWriteLock.unlock();
+        }
+
+        for (EntityRef ref : created)
+        {
+            postEntityCreatedEvent(ref);
+        }
+
+        if (event.isQuery())
+        {
+            ((Query) event).result(EntityRefListParam, Collections.<EntityRef>unmodifiableList(result));
+        }
+    }
+
     @Handle(DeleteEntityEvent.class)
     public void handleDeleteEntityEvent(Event event, @Param(value = EntityIdParam) UUID id)
     {
@@ -176,6 +230,7 @@ implements Storage, Disposable
                 {
                     myComponentDatabase.clear(ref);
                     myEntities.remove(id);
+                    ++myDeletedEntities;
                 }
                 finally
                 {
@@ -206,18 +261,42 @@ implements Storage, Disposable
     }
 
     @Handle(DeleteEntitiesEvent.class)
-    public void handleDeleteEntitiesEvent(Event event)
+    public void handleDeleteEntitiesEvent(Event event, @Param(value = EntityRefListParam, presence = Optional) List<EntityRef> refs)
     {
         final List<EntityRef> result;
 
         myWriteLock.lock();
         try
         {
-            result = new CopyOnWriteArrayList<EntityRef>(myEntities.values());
+            if (refs == null)
+            {
+                result = new CopyOnWriteArrayList<EntityRef>(myEntities.values());
+
+                for (EntityRef ref : result)
+                {
+                    myEntities.remove(ref.getId());
+                }
 
-            for (EntityRef ref : result)
+                myDeletedEntities += result.size();
+            }
+            else
             {
-                myEntities.remove(ref.getId());
+                final List<EntityRef> deleted = new ArrayList<EntityRef>(refs.size());
+
+                for (EntityRef ref : refs)
+                {
+                    final EntityRef removed = myEntities.remove(ref.getId());
+
+                    if (removed != null)
+                    {
+                        myComponentDatabase.clear(removed);
+                        deleted.add(removed);
+                    }
+                }
+
+                myDeletedEntities += deleted.size();
+
+                result = new CopyOnWriteArrayList<EntityRef>(deleted);
             }
         }
         finally
@@ -241,11 +320,24 @@ implements Storage, Disposable
                                                    @Param(value = FilterListParam, presence = Optional) List<Filter<EntityRef>> filters)
     {
         List<EntityRef> result = Collections.<EntityRef>emptyList();
+        boolean locked = true;
 
         myReadLock.lock();
         try
         {
-            result = myEntityFinder.filter(myEntities.values(), aspect, filters);
+            if (myEntityFinder.isParallel(myEntities.size()))
+            {
+                /* The workers of the finder acquire the read lock too, hence a copy is filtered without holding it. */
+                final List<EntityRef> entities = new ArrayList<EntityRef>(myEntities.values());
+                myReadLock.unlock();
+                locked = false;
+
+                result = myEntityFinder.filter(entities, aspect, filters);
+            }
+            else
+            {
+                result = myEntityFinder.filter(myEntities.values(), aspect, filters);
+            }
         }
         catch (Exception e)
         {
@@ -253,12 +345,34 @@ implements Storage, Disposable
         }
         finally
         {
-            myReadLock.unlock();
+            if (locked)
+            {
+                myReadLock.unlock();
+            }
 
             query.result(EntityRefListParam, Collections.<EntityRef>unmodifiableList(result));
         }
     }
 
+    @Handle(VisitEntitiesEvent.class)
+    public void handleVisitEntitiesEvent(Query query, @Param(value = AspectParam, presence = Optional) Aspect aspect,
+                                                      @Param(value = FilterListParam, presence = Optional) List<Filter<EntityRef>> filters)
+    {
+        final Iterator<EntityRef> entities;
+
+        myReadLock.lock();
+        try
+        {
+            entities = myEntities instanceof ConcurrentMap ? myEntities.values().iterator() : new ArrayList<EntityRef>(myEntities.values()).iterator();
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+
+        query.result(EntityIteratorParam, new EntityChunkIterator(entities, aspect, filters));
+    }
+
     @Handle(ResolveEntityEvent.class)
     public void handleResolveEntityEvent(Query query, @Param(EntityIdParam) UUID id)
     {
@@ -281,10 +395,48 @@ implements Storage, Disposable
         query.result(EntityRefParam, resolvedEntity);
     }
 
+    /**
+     * Returns a snapshot of the {@link StorageStatistics} of this storage.
+     */
+    public StorageStatistics getStatistics()
+    {
+        myReadLock.lock();
+        try
+        {
+            return new StorageStatisticsImpl(myEntities.size(), myCreatedEntities, myDeletedEntities,
+                myReadLock.getStatistics(), myUpdateLock.getStatistics(), myWriteLock.getStatistics()
+            );
+        }
+        finally
+        {
+            myReadLock.unlock();
+        }
+    }
+
+    public void enableLockStatistics()
+    {
+        myReadLock.enable();
+        myUpdateLock.enable();
+        myWriteLock.enable();
+    }
+
+    public void disableLockStatistics()
+    {
+        myReadLock.disable();
+        myUpdateLock.disable();
+        myWriteLock.disable();
+    }
+
+    public boolean isLockStatisticsEnabled()
+    {
+        return myReadLock.isEnabled();
+    }
+
     @Override
     public void dispose(Context context)
     {
         myEventManager.unsubscribe(myContext, this);
+        myEntityFinder.dispose();
     }
 
     private void postEntityCreatedEvent(EntityRef ref)
@@ -319,6 +471,87 @@ implements Storage, Disposable
         return id != null ? id : UUID.randomUUID();
     }
 
+    /**
+     * Iterates the matching entities in chunks of {@link StorageImpl#VISIT_CHUNK_SIZE}. The read lock is only held
+     * while the next chunk is fetched, hence the entities are processed by the thread which iterates and without
+     * blocking writers in between. Relies on the weakly consistent iterator of a {@link ConcurrentMap}: entities
+     * created or deleted during the iteration may or may not be returned. Other maps are copied up front.
+     */
+    private class EntityChunkIterator
+    implements Iterator<EntityRef>, EntityVisitor
+    {
+        private final Iterator<EntityRef> myEntities;
+        private final Aspect myAspect;
+        private final List<Filter<EntityRef>> myFilters;
+
+        private final List<EntityRef> myChunk;
+        private int myIndex;
+        private boolean isExhausted;
+
+        private EntityChunkIterator(Iterator<EntityRef> entities, Aspect aspect, List<Filter<EntityRef>> filters)
+        {
+            myEntities = entities;
+            myAspect = aspect;
+            myFilters = filters;
+            myChunk = new ArrayList<EntityRef>(VISIT_CHUNK_SIZE);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (myIndex == myChunk.size() && !isExhausted)
+            {
+                fetch();
+            }
+
+            return myIndex < myChunk.size();
+        }
+
+        @Override
+        public EntityRef next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            return myChunk.get(myIndex++);
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean visit(EntityRef ref)
+        {
+            myChunk.add(ref);
+            return myChunk.size() < VISIT_CHUNK_SIZE;
+        }
+
+        private void fetch()
+        {
+            myChunk.clear();
+            myIndex = 0;
+
+            myReadLock.lock();
+            try
+            {
+                isExhausted = myEntityFinder.visit(myEntities, myAspect, myFilters, this);
+            }
+            catch (Exception e)
+            {
+                throw new StorageException("Failed to visit entities!", e);
+            }
+            finally
+            {
+                myReadLock.unlock();
+            }
+        }
+    }
+
     private class EntityRefImpl
     implements EntityRef
     {
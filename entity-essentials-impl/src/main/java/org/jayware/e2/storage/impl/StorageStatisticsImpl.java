@@ -0,0 +1,90 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.storage.api.LockStatistics;
+import org.jayware.e2.storage.api.StorageStatistics;
+
+
+class StorageStatisticsImpl
+implements StorageStatistics
+{
+    private final int myNumberOfEntities;
+    private final long myCreatedEntities;
+    private final long myDeletedEntities;
+
+    private final LockStatistics myReadLockStatistics;
+    private final LockStatistics myUpdateLockStatistics;
+    private final LockStatistics myWriteLockStatistics;
+
+    StorageStatisticsImpl(int numberOfEntities, long createdEntities, long deletedEntities,
+                          LockStatistics readLockStatistics, LockStatistics updateLockStatistics, LockStatistics writeLockStatistics)
+    {
+        myNumberOfEntities = numberOfEntities;
+        myCreatedEntities = createdEntities;
+        myDeletedEntities = deletedEntities;
+        myReadLockStatistics = readLockStatistics;
+        myUpdateLockStatistics = updateLockStatistics;
+        myWriteLockStatistics = writeLockStatistics;
+    }
+
+    @Override
+    public int getNumberOfEntities()
+    {
+        return myNumberOfEntities;
+    }
+
+    @Override
+    public long getNumberOfCreatedEntities()
+    {
+        return myCreatedEntities;
+    }
+
+    @Override
+    public long getNumberOfDeletedEntities()
+    {
+        return myDeletedEntities;
+    }
+
+    @Override
+    public LockStatistics getReadLockStatistics()
+    {
+        return myReadLockStatistics;
+    }
+
+    @Override
+    public LockStatistics getUpdateLockStatistics()
+    {
+        return myUpdateLockStatistics;
+    }
+
+    @Override
+    public LockStatistics getWriteLockStatistics()
+    {
+        return myWriteLockStatistics;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "StorageStatistics { entities: " + myNumberOfEntities +
+               ", created: " + myCreatedEntities + ", deleted: " + myDeletedEntities + " }";
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.system.impl;
+
+
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.system.api.SystemManager;
+import org.jayware.e2.system.api.SystemScheduler;
+import org.jayware.e2.util.Key;
+
+import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
+
+
+public class SystemManagerImpl
+implements SystemManager
+{
+    static final Key<SystemWorkerPool> SYSTEM_WORKER_POOL = Key.createKey("org.jayware.e2.SystemWorkerPool");
+
+    private static final Context.ValueProvider<SystemWorkerPool> SYSTEM_WORKER_POOL_VALUE_PROVIDER = new Context.ValueProvider<SystemWorkerPool>()
+    {
+        @Override
+        public SystemWorkerPool provide(Context context)
+        {
+            return new SystemWorkerPool(Runtime.getRuntime().availableProcessors());
+        }
+    };
+
+    @Override
+    public SystemScheduler createScheduler(Context context)
+    {
+        checkContextNotNullAndNotDisposed(context);
+
+        context.putIfAbsent(SYSTEM_WORKER_POOL, SYSTEM_WORKER_POOL_VALUE_PROVIDER);
+
+        return new SystemSchedulerImpl(context, context.get(SYSTEM_WORKER_POOL));
+    }
+}
@@ -0,0 +1,293 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.system.impl;
+
+
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.Contextual;
+import org.jayware.e2.system.api.AccessMode;
+import org.jayware.e2.system.api.EntitySystem;
+import org.jayware.e2.system.api.SystemScheduler;
+import org.jayware.e2.system.api.SystemSchedulerException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
+import static org.jayware.e2.system.api.AccessMode.Write;
+import static org.jayware.e2.util.Preconditions.checkArgument;
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+public class SystemSchedulerImpl
+implements SystemScheduler
+{
+    private final Context myContext;
+    private final SystemWorkerPool myWorkerPool;
+    private final List<EntitySystem> mySystems;
+
+    SystemSchedulerImpl(Context context, SystemWorkerPool workerPool)
+    {
+        myContext = context;
+        myWorkerPool = workerPool;
+        mySystems = new ArrayList<EntitySystem>();
+    }
+
+    @Override
+    public synchronized void addSystem(EntitySystem system)
+    {
+        checkNotNull(system);
+        checkArgument(!mySystems.contains(system));
+
+        mySystems.add(system);
+    }
+
+    @Override
+    public synchronized boolean removeSystem(EntitySystem system)
+    {
+        checkNotNull(system);
+
+        return mySystems.remove(system);
+    }
+
+    @Override
+    public synchronized List<EntitySystem> getSystems()
+    {
+        return Collections.unmodifiableList(new ArrayList<EntitySystem>(mySystems));
+    }
+
+    @Override
+    public void tick()
+    {
+        checkContextNotNullAndNotDisposed(myContext);
+
+        final List<EntitySystem> systems = getSystems();
+
+        if (!systems.isEmpty())
+        {
+            new Tick(systems).run();
+        }
+    }
+
+    @Override
+    public Context getContext()
+    {
+        return myContext;
+    }
+
+    @Override
+    public boolean belongsTo(Context context)
+    {
+        return myContext.equals(context);
+    }
+
+    @Override
+    public boolean belongsTo(Contextual contextual)
+    {
+        return contextual != null && myContext.equals(contextual.getContext());
+    }
+
+    /**
+     * Returns the types of components the specified {@link EntitySystem} accesses together with the
+     * {@link AccessMode}.
+     */
+    static Map<Class<? extends Component>, AccessMode> accessesOf(EntitySystem system)
+    {
+        final Map<Class<? extends Component>, AccessMode> result = new HashMap<Class<? extends Component>, AccessMode>();
+        final Aspect aspect = system.getAspect();
+
+        if (aspect != null)
+        {
+            putAccesses(system, aspect.getIntersectionSet(), result);
+            putAccesses(system, aspect.getUnificationSet(), result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns whether two systems with the specified accesses conflict, that is, both access a common type and at
+     * least one of them writes it.
+     */
+    static boolean conflicts(Map<Class<? extends Component>, AccessMode> accessesA, Map<Class<? extends Component>, AccessMode> accessesB)
+    {
+        for (Map.Entry<Class<? extends Component>, AccessMode> entry : accessesA.entrySet())
+        {
+            final AccessMode other = accessesB.get(entry.getKey());
+
+            if (other != null && (entry.getValue() == Write || other == Write))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void putAccesses(EntitySystem system, Set<Class<? extends Component>> types, Map<Class<? extends Component>, AccessMode> accesses)
+    {
+        for (Class<? extends Component> type : types)
+        {
+            final AccessMode mode = system.getAccessMode(type);
+            accesses.put(type, mode != null ? mode : Write);
+        }
+    }
+
+    /**
+     * The dependency graph of the systems for a single tick. A system is submitted to the worker threads as soon as
+     * all systems it depends on have completed.
+     */
+    private class Tick
+    {
+        private final List<EntitySystem> mySystems;
+        private final List<List<Integer>> myDependents;
+        private final AtomicIntegerArray myPendingDependencies;
+        private final CountDownLatch myCompletion;
+
+        private volatile Throwable myFailure;
+        private volatile EntitySystem myFailedSystem;
+
+        private Tick(List<EntitySystem> systems)
+        {
+            final int numberOfSystems = systems.size();
+            final List<Map<Class<? extends Component>, AccessMode>> accesses = new ArrayList<Map<Class<? extends Component>, AccessMode>>(numberOfSystems);
+
+            mySystems = systems;
+            myDependents = new ArrayList<List<Integer>>(numberOfSystems);
+            myPendingDependencies = new AtomicIntegerArray(numberOfSystems);
+            myCompletion = new CountDownLatch(numberOfSystems);
+
+            for (int index = 0; index < numberOfSystems; ++index)
+            {
+                accesses.add(accessesOf(systems.get(index)));
+                myDependents.add(new ArrayList<Integer>());
+
+                for (int previous = 0; previous < index; ++previous)
+                {
+                    if (conflicts(accesses.get(previous), accesses.get(index)))
+                    {
+                        myDependents.get(previous).add(index);
+                        myPendingDependencies.incrementAndGet(index);
+                    }
+                }
+            }
+        }
+
+        private void run()
+        {
+            for (int index = 0; index < mySystems.size(); ++index)
+            {
+                if (myPendingDependencies.get(index) == 0)
+                {
+                    submit(index);
+                }
+            }
+
+            try
+            {
+                myCompletion.await();
+            }
+            catch (InterruptedException e)
+            {
+                fail(null, e);
+                Thread.currentThread().interrupt();
+                throw new SystemSchedulerException("Interrupted while waiting for the systems to complete!", e);
+            }
+
+            if (myFailure != null)
+            {
+                throw new SystemSchedulerException("Failed to run system: %s", myFailure, myFailedSystem);
+            }
+        }
+
+        private void submit(int index)
+        {
+            final SystemTask task = new SystemTask(index);
+
+            try
+            {
+                myWorkerPool.execute(task);
+            }
+            catch (RejectedExecutionException e)
+            {
+                fail(mySystems.get(index), e);
+                task.run();
+            }
+        }
+
+        private synchronized void fail(EntitySystem system, Throwable failure)
+        {
+            if (myFailure == null)
+            {
+                myFailedSystem = system;
+                myFailure = failure;
+            }
+        }
+
+        private class SystemTask
+        implements Runnable
+        {
+            private final int myIndex;
+
+            private SystemTask(int index)
+            {
+                myIndex = index;
+            }
+
+            @Override
+            public void run()
+            {
+                final EntitySystem system = mySystems.get(myIndex);
+
+                try
+                {
+                    if (myFailure == null)
+                    {
+                        system.update(myContext);
+                    }
+                }
+                catch (Throwable e)
+                {
+                    fail(system, e);
+                }
+                finally
+                {
+                    for (int dependent : myDependents.get(myIndex))
+                    {
+                        if (myPendingDependencies.decrementAndGet(dependent) == 0)
+                        {
+                            submit(dependent);
+                        }
+                    }
+
+                    myCompletion.countDown();
+                }
+            }
+        }
+    }
+}
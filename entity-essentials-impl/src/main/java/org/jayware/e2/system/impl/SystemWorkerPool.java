@@ -0,0 +1,62 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.system.impl;
+
+
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.Disposable;
+import org.jayware.e2.event.impl.DaemonThreadFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+
+/**
+ * The worker threads which run the {@link org.jayware.e2.system.api.EntitySystem EntitySystems} of all schedulers
+ * of a {@link Context}. The threads are shut down when the {@link Context} is disposed.
+ */
+class SystemWorkerPool
+implements Disposable
+{
+    private final ThreadPoolExecutor myExecutor;
+
+    SystemWorkerPool(int numberOfWorkers)
+    {
+        myExecutor = new ThreadPoolExecutor(numberOfWorkers, numberOfWorkers, 30L, SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("system"));
+        myExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Executes the specified {@link Runnable} on one of the worker threads.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the pool has been shut down.
+     */
+    void execute(Runnable runnable)
+    {
+        myExecutor.execute(runnable);
+    }
+
+    @Override
+    public void dispose(Context context)
+    {
+        myExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.template.impl;
+
+
+import org.jayware.e2.component.api.AbstractComponent;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentManager;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.template.api.ImportException;
+import org.jayware.e2.template.api.TemplateWriter;
+
+import java.util.UUID;
+
+import static org.jayware.e2.util.Preconditions.checkNotNull;
+
+
+/**
+ * A {@link TemplateWriter} which imports the written {@link Component Components} into a {@link Context}.
+ * <p>
+ * Only the {@link Component} which is currently written is kept in memory. It is added to its {@link EntityRef}
+ * when {@link ContextImporter#endComponent()} is invoked.
+ */
+class ContextImporter
+implements TemplateWriter
+{
+    private final Context myContext;
+    private final EntityManager myEntityManager;
+    private final ComponentManager myComponentManager;
+
+    private EntityRef myRef;
+    private AbstractComponent myComponent;
+
+    ContextImporter(Context context)
+    {
+        myContext = context;
+        myEntityManager = context.getService(EntityManager.class);
+        myComponentManager = context.getService(ComponentManager.class);
+    }
+
+    @Override
+    public void beginEntity(UUID id)
+    {
+        checkNotNull(id, "The id of an entity to import mustn't be null!");
+
+        if (myRef != null)
+        {
+            throw new ImportException("The import of entity '" + myRef.getId() + "' has not been finished!");
+        }
+
+        try
+        {
+            myRef = myEntityManager.createEntity(myContext, id);
+        }
+        catch (Exception e)
+        {
+            throw new ImportException("Failed to import entity: " + id, e);
+        }
+    }
+
+    @Override
+    public void endEntity()
+    {
+        if (myRef == null || myComponent != null)
+        {
+            throw new ImportException("There is no entity to finish!");
+        }
+
+        myRef = null;
+    }
+
+    @Override
+    public void beginComponent(Class<? extends Component> type)
+    {
+        checkNotNull(type, "The type of a component to import mustn't be null!");
+
+        if (myRef == null || myComponent != null)
+        {
+            throw new ImportException("A component can only be imported as part of an entity!");
+        }
+
+        try
+        {
+            myComponent = (AbstractComponent) myComponentManager.createComponent(myContext, type);
+        }
+        catch (Exception e)
+        {
+            throw new ImportException("Failed to import component: " + type.getName(), e);
+        }
+    }
+
+    @Override
+    public void endComponent()
+    {
+        final AbstractComponent component = component();
+
+        try
+        {
+            component.addTo(myRef);
+        }
+        catch (Exception e)
+        {
+            throw new ImportException("Failed to add component '" + component.type().getName() + "' to entity: " + myRef.getId(), e);
+        }
+        finally
+        {
+            myComponent = null;
+        }
+    }
+
+    @Override
+    public void writeBoolean(String name, boolean value)
+    {
+        final int index = indexOf(name);
+        check(myComponent.setBoolean(index, value), name);
+    }
+
+    @Override
+    public void writeInt(String name, int value)
+    {
+        final int index = indexOf(name);
+        check(myComponent.setInt(index, value), name);
+    }
+
+    @Override
+    public void writeLong(String name, long value)
+    {
+        final int index = indexOf(name);
+        check(myComponent.setLong(index, value), name);
+    }
+
+    @Override
+    public void writeFloat(String name, float value)
+    {
+        final int index = indexOf(name);
+        check(myComponent.setFloat(index, value), name);
+    }
+
+    @Override
+    public void writeDouble(String name, double value)
+    {
+        final int index = indexOf(name);
+        check(myComponent.setDouble(index, value), name);
+    }
+
+    @Override
+    public void writeObject(String name, Class<?> type, Object value)
+    {
+        final int index = indexOf(name);
+
+        try
+        {
+            check(myComponent.set(index, value), name);
+        }
+        catch (ImportException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new ImportException("Failed to import property: " + name, e);
+        }
+    }
+
+    private int indexOf(String name)
+    {
+        final int index = component().indexOf(name);
+
+        if (index < 0)
+        {
+            throw new ImportException("Unknown property '" + name + "' of component: " + myComponent.type().getName());
+        }
+
+        return index;
+    }
+
+    private AbstractComponent component()
+    {
+        if (myComponent == null)
+        {
+            throw new ImportException("There is no component to import!");
+        }
+
+        return myComponent;
+    }
+
+    private void check(boolean success, String name)
+    {
+        if (!success)
+        {
+            throw new ImportException("Failed to import property '" + name + "' of component: " + myComponent.type().getName());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.template.impl;
+
+
+import org.jayware.e2.component.api.AbstractComponent;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.impl.ComponentStore;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.Contextual;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.template.api.ComponentTemplate;
+import org.jayware.e2.template.api.EntityTemplate;
+import org.jayware.e2.template.api.ImportException;
+import org.jayware.e2.template.api.InstantiationPlan;
+import org.jayware.e2.template.api.PropertyTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static java.lang.String.format;
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
+import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
+import static org.jayware.e2.util.Preconditions.checkArgument;
+
+
+/**
+ * An {@link InstantiationPlan} which holds for each type of {@link Component} the indices of the templated
+ * properties and their values, so that spawning neither resolves types nor looks up properties by name.
+ */
+class InstantiationPlanImpl
+implements InstantiationPlan
+{
+    private final Context myContext;
+    private final EntityManager myEntityManager;
+    private final ComponentStore myComponentStore;
+
+    private final Class<? extends Component>[] myTypes;
+    private final int[][] mySlots;
+    private final Object[][] myValues;
+
+    InstantiationPlanImpl(Context context, EntityTemplate template)
+    {
+        final List<ComponentTemplate> components = template.components();
+
+        myContext = context;
+        myEntityManager = context.getService(EntityManager.class);
+        myComponentStore = context.get(COMPONENT_STORE);
+
+        myTypes = new Class[components.size()];
+        mySlots = new int[components.size()][];
+        myValues = new Object[components.size()][];
+
+        for (int k = 0; k < myTypes.length; ++k)
+        {
+            compile(k, components.get(k));
+        }
+    }
+
+    @Override
+    public EntityRef spawn()
+    throws IllegalStateException, ImportException
+    {
+        return spawn(1).get(0);
+    }
+
+    @Override
+    public List<EntityRef> spawn(int count)
+    throws IllegalArgumentException, IllegalStateException, ImportException
+    {
+        checkArgument(count >= 0);
+        checkContextNotNullAndNotDisposed(myContext);
+
+        try
+        {
+            final List<UUID> ids = new ArrayList<UUID>(count);
+            final Component[][] components = new Component[count][];
+
+            for (int i = 0; i < count; ++i)
+            {
+                ids.add(UUID.randomUUID());
+                components[i] = instantiate();
+            }
+
+            final List<EntityRef> refs = myEntityManager.createEntities(myContext, ids);
+
+            myComponentStore.addComponents(refs, components);
+
+            return refs;
+        }
+        catch (Exception e)
+        {
+            throw new ImportException(format("Failed to spawn %s entities in context: %s", count, myContext.getId()), e);
+        }
+    }
+
+    @Override
+    public Context getContext()
+    {
+        return myContext;
+    }
+
+    @Override
+    public boolean belongsTo(Context context)
+    {
+        return myContext.equals(context);
+    }
+
+    @Override
+    public boolean belongsTo(Contextual contextual)
+    {
+        return contextual != null && myContext.equals(contextual.getContext());
+    }
+
+    private void compile(int k, ComponentTemplate template)
+    {
+        final Class<? extends Component> type = template.getType();
+        final List<PropertyTemplate> properties = template.properties();
+
+        if (type == null)
+        {
+            throw new ImportException("Failed to compile template, because a ComponentTemplate has no type!");
+        }
+
+        final AbstractComponent prototype = myComponentStore.newComponent(type);
+
+        myTypes[k] = type;
+        mySlots[k] = new int[properties.size()];
+        myValues[k] = new Object[properties.size()];
+
+        for (int j = 0; j < properties.size(); ++j)
+        {
+            final PropertyTemplate property = properties.get(j);
+            final int slot = prototype.indexOf(property.getName());
+
+            if (slot < 0)
+            {
+                throw new ImportException(format("Failed to compile template, because the component '%s' has no property '%s'!", type.getName(), property.getName()));
+            }
+
+            boolean assignable;
+
+            try
+            {
+                assignable = prototype.set(slot, property.getValue());
+            }
+            catch (ClassCastException e)
+            {
+                assignable = false;
+            }
+
+            if (!assignable)
+            {
+                throw new ImportException(format("Failed to compile template, because the value of property '%s' doesn't match the type of the property of component '%s'!", property.getName(), type.getName()));
+            }
+
+            mySlots[k][j] = slot;
+            myValues[k][j] = property.getValue();
+        }
+    }
+
+    private Component[] instantiate()
+    {
+        final Component[] components = new Component[myTypes.length];
+
+        for (int k = 0; k < myTypes.length; ++k)
+        {
+            final AbstractComponent component = myComponentStore.newComponent(myTypes[k]);
+            final int[] slots = mySlots[k];
+            final Object[] values = myValues[k];
+
+            for (int j = 0; j < slots.length; ++j)
+            {
+                component.set(slots[j], values[j]);
+            }
+
+            components[k] = component;
+        }
+
+        return components;
+    }
+}
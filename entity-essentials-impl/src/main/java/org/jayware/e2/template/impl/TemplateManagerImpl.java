@@ -25,14 +25,20 @@ import org.jayware.e2.component.api.AbstractComponent;
 import org.jayware.e2.component.api.Component;
 import org.jayware.e2.component.api.ComponentManager;
 import org.jayware.e2.context.api.Context;
+import org.jayware.e2.entity.api.EntityManager;
 import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.entity.api.EntityVisitor;
 import org.jayware.e2.template.api.ComponentTemplate;
+import org.jayware.e2.template.api.EntityTemplate;
 import org.jayware.e2.template.api.ExportException;
 import org.jayware.e2.template.api.ImportException;
+import org.jayware.e2.template.api.InstantiationPlan;
 import org.jayware.e2.template.api.PropertyTemplate;
 import org.jayware.e2.template.api.TemplateManager;
 import org.jayware.e2.template.api.TemplateProvider;
+import org.jayware.e2.template.api.TemplateWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 import static org.jayware.e2.context.api.Preconditions.checkContextNotNullAndNotDisposed;
@@ -149,4 +155,147 @@ implements TemplateManager
             throw new ImportException(e);
         }
     }
+
+    @Override
+    public InstantiationPlan compileTemplate(Context context, EntityTemplate template)
+    throws IllegalArgumentException, IllegalStateException, ImportException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(template, "To compile an EntityTemplate the template mustn't be null!");
+
+        return new InstantiationPlanImpl(context, template);
+    }
+
+    @Override
+    public void exportContext(Context context, TemplateWriter writer)
+    throws IllegalArgumentException, IllegalStateException, ExportException
+    {
+        checkContextNotNullAndNotDisposed(context);
+        checkNotNull(writer, "To export a Context the TemplateWriter mustn't be null!");
+
+        final EntityManager entityManager = context.getService(EntityManager.class);
+        final ComponentManager componentManager = context.getService(ComponentManager.class);
+        final ContextExporter exporter = new ContextExporter(componentManager, writer);
+
+        try
+        {
+            entityManager.queryEntities(context).forEach(exporter);
+        }
+        catch (Exception e)
+        {
+            throw new ExportException(e);
+        }
+
+        if (exporter.myFailure instanceof ExportException)
+        {
+            throw (ExportException) exporter.myFailure;
+        }
+        else if (exporter.myFailure != null)
+        {
+            throw new ExportException(exporter.myFailure);
+        }
+    }
+
+    @Override
+    public TemplateWriter importContext(Context context)
+    throws IllegalArgumentException, IllegalStateException
+    {
+        checkContextNotNullAndNotDisposed(context);
+
+        return new ContextImporter(context);
+    }
+
+    private static void writeEntity(EntityRef ref, ComponentManager componentManager, TemplateWriter writer)
+    throws IOException
+    {
+        writer.beginEntity(ref.getId());
+
+        for (Component component : componentManager.getComponents(ref))
+        {
+            writeComponent((AbstractComponent) component, writer);
+        }
+
+        writer.endEntity();
+    }
+
+    private static void writeComponent(AbstractComponent component, TemplateWriter writer)
+    throws IOException
+    {
+        final List<String> names = component.getPropertyNames();
+        final List<Class> types = component.getPropertyTypes();
+
+        writer.beginComponent(component.type());
+
+        for (int i = 0; i < names.size(); ++i)
+        {
+            final String name = names.get(i);
+            final Class type = types.get(i);
+
+            if (type == boolean.class)
+            {
+                writer.writeBoolean(name, component.getBoolean(i));
+            }
+            else if (type == int.class)
+            {
+                writer.writeInt(name, component.getInt(i));
+            }
+            else if (type == long.class)
+            {
+                writer.writeLong(name, component.getLong(i));
+            }
+            else if (type == float.class)
+            {
+                writer.writeFloat(name, component.getFloat(i));
+            }
+            else if (type == double.class)
+            {
+                writer.writeDouble(name, component.getDouble(i));
+            }
+            else
+            {
+                writer.writeObject(name, type, component.get(i));
+            }
+        }
+
+        writer.endComponent();
+    }
+
+    /**
+     * Writes each visited entity to the {@link TemplateWriter} as soon as it is visited, hence the export doesn't
+     * collect the entities of the {@link Context} up front. The first failure is recorded and stops the export.
+     */
+    private static class ContextExporter
+    implements EntityVisitor
+    {
+        private final ComponentManager myComponentManager;
+        private final TemplateWriter myWriter;
+
+        private Exception myFailure;
+
+        private ContextExporter(ComponentManager componentManager, TemplateWriter writer)
+        {
+            myComponentManager = componentManager;
+            myWriter = writer;
+        }
+
+        @Override
+        public boolean visit(EntityRef ref)
+        {
+            if (ref.isInvalid())
+            {
+                return true;
+            }
+
+            try
+            {
+                writeEntity(ref, myComponentManager, myWriter);
+                return true;
+            }
+            catch (Exception e)
+            {
+                myFailure = e;
+                return false;
+            }
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.assembly.impl;
+
+import mockit.Mocked;
+import org.jayware.e2.entity.api.EntityRef;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class GroupIndexTest
+{
+    private GroupIndex testee;
+
+    private @Mocked EntityRef testGroup;
+    private @Mocked EntityRef testRefA;
+    private @Mocked EntityRef testRefB;
+    private @Mocked EntityRef testRefC;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        testee = new GroupIndex();
+        testee.register(testGroup, new EntityRef[] {testRefA, null});
+    }
+
+    @Test
+    public void test_register_Keeps_the_initial_members_of_a_group()
+    {
+        assertThat(testee.contains(testGroup)).isTrue();
+        assertThat(testee.getMembers(testGroup)).containsExactly(testRefA);
+    }
+
+    @Test
+    public void test_addMembers_Returns_only_the_newly_added_members()
+    {
+        assertThat(testee.addMembers(testGroup, asList(testRefA, testRefB, testRefC, testRefB))).containsExactly(testRefB, testRefC);
+        assertThat(testee.getMembers(testGroup)).containsExactly(testRefA, testRefB, testRefC);
+        assertThat(testee.isMember(testGroup, testRefC)).isTrue();
+    }
+
+    @Test
+    public void test_removeMembers_Returns_only_the_removed_members()
+    {
+        testee.addMembers(testGroup, asList(testRefB));
+
+        assertThat(testee.removeMembers(testGroup, asList(testRefB, testRefC))).containsExactly(testRefB);
+        assertThat(testee.isMember(testGroup, testRefB)).isFalse();
+        assertThat(testee.getNumberOfMembers(testGroup)).isEqualTo(1);
+    }
+
+    @Test
+    public void test_getGroupsOf_Returns_the_groups_of_a_member()
+    {
+        testee.register(testRefC, new EntityRef[] {testRefA});
+
+        assertThat(testee.getGroupsOf(testRefA)).containsExactly(testGroup, testRefC);
+        assertThat(testee.getGroupsOf(testRefB)).isEmpty();
+
+        testee.unregister(testRefC);
+
+        assertThat(testee.getGroupsOf(testRefA)).containsExactly(testGroup);
+    }
+
+    @Test
+    public void test_removeFromAllGroups_Returns_the_groups_the_member_has_been_removed_from()
+    {
+        testee.register(testRefC, new EntityRef[] {testRefA, testRefB});
+
+        assertThat(testee.removeFromAllGroups(testRefA)).containsExactly(testGroup, testRefC);
+        assertThat(testee.getMembers(testGroup)).isEmpty();
+        assertThat(testee.getMembers(testRefC)).containsExactly(testRefB);
+        assertThat(testee.getGroupsOf(testRefA)).isEmpty();
+    }
+
+    @Test
+    public void test_getGroup_Finds_the_remaining_group_of_a_shared_name()
+    {
+        testee.register(testRefC, null);
+        testee.putName(testGroup, "fubar");
+        testee.putName(testRefC, "fubar");
+
+        assertThat(testee.getGroup("fubar")).isSameAs(testGroup);
+
+        testee.putName(testGroup, "other");
+        assertThat(testee.getGroup("fubar")).isSameAs(testRefC);
+        assertThat(testee.getGroup("other")).isSameAs(testGroup);
+
+        testee.putName(testGroup, "fubar");
+        testee.unregister(testRefC);
+        assertThat(testee.getGroup("fubar")).isSameAs(testGroup);
+
+        testee.unregister(testGroup);
+        assertThat(testee.getGroup("fubar")).isNull();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_addMembers_Throws_IllegalArgumentException_if_the_group_is_not_registered()
+    {
+        testee.addMembers(testRefA, asList(testRefB));
+    }
+}
@@ -34,6 +34,7 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -124,6 +125,49 @@ public class GroupManagerTest
         assertThat(group.isValid()).isFalse();
     }
 
+    @Test
+    public void test_findGroup_Returns_the_Group_with_the_passed_name()
+    {
+        final Group group = testee.createGroup(context, "fubar");
+        assertThat(testee.findGroup(context, "fubar")).isEqualTo(group);
+        assertThat(testee.findGroup(context, "barfu")).isNull();
+    }
+
+    @Test
+    public void test_findGroup_Returns_the_Group_by_its_new_name_after_renaming()
+    {
+        final Group group = testee.createGroup(context, "fubar");
+        group.setName("barfu");
+        assertThat(testee.findGroup(context, "barfu")).isEqualTo(group);
+        assertThat(testee.findGroup(context, "fubar")).isNull();
+    }
+
+    @Test
+    public void test_findGroup_Returns_null_after_the_Group_has_been_deleted()
+    {
+        final Group group = testee.createGroup(context, "fubar");
+        testee.deleteGroup(group);
+        assertThat(testee.findGroup(context, "fubar")).isNull();
+    }
+
+    @Test
+    public void test_findGroup_Finds_the_other_Group_of_a_shared_name_after_one_has_been_deleted_or_renamed()
+    {
+        final Group groupA = testee.createGroup(context, "fubar");
+        final Group groupB = testee.createGroup(context, "fubar");
+        final Group groupC = testee.createGroup(context, "fubar");
+
+        assertThat(groupA).isNotEqualTo(groupB);
+
+        testee.deleteGroup(groupA);
+        assertThat(groupB.isValid()).isTrue();
+        assertThat(testee.findGroup(context, "fubar")).isEqualTo(groupB);
+
+        groupB.setName("barfu");
+        assertThat(testee.findGroup(context, "fubar")).isEqualTo(groupC);
+        assertThat(testee.findGroup(context, "barfu")).isEqualTo(groupB);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void test_deleteGroup_ThrowsIllegalArgumentExceptionIfNUllIsPassed()
     {
@@ -217,6 +261,46 @@ public class GroupManagerTest
         testee.removeEntityFromGroup(testEntityA, testGroup);
     }
 
+    @Test
+    public void test_addEntitiesToGroup_Adds_all_passed_entities_once()
+    {
+        final Group testGroup = testee.createGroup(context);
+
+        testee.addEntitiesToGroup(asList(testEntityA, testEntityB, testEntityA), testGroup);
+
+        assertThat(testee.getEntitiesOfGroup(testGroup)).containsExactly(testEntityA, testEntityB);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_addEntitiesToGroup_ThrowsIllegalArgumentExceptionWhenPassedCollectionIsNull()
+    {
+        testee.addEntitiesToGroup(null, testee.createGroup(context));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_addEntitiesToGroup_ThrowsIllegalArgumentExceptionWhenPassedCollectionContainsNull()
+    {
+        testee.addEntitiesToGroup(asList(testEntityA, null), testee.createGroup(context));
+    }
+
+    @Test
+    public void test_removeEntitiesFromGroup_Removes_all_passed_entities()
+    {
+        final Group testGroup = testee.createGroup(context);
+
+        testee.addEntitiesToGroup(asList(testEntityA, testEntityB), testGroup);
+        testee.removeEntitiesFromGroup(asList(testEntityB), testGroup);
+
+        assertThat(testee.getEntitiesOfGroup(testGroup)).containsExactly(testEntityA);
+        assertThat(testee.isEntityMemberOfGroup(testEntityB, testGroup)).isFalse();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_removeEntitiesFromGroup_ThrowsIllegalArgumentExceptionWhenPassedCollectionIsNull()
+    {
+        testee.removeEntitiesFromGroup(null, testee.createGroup(context));
+    }
+
     @Test
     public void test_getEntitiesOfGroup()
     {
@@ -280,6 +364,41 @@ public class GroupManagerTest
             .doesNotContain(groupB);
     }
 
+    @Test
+    public void test_getGroupsOf_Returns_the_Groups_the_entity_is_member_of()
+    {
+        final Group groupA = testee.createGroup(context);
+        final Group groupB = testee.createGroup(context);
+
+        testee.addEntitiesToGroup(asList(testEntityA, testEntityB), groupA);
+        testee.addEntityToGroup(testEntityA, groupB);
+
+        assertThat(testee.getGroupsOf(testEntityA)).containsExactly(groupA, groupB);
+        assertThat(testee.getGroupsOf(testEntityB)).containsExactly(groupA);
+
+        testee.deleteGroup(groupA);
+
+        assertThat(testee.getGroupsOf(testEntityA)).containsExactly(groupB);
+        assertThat(testee.getGroupsOf(testEntityB)).isEmpty();
+    }
+
+    @Test
+    public void test_Deleted_entities_are_removed_from_their_Groups()
+    throws Exception
+    {
+        final Group testGroup = testee.createGroup(context);
+
+        testee.addEntitiesToGroup(asList(testEntityA, testEntityB), testGroup);
+        context.getService(EntityManager.class).deleteEntity(testEntityA);
+
+        for (int i = 0; i < 50 && testee.getEntitiesOfGroup(testGroup).size() > 1; ++i)
+        {
+            Thread.sleep(100);
+        }
+
+        assertThat(testee.getEntitiesOfGroup(testGroup)).containsExactly(testEntityB);
+    }
+
     @Test
     public void test_GroupMembership()
     throws Exception
@@ -187,4 +187,23 @@ public class GroupTest
         testee.remove(testEntityB);
         assertThat(testee.members()).isEmpty();
     }
+
+    @Test
+    public void test_GroupComponent_Reflects_the_members_when_it_is_read()
+    throws Exception
+    {
+        testee.add(testEntityA);
+        testee.add(testEntityB);
+        assertThat(testComponentManager.getComponent(testeeRef, GroupComponent.class).getMembers()).containsExactly(testEntityA, testEntityB);
+        testee.remove(testEntityA);
+        assertThat(testComponentManager.getComponent(testeeRef, GroupComponent.class).getMembers()).containsExactly(testEntityB);
+        testEntityManager.deleteEntity(testEntityB);
+
+        for (int i = 0; i < 50 && testComponentManager.getComponent(testeeRef, GroupComponent.class).getMembers().length > 0; ++i)
+        {
+            Thread.sleep(10);
+        }
+
+        assertThat(testComponentManager.getComponent(testeeRef, GroupComponent.class).getMembers()).isEmpty();
+    }
 }
@@ -0,0 +1,114 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.assembly.impl;
+
+import mockit.Mocked;
+import org.jayware.e2.entity.api.EntityRef;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class TreeIndexTest
+{
+    private TreeIndex testee;
+
+    private @Mocked EntityRef testRefA;
+    private @Mocked EntityRef testRefB;
+    private @Mocked EntityRef testRefC;
+    private @Mocked EntityRef testRefD;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        testee = new TreeIndex();
+        testee.register(testRefA);
+        testee.register(testRefB);
+        testee.register(testRefC);
+        testee.register(testRefD);
+    }
+
+    @Test
+    public void test_attach_Appends_the_child_and_links_it_to_its_parent()
+    {
+        testee.attach(testRefA, testRefB);
+        testee.attach(testRefA, testRefC);
+
+        assertThat(testee.getChildren(testRefA)).containsExactly(testRefB, testRefC);
+        assertThat(testee.getFirstChild(testRefA)).isEqualTo(testRefB);
+        assertThat(testee.getNextSibling(testRefB)).isEqualTo(testRefC);
+        assertThat(testee.getNextSibling(testRefC)).isNull();
+        assertThat(testee.getParent(testRefC)).isEqualTo(testRefA);
+        assertThat(testee.getNumberOfChildren(testRefA)).isEqualTo(2);
+    }
+
+    @Test
+    public void test_attach_Moves_a_child_and_updates_the_depth_of_its_subtree()
+    {
+        testee.attach(testRefA, testRefB);
+        testee.attach(testRefB, testRefC);
+
+        assertThat(testee.getDepth(testRefC)).isEqualTo(2);
+
+        assertThat(testee.attach(testRefD, testRefB)).isEqualTo(testRefA);
+        testee.attach(testRefA, testRefD);
+
+        assertThat(testee.getChildren(testRefA)).containsExactly(testRefD);
+        assertThat(testee.getDepth(testRefB)).isEqualTo(2);
+        assertThat(testee.getDepth(testRefC)).isEqualTo(3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_attach_Throws_IllegalArgumentException_if_the_child_is_an_ancestor_of_the_parent()
+    {
+        testee.attach(testRefA, testRefB);
+        testee.attach(testRefB, testRefC);
+        testee.attach(testRefC, testRefA);
+    }
+
+    @Test
+    public void test_detach_Unlinks_the_child_from_its_siblings()
+    {
+        testee.attach(testRefA, testRefB);
+        testee.attach(testRefA, testRefC);
+        testee.attach(testRefA, testRefD);
+
+        assertThat(testee.detach(testRefC)).isEqualTo(testRefA);
+        assertThat(testee.detach(testRefC)).isNull();
+
+        assertThat(testee.getChildren(testRefA)).containsExactly(testRefB, testRefD);
+        assertThat(testee.getParent(testRefC)).isNull();
+        assertThat(testee.getDepth(testRefC)).isEqualTo(0);
+    }
+
+    @Test
+    public void test_unregister_Turns_the_children_of_the_removed_node_into_roots()
+    {
+        testee.attach(testRefA, testRefB);
+        testee.attach(testRefB, testRefC);
+
+        testee.unregister(testRefB);
+
+        assertThat(testee.contains(testRefB)).isFalse();
+        assertThat(testee.getChildren(testRefA)).isEmpty();
+        assertThat(testee.getParent(testRefC)).isNull();
+        assertThat(testee.getDepth(testRefC)).isEqualTo(0);
+    }
+}
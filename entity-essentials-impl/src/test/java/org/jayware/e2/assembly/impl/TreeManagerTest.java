@@ -21,14 +21,19 @@ package org.jayware.e2.assembly.impl;
 
 import org.jayware.e2.assembly.api.TreeManager;
 import org.jayware.e2.assembly.api.TreeNode;
+import org.jayware.e2.assembly.api.TreeNodeVisitor;
+import org.jayware.e2.assembly.api.components.TreeNodeComponent;
+import org.jayware.e2.component.api.ComponentManager;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.ContextProvider;
+import org.jayware.e2.entity.api.EntityManager;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.entity.api.InvalidEntityRefException;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
@@ -99,6 +104,27 @@ public class TreeManagerTest
         testee.deleteTreeNode(testNode);
     }
 
+    @Test
+    public void test_deleteTreeNode_Deletes_the_whole_subtree_of_the_passed_TreeNode()
+    {
+        final EntityManager entityManager = testContext.getService(EntityManager.class);
+        final EntityRef pendant = entityManager.createEntity(testContext);
+
+        final TreeNode root = testee.createTreeNodeFor(entityManager.createEntity(testContext));
+        final TreeNode child = testee.createTreeNodeFor(pendant);
+        final TreeNode grandChild = testee.createTreeNodeFor(entityManager.createEntity(testContext));
+
+        root.addChild(child);
+        child.addChild(grandChild);
+
+        testee.deleteTreeNode(child, true);
+
+        assertThat(root.children()).isEmpty();
+        assertThat(child.getNodeRef().isValid()).isFalse();
+        assertThat(grandChild.getNodeRef().isValid()).isFalse();
+        assertThat(pendant.isValid()).isTrue();
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void test_deleteTreeNode_ThrowsIllegalArgumentExceptionIfPassedTreeNodeIsNull()
     {
@@ -116,4 +142,129 @@ public class TreeManagerTest
     {
         testee.queryChildrenOf(null);
     }
+
+    @Test
+    public void test_preOrder_Returns_the_nodes_in_the_expected_order()
+    {
+        final List<TreeNode> tree = createTree();
+
+        assertThat(testee.preOrder(tree.get(0))).containsExactly(tree.get(0), tree.get(1), tree.get(3), tree.get(4), tree.get(2), tree.get(5));
+    }
+
+    @Test
+    public void test_postOrder_Returns_the_nodes_in_the_expected_order()
+    {
+        final List<TreeNode> tree = createTree();
+
+        assertThat(testee.postOrder(tree.get(0))).containsExactly(tree.get(3), tree.get(4), tree.get(1), tree.get(5), tree.get(2), tree.get(0));
+    }
+
+    @Test
+    public void test_levelOrder_Returns_the_nodes_in_the_expected_order()
+    {
+        final List<TreeNode> tree = createTree();
+
+        assertThat(testee.levelOrder(tree.get(0))).containsExactly(tree.get(0), tree.get(1), tree.get(2), tree.get(3), tree.get(4), tree.get(5));
+    }
+
+    @Test
+    public void test_accept_Skips_the_children_of_a_node_if_the_visitor_returns_false()
+    {
+        final List<TreeNode> tree = createTree();
+        final List<TreeNode> visited = new ArrayList<TreeNode>();
+
+        testee.accept(tree.get(0), new TreeNodeVisitor()
+        {
+            @Override
+            public boolean visit(TreeNode node)
+            {
+                visited.add(node);
+                return !node.equals(tree.get(1));
+            }
+        });
+
+        assertThat(visited).containsExactly(tree.get(0), tree.get(1), tree.get(2), tree.get(5));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_preOrder_Throws_IllegalArgumentException_if_null_is_passed()
+    {
+        testee.preOrder(null);
+    }
+
+    @Test
+    public void test_TreeNodeComponent_Reflects_the_hierarchy_when_it_is_read()
+    {
+        final ComponentManager componentManager = testContext.getService(ComponentManager.class);
+        final List<TreeNode> nodes = createTree();
+
+        nodes.get(2).addChild(nodes.get(4));
+
+        final TreeNodeComponent component = componentManager.getComponent(nodes.get(2).getNodeRef(), TreeNodeComponent.class);
+
+        assertThat(component.getParent()).isEqualTo(nodes.get(0).getNodeRef());
+        assertThat(component.getChildren()).containsExactly(nodes.get(5).getNodeRef(), nodes.get(4).getNodeRef());
+        assertThat(componentManager.getComponent(nodes.get(1).getNodeRef(), TreeNodeComponent.class).getChildren()).containsExactly(nodes.get(3).getNodeRef());
+        assertThat(componentManager.getComponent(nodes.get(4).getNodeRef(), TreeNodeComponent.class).getParent()).isEqualTo(nodes.get(2).getNodeRef());
+    }
+
+    @Test
+    public void test_preOrder_and_addChild_Accept_nodes_which_exist_only_as_TreeNodeComponent()
+    {
+        final EntityManager entityManager = testContext.getService(EntityManager.class);
+        final ComponentManager componentManager = testContext.getService(ComponentManager.class);
+        final EntityRef pendant = entityManager.createEntity(testContext);
+        final EntityRef rootRef = entityManager.createEntity(testContext);
+        final EntityRef childRef = entityManager.createEntity(testContext);
+        final EntityRef otherRef = entityManager.createEntity(testContext);
+
+        createTreeNodeComponent(rootRef, pendant, null, childRef);
+        createTreeNodeComponent(childRef, pendant, rootRef);
+        createTreeNodeComponent(otherRef, pendant, null);
+
+        final TreeHub treeHub = testContext.get(TreeManagerImpl.TREE_HUB);
+        final TreeNode root = treeHub.new TreeNodeImpl(rootRef);
+        final TreeNode child = treeHub.new TreeNodeImpl(childRef);
+        final TreeNode other = treeHub.new TreeNodeImpl(otherRef);
+
+        assertThat(testee.preOrder(root)).containsExactly(root, child);
+
+        child.addChild(other);
+
+        assertThat(testee.preOrder(root)).containsExactly(root, child, other);
+        assertThat(other.getDepth()).isEqualTo(2);
+        assertThat(componentManager.getComponent(childRef, TreeNodeComponent.class).getChildren()).containsExactly(otherRef);
+    }
+
+    private void createTreeNodeComponent(EntityRef ref, EntityRef pendant, EntityRef parent, EntityRef... children)
+    {
+        final TreeNodeComponent component = testContext.getService(ComponentManager.class).addComponent(ref, TreeNodeComponent.class);
+
+        component.setPendant(pendant);
+        component.setParent(parent);
+        component.setChildren(children);
+        component.pushTo(ref);
+    }
+
+    /**
+     * Creates the tree <code>0(1(3, 4), 2(5))</code>.
+     */
+    private List<TreeNode> createTree()
+    {
+        final EntityManager entityManager = testContext.getService(EntityManager.class);
+        final List<TreeNode> nodes = new ArrayList<TreeNode>();
+
+        for (int i = 0; i < 6; i++)
+        {
+            nodes.add(testee.createTreeNodeFor(entityManager.createEntity(testContext)));
+        }
+
+        nodes.get(0).addChild(nodes.get(1));
+        nodes.get(0).addChild(nodes.get(2));
+        nodes.get(1).addChild(nodes.get(3));
+        nodes.get(1).addChild(nodes.get(4));
+        nodes.get(2).addChild(nodes.get(5));
+
+        return nodes;
+    }
 }
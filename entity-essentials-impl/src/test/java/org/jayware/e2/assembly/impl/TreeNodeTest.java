@@ -82,4 +82,37 @@ public class TreeNodeTest
     {
         assertThat(testNodeA.children()).isEmpty();
     }
+
+    @Test
+    public void test_getParent_Returns_the_TreeNode_the_node_was_added_to()
+    {
+        testNodeA.addChild(testNodeB);
+        testNodeC.addChild(testNodeB);
+
+        assertThat(testNodeB.hasParent()).isTrue();
+        assertThat(testNodeB.getParent()).isEqualTo(testNodeC);
+        assertThat(testNodeA.children()).isEmpty();
+        assertThat(testNodeC.children()).containsExactly(testNodeB);
+    }
+
+    @Test
+    public void test_getDepth_Returns_the_number_of_ancestors_of_the_TreeNode()
+    {
+        testNodeB.addChild(testNodeC);
+        testNodeA.addChild(testNodeB);
+
+        assertThat(testNodeA.getDepth()).isEqualTo(0);
+        assertThat(testNodeB.getDepth()).isEqualTo(1);
+        assertThat(testNodeC.getDepth()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_getParent_Returns_null_if_TreeNode_does_not_have_a_parent()
+    {
+        testNodeA.addChild(testNodeB);
+        testNodeA.removeChild(testNodeB);
+
+        assertThat(testNodeB.hasParent()).isFalse();
+        assertThat(testNodeB.getParent()).isNull();
+    }
 }
@@ -0,0 +1,89 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl;
+
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.jayware.e2.component.api.ComponentInstancer;
+import org.jayware.e2.component.api.ComponentManager;
+import org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import org.jayware.e2.component.impl.TestComponents.TestComponentWithAdapter;
+import org.jayware.e2.component.impl.TestComponents.TestEnumAdapter;
+import org.jayware.e2.context.api.Context;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class ComponentInstancerImplTest
+{
+    private @Mocked Context testContext;
+    private @Mocked Context anotherTestContext;
+    private @Mocked ComponentManager componentManager;
+
+    private ComponentFactoryImpl componentFactory;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        componentFactory = new ComponentFactoryImpl();
+    }
+
+    @Test
+    public void test_newInstance()
+    {
+        final ComponentInstancer<TestComponentA> testee = componentFactory.createComponent(TestComponentA.class);
+
+        final TestComponentA componentA = testee.newInstance(testContext);
+        final TestComponentA componentB = testee.newInstance(testContext);
+
+        assertThat(componentA).isNotNull();
+        assertThat(componentB).isNotNull();
+        assertThat(componentA).isNotSameAs(componentB);
+    }
+
+    @Test
+    public void test_newInstance_Registers_required_adapters_only_once_per_context()
+    {
+        final ComponentInstancer<TestComponentWithAdapter> testee = componentFactory.createComponent(TestComponentWithAdapter.class);
+
+        new Expectations()
+        {{
+            testContext.getService(ComponentManager.class); result = componentManager;
+            anotherTestContext.getService(ComponentManager.class); result = componentManager;
+        }};
+
+        for (int i = 0; i < 10; ++i)
+        {
+            testee.newInstance(testContext);
+        }
+
+        testee.newInstance(anotherTestContext);
+        testee.newInstance(testContext);
+
+        new Verifications()
+        {{
+            componentManager.registerPropertyAdapter(testContext, TestEnumAdapter.class); times = 1;
+            componentManager.registerPropertyAdapter(anotherTestContext, TestEnumAdapter.class); times = 1;
+        }};
+    }
+}
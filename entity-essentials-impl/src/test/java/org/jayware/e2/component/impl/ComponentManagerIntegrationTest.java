@@ -18,9 +18,15 @@
  */
 package org.jayware.e2.component.impl;
 
+import org.jayware.e2.component.api.AbstractComponent;
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.component.api.ComponentChunk;
+import org.jayware.e2.component.api.ComponentChunkVisitor;
 import org.jayware.e2.component.api.ComponentManager;
 import org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import org.jayware.e2.component.impl.TestComponents.TestComponentAB;
 import org.jayware.e2.component.impl.TestComponents.TestComponentB;
+import org.jayware.e2.component.impl.TestComponents.TestComponentC;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.ContextProvider;
 import org.jayware.e2.entity.api.EntityManager;
@@ -29,7 +35,15 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.component.api.Aspect.ANY;
+import static org.jayware.e2.component.api.Aspect.EMPTY;
+import static org.jayware.e2.component.api.Aspect.aspect;
 
 
 public class ComponentManagerIntegrationTest
@@ -70,4 +84,309 @@ public class ComponentManagerIntegrationTest
             .withFailMessage("Entity does not have a TestComponentB")
             .isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_matches_()
+    {
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+        final EntityRef refC = entityManager.createEntity(context);
+
+        componentManager.addComponent(refA, TestComponentA.class);
+        componentManager.addComponent(refA, TestComponentB.class);
+        componentManager.addComponent(refA, TestComponentC.class);
+        componentManager.addComponent(refB, TestComponentAB.class);
+
+        assertThat(aspect().withAllOf(TestComponentA.class, TestComponentB.class).matches(refA)).isTrue();
+        assertThat(aspect().withAllOf(TestComponentA.class, TestComponentB.class).matches(refB)).isFalse();
+        assertThat(aspect().withAllOf(TestComponentA.class, TestComponentB.class).withNoneOf(TestComponentAB.class).matches(refA)).isTrue();
+        assertThat(aspect().withOneOf(TestComponentA.class, TestComponentB.class, TestComponentC.class).matches(refA)).isTrue();
+        assertThat(aspect().withOneOf(TestComponentA.class, TestComponentB.class, TestComponentC.class).matches(refB)).isFalse();
+        assertThat(aspect().withAllOf(TestComponentA.class, TestComponentB.class).withOneOf(TestComponentC.class, TestComponentAB.class).matches(refA)).isTrue();
+        assertThat(aspect().withNoneOf(TestComponentA.class, TestComponentB.class).matches(refA)).isFalse();
+        assertThat(aspect().withNoneOf(TestComponentA.class, TestComponentB.class).matches(refB)).isTrue();
+        assertThat(aspect().withOneOf(TestComponentA.class, TestComponentAB.class).matches(refA)).isTrue();
+        assertThat(aspect().withOneOf(TestComponentA.class, TestComponentAB.class).matches(refB)).isTrue();
+
+        assertThat(ANY.matches(refC)).isTrue();
+        assertThat(EMPTY.matches(refC)).isTrue();
+        assertThat(EMPTY.matches(refA)).isFalse();
+    }
+
+    @Test
+    public void test_matches_Reflects_removed_components()
+    {
+        final EntityRef ref = entityManager.createEntity(context);
+        final Aspect aspect = aspect().withAllOf(TestComponentA.class);
+
+        componentManager.addComponent(ref, TestComponentA.class);
+        assertThat(componentManager.matches(ref, aspect)).isTrue();
+
+        componentManager.removeComponent(ref, TestComponentA.class);
+        assertThat(componentManager.matches(ref, aspect)).isFalse();
+    }
+
+    @Test
+    public void test_forEachChunk_Passes_the_stored_components_of_the_matching_entities()
+    {
+        final List<EntityRef> expected = new ArrayList<EntityRef>();
+
+        for (int i = 0; i < 1000; ++i)
+        {
+            final EntityRef ref = entityManager.createEntity(context);
+            final TestComponentB component = componentManager.addComponent(ref, TestComponentB.class);
+            component.setInt(i);
+            component.pushTo(ref);
+
+            if (i % 2 == 0)
+            {
+                componentManager.addComponent(ref, TestComponentA.class);
+            }
+
+            if (i % 3 == 0)
+            {
+                componentManager.addComponent(ref, TestComponentC.class);
+            }
+
+            if (i % 2 == 0 && i % 3 != 0)
+            {
+                expected.add(ref);
+            }
+        }
+
+        final List<EntityRef> visited = new ArrayList<EntityRef>();
+
+        componentManager.forEachChunk(context, aspect().withNoneOf(TestComponentC.class), new ComponentChunkVisitor()
+        {
+            @Override
+            public void visit(ComponentChunk chunk)
+            {
+                for (int index = 0; index < chunk.size(); ++index)
+                {
+                    final TestComponentA componentA = chunk.getComponent(index, 0);
+                    final TestComponentB componentB = chunk.getComponent(index, 1);
+
+                    assertThat(componentA).isNotNull();
+                    componentB.setInt(componentB.getInt() + 1);
+
+                    visited.add(chunk.getEntity(index));
+                }
+            }
+        }, TestComponentA.class, TestComponentB.class);
+
+        assertThat(visited).containsOnlyElementsOf(expected).hasSameSizeAs(expected);
+
+        // The first expected entity has been created with i = 2 and was incremented in place.
+        assertThat(componentManager.getComponent(expected.get(0), TestComponentB.class).getInt()).isEqualTo(3);
+    }
+
+    @Test
+    public void test_forEachChunk_Records_changed_components()
+    {
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+        final ComponentStore componentStore = context.get(ComponentManagerImpl.COMPONENT_STORE);
+
+        componentManager.addComponent(refA, TestComponentB.class);
+        componentManager.addComponent(refB, TestComponentB.class);
+        componentStore.takeChanges();
+
+        componentManager.forEachChunk(context, ANY, new ComponentChunkVisitor()
+        {
+            @Override
+            public void visit(ComponentChunk chunk)
+            {
+                for (int index = 0; index < chunk.size(); ++index)
+                {
+                    if (chunk.getEntity(index).equals(refB))
+                    {
+                        chunk.changed(index, 0);
+                    }
+                }
+            }
+        }, TestComponentB.class);
+
+        assertThat(componentStore.takeChanges().getChangedComponents(TestComponentB.class)).containsExactly(refB);
+    }
+
+    @Test
+    public void test_forEachChunk_Blocks_other_readers_while_a_chunk_is_visited()
+    throws Exception
+    {
+        final EntityRef ref = entityManager.createEntity(context);
+        final AtomicInteger observed = new AtomicInteger(-1);
+        final Thread reader = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                observed.set(componentManager.getComponent(ref, TestComponentB.class).getInt());
+            }
+        });
+
+        componentManager.addComponent(ref, TestComponentB.class);
+
+        componentManager.forEachChunk(context, ANY, new ComponentChunkVisitor()
+        {
+            @Override
+            public void visit(ComponentChunk chunk)
+            {
+                final TestComponentB component = chunk.getComponent(0, 0);
+
+                reader.start();
+
+                try
+                {
+                    reader.join(200);
+                }
+                catch (InterruptedException e)
+                {
+                    throw new RuntimeException(e);
+                }
+
+                component.setInt(42);
+            }
+        }, TestComponentB.class);
+
+        reader.join();
+
+        assertThat(observed.get()).isEqualTo(42);
+    }
+
+    @Test
+    public void test_getComponent_Writes_pending_components_within_a_ComponentChunkVisitor()
+    {
+        final EntityRef ref = entityManager.createEntity(context);
+        final ComponentStore componentStore = context.get(ComponentManagerImpl.COMPONENT_STORE);
+        final TestSynchronizer synchronizer = new TestSynchronizer(ref, 42);
+        final AtomicInteger observed = new AtomicInteger(-1);
+
+        componentManager.addComponent(ref, TestComponentB.class);
+        componentStore.addSynchronizer(synchronizer);
+
+        componentManager.forEachChunk(context, ANY, new ComponentChunkVisitor()
+        {
+            @Override
+            public void visit(ComponentChunk chunk)
+            {
+                synchronizer.isPending = true;
+                observed.set(componentManager.getComponent(ref, TestComponentB.class).getInt());
+            }
+        }, TestComponentB.class);
+
+        assertThat(observed.get()).isEqualTo(42);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void test_getComponent_Throws_IllegalStateException_if_pending_components_cannot_be_written_by_a_ComponentVisitor()
+    {
+        final EntityRef ref = entityManager.createEntity(context);
+        final ComponentStore componentStore = context.get(ComponentManagerImpl.COMPONENT_STORE);
+        final TestSynchronizer synchronizer = new TestSynchronizer(ref, 42);
+
+        componentManager.addComponent(ref, TestComponentB.class);
+        componentStore.addSynchronizer(synchronizer);
+
+        componentStore.accept(TestComponentB.class, new ComponentStore.ComponentVisitor()
+        {
+            @Override
+            public void visit(EntityRef visited, AbstractComponent component)
+            {
+                synchronizer.isPending = true;
+                componentManager.getComponent(ref, TestComponentB.class);
+            }
+        });
+    }
+
+    @Test
+    public void test_takeChanges_Returns_only_the_changes_since_the_tracking_started()
+    {
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+        final ComponentStore componentStore = context.get(ComponentManagerImpl.COMPONENT_STORE);
+
+        componentManager.addComponent(refA, TestComponentB.class);
+
+        assertThat(componentStore.isTrackingChanges()).isFalse();
+        assertThat(componentStore.takeChanges().isEmpty()).isTrue();
+        assertThat(componentStore.isTrackingChanges()).isTrue();
+
+        componentManager.addComponent(refB, TestComponentB.class);
+
+        assertThat(componentStore.takeChanges().getChangedComponents(TestComponentB.class)).containsExactly(refB);
+    }
+
+    @Test
+    public void test_takeChanges_Does_not_return_the_changed_components_of_deleted_entities()
+    throws Exception
+    {
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+        final ComponentStore componentStore = context.get(ComponentManagerImpl.COMPONENT_STORE);
+
+        componentStore.trackChanges();
+
+        componentManager.addComponent(refA, TestComponentB.class);
+        componentManager.addComponent(refB, TestComponentB.class);
+        entityManager.deleteEntity(refA);
+
+        for (int i = 0; i < 50 && componentStore.numberOfComponents(TestComponentB.class) > 1; ++i)
+        {
+            Thread.sleep(10);
+        }
+
+        final ComponentStore.ChangeSet changes = componentStore.takeChanges();
+
+        assertThat(changes.getChangedComponents(TestComponentB.class)).containsExactly(refB);
+        assertThat(changes.getDeletedEntities()).containsExactly(refA);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_forEachChunk_Throws_IllegalArgumentException_if_no_type_is_passed()
+    {
+        componentManager.forEachChunk(context, ANY, new ComponentChunkVisitor()
+        {
+            @Override
+            public void visit(ComponentChunk chunk)
+            {
+            }
+        });
+    }
+
+    private static class TestSynchronizer
+    implements ComponentStore.ComponentSynchronizer
+    {
+        private final EntityRef myRef;
+        private final int myValue;
+
+        private volatile boolean isPending;
+
+        private TestSynchronizer(EntityRef ref, int value)
+        {
+            myRef = ref;
+            myValue = value;
+        }
+
+        @Override
+        public boolean isPending()
+        {
+            return isPending;
+        }
+
+        @Override
+        public void synchronize(ComponentStore store)
+        {
+            isPending = false;
+
+            final TestComponentB component = store.findComponent(myRef, TestComponentB.class);
+            component.setInt(myValue);
+            store.pushComponents(Collections.singletonList(myRef), Collections.singletonList(component));
+        }
+
+        @Override
+        public void invalidate()
+        {
+            isPending = false;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.jayware.e2.component.api.ComponentManager;
 import org.jayware.e2.component.api.MalformedComponentException;
 import org.jayware.e2.component.impl.TestComponents.CustomComponentASubtype;
 import org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import org.jayware.e2.component.impl.TestComponents.TestComponentB;
 import org.jayware.e2.component.impl.TestComponents.TestComponentC;
 import org.jayware.e2.component.impl.TestComponents.TestEnum;
 import org.jayware.e2.context.api.Context;
@@ -38,6 +39,9 @@ import org.jayware.e2.entity.api.EntityRef;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.jayware.e2.component.impl.TestComponents.TestEnum.A;
 import static org.jayware.e2.component.impl.TestComponents.TestEnum.B;
@@ -838,4 +842,149 @@ public class GeneratedComponentTest
         assertThat(testeeA).isEqualTo(testeeB);
         assertThat(testeeA.hashCode()).isEqualTo(testeeB.hashCode());
     }
+
+    @Test
+    public void test_indexOf()
+    {
+        final AbstractComponent component = (AbstractComponent) testee;
+        final List<String> propertyNames = component.getPropertyNames();
+
+        for (int index = 0; index < propertyNames.size(); ++index)
+        {
+            assertThat(component.indexOf(propertyNames.get(index))).isEqualTo(index);
+        }
+
+        assertThat(component.indexOf("unknown")).isEqualTo(-1);
+        assertThat(component.indexOf(null)).isEqualTo(-1);
+    }
+
+    @Test
+    public void test_has()
+    {
+        assertThat(((AbstractComponent) testee).has("primitiveInteger")).isTrue();
+        assertThat(((AbstractComponent) testee).has("unknown")).isFalse();
+        assertThat(((AbstractComponent) testee).has(null)).isFalse();
+    }
+
+    @Test
+    public void test_get_and_set_by_index()
+    {
+        final AbstractComponent component = (AbstractComponent) testee;
+        final int index = component.indexOf("string");
+
+        assertThat(component.set(index, "fubar")).isTrue();
+        assertThat(component.get(index)).isEqualTo("fubar");
+        assertThat(testee.getString()).isEqualTo("fubar");
+
+        assertThat(component.set(component.indexOf("primitiveInteger"), 42)).isTrue();
+        assertThat(component.set(component.indexOf("primitiveInteger"), "42")).isFalse();
+        assertThat(testee.getPrimitiveInteger()).isEqualTo(42);
+
+        assertThat(component.set(-1, "fubar")).isFalse();
+        assertThat(component.set(component.getPropertyNames().size(), "fubar")).isFalse();
+        assertThat(component.get(-1)).isNull();
+        assertThat(component.get(component.getPropertyNames().size())).isNull();
+    }
+
+    @Test
+    public void test_primitive_accessors()
+    {
+        final AbstractComponent component = (AbstractComponent) testee;
+
+        assertThat(component.setBoolean("primitiveBoolean", true)).isTrue();
+        assertThat(component.setInt("primitiveInteger", 42)).isTrue();
+        assertThat(component.setLong("primitiveLong", 1337L)).isTrue();
+        assertThat(component.setFloat("primitiveFloat", 1.5f)).isTrue();
+        assertThat(component.setDouble("primitiveDouble", 2.5d)).isTrue();
+
+        assertThat(component.getBoolean("primitiveBoolean")).isTrue();
+        assertThat(component.getInt("primitiveInteger")).isEqualTo(42);
+        assertThat(component.getLong("primitiveLong")).isEqualTo(1337L);
+        assertThat(component.getFloat("primitiveFloat")).isEqualTo(1.5f);
+        assertThat(component.getDouble("primitiveDouble")).isEqualTo(2.5d);
+
+        assertThat(component.getBoolean(component.indexOf("primitiveBoolean"))).isTrue();
+        assertThat(component.getInt(component.indexOf("primitiveInteger"))).isEqualTo(42);
+        assertThat(testee.getPrimitiveInteger()).isEqualTo(42);
+    }
+
+    @Test
+    public void test_primitive_accessors_With_widening_conversion()
+    {
+        final AbstractComponent component = (AbstractComponent) testee;
+
+        testee.setPrimitiveByte((byte) -7);
+        testee.setPrimitiveShort((short) 1337);
+
+        assertThat(component.getInt("primitiveByte")).isEqualTo(-7);
+        assertThat(component.getLong("primitiveShort")).isEqualTo(1337L);
+        assertThat(component.getDouble("primitiveShort")).isEqualTo(1337d);
+
+        assertThat(component.setInt("primitiveLong", 73)).isTrue();
+        assertThat(testee.getPrimitiveLong()).isEqualTo(73L);
+
+        assertThat(component.setInt("primitiveShort", 73)).isFalse();
+        assertThat(component.setDouble("primitiveFloat", 1d)).isFalse();
+        assertThat(component.setInt("string", 1)).isFalse();
+        assertThat(component.setInt("unknown", 1)).isFalse();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_getInt_Throws_IllegalArgumentException_if_property_is_not_an_int()
+    {
+        ((AbstractComponent) testee).getInt("primitiveDouble");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_getBoolean_Throws_IllegalArgumentException_if_property_does_not_exist()
+    {
+        ((AbstractComponent) testee).getBoolean("unknown");
+    }
+
+    @Test
+    public void test_serialize_and_restore()
+    {
+        final TestComponentB source = componentFactory.createComponent(TestComponentB.class).newInstance(testContext);
+        final TestComponentB target = componentFactory.createComponent(TestComponentB.class).newInstance(testContext);
+        final byte[] buffer = new byte[64];
+        final int offset = 3;
+
+        source.setInt(42);
+        source.setInteger(null);
+        source.setString("fubar");
+
+        assertThat(((AbstractComponent) source).isSerializable()).isTrue();
+
+        final int size = ((AbstractComponent) source).serializedSize();
+
+        assertThat(((AbstractComponent) source).serialize(buffer, offset)).isEqualTo(size);
+        assertThat(((AbstractComponent) target).restore(buffer, offset)).isEqualTo(size);
+        assertThat(target).isEqualTo(source);
+    }
+
+    @Test
+    public void test_serialize_and_restore_With_ByteBuffer()
+    {
+        final TestComponentA source = componentFactory.createComponent(TestComponentA.class).newInstance(testContext);
+        final TestComponentA target = componentFactory.createComponent(TestComponentA.class).newInstance(testContext);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(128);
+
+        source.setArray(PRIMITIVE_DOUBLE_ARRAY);
+        source.setTestEnum(C);
+
+        final int size = ((AbstractComponent) source).serialize(buffer, 16);
+
+        assertThat(size).isEqualTo(((AbstractComponent) source).serializedSize());
+        assertThat(buffer.position()).isEqualTo(0);
+        assertThat(((AbstractComponent) target).restore(buffer, 16)).isEqualTo(size);
+        assertThat(target).isEqualTo(source);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void test_serialize_Throws_UnsupportedOperationException_if_component_is_not_serializable()
+    {
+        assertThat(((AbstractComponent) testee).isSerializable()).isFalse();
+
+        ((AbstractComponent) testee).serialize(new byte[1024], 0);
+    }
 }
@@ -22,6 +22,9 @@
 package org.jayware.e2.component.impl;
 
 import org.jayware.e2.component.api.Component;
+import org.jayware.e2.component.api.ComponentProperty;
+import org.jayware.e2.component.api.ComponentPropertyAdapter;
+import org.jayware.e2.context.api.Context;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.util.ObjectUtil;
 
@@ -240,6 +243,31 @@ public class TestComponents
         void setEnumArray(TestEnum[] value);
     }
 
+    public interface TestComponentWithAdapter
+    extends Component
+    {
+        @ComponentProperty(adapter = TestEnumAdapter.class)
+        TestEnum getValue();
+
+        void setValue(TestEnum value);
+    }
+
+    public static class TestEnumAdapter
+    implements ComponentPropertyAdapter<TestEnum>
+    {
+        @Override
+        public String marshal(Context context, TestEnum value)
+        {
+            return value.name();
+        }
+
+        @Override
+        public TestEnum unmarshal(Context context, String value)
+        {
+            return TestEnum.valueOf(value);
+        }
+    }
+
     public static class CustomComponentASubtype
     implements TestComponentA
     {
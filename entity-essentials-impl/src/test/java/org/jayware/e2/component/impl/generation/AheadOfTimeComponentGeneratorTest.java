@@ -0,0 +1,88 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.component.impl.generation;
+
+
+import org.jayware.e2.component.api.AbstractComponent;
+import org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class AheadOfTimeComponentGeneratorTest
+{
+    private File testOutputDirectory;
+
+    private AheadOfTimeComponentGenerator testee;
+
+    @BeforeMethod
+    public void setUp()
+    throws Exception
+    {
+        testOutputDirectory = new File(System.getProperty("user.dir") + "/.generated/aot");
+        testee = new AheadOfTimeComponentGenerator(testOutputDirectory);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_AheadOfTimeComponentGenerator_Throws_IllegalArgumentException_if_null_is_passed()
+    {
+        new AheadOfTimeComponentGenerator(null);
+    }
+
+    @Test
+    public void test_generate_Writes_a_class_file_which_implements_the_component()
+    throws Exception
+    {
+        final File classFile = testee.generate(TestComponentA.class);
+
+        assertThat(classFile).exists();
+        assertThat(classFile.getName()).isEqualTo("_generated_TestComponentA.class");
+
+        final ClassLoader classLoader = new URLClassLoader(new URL[]{testOutputDirectory.toURI().toURL()}, TestComponentA.class.getClassLoader());
+        final Class<?> generatedClass = classLoader.loadClass(TestComponentA.class.getPackage().getName() + "._generated_TestComponentA");
+
+        assertThat(TestComponentA.class.isAssignableFrom(generatedClass)).isTrue();
+        assertThat(AbstractComponent.class.isAssignableFrom(generatedClass)).isTrue();
+    }
+
+    @Test
+    public void test_generate_Writes_a_class_file_which_implements_every_method_of_AbstractComponent()
+    throws Exception
+    {
+        testee.generate(TestComponentA.class);
+
+        final ClassLoader classLoader = new URLClassLoader(new URL[]{testOutputDirectory.toURI().toURL()}, TestComponentA.class.getClassLoader());
+        final Class<?> generatedClass = classLoader.loadClass(TestComponentA.class.getPackage().getName() + "._generated_TestComponentA");
+
+        for (Method method : generatedClass.getMethods())
+        {
+            assertThat(Modifier.isAbstract(method.getModifiers()))
+                .withFailMessage("The generated class does not implement: %s", method)
+                .isFalse();
+        }
+    }
+}
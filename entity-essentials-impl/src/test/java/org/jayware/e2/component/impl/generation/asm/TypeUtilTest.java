@@ -21,6 +21,7 @@ package org.jayware.e2.component.impl.generation.asm;
 import org.testng.annotations.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.component.impl.generation.asm.TypeUtil.isAssignablePrimitiveType;
 import static org.jayware.e2.component.impl.generation.asm.TypeUtil.resolveOpcodePrimitiveType;
 import static org.objectweb.asm.Opcodes.T_BOOLEAN;
 import static org.objectweb.asm.Opcodes.T_BYTE;
@@ -93,4 +94,21 @@ public class TypeUtilTest
     {
         assertThat(resolveOpcodePrimitiveType(double.class)).isEqualTo(T_DOUBLE);
     }
+
+    @Test
+    public void test_isAssignablePrimitiveType()
+    {
+        assertThat(isAssignablePrimitiveType(int.class, int.class)).isTrue();
+        assertThat(isAssignablePrimitiveType(byte.class, int.class)).isTrue();
+        assertThat(isAssignablePrimitiveType(int.class, long.class)).isTrue();
+        assertThat(isAssignablePrimitiveType(long.class, float.class)).isTrue();
+        assertThat(isAssignablePrimitiveType(float.class, double.class)).isTrue();
+        assertThat(isAssignablePrimitiveType(boolean.class, boolean.class)).isTrue();
+
+        assertThat(isAssignablePrimitiveType(int.class, short.class)).isFalse();
+        assertThat(isAssignablePrimitiveType(double.class, float.class)).isFalse();
+        assertThat(isAssignablePrimitiveType(boolean.class, int.class)).isFalse();
+        assertThat(isAssignablePrimitiveType(char.class, int.class)).isFalse();
+        assertThat(isAssignablePrimitiveType(Integer.class, int.class)).isFalse();
+    }
 }
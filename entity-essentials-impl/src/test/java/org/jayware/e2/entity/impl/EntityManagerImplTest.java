@@ -30,10 +30,14 @@ import org.jayware.e2.context.api.ContextProvider;
 import org.jayware.e2.entity.api.EntityEvent.DeleteEntitiesEvent;
 import org.jayware.e2.entity.api.EntityEvent.DeleteEntityEvent;
 import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityManagerException;
+import org.jayware.e2.entity.api.EntityQuery;
 import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.entity.api.EntityVisitor;
 import org.jayware.e2.event.api.EventManager;
 import org.jayware.e2.event.api.Parameters.Parameter;
 import org.jayware.e2.event.api.ResultSet;
+import org.jayware.e2.util.Filter;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -157,6 +161,43 @@ public class EntityManagerImplTest
             .isEqualTo(param(ContextParam, testContext));
     }
 
+    @Test
+    public void test_deleteEntities_With_Collection_Deletes_only_the_passed_entities()
+    {
+        final EntityRef refA = testee.createEntity(context);
+        final EntityRef refB = testee.createEntity(context);
+        final EntityRef refC = testee.createEntity(context);
+
+        assertThat(testee.deleteEntities(context, Arrays.asList(refA, refC))).containsExactlyInAnyOrder(refA, refC);
+        assertThat(testee.findEntities(context)).containsExactly(refB);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_deleteEntities_With_Collection_Throws_IllegalArgumentException_if_passed_Collection_is_null()
+    {
+        testee.deleteEntities(context, null);
+    }
+
+    @Test
+    public void test_createEntities_Creates_the_entities_in_the_order_of_the_passed_ids()
+    {
+        final EntityRef existing = testee.createEntity(context, TEST_UUID);
+        final UUID id = UUID.randomUUID();
+
+        final List<EntityRef> result = testee.createEntities(context, Arrays.asList(id, TEST_UUID));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getId()).isEqualTo(id);
+        assertThat(result.get(1)).isEqualTo(existing);
+        assertThat(testee.findEntities(context)).containsExactlyInAnyOrder(existing, result.get(0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_createEntities_Throws_IllegalArgumentException_if_passed_Collection_is_null()
+    {
+        testee.createEntities(context, null);
+    }
+
     @Test
     public void test_findEntities_With_Context_()
     {
@@ -167,6 +208,123 @@ public class EntityManagerImplTest
         assertThat(testee.findEntities(context)).containsExactlyInAnyOrder(refA, refB, refC);
     }
 
+    @Test
+    public void test_queryEntities_Returns_the_same_entities_as_findEntities()
+    {
+        final EntityRef refA = testee.createEntity(context);
+        final EntityRef refB = testee.createEntity(context);
+        final EntityRef refC = testee.createEntity(context);
+
+        final Filter<EntityRef> filter = new Filter<EntityRef>()
+        {
+            @Override
+            public boolean accepts(Context context, EntityRef ref)
+            {
+                return !ref.equals(refB);
+            }
+        };
+
+        final EntityQuery query = testee.queryEntities(context).withFilter(filter);
+
+        assertThat(query.list()).containsExactlyElementsOf(testee.findEntities(context, filter));
+        assertThat(query.list()).containsExactlyInAnyOrder(refA, refC);
+        assertThat(query.count()).isEqualTo(2);
+        assertThat(query.any()).isTrue();
+    }
+
+    @Test
+    public void test_queryEntities_Applies_offset_and_limit()
+    {
+        for (int i = 0; i < 10; ++i)
+        {
+            testee.createEntity(context);
+        }
+
+        final List<EntityRef> entities = testee.findEntities(context);
+
+        assertThat(testee.queryEntities(context).offset(2).limit(3).list()).containsExactlyElementsOf(entities.subList(2, 5));
+        assertThat(testee.queryEntities(context).offset(4).first()).isEqualTo(entities.get(4));
+        assertThat(testee.queryEntities(context).offset(8).count()).isEqualTo(2);
+        assertThat(testee.queryEntities(context).offset(10).any()).isFalse();
+        assertThat(testee.queryEntities(context).limit(0).first()).isNull();
+    }
+
+    @Test
+    public void test_queryEntities_forEach_Stops_if_the_EntityVisitor_returns_false()
+    {
+        for (int i = 0; i < 10; ++i)
+        {
+            testee.createEntity(context);
+        }
+
+        final List<EntityRef> visited = new ArrayList<EntityRef>();
+
+        final int result = testee.queryEntities(context).forEach(new EntityVisitor()
+        {
+            @Override
+            public boolean visit(EntityRef ref)
+            {
+                visited.add(ref);
+                return visited.size() < 3;
+            }
+        });
+
+        assertThat(result).isEqualTo(3);
+        assertThat(visited).containsExactlyElementsOf(testee.findEntities(context).subList(0, 3));
+    }
+
+    @Test
+    public void test_queryEntities_forEach_Runs_the_EntityVisitor_on_the_calling_thread_without_locking_the_entities()
+    {
+        for (int i = 0; i < 3000; ++i)
+        {
+            testee.createEntity(context);
+        }
+
+        final Thread caller = Thread.currentThread();
+        final List<EntityRef> created = new ArrayList<EntityRef>();
+
+        final int result = testee.queryEntities(context).forEach(new EntityVisitor()
+        {
+            @Override
+            public boolean visit(EntityRef ref)
+            {
+                assertThat(Thread.currentThread()).isSameAs(caller);
+
+                if (created.size() < 10)
+                {
+                    created.add(testee.createEntity(context));
+                }
+
+                return true;
+            }
+        });
+
+        assertThat(result).isGreaterThanOrEqualTo(3000);
+        assertThat(testee.findEntities(context)).hasSize(3010).containsAll(created);
+    }
+
+    @Test(expectedExceptions = EntityManagerException.class)
+    public void test_queryEntities_forEach_Throws_EntityManagerException_if_the_EntityVisitor_throws_an_exception()
+    {
+        testee.createEntity(context);
+
+        testee.queryEntities(context).forEach(new EntityVisitor()
+        {
+            @Override
+            public boolean visit(EntityRef ref)
+            {
+                throw new RuntimeException();
+            }
+        });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_queryEntities_Throws_IllegalArgumentException_if_passed_Context_is_null()
+    {
+        testee.queryEntities(null);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void test_resolveEntity_With_UUID_Throws_IllegalArgrumentException_if_passed_Context_is_null()
     {
@@ -0,0 +1,56 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.impl;
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class DaemonThreadFactoryTest
+{
+    private static final Runnable NOOP = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+        }
+    };
+
+    @Test
+    public void test_newThread_Returns_numbered_daemon_threads_within_the_entity_essentials_ThreadGroup()
+    {
+        final DaemonThreadFactory testee = new DaemonThreadFactory("fubar");
+
+        final Thread first = testee.newThread(NOOP);
+        final Thread second = testee.newThread(NOOP);
+
+        assertThat(first.isDaemon()).isTrue();
+        assertThat(first.getThreadGroup().getName()).isEqualTo("entity-essentials");
+        assertThat(first.getName()).isEqualTo("entity-essentials-fubar-0");
+        assertThat(second.getName()).isEqualTo("entity-essentials-fubar-1");
+        assertThat(second.getThreadGroup()).isSameAs(first.getThreadGroup());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_DaemonThreadFactory_Throws_IllegalArgumentException_if_the_name_is_empty()
+    {
+        new DaemonThreadFactory("");
+    }
+}
@@ -25,6 +25,7 @@ package org.jayware.e2.event.impl;
 import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.event.api.Event;
 import org.jayware.e2.event.api.EventDispatcher;
+import org.jayware.e2.event.api.EventDispatcherFactory;
 import org.jayware.e2.event.api.Handle;
 import org.jayware.e2.event.api.IllegalHandlerException;
 import org.jayware.e2.event.api.Param;
@@ -32,8 +33,16 @@ import org.jayware.e2.event.api.Presence;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Hashtable;
+
+import static org.jayware.e2.event.impl.EventBuilderImpl.createEventBuilder;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 
 public class EventDispatcherFactoryImplTest
@@ -78,6 +87,67 @@ public class EventDispatcherFactoryImplTest
         testee.createEventDispatcher(TestHandler_WithPrimitiveParameter.class);
     }
 
+    @Test
+    public void test_createEventDispatcher_With_profiling_Records_the_invocations_of_each_handler()
+    throws Exception
+    {
+        final EventDispatcherFactoryImpl factory = new EventDispatcherFactoryImpl(profilingProperties());
+        final TestSubscriber_Profiled subscriber = new TestSubscriber_Profiled();
+        final EventDispatcher dispatcher = factory.createEventDispatcher(TestSubscriber_Profiled.class);
+
+        for (int i = 0; i < 3; ++i)
+        {
+            dispatcher.dispatch(createEventBuilder(TestEventTypeA.class).set("value").to(1).build(), subscriber);
+        }
+
+        try
+        {
+            dispatcher.dispatch(createEventBuilder(TestEventTypeA.class).set("value").to(-1).build(), subscriber);
+            fail("Expected the exception of the handler!");
+        }
+        catch (IllegalStateException ignored)
+        {
+
+        }
+
+        final HandlerProfile profile = HandlerProfiler.getProfile(TestSubscriber_Profiled.class.getMethod("handle", int.class), TestEventTypeA.class);
+
+        assertNotNull(profile);
+        assertEquals(profile.getSubscriberType(), TestSubscriber_Profiled.class);
+        assertEquals(profile.getInvocationCount(), 4);
+        assertEquals(profile.getFailureCount(), 1);
+        assertEquals(subscriber.sum, 3);
+        assertTrue(HandlerProfiler.dump().contains(TestSubscriber_Profiled.class.getName()));
+    }
+
+    @Test
+    public void test_createEventDispatcher_With_profiling_ForHandlerWithPrimitiveParameter()
+    {
+        final EventDispatcher dispatcher = new EventDispatcherFactoryImpl(profilingProperties()).createEventDispatcher(TestHandler_WithPrimitiveParameter.class);
+
+        assertNotEquals(dispatcher.getClass(), testee.createEventDispatcher(TestHandler_WithPrimitiveParameter.class).getClass());
+    }
+
+    @Test
+    public void test_createEventDispatcher_Without_profiling_Does_not_record_any_invocation()
+    throws Exception
+    {
+        final TestSubscriber_NotProfiled subscriber = new TestSubscriber_NotProfiled();
+        final EventDispatcher dispatcher = testee.createEventDispatcher(TestSubscriber_NotProfiled.class);
+
+        dispatcher.dispatch(createEventBuilder(TestEventTypeA.class).build(), subscriber);
+
+        assertTrue(subscriber.invoked);
+        assertNull(HandlerProfiler.getProfile(TestSubscriber_NotProfiled.class.getMethod("handle"), TestEventTypeA.class));
+    }
+
+    private static Hashtable<String, Object> profilingProperties()
+    {
+        final Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        properties.put(EventDispatcherFactory.PROPERTY_PROFILING, true);
+        return properties;
+    }
+
     public static class TestSubscriber
     {
         @Handle({TestEventTypeA.class, TestEventTypeB.class})
@@ -125,6 +195,34 @@ public class EventDispatcherFactoryImplTest
         public void handle(@Param("double-param") double param) {}
     }
 
+    public static class TestSubscriber_Profiled
+    {
+        private int sum;
+
+        @Handle(TestEventTypeA.class)
+        public int handle(@Param("value") int value)
+        {
+            if (value < 0)
+            {
+                throw new IllegalStateException();
+            }
+
+            sum += value;
+            return sum;
+        }
+    }
+
+    public static class TestSubscriber_NotProfiled
+    {
+        private boolean invoked;
+
+        @Handle(TestEventTypeA.class)
+        public void handle()
+        {
+            invoked = true;
+        }
+    }
+
     private static class TestSubscriber_Unaccessible
     {
 
@@ -0,0 +1,175 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.impl;
+
+
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.ContextProvider;
+import org.jayware.e2.event.api.EventFilter;
+import org.jayware.e2.event.api.EventMetrics;
+import org.jayware.e2.event.api.Handle;
+import org.jayware.e2.event.impl.InMemoryEventMetrics.Histogram;
+import org.jayware.e2.event.impl.InMemoryEventMetrics.Timer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
+import static org.jayware.e2.event.api.Query.State.Success;
+import static org.jayware.e2.event.impl.EventBuilderImpl.createEventBuilder;
+import static org.jayware.e2.event.impl.QueryBuilderImpl.createQueryBuilder;
+import static org.jayware.e2.util.ReferenceType.Strong;
+
+
+public class InMemoryEventMetricsTest
+{
+    private Context testContext;
+    private EventBus testEventBus;
+    private InMemoryEventMetrics testee;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        testee = new InMemoryEventMetrics();
+        testContext = ContextProvider.getInstance().createContext();
+        testContext.put(EventMetrics.class, testee);
+        testEventBus = new EventBus(testContext);
+        testEventBus.subscribe(new TestSubscriber(), Strong, new EventFilter[0]);
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        testEventBus.dispose(testContext);
+        testContext.dispose();
+    }
+
+    @Test
+    public void test_Synchronous_events_are_recorded()
+    {
+        for (int i = 0; i < 10; ++i)
+        {
+            testEventBus.send(createEventBuilder(TestEventTypeA.class).set(ContextParam).to(testContext).build());
+        }
+
+        final Timer dispatchTimer = testee.getDispatchTimer(TestEventTypeA.class);
+        final Timer waitTimer = testee.getWaitTimer(TestEventTypeA.class);
+        final Timer handlerTimer = testee.getHandlerTimer(TestEventTypeA.class, TestSubscriber.class);
+
+        assertThat(testee.getEventTypes()).contains(TestEventTypeA.class);
+        assertThat(testee.getSubscriberTypes(TestEventTypeA.class)).contains(TestSubscriber.class);
+        assertThat(dispatchTimer.getCount()).isEqualTo(10);
+        assertThat(waitTimer.getMax()).isEqualTo(0);
+        assertThat(handlerTimer.getCount()).isEqualTo(10);
+        assertThat(handlerTimer.getFailureCount()).isEqualTo(0);
+        assertThat(handlerTimer.getTotalTime(NANOSECONDS)).isLessThanOrEqualTo(dispatchTimer.getTotalTime(NANOSECONDS));
+        assertThat(testee.getQueueDepth().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_Queries_are_recorded()
+    {
+        assertThat(testEventBus.query(createQueryBuilder(TestEventTypeB.class).set(ContextParam).to(testContext).build()).await(Success, 10, SECONDS)).isTrue();
+
+        final Timer handlerTimer = testee.getHandlerTimer(TestEventTypeB.class, TestSubscriber.class);
+
+        assertThat(testee.getQueueDepth().getCount()).isEqualTo(1);
+        assertThat(handlerTimer.getCount()).isEqualTo(1);
+        assertThat(handlerTimer.getFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_Nothing_is_recorded_if_the_Context_has_no_EventMetrics()
+    {
+        final Context context = ContextProvider.getInstance().createContext();
+        final EventBus eventBus = new EventBus(context);
+
+        try
+        {
+            eventBus.subscribe(new TestSubscriber(), Strong, new EventFilter[0]);
+            eventBus.send(createEventBuilder(TestEventTypeA.class).set(ContextParam).to(context).build());
+
+            assertThat(testee.getEventTypes()).isEmpty();
+            assertThat(context.findService(EventMetrics.class)).isNull();
+        }
+        finally
+        {
+            eventBus.dispose(context);
+            context.dispose();
+        }
+    }
+
+    @Test
+    public void test_Histogram_approximates_percentiles_by_buckets()
+    {
+        final Histogram histogram = new Histogram();
+
+        for (int i = 1; i <= 100; ++i)
+        {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.getSum()).isEqualTo(5050);
+        assertThat(histogram.getMax()).isEqualTo(100);
+        assertThat(histogram.getMean()).isEqualTo(50.5);
+        assertThat(histogram.getValueAtPercentile(0.0)).isEqualTo(1);
+        assertThat(histogram.getValueAtPercentile(0.5)).isEqualTo(63);
+        assertThat(histogram.getValueAtPercentile(1.0)).isEqualTo(100);
+    }
+
+    @Test
+    public void test_Timer_converts_the_recorded_times()
+    {
+        final Timer timer = new Timer();
+
+        timer.record(MILLISECONDS.toNanos(2), false);
+        timer.record(MILLISECONDS.toNanos(4), true);
+
+        assertThat(timer.getTotalTime(MILLISECONDS)).isEqualTo(6);
+        assertThat(timer.getMaxTime(MILLISECONDS)).isEqualTo(4);
+        assertThat(timer.getMeanTime(MILLISECONDS)).isEqualTo(3.0);
+        assertThat(timer.getFailureCount()).isEqualTo(1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_Histogram_getValueAtPercentile_Throws_IllegalArgumentException_if_the_percentile_is_out_of_range()
+    {
+        new Histogram().getValueAtPercentile(1.5);
+    }
+
+    public static class TestSubscriber
+    {
+        @Handle(TestEventTypeA.class)
+        public void handleA()
+        {
+
+        }
+
+        @Handle(TestEventTypeB.class)
+        public void handleB()
+        {
+            throw new IllegalStateException();
+        }
+    }
+}
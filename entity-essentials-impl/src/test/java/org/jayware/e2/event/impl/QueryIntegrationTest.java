@@ -26,7 +26,9 @@ import org.jayware.e2.event.api.EventType.RootEvent;
 import org.jayware.e2.event.api.Handle;
 import org.jayware.e2.event.api.Param;
 import org.jayware.e2.event.api.Query;
+import org.jayware.e2.event.api.QueryException;
 import org.jayware.e2.event.api.ResultSet;
+import org.jayware.e2.util.Consumer;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -35,6 +37,8 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.Thread.sleep;
@@ -42,7 +46,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.jayware.e2.event.api.EventType.RootEvent.ContextParam;
 import static org.jayware.e2.event.api.Parameters.param;
+import static org.jayware.e2.event.api.Query.State.Failed;
 import static org.jayware.e2.event.api.Query.State.Success;
+import static org.testng.Assert.fail;
 
 
 public class QueryIntegrationTest
@@ -129,12 +135,116 @@ public class QueryIntegrationTest
         }
     }
 
+    @Test
+    public void test_onCompletion_Invokes_the_Consumers_in_the_order_of_registration()
+    throws InterruptedException
+    {
+        final List<Integer> invocations = new CopyOnWriteArrayList<Integer>();
+        final CountDownLatch completionLatch = new CountDownLatch(2);
+
+        final ResultSet resultSet = testee.query(testee.createQuery(TestQueryEvent.class,
+            param(ContextParam, testContext),
+            param("computation", new Computation(20, 22))
+        ));
+
+        resultSet.onCompletion(new RecordingConsumer(1, invocations, completionLatch))
+                 .onCompletion(new RecordingConsumer(2, invocations, completionLatch));
+
+        assertThat(completionLatch.await(10, SECONDS)).isTrue();
+        assertThat(invocations).containsExactly(1, 2);
+        assertThat(resultSet.hasResult()).isTrue();
+        assertThat(resultSet.<Integer>get("result")).isEqualTo(TEST_VALUE);
+    }
+
+    @Test
+    public void test_onCompletion_Invokes_the_Consumer_immediately_if_the_Query_has_already_completed()
+    {
+        final List<Integer> invocations = new CopyOnWriteArrayList<Integer>();
+
+        final ResultSet resultSet = testee.query(testee.createQuery(TestQueryEvent.class,
+            param(ContextParam, testContext),
+            param("computation", new Computation(20, 22))
+        ));
+
+        assertThat(resultSet.await(Success)).isTrue();
+
+        resultSet.onCompletion(new RecordingConsumer(1, invocations, new CountDownLatch(1)));
+
+        assertThat(invocations).containsExactly(1);
+    }
+
+    @Test
+    public void test_onCompletion_Invokes_the_Consumer_if_the_Query_fails()
+    throws InterruptedException
+    {
+        final CountDownLatch completionLatch = new CountDownLatch(1);
+        final List<Integer> invocations = new CopyOnWriteArrayList<Integer>();
+
+        final ResultSet resultSet = testee.query(testee.createQuery(TestFailingQueryEvent.class, param(ContextParam, testContext)));
+
+        resultSet.onCompletion(new RecordingConsumer(1, invocations, completionLatch));
+
+        assertThat(completionLatch.await(10, SECONDS)).isTrue();
+        assertThat(resultSet.hasStatus(Failed)).isTrue();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_onCompletion_Throws_IllegalArgumentException_if_the_passed_Consumer_is_null()
+    {
+        testee.query(testee.createQuery(TestQueryEvent.class,
+            param(ContextParam, testContext),
+            param("computation", new Computation(20, 22))
+        )).onCompletion(null);
+    }
+
+    @Test
+    public void test_toFuture_Returns_a_Future_which_completes_with_the_ResultSet()
+    throws Exception
+    {
+        final ResultSet resultSet = testee.query(testee.createQuery(TestQueryEvent.class,
+            param(ContextParam, testContext),
+            param("computation", new Computation(20, 22))
+        ));
+
+        final Future<ResultSet> future = resultSet.toFuture();
+
+        assertThat(future.get(10, SECONDS)).isSameAs(resultSet);
+        assertThat(future.isDone()).isTrue();
+        assertThat(future.cancel(true)).isFalse();
+        assertThat(future.isCancelled()).isFalse();
+    }
+
+    @Test
+    public void test_toFuture_Returns_a_Future_which_completes_exceptionally_if_the_Query_fails()
+    throws Exception
+    {
+        final Future<ResultSet> future = testee.query(testee.createQuery(TestFailingQueryEvent.class, param(ContextParam, testContext))).toFuture();
+
+        try
+        {
+            future.get(10, SECONDS);
+            fail("Expected an ExecutionException!");
+        }
+        catch (ExecutionException e)
+        {
+            assertThat(e.getCause()).isInstanceOf(QueryException.class);
+        }
+
+        assertThat(future.isDone()).isTrue();
+    }
+
     public interface TestQueryEvent
     extends RootEvent
     {
 
     }
 
+    public interface TestFailingQueryEvent
+    extends RootEvent
+    {
+
+    }
+
     public class TestHandler
     {
         @Handle(TestQueryEvent.class)
@@ -142,6 +252,34 @@ public class QueryIntegrationTest
         {
             query.result("result", computation.inputA + computation.inputB);
         }
+
+        @Handle(TestFailingQueryEvent.class)
+        public void handleFailing(Query query)
+        {
+            throw new IllegalStateException();
+        }
+    }
+
+    public static class RecordingConsumer
+    implements Consumer<ResultSet>
+    {
+        private final int myId;
+        private final List<Integer> myInvocations;
+        private final CountDownLatch myLatch;
+
+        public RecordingConsumer(int id, List<Integer> invocations, CountDownLatch latch)
+        {
+            myId = id;
+            myInvocations = invocations;
+            myLatch = latch;
+        }
+
+        @Override
+        public void accept(ResultSet resultSet)
+        {
+            myInvocations.add(myId);
+            myLatch.countDown();
+        }
     }
 
     public static class Computation
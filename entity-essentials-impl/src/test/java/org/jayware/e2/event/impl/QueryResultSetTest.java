@@ -0,0 +1,87 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.event.impl;
+
+
+import org.jayware.e2.util.Key;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.event.api.Query.State.Success;
+import static org.jayware.e2.event.impl.QueryBuilderImpl.createQueryBuilder;
+import static org.jayware.e2.util.Key.createKey;
+
+
+public class QueryResultSetTest
+{
+    private static final Key<String> TEST_KEY_A = createKey("org.jayware.e2.test.a");
+    private static final Key<String> TEST_KEY_B = createKey("org.jayware.e2.test.b");
+
+    private QueryResultSet testee;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        testee = new QueryResultSet((QueryImpl) createQueryBuilder(TestEventTypeA.class).build());
+    }
+
+    @Test
+    public void test_put_Stores_a_single_result()
+    {
+        testee.put(TEST_KEY_A, "fubar");
+        testee.signal(Success);
+
+        assertThat(testee.has(TEST_KEY_A)).isTrue();
+        assertThat(testee.has(TEST_KEY_B)).isFalse();
+        assertThat(testee.get(TEST_KEY_A)).isEqualTo("fubar");
+        assertThat(testee.find(TEST_KEY_B)).isNull();
+    }
+
+    @Test
+    public void test_put_Replaces_the_result_associated_to_the_same_key()
+    {
+        testee.put(TEST_KEY_A, "foo");
+        testee.put(TEST_KEY_A, "bar");
+        testee.signal(Success);
+
+        assertThat(testee.get(TEST_KEY_A)).isEqualTo("bar");
+    }
+
+    @Test
+    public void test_put_Stores_multiple_results()
+    {
+        testee.put(TEST_KEY_A, "foo");
+        testee.put(TEST_KEY_B, "bar");
+        testee.put("muh", "kuh");
+        testee.put(TEST_KEY_A, "fubar");
+        testee.signal(Success);
+
+        assertThat(testee.get(TEST_KEY_A)).isEqualTo("fubar");
+        assertThat(testee.get(TEST_KEY_B)).isEqualTo("bar");
+        assertThat(testee.<String>get("muh")).isEqualTo("kuh");
+        assertThat(testee.has("kuh")).isFalse();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_put_Throws_IllegalArgumentException_if_the_passed_value_is_null()
+    {
+        testee.put(TEST_KEY_A, null);
+    }
+}
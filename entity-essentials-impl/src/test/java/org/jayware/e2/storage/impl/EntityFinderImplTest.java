@@ -0,0 +1,154 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+import org.jayware.e2.component.api.ComponentManager;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.ContextProvider;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.storage.api.EntityFinderException;
+import org.jayware.e2.util.Filter;
+import org.jayware.e2.util.Provider;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.component.api.Aspect.aspect;
+import static org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import static org.jayware.e2.component.impl.TestComponents.TestComponentB;
+
+
+public class EntityFinderImplTest
+{
+    private static final int NUMBER_OF_ENTITIES = 5000;
+
+    private Context context;
+    private EntityManager entityManager;
+    private ComponentManager componentManager;
+
+    private EntityFinderImpl sequentialTestee;
+    private EntityFinderImpl parallelTestee;
+
+    private List<EntityRef> entities;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        context = ContextProvider.getInstance().createContext();
+        entityManager = context.getService(EntityManager.class);
+        componentManager = context.getService(ComponentManager.class);
+
+        final Provider<List<EntityRef>> listProvider = new Provider<List<EntityRef>>()
+        {
+            @Override
+            public List<EntityRef> provide()
+            {
+                return new ArrayList<EntityRef>();
+            }
+        };
+
+        sequentialTestee = new EntityFinderImpl(context, listProvider, Integer.MAX_VALUE, 1);
+        parallelTestee = new EntityFinderImpl(context, listProvider, 0, 4);
+
+        entities = new ArrayList<EntityRef>();
+        for (int i = 0; i < NUMBER_OF_ENTITIES; ++i)
+        {
+            final EntityRef ref = entityManager.createEntity(context);
+            componentManager.addComponent(ref, TestComponentA.class);
+
+            if (i % 3 == 0)
+            {
+                componentManager.addComponent(ref, TestComponentB.class);
+            }
+
+            entities.add(ref);
+        }
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        parallelTestee.dispose();
+        context.dispose();
+    }
+
+    @Test
+    public void test_isParallel_Returns_whether_the_number_of_entities_reaches_the_threshold()
+    {
+        final EntityFinderImpl testee = new EntityFinderImpl(context, null, 100, 4);
+
+        assertThat(testee.isParallel(99)).isFalse();
+        assertThat(testee.isParallel(100)).isTrue();
+        assertThat(new EntityFinderImpl(context, null, 100, 1).isParallel(100)).isFalse();
+    }
+
+    @Test
+    public void test_filter_In_parallel_Returns_the_same_entities_in_the_same_order_as_sequential()
+    {
+        final Filter<EntityRef> filter = new Filter<EntityRef>()
+        {
+            @Override
+            public boolean accepts(Context context, EntityRef ref)
+            {
+                return ref.getId().getLeastSignificantBits() % 2 == 0;
+            }
+        };
+
+        final List<Filter<EntityRef>> filters = Collections.singletonList(filter);
+
+        final List<EntityRef> expected = sequentialTestee.filter(entities, aspect(TestComponentA.class).withNoneOf(TestComponentB.class), filters);
+        final List<EntityRef> result = parallelTestee.filter(entities, aspect(TestComponentA.class).withNoneOf(TestComponentB.class), filters);
+
+        assertThat(expected).isNotEmpty();
+        assertThat(result).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void test_filter_In_parallel_Skips_invalid_entities()
+    {
+        final EntityRef deleted = entities.get(1);
+        entityManager.deleteEntity(deleted);
+
+        final List<EntityRef> result = parallelTestee.filter(entities, null, null);
+
+        assertThat(result).hasSize(NUMBER_OF_ENTITIES - 1);
+        assertThat(result).doesNotContain(deleted);
+    }
+
+    @Test(expectedExceptions = EntityFinderException.class)
+    public void test_filter_In_parallel_Throws_EntityFinderException_if_a_Filter_throws_an_exception()
+    {
+        final Filter<EntityRef> filter = new Filter<EntityRef>()
+        {
+            @Override
+            public boolean accepts(Context context, EntityRef ref)
+            {
+                throw new RuntimeException();
+            }
+        };
+
+        parallelTestee.filter(entities, null, Collections.singletonList(filter));
+    }
+}
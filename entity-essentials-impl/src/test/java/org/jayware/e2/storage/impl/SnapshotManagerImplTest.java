@@ -0,0 +1,225 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.assembly.api.Group;
+import org.jayware.e2.assembly.api.GroupManager;
+import org.jayware.e2.component.api.ComponentManager;
+import org.jayware.e2.component.impl.ComponentStore;
+import org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import org.jayware.e2.component.impl.TestComponents.TestComponentB;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.ContextProvider;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.storage.api.SnapshotException;
+import org.jayware.e2.storage.api.SnapshotManager;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.component.impl.ComponentManagerImpl.COMPONENT_STORE;
+import static org.jayware.e2.component.impl.TestComponents.TestEnum.A;
+
+
+public class SnapshotManagerImplTest
+{
+    private Context context, otherContext;
+    private SnapshotManager testee;
+    private File file, deltaFile;
+
+    @BeforeMethod
+    public void setUp()
+    throws Exception
+    {
+        context = ContextProvider.getInstance().createContext();
+        otherContext = ContextProvider.getInstance().createContext();
+        testee = new SnapshotManagerImpl();
+        file = File.createTempFile("snapshot", ".e2");
+        deltaFile = File.createTempFile("snapshot", ".e2d");
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        context.dispose();
+        otherContext.dispose();
+        file.delete();
+        deltaFile.delete();
+    }
+
+    @Test
+    public void test_readSnapshot_Restores_the_entities_and_components_written_by_writeSnapshot()
+    {
+        final EntityManager entityManager = context.getService(EntityManager.class);
+        final ComponentManager componentManager = context.getService(ComponentManager.class);
+
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+
+        final TestComponentA componentA = componentManager.addComponent(refA, TestComponentA.class);
+        componentA.setTestEnum(A);
+        componentA.setArray(new double[] {1.0, 2.5});
+        componentA.pushTo(refA);
+
+        final TestComponentB componentB = componentManager.addComponent(refB, TestComponentB.class);
+        componentB.setInt(42);
+        componentB.setString("fubar");
+        componentB.pushTo(refB);
+
+        testee.writeSnapshot(context, file);
+        testee.readSnapshot(otherContext, file);
+
+        final EntityManager otherEntityManager = otherContext.getService(EntityManager.class);
+        final ComponentManager otherComponentManager = otherContext.getService(ComponentManager.class);
+        final EntityRef otherRefA = otherEntityManager.resolveEntity(otherContext, refA.getId());
+        final EntityRef otherRefB = otherEntityManager.resolveEntity(otherContext, refB.getId());
+
+        assertThat(otherEntityManager.findEntities(otherContext)).containsExactlyInAnyOrder(otherRefA, otherRefB);
+
+        final TestComponentA restoredA = otherComponentManager.getComponent(otherRefA, TestComponentA.class);
+        assertThat(restoredA.getTestEnum()).isEqualTo(A);
+        assertThat(restoredA.getArray()).containsExactly(1.0, 2.5);
+        assertThat(otherComponentManager.hasComponent(otherRefA, TestComponentB.class)).isFalse();
+
+        final TestComponentB restoredB = otherComponentManager.getComponent(otherRefB, TestComponentB.class);
+        assertThat(restoredB.getInt()).isEqualTo(42);
+        assertThat(restoredB.getInteger()).isNull();
+        assertThat(restoredB.getString()).isEqualTo("fubar");
+    }
+
+    @Test
+    public void test_readSnapshot_Restores_Groups_which_are_found_in_a_Context_already_in_use()
+    {
+        final EntityManager entityManager = context.getService(EntityManager.class);
+        final GroupManager groupManager = context.getService(GroupManager.class);
+        final EntityRef member = entityManager.createEntity(context);
+
+        groupManager.createGroup(context, "fubar").add(member);
+        testee.writeSnapshot(context, file);
+
+        final EntityManager otherEntityManager = otherContext.getService(EntityManager.class);
+        final GroupManager otherGroupManager = otherContext.getService(GroupManager.class);
+
+        otherGroupManager.createGroup(otherContext, "other");
+        assertThat(otherGroupManager.findGroup(otherContext, "fubar")).isNull();
+
+        testee.readSnapshot(otherContext, file);
+
+        final EntityRef otherMember = otherEntityManager.resolveEntity(otherContext, member.getId());
+        final Group otherGroup = otherGroupManager.findGroup(otherContext, "fubar");
+
+        assertThat(otherGroup).isNotNull();
+        assertThat(otherGroup.members()).containsExactly(otherMember);
+        assertThat(otherGroupManager.getGroupsOf(otherMember)).containsExactly(otherGroup);
+        assertThat(otherGroupManager.findGroup(otherContext, "other")).isNotNull();
+    }
+
+    @Test
+    public void test_readDeltaSnapshot_Applies_the_changes_since_the_previous_snapshot()
+    throws Exception
+    {
+        final EntityManager entityManager = context.getService(EntityManager.class);
+        final ComponentManager componentManager = context.getService(ComponentManager.class);
+
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+        final EntityRef refC = entityManager.createEntity(context);
+
+        componentManager.addComponent(refA, TestComponentB.class);
+        componentManager.addComponent(refB, TestComponentB.class);
+        componentManager.addComponent(refC, TestComponentB.class);
+
+        testee.writeSnapshot(context, file);
+
+        final TestComponentB componentA = componentManager.getComponent(refA, TestComponentB.class);
+        componentA.setInt(42);
+        componentA.pushTo(refA);
+
+        componentManager.removeComponent(refB, TestComponentB.class);
+        entityManager.deleteEntity(refC);
+
+        final EntityRef refD = entityManager.createEntity(context);
+        componentManager.addComponent(refD, TestComponentB.class);
+
+        final ComponentStore componentStore = context.get(COMPONENT_STORE);
+
+        for (int i = 0; i < 50 && componentStore.numberOfComponents(TestComponentB.class) > 2; ++i)
+        {
+            Thread.sleep(10);
+        }
+
+        testee.writeDeltaSnapshot(context, deltaFile);
+
+        testee.readSnapshot(otherContext, file);
+        testee.readDeltaSnapshot(otherContext, deltaFile);
+
+        final EntityManager otherEntityManager = otherContext.getService(EntityManager.class);
+        final ComponentManager otherComponentManager = otherContext.getService(ComponentManager.class);
+        final EntityRef otherRefA = otherEntityManager.resolveEntity(otherContext, refA.getId());
+        final EntityRef otherRefB = otherEntityManager.resolveEntity(otherContext, refB.getId());
+        final EntityRef otherRefD = otherEntityManager.resolveEntity(otherContext, refD.getId());
+
+        assertThat(otherEntityManager.findEntities(otherContext)).containsExactlyInAnyOrder(otherRefA, otherRefB, otherRefD);
+        assertThat(otherComponentManager.getComponent(otherRefA, TestComponentB.class).getInt()).isEqualTo(42);
+        assertThat(otherComponentManager.hasComponent(otherRefB, TestComponentB.class)).isFalse();
+        assertThat(otherComponentManager.hasComponent(otherRefD, TestComponentB.class)).isTrue();
+    }
+
+    @Test(expectedExceptions = SnapshotException.class)
+    public void test_writeDeltaSnapshot_Throws_SnapshotException_if_no_snapshot_has_been_written_before()
+    {
+        testee.writeDeltaSnapshot(context, deltaFile);
+    }
+
+    @Test(expectedExceptions = SnapshotException.class)
+    public void test_readDeltaSnapshot_Throws_SnapshotException_if_the_file_is_a_full_snapshot()
+    {
+        testee.writeSnapshot(context, file);
+        testee.readDeltaSnapshot(otherContext, file);
+    }
+
+    @Test(expectedExceptions = SnapshotException.class)
+    public void test_readSnapshot_Throws_SnapshotException_if_the_file_is_not_a_snapshot()
+    throws Exception
+    {
+        final FileOutputStream outputStream = new FileOutputStream(file);
+        try
+        {
+            outputStream.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        finally
+        {
+            outputStream.close();
+        }
+
+        testee.readSnapshot(otherContext, file);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_writeSnapshot_Throws_IllegalArgumentException_if_passed_file_is_null()
+    {
+        testee.writeSnapshot(context, null);
+    }
+}
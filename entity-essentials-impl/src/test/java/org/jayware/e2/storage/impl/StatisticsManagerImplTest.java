@@ -0,0 +1,175 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.storage.impl;
+
+
+import org.jayware.e2.component.api.ComponentManager;
+import org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import org.jayware.e2.component.impl.TestComponents.TestComponentB;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.ContextProvider;
+import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
+import org.jayware.e2.storage.api.ComponentStatistics;
+import org.jayware.e2.storage.api.LockStatistics;
+import org.jayware.e2.storage.api.StatisticsManager;
+import org.jayware.e2.storage.api.StorageStatistics;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jayware.e2.component.api.Aspect.ANY;
+import static org.jayware.e2.component.api.Aspect.EMPTY;
+import static org.jayware.e2.component.api.Aspect.aspect;
+
+
+public class StatisticsManagerImplTest
+{
+    private Context context;
+    private StatisticsManager testee;
+
+    private EntityManager entityManager;
+    private ComponentManager componentManager;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        context = ContextProvider.getInstance().createContext();
+        testee = new StatisticsManagerImpl();
+
+        entityManager = context.getService(EntityManager.class);
+        componentManager = context.getService(ComponentManager.class);
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        context.dispose();
+    }
+
+    @Test
+    public void test_getStorageStatistics_Counts_the_created_and_deleted_entities()
+    {
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+        entityManager.createEntity(context);
+        entityManager.createEntity(context, refA.getId());
+
+        entityManager.deleteEntity(refA);
+        entityManager.deleteEntities(context, Arrays.asList(refB, refA));
+
+        final StorageStatistics statistics = testee.getStorageStatistics(context);
+
+        assertThat(statistics.getNumberOfEntities()).isEqualTo(1);
+        assertThat(statistics.getNumberOfCreatedEntities()).isEqualTo(3);
+        assertThat(statistics.getNumberOfDeletedEntities()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_getComponentStatistics_Reports_the_number_and_footprint_of_the_components_per_type()
+    {
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+
+        componentManager.addComponent(refA, TestComponentA.class);
+        componentManager.addComponent(refB, TestComponentA.class);
+        componentManager.addComponent(refB, TestComponentB.class);
+        componentManager.removeComponent(refB, TestComponentB.class);
+
+        final ComponentStatistics statistics = testee.getComponentStatistics(context);
+
+        assertThat(statistics.getComponentTypes()).contains(TestComponentA.class, TestComponentB.class);
+        assertThat(statistics.getNumberOfComponents(TestComponentA.class)).isEqualTo(2);
+        assertThat(statistics.getNumberOfComponents(TestComponentB.class)).isEqualTo(0);
+        assertThat(statistics.getNumberOfComponents()).isEqualTo(2);
+        assertThat(statistics.getNumberOfAddedComponents()).isEqualTo(3);
+        assertThat(statistics.getNumberOfRemovedComponents()).isEqualTo(1);
+
+        assertThat(statistics.getEstimatedFootprint(TestComponentA.class)).isGreaterThan(statistics.getEstimatedFootprint(TestComponentB.class));
+        assertThat(statistics.getEstimatedFootprint()).isEqualTo(statistics.getEstimatedFootprint(TestComponentA.class) + statistics.getEstimatedFootprint(TestComponentB.class));
+    }
+
+    @Test
+    public void test_countEntities_Returns_the_number_of_entities_matching_the_passed_Aspect()
+    {
+        final EntityRef refA = entityManager.createEntity(context);
+        final EntityRef refB = entityManager.createEntity(context);
+        entityManager.createEntity(context);
+
+        componentManager.addComponent(refA, TestComponentA.class);
+        componentManager.addComponent(refB, TestComponentA.class);
+        componentManager.addComponent(refB, TestComponentB.class);
+
+        assertThat(testee.countEntities(context, ANY)).isEqualTo(3);
+        assertThat(testee.countEntities(context, EMPTY)).isEqualTo(1);
+        assertThat(testee.countEntities(context, aspect(TestComponentA.class))).isEqualTo(2);
+        assertThat(testee.countEntities(context, aspect(TestComponentA.class, TestComponentB.class))).isEqualTo(1);
+    }
+
+    @Test
+    public void test_LockStatistics_are_only_measured_while_enabled()
+    {
+        final EntityRef ref = entityManager.createEntity(context);
+
+        assertThat(testee.isLockStatisticsEnabled(context)).isFalse();
+        assertThat(testee.getStorageStatistics(context).getUpdateLockStatistics().getNumberOfAcquisitions()).isEqualTo(0);
+
+        testee.enableLockStatistics(context);
+        assertThat(testee.isLockStatisticsEnabled(context)).isTrue();
+
+        entityManager.createEntity(context);
+        componentManager.addComponent(ref, TestComponentA.class);
+
+        final LockStatistics storageStatistics = testee.getStorageStatistics(context).getWriteLockStatistics();
+        final LockStatistics componentStatistics = testee.getComponentStatistics(context).getWriteLockStatistics();
+
+        assertThat(storageStatistics.getNumberOfAcquisitions()).isEqualTo(1);
+        assertThat(storageStatistics.getMaxHoldTime(NANOSECONDS)).isLessThanOrEqualTo(storageStatistics.getTotalHoldTime(NANOSECONDS));
+        assertThat(componentStatistics.getNumberOfAcquisitions()).isGreaterThanOrEqualTo(1);
+
+        testee.disableLockStatistics(context);
+        entityManager.createEntity(context);
+
+        assertThat(testee.isLockStatisticsEnabled(context)).isFalse();
+        assertThat(testee.getStorageStatistics(context).getWriteLockStatistics().getNumberOfAcquisitions()).isEqualTo(1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_getStorageStatistics_Throws_IllegalArgumentException_if_passed_Context_is_null()
+    {
+        testee.getStorageStatistics(null);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void test_getComponentStatistics_Throws_IllegalStateException_if_passed_Context_is_disposed()
+    {
+        context.dispose();
+        testee.getComponentStatistics(context);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_countEntities_Throws_IllegalArgumentException_if_passed_Aspect_is_null()
+    {
+        testee.countEntities(context, null);
+    }
+}
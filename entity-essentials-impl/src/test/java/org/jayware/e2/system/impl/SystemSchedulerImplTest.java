@@ -0,0 +1,249 @@
+/**
+ * Entity Essentials -- A Component-based Entity System
+ *
+ * Copyright (C) 2017 Elmar Schug <elmar.schug@jayware.org>,
+ *                    Markus Neubauer <markus.neubauer@jayware.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jayware.e2.system.impl;
+
+import org.jayware.e2.component.api.Aspect;
+import org.jayware.e2.component.api.Component;
+import org.jayware.e2.context.api.Context;
+import org.jayware.e2.context.api.ContextProvider;
+import org.jayware.e2.system.api.AccessMode;
+import org.jayware.e2.system.api.EntitySystem;
+import org.jayware.e2.system.api.SystemManager;
+import org.jayware.e2.system.api.SystemScheduler;
+import org.jayware.e2.system.api.SystemSchedulerException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.jayware.e2.component.api.Aspect.aspect;
+import static org.jayware.e2.component.impl.TestComponents.TestComponentA;
+import static org.jayware.e2.component.impl.TestComponents.TestComponentB;
+import static org.jayware.e2.system.api.AccessMode.Read;
+import static org.jayware.e2.system.api.AccessMode.Write;
+
+
+public class SystemSchedulerImplTest
+{
+    private Context context;
+    private SystemWorkerPool workerPool;
+    private SystemSchedulerImpl testee;
+
+    private List<String> log;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        context = ContextProvider.getInstance().createContext();
+        workerPool = new SystemWorkerPool(2);
+        testee = new SystemSchedulerImpl(context, workerPool);
+        log = Collections.synchronizedList(new ArrayList<String>());
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        workerPool.dispose(context);
+        context.dispose();
+    }
+
+    @Test
+    public void test_createScheduler_Returns_a_SystemScheduler_of_the_passed_Context()
+    {
+        final SystemScheduler scheduler = context.getService(SystemManager.class).createScheduler(context);
+
+        assertThat(scheduler).isNotNull();
+        assertThat(scheduler.belongsTo(context)).isTrue();
+    }
+
+    @Test
+    public void test_conflicts_()
+    {
+        final EntitySystem writerA = new TestSystem(aspect(TestComponentA.class), Write, null);
+        final EntitySystem readerA = new TestSystem(aspect(TestComponentA.class), Read, null);
+        final EntitySystem readerAB = new TestSystem(aspect(TestComponentA.class, TestComponentB.class), Read, null);
+        final EntitySystem writerB = new TestSystem(aspect().withOneOf(TestComponentB.class), Write, null);
+        final EntitySystem writerNoneOfA = new TestSystem(aspect(TestComponentB.class).withNoneOf(TestComponentA.class), Write, null);
+
+        assertThat(conflicts(writerA, readerA)).isTrue();
+        assertThat(conflicts(readerA, readerAB)).isFalse();
+        assertThat(conflicts(readerAB, writerB)).isTrue();
+        assertThat(conflicts(writerA, writerB)).isFalse();
+        assertThat(conflicts(writerA, writerNoneOfA)).isFalse();
+    }
+
+    @Test
+    public void test_tick_Runs_conflicting_systems_in_the_order_they_have_been_added()
+    {
+        testee.addSystem(new TestSystem(aspect(TestComponentA.class), Write, "writer")
+        {
+            @Override
+            public void update(Context context)
+            {
+                sleep(50);
+                super.update(context);
+            }
+        });
+
+        testee.addSystem(new TestSystem(aspect(TestComponentA.class), Read, "reader"));
+
+        testee.tick();
+
+        assertThat(log).containsExactly("writer", "reader");
+    }
+
+    @Test
+    public void test_tick_Runs_non_conflicting_systems_concurrently()
+    {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+
+        for (int i = 0; i < 2; ++i)
+        {
+            testee.addSystem(new TestSystem(aspect(TestComponentA.class), Read, "reader")
+            {
+                @Override
+                public void update(Context context)
+                {
+                    try
+                    {
+                        barrier.await(5, SECONDS);
+                    }
+                    catch (Exception e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+
+                    super.update(context);
+                }
+            });
+        }
+
+        testee.tick();
+
+        assertThat(log).containsExactly("reader", "reader");
+    }
+
+    @Test
+    public void test_tick_Skips_the_dependents_of_a_failed_system()
+    {
+        testee.addSystem(new TestSystem(aspect(TestComponentB.class), Write, "failing")
+        {
+            @Override
+            public void update(Context context)
+            {
+                throw new IllegalStateException();
+            }
+        });
+
+        testee.addSystem(new TestSystem(aspect(TestComponentB.class), Read, "dependent"));
+
+        try
+        {
+            testee.tick();
+            fail("Expected a SystemSchedulerException!");
+        }
+        catch (SystemSchedulerException e)
+        {
+            assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(log).isEmpty();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_addSystem_Throws_IllegalArgumentException_if_the_passed_system_has_already_been_added()
+    {
+        final EntitySystem system = new TestSystem(aspect(TestComponentA.class), Read, null);
+
+        testee.addSystem(system);
+        testee.addSystem(system);
+    }
+
+    @Test
+    public void test_removeSystem_()
+    {
+        final EntitySystem system = new TestSystem(aspect(TestComponentA.class), Read, "removed");
+
+        testee.addSystem(system);
+
+        assertThat(testee.removeSystem(system)).isTrue();
+        assertThat(testee.getSystems()).isEmpty();
+
+        testee.tick();
+
+        assertThat(log).isEmpty();
+    }
+
+    private static boolean conflicts(EntitySystem systemA, EntitySystem systemB)
+    {
+        return SystemSchedulerImpl.conflicts(SystemSchedulerImpl.accessesOf(systemA), SystemSchedulerImpl.accessesOf(systemB));
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class TestSystem
+    implements EntitySystem
+    {
+        private final Aspect myAspect;
+        private final AccessMode myAccessMode;
+        private final String myName;
+
+        private TestSystem(Aspect aspect, AccessMode accessMode, String name)
+        {
+            myAspect = aspect;
+            myAccessMode = accessMode;
+            myName = name;
+        }
+
+        @Override
+        public Aspect getAspect()
+        {
+            return myAspect;
+        }
+
+        @Override
+        public AccessMode getAccessMode(Class<? extends Component> type)
+        {
+            return myAccessMode;
+        }
+
+        @Override
+        public void update(Context context)
+        {
+            log.add(myName);
+        }
+    }
+}
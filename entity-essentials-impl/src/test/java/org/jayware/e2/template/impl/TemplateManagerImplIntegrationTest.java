@@ -28,16 +28,25 @@ import org.jayware.e2.component.api.ComponentManager;
 import org.jayware.e2.context.api.Context;
 import org.jayware.e2.context.api.ContextProvider;
 import org.jayware.e2.entity.api.EntityManager;
+import org.jayware.e2.entity.api.EntityRef;
 import org.jayware.e2.template.api.ComponentTemplate;
+import org.jayware.e2.template.api.EntityTemplate;
+import org.jayware.e2.template.api.ExportException;
+import org.jayware.e2.template.api.ImportException;
+import org.jayware.e2.template.api.InstantiationPlan;
 import org.jayware.e2.template.api.PropertyTemplate;
 import org.jayware.e2.template.api.TemplateManager;
 import org.jayware.e2.template.api.TemplateProvider;
+import org.jayware.e2.template.api.TemplateWriter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.jayware.e2.component.impl.TestComponents.TestComponentC;
 
 
@@ -49,6 +58,7 @@ public class TemplateManagerImplIntegrationTest
     private TemplateManager templateManager;
 
     private @Mocked TemplateProvider testTemplateProvider;
+    private @Mocked TemplateWriter testTemplateWriter;
 
     @BeforeMethod
     public void setUp()
@@ -74,6 +84,153 @@ public class TemplateManagerImplIntegrationTest
         final TestComponentTemplateImpl template = templateManager.exportComponent(component, testTemplateProvider);
     }
 
+    @Test
+    public void test_exportContext_into_importContext_Copies_all_entities_and_components()
+    {
+        final Context targetContext = ContextProvider.getInstance().createContext();
+
+        try
+        {
+            final EntityRef ref = entityManager.createEntity(context);
+            final TestComponentC component = componentManager.createComponent(context, TestComponentC.class);
+
+            component.setPrimitiveBoolean(true);
+            component.setPrimitiveByte((byte) 7);
+            component.setPrimitiveInteger(42);
+            component.setPrimitiveLong(1L << 40);
+            component.setPrimitiveDouble(1.5);
+            component.setString("fubar");
+            component.addTo(ref);
+
+            templateManager.exportContext(context, templateManager.importContext(targetContext));
+
+            final EntityRef importedRef = targetContext.getService(EntityManager.class).resolveEntity(targetContext, ref.getId());
+            final TestComponentC imported = targetContext.getService(ComponentManager.class).getComponent(importedRef, TestComponentC.class);
+
+            assertThat(importedRef.isValid()).isTrue();
+            assertThat(imported.getPrimitiveBoolean()).isTrue();
+            assertThat(imported.getPrimitiveByte()).isEqualTo((byte) 7);
+            assertThat(imported.getPrimitiveInteger()).isEqualTo(42);
+            assertThat(imported.getPrimitiveLong()).isEqualTo(1L << 40);
+            assertThat(imported.getPrimitiveDouble()).isEqualTo(1.5);
+            assertThat(imported.getString()).isEqualTo("fubar");
+        }
+        finally
+        {
+            targetContext.dispose();
+        }
+    }
+
+    @Test(expectedExceptions = ExportException.class)
+    public void test_exportContext_Stops_at_the_first_failure_of_the_TemplateWriter()
+    throws Exception
+    {
+        entityManager.createEntity(context);
+        entityManager.createEntity(context);
+
+        new Expectations()
+        {{
+            testTemplateWriter.beginEntity((UUID) any); result = new IOException("fubar"); times = 1;
+        }};
+
+        templateManager.exportContext(context, testTemplateWriter);
+    }
+
+    @Test(expectedExceptions = ImportException.class)
+    public void test_importContext_Throws_ImportException_if_a_component_is_written_outside_of_an_entity()
+    throws Exception
+    {
+        templateManager.importContext(context).beginComponent(TestComponentC.class);
+    }
+
+    @Test(expectedExceptions = ImportException.class)
+    public void test_importContext_Throws_ImportException_if_a_property_does_not_exist()
+    throws Exception
+    {
+        final TemplateWriter writer = templateManager.importContext(context);
+
+        writer.beginEntity(UUID.randomUUID());
+        writer.beginComponent(TestComponentC.class);
+        writer.writeInt("fubar", 42);
+    }
+
+    @Test
+    public void test_compileTemplate_Returns_a_plan_which_spawns_entities_with_the_templated_components()
+    {
+        final TestEntityTemplateImpl template = new TestEntityTemplateImpl();
+        final TestComponentTemplateImpl componentTemplate = new TestComponentTemplateImpl();
+
+        componentTemplate.setType(TestComponentC.class);
+        componentTemplate.properties().add(property("primitiveInteger", 42));
+        componentTemplate.properties().add(property("string", "fubar"));
+        template.components().add(componentTemplate);
+
+        final InstantiationPlan plan = templateManager.compileTemplate(context, template);
+        final List<EntityRef> refs = plan.spawn(3);
+
+        assertThat(refs).hasSize(3);
+        assertThat(entityManager.findEntities(context)).containsExactlyInAnyOrder(refs.toArray(new EntityRef[refs.size()]));
+
+        for (EntityRef ref : refs)
+        {
+            final TestComponentC component = componentManager.getComponent(ref, TestComponentC.class);
+
+            assertThat(component.getPrimitiveInteger()).isEqualTo(42);
+            assertThat(component.getString()).isEqualTo("fubar");
+        }
+    }
+
+    @Test(expectedExceptions = ImportException.class)
+    public void test_compileTemplate_Throws_ImportException_if_a_property_does_not_exist()
+    {
+        final TestEntityTemplateImpl template = new TestEntityTemplateImpl();
+        final TestComponentTemplateImpl componentTemplate = new TestComponentTemplateImpl();
+
+        componentTemplate.setType(TestComponentC.class);
+        componentTemplate.properties().add(property("fubar", 42));
+        template.components().add(componentTemplate);
+
+        templateManager.compileTemplate(context, template);
+    }
+
+    private static PropertyTemplate property(String name, Object value)
+    {
+        final TestPropertyTemplateImpl property = new TestPropertyTemplateImpl();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+
+    public static class TestEntityTemplateImpl
+    implements EntityTemplate
+    {
+        private UUID id;
+        private final List<ComponentTemplate> components;
+
+        public TestEntityTemplateImpl()
+        {
+            components = new ArrayList<ComponentTemplate>();
+        }
+
+        @Override
+        public UUID getId()
+        {
+            return id;
+        }
+
+        @Override
+        public void setId(UUID id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public List<ComponentTemplate> components()
+        {
+            return components;
+        }
+    }
+
     public static class TestComponentTemplateImpl
     implements ComponentTemplate
     {